@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.schema;
+
+import java.util.Collection;
+
+/**
+ * Immutable set of the code values permitted for an element. Membership is
+ * tested using the characters of a {@link CharSequence} directly so that the
+ * value being validated need not be converted to a String.
+ */
+public final class CodeList {
+
+    public static final CodeList EMPTY = new CodeList(new String[0]);
+
+    /**
+     * Source of the code list for an element, resolved for a version.
+     */
+    public interface Source {
+        CodeList getCodeList(String version);
+    }
+
+    private final String[] codes;
+    private final int size;
+    /**
+     * Bit <code>n</code> is set when a code of length <code>n</code> is present
+     * (lengths of 63 or more share the last bit).
+     */
+    private final long lengths;
+
+    private CodeList(String[] codes) {
+        this.codes = codes;
+        int count = 0;
+        long lengthBits = 0;
+
+        for (String code : codes) {
+            if (code != null) {
+                count++;
+                lengthBits |= lengthBit(code.length());
+            }
+        }
+
+        this.size = count;
+        this.lengths = lengthBits;
+    }
+
+    public static CodeList of(Collection<String> values) {
+        if (values.isEmpty()) {
+            return EMPTY;
+        }
+
+        int capacity = Integer.highestOneBit(values.size()) << 2;
+        String[] codes = new String[capacity];
+        final int mask = capacity - 1;
+
+        for (String value : values) {
+            int index = spread(value.hashCode()) & mask;
+
+            while (codes[index] != null && !codes[index].equals(value)) {
+                index = (index + 1) & mask;
+            }
+
+            codes[index] = value;
+        }
+
+        return new CodeList(codes);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(CharSequence value) {
+        final int length = value.length();
+
+        if (size == 0 || (lengths & lengthBit(length)) == 0) {
+            return false;
+        }
+
+        int hash = 0;
+
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+
+        final int mask = codes.length - 1;
+        int index = spread(hash) & mask;
+        String code;
+
+        while ((code = codes[index]) != null) {
+            if (matches(code, value, length)) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    static boolean matches(String code, CharSequence value, int length) {
+        if (code.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (code.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static long lengthBit(int length) {
+        return 1L << Math.min(length, 63);
+    }
+
+    static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -21,15 +21,13 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiFunction;
-import java.util.function.Supplier;
 
 import io.xlate.edi.schema.EDISimpleType;
 
 //java:S107 : Constructor has 8 arguments
 //java:S2160 : Intentionally inherit 'equals' from superclass
 @SuppressWarnings({ "java:S107", "java:S2160" })
-class ElementType extends BasicType implements EDISimpleType {
+class ElementType extends BasicType implements EDISimpleType, CodeList.Source {
 
     private static final String TOSTRING_FORMAT = "id: %s, type: %s, base: %s, code: %s, minLength: %d, maxLength: %d, values: %s";
 
@@ -41,6 +39,9 @@ class ElementType extends BasicType implements EDISimpleType {
     final long maxLength;
     final Map<String, String> values;
     final List<Version> versions;
+    final VersionView defaultView;
+    final List<VersionView> versionViews;
+    volatile ResolvedView resolvedView;
 
     static class Version extends VersionedProperty {
         final Optional<Long> minLength;
@@ -67,6 +68,42 @@ class ElementType extends BasicType implements EDISimpleType {
         }
     }
 
+    /**
+     * Attributes of the element resolved for a single version range. Views are
+     * created once for each of the element's versions, plus one for the
+     * default attributes, so that the attributes need not be resolved for each
+     * element validated.
+     */
+    static class VersionView {
+        final long minLength;
+        final long maxLength;
+        final Map<String, String> values;
+        final CodeList codeList;
+
+        VersionView(long minLength, long maxLength, Map<String, String> values) {
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.values = values;
+            this.codeList = CodeList.of(values.keySet());
+        }
+    }
+
+    /**
+     * The view most recently resolved and the version String instance it was
+     * resolved for. The version String given by the reader's dialect is the
+     * same instance for the whole transaction, so the version ranges are only
+     * compared when the transaction version changes.
+     */
+    static class ResolvedView {
+        final String version;
+        final VersionView view;
+
+        ResolvedView(String version, VersionView view) {
+            this.version = version;
+            this.view = view;
+        }
+    }
+
     ElementType(String id, Base base, int scale, String code, int number, long minLength, long maxLength, Map<String, String> values, List<Version> versions, String title, String description) {
         super(id, Type.ELEMENT, title, description);
         this.base = base;
@@ -77,16 +114,43 @@ class ElementType extends BasicType implements EDISimpleType {
         this.maxLength = maxLength;
         this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
         this.versions = Collections.unmodifiableList(new ArrayList<>(versions));
-    }
+        this.defaultView = new VersionView(minLength, maxLength, this.values);
+
+        List<VersionView> views = new ArrayList<>(versions.size());
 
-    <T> T getVersionAttribute(String version, BiFunction<Version, ElementType, T> versionedSupplier, Supplier<T> defaultSupplier) {
         for (Version ver : versions) {
-            if (ver.appliesTo(version)) {
-                return versionedSupplier.apply(ver, this);
+            views.add(new VersionView(ver.getMinLength(this), ver.getMaxLength(this), ver.getValues(this)));
+        }
+
+        this.versionViews = Collections.unmodifiableList(views);
+    }
+
+    //java:S4973 : Version String instances are compared intentionally
+    @SuppressWarnings("java:S4973")
+    VersionView getVersionView(String version) {
+        if (version == null || versionViews.isEmpty()) {
+            return defaultView;
+        }
+
+        final ResolvedView resolved = resolvedView;
+
+        if (resolved != null && resolved.version == version) {
+            return resolved.view;
+        }
+
+        final VersionView view = resolveView(version);
+        resolvedView = new ResolvedView(version, view);
+        return view;
+    }
+
+    VersionView resolveView(String version) {
+        for (int i = 0, m = versions.size(); i < m; i++) {
+            if (versions.get(i).appliesTo(version)) {
+                return versionViews.get(i);
             }
         }
 
-        return defaultSupplier.get();
+        return defaultView;
     }
 
     @Override
@@ -137,7 +201,7 @@ class ElementType extends BasicType implements EDISimpleType {
 
     @Override
     public long getMinLength(String version) {
-        return getVersionAttribute(version, Version::getMinLength, this::getMinLength);
+        return getVersionView(version).minLength;
     }
 
     @Override
@@ -147,7 +211,7 @@ class ElementType extends BasicType implements EDISimpleType {
 
     @Override
     public long getMaxLength(String version) {
-        return getVersionAttribute(version, Version::getMaxLength, this::getMaxLength);
+        return getVersionView(version).maxLength;
     }
 
     @Override
@@ -157,6 +221,11 @@ class ElementType extends BasicType implements EDISimpleType {
 
     @Override
     public Map<String, String> getValues(String version) {
-        return getVersionAttribute(version, Version::getValues, this::getValues);
+        return getVersionView(version).values;
+    }
+
+    @Override
+    public CodeList getCodeList(String version) {
+        return getVersionView(version).codeList;
     }
 }
@@ -18,7 +18,8 @@ package io.xlate.edi.internal.schema;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.StreamSupport;
 
 import io.xlate.edi.schema.EDIComplexType;
@@ -40,7 +41,12 @@ public class StaEDISchema implements Schema {
     public static final String ANY_ELEMENT_ID = ID_PREFIX + "ANY_ELEMENT";
     public static final String ANY_COMPOSITE_ID = ID_PREFIX + "ANY_COMPOSITE";
 
-    private volatile Integer hash = null;
+    /**
+     * Sum of the hash codes of each {@link EDIType} in the schema, computed
+     * when the types are set.
+     */
+    private int hash = 0;
+    private final Map<Class<?>, Object> compiled = new ConcurrentHashMap<>(2);
 
     final String interchangeName;
     final String transactionStandardName;
@@ -60,8 +66,21 @@ public class StaEDISchema implements Schema {
         this(interchangeName, transactionStandardName, null);
     }
 
+    /**
+     * Schemas are equal when each contains equal types. The same instance and
+     * schemas with different numbers of types are detected without visiting
+     * the types; otherwise each type is compared.
+     */
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o instanceof StaEDISchema && types.size() != ((StaEDISchema) o).types.size()) {
+            return false;
+        }
+
         if (o instanceof Schema) {
             Schema other = (Schema) o;
 
@@ -78,15 +97,22 @@ public class StaEDISchema implements Schema {
     }
 
     @Override
-    public synchronized int hashCode() {
-        Integer localHash = hash;
-
-        if (localHash == null) {
-            localHash = hash = StreamSupport.stream(spliterator(), false)
-                                            .collect(Collectors.summingInt(EDIType::hashCode));
-        }
+    public int hashCode() {
+        return hash;
+    }
 
-        return localHash.intValue();
+    /**
+     * Retrieve a structure derived from this schema, for example the usage tree
+     * used by validation. The structure is created by the compiler on first use
+     * and shared by all subsequent callers, so it must not be modified.
+     *
+     * @param <T>      type of the derived structure
+     * @param type     class of the derived structure
+     * @param compiler function to create the structure from this schema
+     * @return the derived structure
+     */
+    public <T> T getCompiled(Class<T> type, Function<Schema, T> compiler) {
+        return type.cast(compiled.computeIfAbsent(type, key -> compiler.apply(this)));
     }
 
     @Override
@@ -118,6 +144,8 @@ public class StaEDISchema implements Schema {
         if (implementationName != null && types.containsKey(implementationName)) {
             this.implementationLoop = (LoopImplementation) types.get(implementationName);
         }
+
+        this.hash = types.values().stream().mapToInt(EDIType::hashCode).sum();
     }
 
     @Override
@@ -5,15 +5,17 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import io.xlate.edi.internal.schema.CodeList;
 import io.xlate.edi.schema.EDIReference;
 import io.xlate.edi.schema.EDISimpleType;
 import io.xlate.edi.schema.implementation.ElementImplementation;
 
-public class ElementImpl extends BaseImpl<EDISimpleType> implements ElementImplementation, Positioned {
+public class ElementImpl extends BaseImpl<EDISimpleType> implements ElementImplementation, Positioned, CodeList.Source {
 
     private static final String TOSTRING_FORMAT = "typeId: %s, minOccurs: %d, maxOccurs: %d, position: %d, values: %s, standard: { %s }";
     private final int position;
     private final Map<String, String> values;
+    private final CodeList codeList;
 
     public ElementImpl(int minOccurs,
             int maxOccurs,
@@ -28,6 +30,7 @@ public class ElementImpl extends BaseImpl<EDISimpleType> implements ElementImple
         super.typeId = typeId;
         this.position = position;
         this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+        this.codeList = CodeList.of(this.values.keySet());
     }
 
     public ElementImpl(EDIReference standardReference, int position) {
@@ -36,6 +39,7 @@ public class ElementImpl extends BaseImpl<EDISimpleType> implements ElementImple
         this.typeId = standard.getId();
         this.position = position;
         this.values = standard.getValues();
+        this.codeList = CodeList.of(this.values.keySet());
     }
 
     @Override
@@ -60,6 +64,12 @@ public class ElementImpl extends BaseImpl<EDISimpleType> implements ElementImple
         return values;
     }
 
+    @Override
+    public CodeList getCodeList(String version) {
+        // Implementation values are not versioned
+        return codeList;
+    }
+
     @Override
     public int getPosition() {
         return position;
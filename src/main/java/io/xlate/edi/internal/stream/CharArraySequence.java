@@ -40,6 +40,26 @@ public class CharArraySequence implements CharSequence, Comparable<CharSequence>
         buffer.put(text, start, length);
     }
 
+    /**
+     * Obtain a view of the characters of this sequence without copying them.
+     * The given buffer is re-used when it wraps the same array as this
+     * sequence. The view's position and limit delimit the sequence within the
+     * array.
+     *
+     * @param buffer a view previously returned by this method, may be null
+     * @return a buffer wrapping the array of this sequence
+     */
+    public CharBuffer view(CharBuffer buffer) {
+        if (buffer == null || buffer.array() != text) {
+            buffer = CharBuffer.wrap(text);
+        }
+
+        buffer.clear();
+        buffer.position(start);
+        buffer.limit(start + length);
+        return buffer;
+    }
+
     @Override
     public int length() {
         return length;
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import io.xlate.edi.schema.Schema;
+import io.xlate.edi.stream.EDIAsyncStreamReader;
+import io.xlate.edi.stream.EDIInputErrorReporter;
+import io.xlate.edi.stream.EDIInputFeeder;
+
+public class StaEDIAsyncStreamReader extends StaEDIStreamReader implements EDIAsyncStreamReader {
+
+    public StaEDIAsyncStreamReader(
+            Charset charset,
+            Schema schema,
+            Map<String, Object> properties,
+            EDIInputErrorReporter reporter) {
+        super(new StaEDIInputFeeder(), charset, schema, properties, reporter);
+    }
+
+    @Override
+    public EDIInputFeeder getInputFeeder() {
+        return getFeeder();
+    }
+}
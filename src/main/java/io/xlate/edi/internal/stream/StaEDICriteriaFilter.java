@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import java.util.Set;
+
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamFilter;
+import io.xlate.edi.stream.EDIStreamFilterCriteria;
+import io.xlate.edi.stream.EDIStreamReader;
+
+/**
+ * Filter applying {@link EDIStreamFilterCriteria} to the events of a single
+ * reader. The filter tracks the reader's current transaction and loops from
+ * the events passed to {@link #accept(EDIStreamReader)}, so every event read
+ * must be given to the filter in order, with the exception of the events
+ * within the segments and transactions the filter has indicated may be
+ * skipped.
+ */
+class StaEDICriteriaFilter implements EDIStreamFilter {
+
+    private final Set<EDIStreamEvent> events;
+    private final Set<String> segments;
+    private final Set<String> loops;
+    private final Set<String> transactionTypes;
+
+    private boolean transactionAccepted;
+    private int loopDepth;
+    private int acceptedLoopDepth = -1;
+
+    StaEDICriteriaFilter(EDIStreamFilterCriteria criteria) {
+        this.events = criteria.getEvents();
+        this.segments = criteria.getSegments();
+        this.loops = criteria.getLoops();
+        this.transactionTypes = criteria.getTransactionTypes();
+    }
+
+    @Override
+    public boolean accept(EDIStreamReader reader) {
+        final EDIStreamEvent event = reader.getEventType();
+        final boolean accepted;
+
+        switch (event) {
+        case START_TRANSACTION:
+            transactionAccepted = !transactionTypes.isEmpty() && transactionTypes.contains(reader.getTransactionType());
+            loopDepth = 0;
+            acceptedLoopDepth = -1;
+            accepted = acceptEvent(event) && acceptContext();
+            break;
+        case END_TRANSACTION:
+            accepted = acceptEvent(event) && acceptContext();
+            transactionAccepted = false;
+            break;
+        case START_LOOP:
+            loopDepth++;
+
+            if (acceptedLoopDepth < 0 && loops.contains(reader.getReferenceCode())) {
+                acceptedLoopDepth = loopDepth;
+            }
+            accepted = acceptEvent(event) && acceptContext();
+            break;
+        case END_LOOP:
+            accepted = acceptEvent(event) && acceptContext();
+            if (loopDepth-- == acceptedLoopDepth) {
+                acceptedLoopDepth = -1;
+            }
+            break;
+        default:
+            accepted = acceptEvent(event) && acceptContext() && acceptSegment(reader, event);
+            break;
+        }
+
+        return accepted;
+    }
+
+    /**
+     * Determine whether any of the events following the START_SEGMENT at
+     * which the reader is positioned, prior to END_SEGMENT, may be accepted.
+     * When none may be accepted, the remainder of the segment can be skipped.
+     *
+     * @param reader
+     *            the reader, positioned at a START_SEGMENT event
+     * @return true if the remainder of the segment can be skipped
+     */
+    boolean isSegmentSkippable(EDIStreamReader reader) {
+        if (!acceptContext() || !acceptSegment(reader, EDIStreamEvent.START_SEGMENT)) {
+            return true;
+        }
+
+        return !events.isEmpty()
+                && !events.contains(EDIStreamEvent.START_COMPOSITE)
+                && !events.contains(EDIStreamEvent.END_COMPOSITE)
+                && !events.contains(EDIStreamEvent.ELEMENT_DATA)
+                && !events.contains(EDIStreamEvent.ELEMENT_DATA_BINARY)
+                && !events.contains(EDIStreamEvent.ELEMENT_DATA_ERROR)
+                && !events.contains(EDIStreamEvent.ELEMENT_OCCURRENCE_ERROR);
+    }
+
+    /**
+     * Determine whether the remainder of the transaction that began with the
+     * START_TRANSACTION event most recently accepted (or rejected) may be
+     * skipped because none of its events may be accepted.
+     *
+     * @return true if the remainder of the transaction can be skipped
+     */
+    boolean isTransactionSkippable() {
+        return !transactionTypes.isEmpty() && !transactionAccepted;
+    }
+
+    boolean acceptEvent(EDIStreamEvent event) {
+        return events.isEmpty() || events.contains(event);
+    }
+
+    boolean acceptContext() {
+        return (transactionTypes.isEmpty() || transactionAccepted) && (loops.isEmpty() || acceptedLoopDepth > 0);
+    }
+
+    boolean acceptSegment(EDIStreamReader reader, EDIStreamEvent event) {
+        if (segments.isEmpty()) {
+            return true;
+        }
+
+        switch (event) {
+        case START_SEGMENT:
+        case END_SEGMENT:
+        case SEGMENT_ERROR:
+        case START_COMPOSITE:
+        case END_COMPOSITE:
+        case ELEMENT_DATA:
+        case ELEMENT_DATA_BINARY:
+        case ELEMENT_DATA_ERROR:
+        case ELEMENT_OCCURRENCE_ERROR:
+            return segments.contains(reader.getLocation().getSegmentTag());
+        default:
+            return true;
+        }
+    }
+}
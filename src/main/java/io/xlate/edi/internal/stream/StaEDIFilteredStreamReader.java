@@ -17,6 +17,7 @@ package io.xlate.edi.internal.stream;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.util.Map;
 
 import io.xlate.edi.schema.EDIReference;
@@ -24,6 +25,7 @@ import io.xlate.edi.schema.Schema;
 import io.xlate.edi.stream.EDIStreamEvent;
 import io.xlate.edi.stream.EDIStreamException;
 import io.xlate.edi.stream.EDIStreamFilter;
+import io.xlate.edi.stream.EDIStreamFilterCriteria;
 import io.xlate.edi.stream.EDIStreamReader;
 import io.xlate.edi.stream.EDIStreamValidationError;
 import io.xlate.edi.stream.Location;
@@ -32,11 +34,19 @@ class StaEDIFilteredStreamReader implements EDIStreamReader {
 
     private final EDIStreamReader delegate;
     private final EDIStreamFilter filter;
+    private final StaEDICriteriaFilter criteriaFilter;
     private EDIStreamEvent peekEvent = null;
 
     public StaEDIFilteredStreamReader(EDIStreamReader delegate, EDIStreamFilter filter) {
         this.delegate = delegate;
         this.filter = filter;
+        this.criteriaFilter = null;
+    }
+
+    public StaEDIFilteredStreamReader(EDIStreamReader delegate, EDIStreamFilterCriteria criteria) {
+        this.delegate = delegate;
+        this.criteriaFilter = new StaEDICriteriaFilter(criteria);
+        this.filter = criteriaFilter;
     }
 
     @Override
@@ -60,7 +70,7 @@ class StaEDIFilteredStreamReader implements EDIStreamReader {
         }
 
         do {
-            event = delegate.next();
+            event = advance(false);
         } while (!filter.accept(delegate));
 
         return event;
@@ -76,7 +86,7 @@ class StaEDIFilteredStreamReader implements EDIStreamReader {
         EDIStreamEvent event;
 
         do {
-            event = delegate.nextTag();
+            event = advance(true);
         } while (!filter.accept(delegate));
 
         return event;
@@ -89,7 +99,7 @@ class StaEDIFilteredStreamReader implements EDIStreamReader {
         }
 
         while (delegate.hasNext()) {
-            EDIStreamEvent event = delegate.next();
+            EDIStreamEvent event = advance(false);
 
             if (filter.accept(delegate)) {
                 peekEvent = event;
@@ -100,6 +110,32 @@ class StaEDIFilteredStreamReader implements EDIStreamReader {
         return false;
     }
 
+    /**
+     * Advance the delegate to its next event. When filtering with criteria,
+     * segments and transactions having no events that could be accepted by the
+     * criteria are skipped by the delegate, avoiding (where possible) the
+     * tokenization of their elements.
+     */
+    EDIStreamEvent advance(boolean tagsOnly) throws EDIStreamException {
+        if (criteriaFilter != null) {
+            EDIStreamEvent current = delegate.getEventType();
+
+            if (current == EDIStreamEvent.START_TRANSACTION && criteriaFilter.isTransactionSkippable()) {
+                return delegate.skipTransaction();
+            }
+
+            if (current == EDIStreamEvent.START_SEGMENT && criteriaFilter.isSegmentSkippable(delegate)) {
+                EDIStreamEvent event = delegate.skipSegment();
+
+                if (!tagsOnly) {
+                    return event;
+                }
+            }
+        }
+
+        return tagsOnly ? delegate.nextTag() : delegate.next();
+    }
+
     @Override
     public void close() throws IOException {
         delegate.close();
@@ -211,6 +247,16 @@ class StaEDIFilteredStreamReader implements EDIStreamReader {
         return delegate.getBinaryData();
     }
 
+    @Override
+    public Reader getTextReader() {
+        return delegate.getTextReader();
+    }
+
+    @Override
+    public boolean isTextStreamed() {
+        return delegate.isTextStreamed();
+    }
+
     @Override
     public EDIReference getSchemaTypeReference() {
         return delegate.getSchemaTypeReference();
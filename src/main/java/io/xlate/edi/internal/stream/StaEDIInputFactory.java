@@ -15,21 +15,36 @@
  ******************************************************************************/
 package io.xlate.edi.internal.stream;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import io.xlate.edi.internal.stream.json.JsonParserFactory;
+import io.xlate.edi.internal.stream.json.StaEDIJsonWriter;
 import io.xlate.edi.schema.Schema;
+import io.xlate.edi.stream.EDIAsyncStreamReader;
 import io.xlate.edi.stream.EDIInputErrorReporter;
 import io.xlate.edi.stream.EDIInputFactory;
 import io.xlate.edi.stream.EDIStreamException;
 import io.xlate.edi.stream.EDIStreamFilter;
+import io.xlate.edi.stream.EDIStreamFilterCriteria;
+import io.xlate.edi.stream.EDIStreamPublisher;
 import io.xlate.edi.stream.EDIStreamReader;
+import io.xlate.edi.stream.EDIStreamSplitter;
+import io.xlate.edi.stream.EDITransaction;
 
 public class StaEDIInputFactory extends EDIInputFactory {
 
@@ -43,6 +58,10 @@ public class StaEDIInputFactory extends EDIInputFactory {
         supportedProperties.add(EDI_NEST_HIERARCHICAL_LOOPS);
         supportedProperties.add(EDI_ENABLE_LOOP_TEXT);
         supportedProperties.add(EDI_TRIM_DISCRIMINATOR_VALUES);
+        supportedProperties.add(EDI_ELEMENT_BUFFER_LIMIT);
+        supportedProperties.add(EDI_STREAM_OVERSIZED_ELEMENTS);
+        supportedProperties.add(EDI_REFERENCE_ELEMENT_TEXT);
+        supportedProperties.add(EDI_SPLITTER_PENDING_UNIT_LIMIT);
 
         supportedProperties.add(XML_DECLARE_TRANSACTION_XMLNS);
         supportedProperties.add(XML_WRAP_TRANSACTION_CONTENTS);
@@ -50,6 +69,7 @@ public class StaEDIInputFactory extends EDIInputFactory {
 
         supportedProperties.add(JSON_NULL_EMPTY_ELEMENTS);
         supportedProperties.add(JSON_OBJECT_ELEMENTS);
+        supportedProperties.add(JSON_ARRAY_REPETITIONS);
     }
 
     @Override
@@ -80,11 +100,142 @@ public class StaEDIInputFactory extends EDIInputFactory {
         throw new EDIStreamException("Unsupported encoding: " + encoding);
     }
 
+    @Override
+    public EDIStreamReader createEDIStreamReader(FileChannel channel) throws EDIStreamException {
+        return createEDIStreamReader(channel, StandardCharsets.UTF_8, null, null);
+    }
+
+    @Override
+    public EDIStreamReader createEDIStreamReader(FileChannel channel, String encoding, Schema schema) throws EDIStreamException {
+        Objects.requireNonNull(channel, "channel must not be null");
+        return createEDIStreamReader(channel, charset(encoding), schema, null);
+    }
+
+    @Override
+    public EDIStreamReader createEDIStreamReader(Path path) throws EDIStreamException {
+        return createEDIStreamReader(path, StandardCharsets.UTF_8, null);
+    }
+
+    @Override
+    public EDIStreamReader createEDIStreamReader(Path path, String encoding, Schema schema) throws EDIStreamException {
+        Objects.requireNonNull(path, "path must not be null");
+        return createEDIStreamReader(path, charset(encoding), schema);
+    }
+
+    @SuppressWarnings("resource")
+    EDIStreamReader createEDIStreamReader(Path path, Charset charset, Schema schema) throws EDIStreamException {
+        final FileChannel channel;
+
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw streamException("Unable to open file: " + path, e);
+        }
+
+        try {
+            return createEDIStreamReader(channel, charset, schema, channel);
+        } catch (EDIStreamException e) {
+            try {
+                channel.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    EDIStreamReader createEDIStreamReader(FileChannel channel, Charset charset, Schema schema, FileChannel ownedChannel) throws EDIStreamException {
+        try {
+            return new StaEDIStreamReader(channel, charset, schema, properties, getErrorReporter(), ownedChannel);
+        } catch (IOException e) {
+            throw streamException("Unable to map file channel", e);
+        }
+    }
+
+    static EDIStreamException streamException(String message, IOException cause) {
+        EDIStreamException exception = new EDIStreamException(message);
+        exception.initCause(cause);
+        return exception;
+    }
+
+    static Charset charset(String encoding) throws EDIStreamException {
+        if (Charset.isSupported(encoding)) {
+            return Charset.forName(encoding);
+        }
+
+        throw new EDIStreamException("Unsupported encoding: " + encoding);
+    }
+
+    @Override
+    public EDIAsyncStreamReader createAsyncEDIStreamReader() {
+        return new StaEDIAsyncStreamReader(StandardCharsets.UTF_8, null, properties, getErrorReporter());
+    }
+
+    @Override
+    public EDIAsyncStreamReader createAsyncEDIStreamReader(String encoding, Schema schema) throws EDIStreamException {
+        return new StaEDIAsyncStreamReader(charset(encoding), schema, properties, getErrorReporter());
+    }
+
+    @Override
+    public EDIStreamSplitter createEDIStreamSplitter(InputStream stream, EDIStreamSplitter.Unit unit) {
+        return createEDIStreamSplitter(stream, StandardCharsets.UTF_8, unit);
+    }
+
+    @Override
+    public EDIStreamSplitter createEDIStreamSplitter(InputStream stream, String encoding, EDIStreamSplitter.Unit unit) throws EDIStreamException {
+        final Charset charset = charset(encoding);
+
+        if (!StaEDIStreamSplitter.isSupported(charset)) {
+            throw new EDIStreamException("Unsupported encoding for splitting: " + encoding);
+        }
+
+        return createEDIStreamSplitter(stream, charset, unit);
+    }
+
+    EDIStreamSplitter createEDIStreamSplitter(InputStream stream, Charset charset, EDIStreamSplitter.Unit unit) {
+        final Map<String, Object> readerProperties = new HashMap<>(properties);
+        final EDIInputErrorReporter readerReporter = getErrorReporter();
+        final Object pendingUnitLimit = properties.get(EDI_SPLITTER_PENDING_UNIT_LIMIT);
+
+        return new StaEDIStreamSplitter(stream,
+                                        charset,
+                                        unit,
+                                        data -> new StaEDIStreamReader(data, charset, null, readerProperties, readerReporter),
+                                        pendingUnitLimit != null
+                                            ? Integer.parseInt(pendingUnitLimit.toString())
+                                            : StaEDIStreamSplitter.DEFAULT_PENDING_UNIT_LIMIT);
+    }
+
+    @Override
+    public <T> EDIStreamPublisher<T> createEDIStreamPublisher(EDIStreamReader reader,
+                                                              EDIStreamPublisher.Unit unit,
+                                                              EDIStreamPublisher.ItemReader<T> itemReader) {
+        return createEDIStreamPublisher(reader, unit, itemReader, Runnable::run);
+    }
+
+    @Override
+    public <T> EDIStreamPublisher<T> createEDIStreamPublisher(EDIStreamReader reader,
+                                                              EDIStreamPublisher.Unit unit,
+                                                              EDIStreamPublisher.ItemReader<T> itemReader,
+                                                              Executor executor) {
+        return new StaEDIStreamPublisher<>(reader, unit, itemReader, executor);
+    }
+
+    @Override
+    public EDITransaction readTransaction(EDIStreamReader reader) throws EDIStreamException {
+        return StaEDITransaction.read(reader);
+    }
+
     @Override
     public EDIStreamReader createFilteredReader(EDIStreamReader reader, EDIStreamFilter filter) {
         return new StaEDIFilteredStreamReader(reader, filter);
     }
 
+    @Override
+    public EDIStreamReader createFilteredReader(EDIStreamReader reader, EDIStreamFilterCriteria criteria) {
+        return new StaEDIFilteredStreamReader(reader, criteria);
+    }
+
     @Override
     public XMLStreamReader createXMLStreamReader(EDIStreamReader reader) throws XMLStreamException {
         return new StaEDIXMLStreamReader(reader, properties);
@@ -95,6 +246,16 @@ public class StaEDIInputFactory extends EDIInputFactory {
         return JsonParserFactory.createJsonParser(reader, type, properties);
     }
 
+    @Override
+    public void writeJson(EDIStreamReader reader, OutputStream output) throws EDIStreamException {
+        StaEDIJsonWriter.write(reader, properties, output);
+    }
+
+    @Override
+    public void writeJson(EDIStreamReader reader, Writer output) throws EDIStreamException {
+        StaEDIJsonWriter.write(reader, properties, output);
+    }
+
     @Override
     public EDIInputErrorReporter getErrorReporter() {
         return reporter;
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import io.xlate.edi.stream.EDIInputFeeder;
+
+/**
+ * Queue of input chunks fed to an asynchronous reader. The chunks are
+ * consumed by the reader's lexer through {@link #getInputStream()}, which
+ * returns -1 (rather than blocking) whenever the queue is empty. The lexer's
+ * input buffer continues to read from the stream after -1 is returned, so
+ * that chunks fed later are consumed in turn.
+ */
+class StaEDIInputFeeder implements EDIInputFeeder {
+
+    private final Deque<ByteBuffer> chunks = new ArrayDeque<>();
+    private boolean endOfInput = false;
+    /**
+     * The reader has consumed all input read from this feeder, including any
+     * held in its lexer's buffer, and requires more input to produce further
+     * events. Cleared when the reader reads input from the feeder.
+     */
+    private boolean inputConsumed = true;
+
+    private final InputStream input = new InputStream() {
+        @Override
+        public int read() {
+            ByteBuffer chunk = nextChunk();
+
+            if (chunk == null) {
+                return -1;
+            }
+
+            inputConsumed = false;
+            return chunk.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+
+            ByteBuffer chunk = nextChunk();
+
+            if (chunk == null) {
+                return -1;
+            }
+
+            final int count = Math.min(len, chunk.remaining());
+            chunk.get(b, off, count);
+            inputConsumed = false;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            int available = 0;
+
+            for (ByteBuffer chunk : chunks) {
+                available += chunk.remaining();
+            }
+
+            return available;
+        }
+    };
+
+    InputStream getInputStream() {
+        return input;
+    }
+
+    /**
+     * Signal that the reader requires more input than it has read from this
+     * feeder to produce further events.
+     */
+    void setInputConsumed() {
+        inputConsumed = true;
+    }
+
+    ByteBuffer nextChunk() {
+        ByteBuffer chunk;
+
+        while ((chunk = chunks.peekFirst()) != null && !chunk.hasRemaining()) {
+            chunks.removeFirst();
+        }
+
+        return chunk;
+    }
+
+    @Override
+    public void feedInput(byte[] data, int offset, int length) {
+        ensureInputAccepted();
+
+        if (length > 0) {
+            byte[] copy = new byte[length];
+            System.arraycopy(data, offset, copy, 0, length);
+            chunks.addLast(ByteBuffer.wrap(copy));
+        }
+    }
+
+    @Override
+    public void feedInput(ByteBuffer data) {
+        ensureInputAccepted();
+
+        if (data.hasRemaining()) {
+            ByteBuffer copy = ByteBuffer.allocate(data.remaining());
+            copy.put(data);
+            copy.flip();
+            chunks.addLast(copy);
+        }
+    }
+
+    void ensureInputAccepted() {
+        if (endOfInput) {
+            throw new IllegalStateException("Input fed after end of input");
+        }
+    }
+
+    @Override
+    public void endOfInput() {
+        this.endOfInput = true;
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return endOfInput;
+    }
+
+    @Override
+    public boolean needsInput() {
+        return !endOfInput && inputConsumed && nextChunk() == null;
+    }
+}
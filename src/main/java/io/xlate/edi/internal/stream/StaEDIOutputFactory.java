@@ -21,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 
 import javax.xml.stream.XMLStreamWriter;
 
+import io.xlate.edi.internal.stream.json.StaEDIJsonReader;
 import io.xlate.edi.stream.EDIOutputErrorReporter;
 import io.xlate.edi.stream.EDIOutputFactory;
 import io.xlate.edi.stream.EDIStreamConstants;
@@ -63,6 +64,11 @@ public class StaEDIOutputFactory extends EDIOutputFactory {
         return new StaEDIXMLStreamWriter(writer);
     }
 
+    @Override
+    public <J> void readJson(J parser, Class<J> type, EDIStreamWriter writer) throws EDIStreamException {
+        StaEDIJsonReader.read(parser, type, writer);
+    }
+
     @Override
     public EDIOutputErrorReporter getErrorReporter() {
         return this.reporter;
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamPublisher;
+import io.xlate.edi.stream.EDIStreamReader;
+
+/**
+ * Publisher that reads items from the reader only while the subscriber has
+ * outstanding demand. Items are emitted by a drain loop that is run via the
+ * executor by whichever thread first signals demand while the loop is not
+ * running. Demand signaled while the loop runs (including from within
+ * {@link EDIStreamPublisher.Subscriber#onNext(Object) onNext}) is picked up by
+ * the running loop rather than starting another, so that the reader is never
+ * used concurrently and calls to the subscriber are not nested.
+ */
+public class StaEDIStreamPublisher<T> implements EDIStreamPublisher<T> {
+
+    private final EDIStreamReader reader;
+    private final EDIStreamEvent startEvent;
+    private final EDIStreamEvent endEvent;
+    private final ItemReader<T> itemReader;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public StaEDIStreamPublisher(EDIStreamReader reader, Unit unit, ItemReader<T> itemReader, Executor executor) {
+        this.reader = Objects.requireNonNull(reader, "reader must not be null");
+        this.itemReader = Objects.requireNonNull(itemReader, "itemReader must not be null");
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+
+        switch (Objects.requireNonNull(unit, "unit must not be null")) {
+        case TRANSACTION:
+            startEvent = EDIStreamEvent.START_TRANSACTION;
+            endEvent = EDIStreamEvent.END_TRANSACTION;
+            break;
+        default:
+            startEvent = EDIStreamEvent.START_SEGMENT;
+            endEvent = EDIStreamEvent.END_SEGMENT;
+            break;
+        }
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber must not be null");
+
+        if (subscribed.compareAndSet(false, true)) {
+            ItemSubscription subscription = new ItemSubscription(subscriber);
+            subscriber.onSubscribe(subscription);
+        } else {
+            subscriber.onSubscribe(CANCELLED);
+            subscriber.onError(new IllegalStateException("Publisher supports a single subscriber"));
+        }
+    }
+
+    static final Subscription CANCELLED = new Subscription() {
+        @Override
+        public void request(long n) {
+            // Nothing will be published
+        }
+
+        @Override
+        public void cancel() {
+            // Nothing will be published
+        }
+    };
+
+    class ItemSubscription implements Subscription {
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Runnable drain = this::drain;
+        private volatile Subscriber<? super T> subscriber;
+        private volatile boolean cancelled;
+        /**
+         * Error from an invalid request, delivered by the drain loop.
+         */
+        private volatile Throwable requestError;
+
+        ItemSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n < 1) {
+                requestError = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> {
+                    long total = current + added;
+                    return total < 0 ? Long.MAX_VALUE : total;
+                });
+            }
+
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(drain);
+            }
+        }
+
+        void drain() {
+            int missed = 1;
+
+            do {
+                long demand = requested.get();
+                long emitted = 0;
+
+                while (!isTerminated()) {
+                    if (requestError != null) {
+                        terminate(requestError);
+                    } else if (emitted == demand) {
+                        break;
+                    } else {
+                        emit();
+                        emitted++;
+                    }
+                }
+
+                if (emitted > 0) {
+                    requested.addAndGet(-emitted);
+                }
+
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        boolean isTerminated() {
+            if (cancelled) {
+                // Release the subscriber
+                subscriber = null;
+            }
+            return subscriber == null;
+        }
+
+        void emit() {
+            final Subscriber<? super T> target = subscriber;
+            final T item;
+
+            try {
+                if (!nextUnit()) {
+                    subscriber = null;
+                    target.onComplete();
+                    return;
+                }
+
+                item = itemReader.read(reader);
+                Objects.requireNonNull(item, "ItemReader returned null");
+                skipRemaining();
+            } catch (Exception e) {
+                terminate(e);
+                return;
+            }
+
+            target.onNext(item);
+        }
+
+        void terminate(Throwable error) {
+            final Subscriber<? super T> target = subscriber;
+            subscriber = null;
+            target.onError(error);
+        }
+
+        /**
+         * Advance the reader to the start of the next unit.
+         *
+         * @return true if the reader is positioned at the start of a unit,
+         *         false if the reader has no further events
+         */
+        boolean nextUnit() throws Exception {
+            while (reader.hasNext()) {
+                if (reader.next() == startEvent) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        void skipRemaining() throws Exception {
+            while (reader.getEventType() != endEvent) {
+                reader.next();
+            }
+        }
+    }
+}
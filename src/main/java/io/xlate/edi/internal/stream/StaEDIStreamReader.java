@@ -15,9 +15,13 @@
  ******************************************************************************/
 package io.xlate.edi.internal.stream;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.CharArrayReader;
 import java.io.InputStream;
+import java.io.Reader;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Collections;
@@ -58,6 +62,23 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
     private final StaEDIStreamLocation location = new StaEDIStreamLocation();
     private final ProxyEventHandler proxy;
     private final Lexer lexer;
+    /**
+     * Input opened on behalf of the application, closed with the reader.
+     */
+    private final Closeable ownedInput;
+
+    private final boolean textReferenced;
+
+    /**
+     * Source of input for asynchronous readers, otherwise null.
+     */
+    private final StaEDIInputFeeder feeder;
+    /**
+     * For asynchronous readers, whether the first event in the queue has
+     * already been returned by {@link #next()}. The current event is retained
+     * in the queue while input is parsed ahead of the application.
+     */
+    private boolean eventCurrent = false;
 
     private boolean complete = false;
     private boolean closed = false;
@@ -73,8 +94,70 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
         this.controlSchema = schema;
         this.properties = new HashMap<>(properties);
         this.reporter = reporter;
+        this.ownedInput = null;
+        this.feeder = null;
         this.proxy = new ProxyEventHandler(location, controlSchema, nestHierarchicalLoops(), this);
-        this.lexer = new Lexer(stream, charset, proxy, location, ignoreExtraneousCharacters());
+        this.lexer = new Lexer(stream, charset, proxy, proxy.getSegmentTags(), location, ignoreExtraneousCharacters());
+        this.textReferenced = referenceElementText();
+        configureLexer();
+    }
+
+    /**
+     * Create a reader over a memory mapping of the channel's content, starting
+     * at the channel's current position.
+     *
+     * @param channel    the channel to read
+     * @param ownedInput when not null, closed when the reader is closed
+     */
+    @SuppressWarnings("java:S107")
+    public StaEDIStreamReader(
+            FileChannel channel,
+            Charset charset,
+            Schema schema,
+            Map<String, Object> properties,
+            EDIInputErrorReporter reporter,
+            Closeable ownedInput) throws IOException {
+
+        this.controlSchema = schema;
+        this.properties = new HashMap<>(properties);
+        this.reporter = reporter;
+        this.ownedInput = ownedInput;
+        this.feeder = null;
+        this.proxy = new ProxyEventHandler(location, controlSchema, nestHierarchicalLoops(), this);
+        this.lexer = new Lexer(channel, charset, proxy, proxy.getSegmentTags(), location, ignoreExtraneousCharacters());
+        this.textReferenced = referenceElementText();
+        configureLexer();
+    }
+
+    /**
+     * Create an asynchronous reader of the input supplied by the feeder.
+     *
+     * @param feeder the source of the reader's input
+     */
+    StaEDIStreamReader(
+            StaEDIInputFeeder feeder,
+            Charset charset,
+            Schema schema,
+            Map<String, Object> properties,
+            EDIInputErrorReporter reporter) {
+
+        this.controlSchema = schema;
+        this.properties = new HashMap<>(properties);
+        this.reporter = reporter;
+        this.ownedInput = null;
+        this.feeder = feeder;
+        this.proxy = new ProxyEventHandler(location, controlSchema, nestHierarchicalLoops(), this);
+        this.lexer = new Lexer(feeder.getInputStream(), feeder::isEndOfInput, charset, proxy, proxy.getSegmentTags(), location, ignoreExtraneousCharacters());
+        // Referenced text would be retained until the queue drains, which never occurs while the current event is held
+        this.textReferenced = false;
+        configureLexer();
+    }
+
+    private void configureLexer() {
+        // An oversized element read from incomplete asynchronous input could not be completed
+        lexer.setElementLimit(elementBufferLimit(), feeder == null && streamOversizedElements());
+        lexer.setTextRetained(textReferenced);
+        proxy.setTextReferenced(textReferenced);
     }
 
     private void ensureOpen() {
@@ -207,7 +290,7 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
     }
 
     private void maybeMarkComplete(EDIStreamEvent event) throws EDIStreamException {
-        if (event == EDIStreamEvent.END_INTERCHANGE) {
+        if (event == EDIStreamEvent.END_INTERCHANGE && feeder == null) {
             executeTask(() -> complete = !proxy.hasNext() && !lexer.hasRemaining(), "Error reading input");
         }
     }
@@ -226,6 +309,11 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
     private EDIStreamEvent nextEvent() throws EDIStreamException {
         ensureOpen();
         ensureIncomplete();
+
+        if (feeder != null) {
+            return nextAvailableEvent();
+        }
+
         maybeSetControlSchema();
 
         boolean noNextEvent = !proxy.nextEvent();
@@ -233,6 +321,11 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
         if (noNextEvent || proxy.additionalEventsRequired()) {
             if (noNextEvent) {
                 proxy.resetEvents();
+
+                if (textReferenced) {
+                    // No events referencing the lexer's characters remain
+                    lexer.releaseText();
+                }
             }
 
             do {
@@ -249,11 +342,117 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
         return event;
     }
 
+    private EDIStreamEvent nextAvailableEvent() throws EDIStreamException {
+        if (proxy.peekNextEvent(eventCurrent) == null) {
+            throw new NoSuchElementException("Additional input required");
+        }
+
+        if (eventCurrent) {
+            maybeSetControlSchema();
+            proxy.nextEvent();
+        } else {
+            eventCurrent = true;
+        }
+
+        final EDIStreamEvent event = proxy.getEvent();
+        LOGGER.finer(() -> "EDI event: " + event + (event.isError() ? "; error type: " + proxy.getErrorType(): ""));
+
+        maybeSetBinaryDataLength(event);
+
+        return event;
+    }
+
+    /**
+     * Parse the input fed to an asynchronous reader until an event is ready to
+     * be returned by {@link #next()}. Errors are given to the error reporter
+     * as they are reached so that the reporter is not called from
+     * {@link #next()} when no further event is available.
+     *
+     * @return true if an event is ready, false if more input is required or
+     *         the reader is complete
+     * @throws EDIStreamException when the input is not valid
+     */
+    private boolean nextEventAvailable() throws EDIStreamException {
+        EDIStreamEvent next;
+
+        while (!complete) {
+            if ((next = proxy.peekNextEvent(eventCurrent)) == null) {
+                if (!parseAvailableInput()) {
+                    return false;
+                }
+            } else if (reporter != null && next.isError()) {
+                nextAvailableEvent();
+                reporter.report(getErrorType(), this);
+            } else {
+                return next != EDIStreamEvent.ELEMENT_DATA_BINARY || isBinaryDataBuffered();
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Binary data is read from the input when the application reads the
+     * stream, so the event is held until all the data has been fed (or the
+     * input has ended).
+     */
+    private boolean isBinaryDataBuffered() throws EDIStreamException {
+        final boolean[] buffered = { false };
+        executeTask(() -> buffered[0] = lexer.isBinaryDataBuffered(), "Error reading binary data");
+
+        if (!buffered[0]) {
+            feeder.setInputConsumed();
+        }
+
+        return buffered[0] || feeder.isEndOfInput();
+    }
+
+    private boolean parseAvailableInput() throws EDIStreamException {
+        if (eventCurrent) {
+            maybeSetControlSchema();
+        }
+
+        final boolean[] parsed = { false };
+        executeTask(() -> parsed[0] = lexer.parseAvailable(), "Error parsing input");
+
+        if (!parsed[0]) {
+            feeder.setInputConsumed();
+        }
+
+        if (!parsed[0] && feeder.isEndOfInput()) {
+            if (eventCurrent && proxy.getEvent() == EDIStreamEvent.END_INTERCHANGE && lexer.isBetweenInterchanges()) {
+                complete = true;
+            } else {
+                // Input ended within an interchange
+                executeTask(lexer::parse, "Error parsing input");
+            }
+        }
+
+        return parsed[0];
+    }
+
+    /**
+     * Get the feeder used to supply the input of an asynchronous reader.
+     *
+     * @return the feeder, or null when the reader is not asynchronous
+     */
+    StaEDIInputFeeder getFeeder() {
+        return feeder;
+    }
+
     @Override
     public EDIStreamEvent next() throws EDIStreamException {
         EDIStreamEvent event = null;
         boolean eventFound = false;
 
+        if (feeder != null) {
+            ensureOpen();
+
+            if (!nextEventAvailable()) {
+                throw new NoSuchElementException(complete ? "Reader is complete" : "Additional input required");
+            }
+        }
+
         do {
             event = nextEvent();
 
@@ -267,6 +466,34 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
         return event;
     }
 
+    /**
+     * Skip the elements of the current segment in the lexer, without producing
+     * element events, when the segment has just started and its elements are
+     * not needed to validate the control structure. Otherwise, the remaining
+     * events of the segment are read and discarded.
+     */
+    @Override
+    public EDIStreamEvent skipSegment() throws EDIStreamException {
+        ensureOpen();
+
+        if (feeder == null && !complete && proxy.getEvent() == EDIStreamEvent.START_SEGMENT && proxy.isSegmentSkippable()) {
+            final boolean[] skipped = { false };
+            executeTask(() -> skipped[0] = lexer.skipSegment(), "Error skipping segment");
+
+            if (skipped[0]) {
+                EDIStreamEvent event;
+
+                do {
+                    event = next();
+                } while (event != EDIStreamEvent.END_SEGMENT);
+
+                return event;
+            }
+        }
+
+        return EDIStreamReader.super.skipSegment();
+    }
+
     @Override
     public EDIStreamEvent nextTag() throws EDIStreamException {
         EDIStreamEvent event = null;
@@ -296,13 +523,22 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
     @Override
     public boolean hasNext() throws EDIStreamException {
         ensureOpen();
+
+        if (feeder != null) {
+            return nextEventAvailable();
+        }
+
         return !complete;
     }
 
     @Override
     public void close() throws IOException {
         this.closed = true;
-        // Do not close the stream
+
+        if (ownedInput != null) {
+            ownedInput.close();
+        }
+        // Otherwise, do not close the stream
     }
 
     @Override
@@ -397,6 +633,9 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
         if (!hasText()) {
             throw new IllegalStateException("not a valid text state [" + getEventType() + ']');
         }
+        if (getEventType() == EDIStreamEvent.ELEMENT_DATA && proxy.getTextStream() != null) {
+            throw new IllegalStateException("element text is streamed, use getTextReader");
+        }
     }
 
     @Override
@@ -436,6 +675,12 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
     @Override
     public char[] getTextCharacters() {
         final CharBuffer buffer = getBuffer();
+
+        if (textReferenced) {
+            // Text is located in the array by getTextStart/getTextLength
+            return buffer.array();
+        }
+
         return Arrays.copyOf(buffer.array(), buffer.length());
     }
 
@@ -474,7 +719,7 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
         }
 
         int toCopy = Math.min(count - sourceStart, length);
-        System.arraycopy(contents, sourceStart, target, targetStart, toCopy);
+        System.arraycopy(contents, buffer.position() + sourceStart, target, targetStart, toCopy);
 
         return toCopy;
     }
@@ -488,7 +733,7 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
     @Override
     public int getTextLength() {
         final CharBuffer buffer = getBuffer();
-        return buffer.limit();
+        return buffer.remaining();
     }
 
     @Override
@@ -514,6 +759,27 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
         return proxy.getBinary();
     }
 
+    @Override
+    public Reader getTextReader() {
+        ensureOpen();
+        requireEvent("not element data", EDIStreamEvent.ELEMENT_DATA);
+        Reader stream = proxy.getTextStream();
+
+        if (stream != null) {
+            return stream;
+        }
+
+        CharBuffer buffer = getBuffer();
+        return new CharArrayReader(buffer.array(), buffer.position(), buffer.remaining());
+    }
+
+    @Override
+    public boolean isTextStreamed() {
+        ensureOpen();
+        requireEvent("not element data", EDIStreamEvent.ELEMENT_DATA);
+        return proxy.getTextStream() != null;
+    }
+
     @Override
     public EDIReference getSchemaTypeReference() {
         return proxy.getSchemaTypeReference();
@@ -538,6 +804,18 @@ public class StaEDIStreamReader implements EDIStreamReader, Configurable, Valida
         return getProperty(EDIInputFactory.EDI_IGNORE_EXTRANEOUS_CHARACTERS, Boolean::parseBoolean, false);
     }
 
+    int elementBufferLimit() {
+        return getProperty(EDIInputFactory.EDI_ELEMENT_BUFFER_LIMIT, Integer::parseInt, Integer.MAX_VALUE);
+    }
+
+    boolean streamOversizedElements() {
+        return getProperty(EDIInputFactory.EDI_STREAM_OVERSIZED_ELEMENTS, Boolean::parseBoolean, false);
+    }
+
+    boolean referenceElementText() {
+        return getProperty(EDIInputFactory.EDI_REFERENCE_ELEMENT_TEXT, Boolean::parseBoolean, false);
+    }
+
     boolean nestHierarchicalLoops() {
         return getProperty(EDIInputFactory.EDI_NEST_HIERARCHICAL_LOOPS, Boolean::parseBoolean, true);
     }
@@ -0,0 +1,581 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIStreamReader;
+import io.xlate.edi.stream.EDIStreamSplitter;
+import io.xlate.edi.stream.EDIStreamValidationError;
+import io.xlate.edi.stream.EDIValidationException;
+
+public class StaEDIStreamSplitter implements EDIStreamSplitter {
+
+    static final int ISA_LENGTH = 106;
+    static final int UNA_LENGTH = 9;
+    static final int DEFAULT_PENDING_UNIT_LIMIT = 64;
+
+    /**
+     * Receives the data of each unit as it is found.
+     */
+    @FunctionalInterface
+    interface UnitSubmitter {
+        void submit(byte[] data) throws EDIStreamException;
+    }
+
+    /**
+     * Tags of the envelope segments of a dialect. The count and control
+     * reference of a trailer are its first and second elements.
+     */
+    static class Envelope {
+        final String interchangeHeader;
+        final String interchangeTrailer;
+        final String groupHeader;
+        final String groupTrailer;
+        final String transactionHeader;
+        final String transactionTrailer;
+        final int interchangeReference;
+        final int groupReference;
+
+        @SuppressWarnings("java:S107")
+        Envelope(String interchangeHeader,
+                String interchangeTrailer,
+                String groupHeader,
+                String groupTrailer,
+                String transactionHeader,
+                String transactionTrailer,
+                int interchangeReference,
+                int groupReference) {
+            this.interchangeHeader = interchangeHeader;
+            this.interchangeTrailer = interchangeTrailer;
+            this.groupHeader = groupHeader;
+            this.groupTrailer = groupTrailer;
+            this.transactionHeader = transactionHeader;
+            this.transactionTrailer = transactionTrailer;
+            this.interchangeReference = interchangeReference;
+            this.groupReference = groupReference;
+        }
+    }
+
+    static final Envelope X12 = new Envelope("ISA", "IEA", "GS", "GE", "ST", "SE", 13, 6);
+    static final Envelope EDIFACT = new Envelope("UNB", "UNZ", "UNG", "UNE", "UNH", "UNT", 5, 5);
+
+    private final InputStream stream;
+    private final Charset charset;
+    private final Unit unit;
+    private final Function<InputStream, EDIStreamReader> readerFactory;
+    /**
+     * Limits the units read from the input but not yet processed by a task.
+     */
+    private final Semaphore pendingUnits;
+
+    private final byte[] input = new byte[8192];
+    private int inputPosition = 0;
+    private int inputLimit = 0;
+
+    private byte[] segment = new byte[256];
+    private int segmentLength = 0;
+    /**
+     * Offset in the segment buffer of the first byte of the current segment.
+     * Non-zero only for a UNB preceded by a UNA.
+     */
+    private int segmentStart = 0;
+
+    private Envelope envelope;
+    private int elementSeparator;
+    private int segmentTerminator;
+    private int releaseCharacter;
+
+    private final StaEDIStreamLocation location = new StaEDIStreamLocation();
+    private EDIValidationException controlErrors;
+
+    public StaEDIStreamSplitter(InputStream stream,
+            Charset charset,
+            Unit unit,
+            Function<InputStream, EDIStreamReader> readerFactory) {
+        this(stream, charset, unit, readerFactory, DEFAULT_PENDING_UNIT_LIMIT);
+    }
+
+    public StaEDIStreamSplitter(InputStream stream,
+            Charset charset,
+            Unit unit,
+            Function<InputStream, EDIStreamReader> readerFactory,
+            int pendingUnitLimit) {
+        this.stream = Objects.requireNonNull(stream, "stream must not be null");
+        this.charset = charset;
+        this.unit = Objects.requireNonNull(unit, "unit must not be null");
+        this.readerFactory = readerFactory;
+
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("Encoding does not represent delimiters with single bytes: " + charset);
+        }
+        if (pendingUnitLimit < 1) {
+            throw new IllegalArgumentException("Pending unit limit must be positive: " + pendingUnitLimit);
+        }
+
+        this.pendingUnits = new Semaphore(pendingUnitLimit);
+    }
+
+    /**
+     * Determine whether the envelope segments may be found by scanning input
+     * in the charset byte by byte, i.e. every ASCII character is encoded as
+     * the same single byte and no byte of a multi-byte character may be
+     * mistaken for an ASCII delimiter. Single-byte ASCII-compatible charsets
+     * and UTF-8 meet these requirements.
+     *
+     * @param charset the charset of the input
+     * @return true if the input may be split, otherwise false
+     */
+    static boolean isSupported(Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return true;
+        }
+
+        if (!charset.canEncode()) {
+            return false;
+        }
+
+        final CharsetEncoder encoder = charset.newEncoder();
+
+        if (encoder.maxBytesPerChar() > 1) {
+            return false;
+        }
+
+        final byte[] ascii = new byte[0x80];
+
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (byte) i;
+        }
+
+        final String text = new String(ascii, StandardCharsets.US_ASCII);
+        return encoder.canEncode(text) && Arrays.equals(ascii, text.getBytes(charset));
+    }
+
+    @Override
+    public <R> void submit(Executor executor, Task<R> task, Consumer<? super CompletableFuture<R>> consumer) throws EDIStreamException {
+        Objects.requireNonNull(executor, "executor must not be null");
+        Objects.requireNonNull(task, "task must not be null");
+        Objects.requireNonNull(consumer, "consumer must not be null");
+
+        final UnitSubmitter submitter = data -> consumer.accept(submitUnit(executor, task, data));
+
+        try {
+            while (readInterchangeHeader()) {
+                if (unit == Unit.INTERCHANGE) {
+                    scanInterchange(submitter);
+                } else {
+                    scanTransactions(submitter);
+                }
+            }
+        } catch (IOException e) {
+            throw new EDIStreamException("Exception reading input stream", location, e);
+        }
+    }
+
+    @Override
+    public EDIValidationException getControlErrors() {
+        return controlErrors;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    /**
+     * Submit the unit's task to the executor, first waiting for the number of
+     * units pending to fall below the limit. Units are not read from the input
+     * while waiting, so that the memory used by units read faster than they
+     * are processed is bounded.
+     */
+    <R> CompletableFuture<R> submitUnit(Executor executor, Task<R> task, byte[] data) throws EDIStreamException {
+        try {
+            pendingUnits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EDIStreamException("Interrupted waiting to submit unit", location, e);
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return process(task, data);
+                } finally {
+                    pendingUnits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            pendingUnits.release();
+            throw e;
+        }
+    }
+
+    <R> R process(Task<R> task, byte[] data) {
+        try (EDIStreamReader reader = readerFactory.apply(new ByteArrayInputStream(data))) {
+            return task.process(reader);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    void scanInterchange(UnitSubmitter submitter) throws IOException, EDIStreamException {
+        ByteArrayOutputStream interchange = new ByteArrayOutputStream();
+        interchange.write(segment, 0, segmentLength);
+
+        do {
+            requireSegment();
+            interchange.write(segment, 0, segmentLength);
+        } while (!isTag(envelope.interchangeTrailer));
+
+        submitter.submit(interchange.toByteArray());
+    }
+
+    void scanTransactions(UnitSubmitter submitter) throws IOException, EDIStreamException {
+        final byte[] interchangeHeader = Arrays.copyOf(segment, segmentLength);
+        final String interchangeReference = getElement(envelope.interchangeReference);
+        final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        final UnitWriter writer = new UnitWriter(submitter, interchangeHeader, interchangeReference, pending);
+
+        boolean inTransaction = false;
+        int groupCount = 0;
+        int transactionCount = 0;
+
+        for (;;) {
+            requireSegment();
+
+            if (inTransaction) {
+                pending.write(segment, 0, segmentLength);
+
+                if (isTag(envelope.transactionTrailer)) {
+                    writer.submit(true);
+                    inTransaction = false;
+                }
+            } else if (isTag(envelope.transactionHeader)) {
+                writer.submit(false);
+                pending.write(segment, 0, segmentLength);
+                inTransaction = true;
+                transactionCount++;
+            } else if (isTag(envelope.groupHeader)) {
+                writer.submit(false);
+                writer.groupHeader = Arrays.copyOf(segment, segmentLength);
+                writer.groupReference = getElement(envelope.groupReference);
+                groupCount++;
+                transactionCount = 0;
+            } else if (isTag(envelope.groupTrailer)) {
+                writer.submit(false);
+                reconcile(transactionCount, writer.groupReference);
+                writer.groupHeader = null;
+                writer.groupReference = null;
+            } else if (isTag(envelope.interchangeTrailer)) {
+                writer.submit(false);
+                // Without groups, the interchange counts its transactions (EDIFACT only)
+                reconcile(groupCount > 0 ? groupCount : transactionCount, interchangeReference);
+                return;
+            } else {
+                pending.write(segment, 0, segmentLength);
+            }
+        }
+    }
+
+    /**
+     * Builds units for the transactions (or other segments) of an interchange,
+     * enveloped by the headers of the interchange and current group and
+     * generated trailers.
+     */
+    class UnitWriter {
+        final UnitSubmitter submitter;
+        final byte[] interchangeHeader;
+        final String interchangeReference;
+        final ByteArrayOutputStream pending;
+        byte[] groupHeader;
+        String groupReference;
+
+        UnitWriter(UnitSubmitter submitter, byte[] interchangeHeader, String interchangeReference, ByteArrayOutputStream pending) {
+            this.submitter = submitter;
+            this.interchangeHeader = interchangeHeader;
+            this.interchangeReference = interchangeReference;
+            this.pending = pending;
+        }
+
+        void submit(boolean transaction) throws IOException, EDIStreamException {
+            if (pending.size() == 0) {
+                return;
+            }
+
+            final int count = transaction ? 1 : 0;
+            ByteArrayOutputStream data = new ByteArrayOutputStream(interchangeHeader.length + pending.size() + 128);
+            data.write(interchangeHeader);
+
+            if (groupHeader != null) {
+                data.write(groupHeader);
+                pending.writeTo(data);
+                writeTrailer(data, envelope.groupTrailer, count, groupReference);
+                writeTrailer(data, envelope.interchangeTrailer, 1, interchangeReference);
+            } else {
+                pending.writeTo(data);
+                writeTrailer(data, envelope.interchangeTrailer, count, interchangeReference);
+            }
+
+            pending.reset();
+            submitter.submit(data.toByteArray());
+        }
+
+        void writeTrailer(ByteArrayOutputStream data, String tag, int count, String reference) throws IOException {
+            data.write(tag.getBytes(charset));
+            data.write(elementSeparator);
+            data.write(Integer.toString(count).getBytes(charset));
+            data.write(elementSeparator);
+            data.write(reference.getBytes(charset));
+            data.write(segmentTerminator);
+        }
+    }
+
+    void reconcile(int actualCount, String reference) {
+        String count = getElement(1);
+
+        if (!count.equals(Integer.toString(actualCount))) {
+            addControlError(EDIStreamValidationError.CONTROL_COUNT_DOES_NOT_MATCH_ACTUAL_COUNT, 1, count);
+        }
+
+        String trailerReference = getElement(2);
+
+        if (!trailerReference.equals(reference)) {
+            addControlError(EDIStreamValidationError.CONTROL_REFERENCE_MISMATCH, 2, trailerReference);
+        }
+    }
+
+    void addControlError(EDIStreamValidationError error, int elementPosition, String data) {
+        StaEDIStreamLocation errorLocation = location.copy();
+        errorLocation.setElementPosition(elementPosition);
+        EDIValidationException exception = new EDIValidationException(EDIStreamEvent.ELEMENT_DATA_ERROR, error, errorLocation, data);
+
+        if (controlErrors == null) {
+            controlErrors = exception;
+        } else {
+            controlErrors.setNextException(exception);
+        }
+    }
+
+    boolean readInterchangeHeader() throws IOException, EDIStreamException {
+        // Whitespace between interchanges is discarded
+        while (peek(0) >= 0 && peek(0) <= ' ') {
+            inputPosition++;
+        }
+
+        if (peek(0) < 0) {
+            return false;
+        }
+
+        segmentLength = 0;
+        segmentStart = 0;
+
+        if (isNext("ISA")) {
+            readFixed(ISA_LENGTH);
+            envelope = X12;
+            elementSeparator = segment[3] & 0xFF;
+            segmentTerminator = segment[ISA_LENGTH - 1] & 0xFF;
+            releaseCharacter = -1;
+            location.incrementSegmentPosition(envelope.interchangeHeader);
+        } else if (isNext("UNA")) {
+            readFixed(UNA_LENGTH);
+            envelope = EDIFACT;
+            elementSeparator = segment[4] & 0xFF;
+            releaseCharacter = segment[6] & 0xFF;
+            segmentTerminator = segment[8] & 0xFF;
+            // The UNA is retained in the buffer preceding the UNB
+            requireNextSegment();
+        } else if (isNext("UNB")) {
+            envelope = EDIFACT;
+            elementSeparator = '+';
+            releaseCharacter = '?';
+            segmentTerminator = '\'';
+            requireNextSegment();
+        } else {
+            throw new EDIStreamException("Unrecognized interchange header", location);
+        }
+
+        return true;
+    }
+
+    void readFixed(int length) throws IOException, EDIStreamException {
+        for (int i = 0; i < length; i++) {
+            int next = read();
+
+            if (next < 0) {
+                throw new EDIStreamException("Unexpected end of input in interchange header", location);
+            }
+
+            append(next);
+        }
+    }
+
+    void requireSegment() throws IOException, EDIStreamException {
+        segmentLength = 0;
+        requireNextSegment();
+    }
+
+    /**
+     * Read the next segment, appending it to the segment buffer.
+     */
+    void requireNextSegment() throws IOException, EDIStreamException {
+        if (!readSegment()) {
+            throw new EDIStreamException("Unexpected end of input in interchange", location);
+        }
+    }
+
+    boolean readSegment() throws IOException {
+        segmentStart = segmentLength;
+        boolean released = false;
+        int next;
+
+        while ((next = read()) >= 0) {
+            append(next);
+
+            if (released) {
+                released = false;
+            } else if (next == releaseCharacter) {
+                released = true;
+            } else if (next == segmentTerminator) {
+                location.incrementSegmentPosition(getElement(0));
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    boolean isTag(String tag) {
+        final int length = tag.length();
+        int offset = tagOffset();
+
+        if (segmentLength - offset <= length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if ((segment[offset + i] & 0xFF) != tag.charAt(i)) {
+                return false;
+            }
+        }
+
+        int next = segment[offset + length] & 0xFF;
+        return next == elementSeparator || next == segmentTerminator;
+    }
+
+    int tagOffset() {
+        int offset = segmentStart;
+
+        // Leading whitespace is retained with the segment but is not part of the tag
+        while (offset < segmentLength && segment[offset] >= 0 && segment[offset] <= ' ') {
+            offset++;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Get the value of the element at the position in the current segment,
+     * where position 0 is the segment tag.
+     */
+    String getElement(int position) {
+        int offset = tagOffset();
+        int current = 0;
+        int start = offset;
+        boolean released = false;
+
+        for (int i = offset; i < segmentLength; i++) {
+            int b = segment[i] & 0xFF;
+
+            if (released) {
+                released = false;
+            } else if (b == releaseCharacter) {
+                released = true;
+            } else if (b == elementSeparator || b == segmentTerminator) {
+                if (current == position) {
+                    return new String(segment, start, i - start, charset);
+                }
+                current++;
+                start = i + 1;
+            }
+        }
+
+        return "";
+    }
+
+    void append(int next) {
+        if (segmentLength == segment.length) {
+            segment = Arrays.copyOf(segment, segment.length * 2);
+        }
+        segment[segmentLength++] = (byte) next;
+    }
+
+    boolean isNext(String tag) throws IOException {
+        for (int i = 0; i < tag.length(); i++) {
+            if (peek(i) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int peek(int offset) throws IOException {
+        if (inputPosition + offset >= inputLimit) {
+            fill(offset + 1);
+        }
+        return inputPosition + offset < inputLimit ? input[inputPosition + offset] & 0xFF : -1;
+    }
+
+    int read() throws IOException {
+        if (inputPosition >= inputLimit) {
+            fill(1);
+        }
+        return inputPosition < inputLimit ? input[inputPosition++] & 0xFF : -1;
+    }
+
+    void fill(int required) throws IOException {
+        int remaining = inputLimit - inputPosition;
+        System.arraycopy(input, inputPosition, input, 0, remaining);
+        inputPosition = 0;
+        inputLimit = remaining;
+
+        while (inputLimit < required) {
+            int count = stream.read(input, inputLimit, input.length - inputLimit);
+
+            if (count < 0) {
+                break;
+            }
+
+            inputLimit += count;
+        }
+    }
+}
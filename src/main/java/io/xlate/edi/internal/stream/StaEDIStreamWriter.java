@@ -24,10 +24,8 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -45,6 +43,7 @@ import io.xlate.edi.internal.stream.tokenization.EDIFACTDialect;
 import io.xlate.edi.internal.stream.tokenization.ElementDataHandler;
 import io.xlate.edi.internal.stream.tokenization.State;
 import io.xlate.edi.internal.stream.tokenization.StreamEvent;
+import io.xlate.edi.internal.stream.tokenization.StreamEventQueue;
 import io.xlate.edi.internal.stream.tokenization.ValidationEventHandler;
 import io.xlate.edi.internal.stream.tokenization.X12Dialect;
 import io.xlate.edi.internal.stream.validation.UsageError;
@@ -85,6 +84,8 @@ public class StaEDIStreamWriter implements EDIStreamWriter, ElementDataHandler,
     private final EDIOutputErrorReporter reporter;
     private Dialect dialect;
     CharBuffer unconfirmedBuffer = CharBuffer.allocate(500);
+    private char[] outputBuffer = new char[256];
+    private final CharArraySequence outputHolder = new CharArraySequence();
 
     private final StaEDIStreamLocation location;
     private Schema controlSchema;
@@ -101,7 +102,7 @@ public class StaEDIStreamWriter implements EDIStreamWriter, ElementDataHandler,
     private CharArraySequence elementHolder = new CharArraySequence();
 
     private final StreamEvent currentEvent = new StreamEvent();
-    private final Deque<StreamEvent> currentEventQueue = new LinkedList<>(Arrays.asList(currentEvent));
+    private final StreamEventQueue currentEventQueue = new StreamEventQueue();
 
     private char segmentTerminator;
     private char segmentTagTerminator;
@@ -133,6 +134,7 @@ public class StaEDIStreamWriter implements EDIStreamWriter, ElementDataHandler,
         this.prettyPrint = booleanValue(properties.get(EDIOutputFactory.PRETTY_PRINT));
         this.formatElements = booleanValue(properties.get(EDIOutputFactory.FORMAT_ELEMENTS));
         this.location = new StaEDIStreamLocation();
+        this.currentEventQueue.add(currentEvent);
     }
 
     @Override
@@ -314,6 +316,25 @@ public class StaEDIStreamWriter implements EDIStreamWriter, ElementDataHandler,
         return delimiters;
     }
 
+    /**
+     * Get the schema reference of the element or component at the given
+     * position of the segment currently being written, as defined by the
+     * control or transaction schema in use.
+     *
+     * @param elementPosition
+     *            the 1-based position of the element in the segment
+     * @param componentPosition
+     *            the 1-based position of the component in the element, or a
+     *            value less than 1 for a simple element
+     * @return the reference of the element, or null when no schema defines
+     *         the position
+     */
+    public EDIReference getElementReference(int elementPosition, int componentPosition) {
+        return validator()
+                .map(validator -> validator.getElementReference(dialect, elementPosition, componentPosition))
+                .orElse(null);
+    }
+
     private Optional<Validator> validator() {
         Validator validator;
 
@@ -621,7 +642,8 @@ public class StaEDIStreamWriter implements EDIStreamWriter, ElementDataHandler,
     public EDIStreamWriter endElement() throws EDIStreamException {
         ensureLevelAtLeast(LEVEL_ELEMENT);
 
-        if (!atomicElementWrite) {
+        // Binary data is not buffered for validation, the same as when reading
+        if (!atomicElementWrite && state != State.ELEMENT_DATA_BINARY) {
             if (level > LEVEL_ELEMENT) {
                 validate(validator -> validator.validateSyntax(dialect, this, this, location, true));
             } else {
@@ -781,6 +803,11 @@ public class StaEDIStreamWriter implements EDIStreamWriter, ElementDataHandler,
         ensureLevelAtLeast(LEVEL_ELEMENT);
         writeRequiredSeparators(text.length());
 
+        if (isBulkOutputEnabled()) {
+            writeElementDataBulk(text, true);
+            return this;
+        }
+
         for (int i = 0, m = text.length(); i < m; i++) {
             char curr = text.charAt(i);
 
@@ -793,7 +820,7 @@ public class StaEDIStreamWriter implements EDIStreamWriter, ElementDataHandler,
             }
 
             write(curr);
-            elementBuffer.put(curr);
+            bufferElementData(curr);
             elementLength++;
         }
         return this;
@@ -805,19 +832,138 @@ public class StaEDIStreamWriter implements EDIStreamWriter, ElementDataHandler,
         ensureArgs(text.length, start, end);
         writeRequiredSeparators(end - start);
 
+        if (isBulkOutputEnabled()) {
+            outputHolder.set(text, start, end - start);
+            writeElementDataBulk(outputHolder, false);
+            return this;
+        }
+
         for (int i = start, m = end; i < m; i++) {
             char curr = text[i];
             if (characters.isDelimiter(curr)) {
                 throw new IllegalArgumentException("Value contains separator");
             }
             write(curr);
-            elementBuffer.put(curr);
+            bufferElementData(curr);
             elementLength++;
         }
 
         return this;
     }
 
+    /**
+     * Element data may be written in bulk once the dialect has been confirmed
+     * and the writer is positioned within the data of an element. The header
+     * segment is always written one character at a time so that the dialect
+     * may detect the delimiters.
+     */
+    boolean isBulkOutputEnabled() {
+        return dialect != null && dialect.isConfirmed() && state.isElementProcessState();
+    }
+
+    /**
+     * Escape (when releasing delimiters) and copy the element data to the
+     * output buffer, then write the buffer to the writer with a single call.
+     * Characters that do not remain in the element data state (e.g. control
+     * characters) are passed through the state machine individually to retain
+     * the behavior of {@link #write(int)}.
+     */
+    void writeElementDataBulk(CharSequence text, boolean releaseDelimiters) throws EDIStreamException {
+        final int length = text.length();
+
+        if (outputBuffer.length < length * 2) {
+            outputBuffer = new char[Math.max(length * 2, outputBuffer.length * 2)];
+        }
+
+        if (!atomicElementWrite) {
+            ensureElementBufferCapacity(length);
+        }
+
+        int outputLength = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char curr = text.charAt(i);
+
+            switch (characters.getClass(curr)) {
+            case SEGMENT_DELIMITER:
+            case ELEMENT_DELIMITER:
+            case COMPONENT_DELIMITER:
+            case ELEMENT_REPEATER:
+            case RELEASE_CHARACTER:
+                if (!releaseDelimiters) {
+                    flushOutputBuffer(outputLength);
+                    throw new IllegalArgumentException("Value contains separator");
+                }
+                if (releaseIndicator == 0) {
+                    flushOutputBuffer(outputLength);
+                    throw new IllegalArgumentException("Value contains separator: " + curr);
+                }
+                outputBuffer[outputLength++] = releaseIndicator;
+                outputBuffer[outputLength++] = curr;
+                state = State.ELEMENT_DATA;
+                break;
+            case WHITESPACE:
+            case CONTROL:
+            case INVALID:
+            case SEGMENT_TAG_DELIMITER:
+                flushOutputBuffer(outputLength);
+                outputLength = 0;
+                write(curr);
+                break;
+            default:
+                outputBuffer[outputLength++] = curr;
+                state = State.ELEMENT_DATA;
+                break;
+            }
+
+            if (!atomicElementWrite) {
+                elementBuffer.put(curr);
+            }
+
+            elementLength++;
+        }
+
+        flushOutputBuffer(outputLength);
+    }
+
+    /**
+     * Retain the element data written for validation when the element is
+     * ended. Data written by the atomic <code>writeElement</code> and
+     * <code>writeComponent</code> methods is validated directly from the
+     * caller's value and is not retained.
+     */
+    void bufferElementData(char value) {
+        if (!atomicElementWrite) {
+            ensureElementBufferCapacity(1);
+            elementBuffer.put(value);
+        }
+    }
+
+    void ensureElementBufferCapacity(int length) {
+        if (elementBuffer.remaining() < length) {
+            CharBuffer expanded = CharBuffer.allocate(Math.max(elementBuffer.capacity() * 2, elementBuffer.position() + length));
+            elementBuffer.flip();
+            expanded.put(elementBuffer);
+            elementBuffer = expanded;
+        }
+    }
+
+    void flushOutputBuffer(int outputLength) throws EDIStreamException {
+        if (outputLength == 0) {
+            return;
+        }
+
+        for (int i = 0; i < outputLength; i++) {
+            location.incrementOffset(outputBuffer[i]);
+        }
+
+        try {
+            writer.write(outputBuffer, 0, outputLength);
+        } catch (IOException e) {
+            throw new EDIStreamException("Exception to output stream", location, e);
+        }
+    }
+
     @Override
     public EDIStreamWriter writeBinaryData(InputStream binaryStream) throws EDIStreamException {
         ensureLevel(LEVEL_ELEMENT);
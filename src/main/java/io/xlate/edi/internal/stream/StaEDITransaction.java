@@ -0,0 +1,453 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIStreamReader;
+import io.xlate.edi.stream.EDITransaction;
+import io.xlate.edi.stream.Location;
+
+/**
+ * Transaction materialized as an index over a single character buffer. Each
+ * element value (a simple element or a single component) is recorded as a
+ * row of the parallel <code>value*</code> arrays, and each segment as a row of
+ * the <code>segment*</code> arrays referring to a contiguous range of values.
+ * The data of binary elements is retained in a separate byte buffer. Segment
+ * and element objects are views created on access.
+ */
+public class StaEDITransaction implements EDITransaction {
+
+    static final int INITIAL_TEXT_CAPACITY = 1024;
+    static final int INITIAL_SEGMENT_CAPACITY = 32;
+    static final int INITIAL_VALUE_CAPACITY = 128;
+
+    private final String transactionType;
+
+    private char[] text = new char[INITIAL_TEXT_CAPACITY];
+    private int textLength = 0;
+
+    private int segmentCount = 0;
+    private int[] segmentTagStart = new int[INITIAL_SEGMENT_CAPACITY];
+    private int[] segmentTagLength = new int[INITIAL_SEGMENT_CAPACITY];
+    private int[] segmentFirstValue = new int[INITIAL_SEGMENT_CAPACITY];
+    private int[] segmentElementCount = new int[INITIAL_SEGMENT_CAPACITY];
+
+    private int valueCount = 0;
+    private int[] valuePosition = new int[INITIAL_VALUE_CAPACITY];
+    private int[] valueOccurrence = new int[INITIAL_VALUE_CAPACITY];
+    private int[] valueComponent = new int[INITIAL_VALUE_CAPACITY];
+    private int[] valueStart = new int[INITIAL_VALUE_CAPACITY];
+    private int[] valueLength = new int[INITIAL_VALUE_CAPACITY];
+    private boolean[] valueBinary = new boolean[INITIAL_VALUE_CAPACITY];
+
+    private byte[] binary = new byte[0];
+    private int binaryLength = 0;
+
+    StaEDITransaction(String transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    /**
+     * Read the transaction at the reader's current position. The reader must
+     * be positioned at a {@link EDIStreamEvent#START_TRANSACTION
+     * START_TRANSACTION} event and is left positioned at the corresponding
+     * {@link EDIStreamEvent#END_TRANSACTION END_TRANSACTION}.
+     *
+     * @param reader the reader
+     * @return the transaction read
+     * @throws EDIStreamException when the input can not be read
+     */
+    public static StaEDITransaction read(EDIStreamReader reader) throws EDIStreamException {
+        if (reader.getEventType() != EDIStreamEvent.START_TRANSACTION) {
+            throw new IllegalStateException("Reader not positioned at START_TRANSACTION");
+        }
+
+        StaEDITransaction transaction = new StaEDITransaction(reader.getTransactionType());
+        EDIStreamEvent event;
+
+        while ((event = reader.next()) != EDIStreamEvent.END_TRANSACTION) {
+            switch (event) {
+            case START_SEGMENT:
+                transaction.addSegment(reader);
+                break;
+            case ELEMENT_DATA:
+                transaction.addValue(reader);
+                break;
+            case ELEMENT_DATA_BINARY:
+                transaction.addBinaryValue(reader);
+                break;
+            default:
+                break;
+            }
+        }
+
+        return transaction;
+    }
+
+    void addSegment(EDIStreamReader reader) {
+        if (segmentCount == segmentTagStart.length) {
+            final int capacity = segmentCount * 2;
+            segmentTagStart = Arrays.copyOf(segmentTagStart, capacity);
+            segmentTagLength = Arrays.copyOf(segmentTagLength, capacity);
+            segmentFirstValue = Arrays.copyOf(segmentFirstValue, capacity);
+            segmentElementCount = Arrays.copyOf(segmentElementCount, capacity);
+        }
+
+        segmentTagStart[segmentCount] = textLength;
+        segmentTagLength[segmentCount] = appendText(reader);
+        segmentFirstValue[segmentCount] = valueCount;
+        segmentElementCount[segmentCount] = 0;
+        segmentCount++;
+    }
+
+    void addValue(EDIStreamReader reader) throws EDIStreamException {
+        final int value = addValueIndex(reader.getLocation());
+
+        if (reader.isTextStreamed()) {
+            // Only the reader gives the complete text of an oversized element
+            valueLength[value] = appendText(reader, reader.getTextReader());
+        } else {
+            valueLength[value] = appendText(reader);
+        }
+    }
+
+    void addBinaryValue(EDIStreamReader reader) throws EDIStreamException {
+        final int value = addValueIndex(reader.getLocation());
+        final InputStream stream = reader.getBinaryData();
+        valueBinary[value] = true;
+        valueStart[value] = binaryLength;
+
+        try {
+            int count;
+
+            do {
+                if (binaryLength == binary.length) {
+                    binary = Arrays.copyOf(binary, Math.max(binary.length * 2, INITIAL_TEXT_CAPACITY));
+                }
+                count = stream.read(binary, binaryLength, binary.length - binaryLength);
+                binaryLength += Math.max(count, 0);
+            } while (count > -1);
+        } catch (IOException e) {
+            throw new EDIStreamException("Exception reading binary element data", reader.getLocation(), e);
+        }
+
+        valueLength[value] = binaryLength - valueStart[value];
+    }
+
+    /**
+     * Add a row to the <code>value*</code> arrays for the element at the
+     * location, the start and length of the value are set by the caller.
+     *
+     * @return the index of the value
+     */
+    int addValueIndex(Location location) {
+        if (valueCount == valuePosition.length) {
+            final int capacity = valueCount * 2;
+            valuePosition = Arrays.copyOf(valuePosition, capacity);
+            valueOccurrence = Arrays.copyOf(valueOccurrence, capacity);
+            valueComponent = Arrays.copyOf(valueComponent, capacity);
+            valueStart = Arrays.copyOf(valueStart, capacity);
+            valueLength = Arrays.copyOf(valueLength, capacity);
+            valueBinary = Arrays.copyOf(valueBinary, capacity);
+        }
+
+        final int position = location.getElementPosition();
+
+        valuePosition[valueCount] = position;
+        valueOccurrence[valueCount] = Math.max(location.getElementOccurrence(), 1);
+        valueComponent[valueCount] = location.getComponentPosition();
+        valueStart[valueCount] = textLength;
+
+        final int segment = segmentCount - 1;
+
+        if (position > segmentElementCount[segment]) {
+            segmentElementCount[segment] = position;
+        }
+
+        return valueCount++;
+    }
+
+    int appendText(EDIStreamReader reader) {
+        final int length = reader.getTextLength();
+
+        if (textLength + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + length));
+        }
+
+        System.arraycopy(reader.getTextCharacters(), reader.getTextStart(), text, textLength, length);
+        textLength += length;
+        return length;
+    }
+
+    int appendText(EDIStreamReader reader, Reader stream) throws EDIStreamException {
+        final int start = textLength;
+
+        try {
+            int count;
+
+            do {
+                if (textLength == text.length) {
+                    text = Arrays.copyOf(text, text.length * 2);
+                }
+                count = stream.read(text, textLength, text.length - textLength);
+                textLength += Math.max(count, 0);
+            } while (count > -1);
+        } catch (IOException e) {
+            throw new EDIStreamException("Exception reading element text", reader.getLocation(), e);
+        }
+
+        return textLength - start;
+    }
+
+    String text(int start, int length) {
+        return new String(text, start, length);
+    }
+
+    int lastValue(int segment) {
+        return segment + 1 < segmentCount ? segmentFirstValue[segment + 1] : valueCount;
+    }
+
+    /**
+     * Find the first value of the element occurrence in the segment.
+     *
+     * @return index of the value, or -1 if not found
+     */
+    int findValue(int segment, int position, int occurrence) {
+        for (int i = segmentFirstValue[segment], m = lastValue(segment); i < m; i++) {
+            if (valuePosition[i] == position && valueOccurrence[i] == occurrence) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    @Override
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    @Override
+    public Segment getSegment(int index) {
+        if (index < 0 || index >= segmentCount) {
+            throw new IndexOutOfBoundsException("Segment index: " + index);
+        }
+        return new SegmentView(index);
+    }
+
+    @Override
+    public List<Segment> getSegments(String tag) {
+        List<Segment> segments = new ArrayList<>();
+
+        for (int i = 0; i < segmentCount; i++) {
+            if (tagEquals(i, tag)) {
+                segments.add(new SegmentView(i));
+            }
+        }
+
+        return segments;
+    }
+
+    boolean tagEquals(int segment, String tag) {
+        final int length = segmentTagLength[segment];
+
+        if (length != tag.length()) {
+            return false;
+        }
+
+        final int start = segmentTagStart[segment];
+
+        for (int i = 0; i < length; i++) {
+            if (text[start + i] != tag.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    class SegmentView implements Segment {
+        final int index;
+
+        SegmentView(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public String getTag() {
+            return text(segmentTagStart[index], segmentTagLength[index]);
+        }
+
+        @Override
+        public int getElementCount() {
+            return segmentElementCount[index];
+        }
+
+        @Override
+        public int getRepetitionCount(int position) {
+            int count = 0;
+
+            for (int i = segmentFirstValue[index], m = lastValue(index); i < m; i++) {
+                if (valuePosition[i] == position && valueOccurrence[i] > count) {
+                    count = valueOccurrence[i];
+                }
+            }
+
+            return count;
+        }
+
+        @Override
+        public Element getElement(int position) {
+            return getElement(position, 1);
+        }
+
+        @Override
+        public Element getElement(int position, int occurrence) {
+            final int first = findValue(index, position, occurrence);
+            return first > -1 ? new ElementView(index, first) : null;
+        }
+
+        @Override
+        public String getText(int position) {
+            final int value = findValue(index, position, 1);
+
+            if (value < 0 || valueComponent[value] > 0 || valueBinary[value]) {
+                return null;
+            }
+
+            return text(valueStart[value], valueLength[value]);
+        }
+
+        @Override
+        public String toString() {
+            return getTag();
+        }
+    }
+
+    class ElementView implements Element {
+        final int segment;
+        /**
+         * Index of the first value of the element.
+         */
+        final int first;
+
+        ElementView(int segment, int first) {
+            this.segment = segment;
+            this.first = first;
+        }
+
+        int findComponent(int position) {
+            final int elementPosition = valuePosition[first];
+            final int occurrence = valueOccurrence[first];
+
+            for (int i = first, m = lastValue(segment); i < m; i++) {
+                if (valuePosition[i] != elementPosition || valueOccurrence[i] != occurrence) {
+                    break;
+                }
+                if (valueComponent[i] == position) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        public int getPosition() {
+            return valuePosition[first];
+        }
+
+        @Override
+        public int getOccurrence() {
+            return valueOccurrence[first];
+        }
+
+        @Override
+        public boolean isComposite() {
+            return valueComponent[first] > 0;
+        }
+
+        @Override
+        public int getComponentCount() {
+            if (!isComposite()) {
+                return 0;
+            }
+
+            int count = 0;
+
+            for (int i = first, m = lastValue(segment); i < m; i++) {
+                if (valuePosition[i] != valuePosition[first] || valueOccurrence[i] != valueOccurrence[first]) {
+                    break;
+                }
+                count = Math.max(count, valueComponent[i]);
+            }
+
+            return count;
+        }
+
+        @Override
+        public String getComponent(int position) {
+            if (!isComposite()) {
+                return null;
+            }
+
+            final int value = findComponent(position);
+            return value > -1 ? text(valueStart[value], valueLength[value]) : null;
+        }
+
+        @Override
+        public String getText() {
+            return isComposite() || isBinary() ? null : text(valueStart[first], valueLength[first]);
+        }
+
+        @Override
+        public boolean isBinary() {
+            return valueBinary[first];
+        }
+
+        @Override
+        public InputStream getBinaryData() {
+            return isBinary() ? new ByteArrayInputStream(binary, valueStart[first], valueLength[first]) : null;
+        }
+
+        @Override
+        public String toString() {
+            if (isComposite()) {
+                return "composite " + getPosition();
+            }
+            return isBinary() ? "binary " + getPosition() : getText();
+        }
+    }
+}
@@ -72,6 +72,7 @@ final class StaEDIXMLStreamReader implements XMLStreamReader {
     private QName currentElement;
 
     private NamespaceContext namespaceContext;
+    private final Map<String, NameCache> nameCaches = new HashMap<>(4);
     private String compositeCode = null;
 
     private final StringBuilder cdataBuilder = new StringBuilder();
@@ -121,25 +122,28 @@ final class StaEDIXMLStreamReader implements XMLStreamReader {
     }
 
     private QName buildName(QName parent, String namespace) {
-        return buildName(parent, namespace, null);
+        final io.xlate.edi.stream.Location l = ediReader.getLocation();
+        final int componentPosition = l.getComponentPosition();
+        final NameCache cache = nameCache(namespace);
+
+        if (componentPosition > 0) {
+            String localPart = this.compositeCode != null ? this.compositeCode : parent.getLocalPart();
+            return cache.getComponentName(localPart, componentPosition);
+        }
+
+        return cache.getElementName(parent.getLocalPart(), l.getElementPosition());
     }
 
     private QName buildName(QName parent, String namespace, String name) {
-        String prefix = prefixOf(namespace);
-
         if (name == null) {
-            final io.xlate.edi.stream.Location l = ediReader.getLocation();
-            final int componentPosition = l.getComponentPosition();
-
-            if (componentPosition > 0) {
-                String localPart = this.compositeCode != null ? this.compositeCode : parent.getLocalPart();
-                name = String.format("%s-%02d", localPart, componentPosition);
-            } else {
-                name = String.format("%s%02d", parent.getLocalPart(), l.getElementPosition());
-            }
+            return buildName(parent, namespace);
         }
 
-        return new QName(namespace, name, prefix);
+        return nameCache(namespace).getName(name);
+    }
+
+    private NameCache nameCache(String namespace) {
+        return nameCaches.computeIfAbsent(namespace, NameCache::new);
     }
 
     private void enqueueEvent(int xmlEvent, QName element, boolean remember) {
@@ -695,6 +699,71 @@ final class StaEDIXMLStreamReader implements XMLStreamReader {
         return String.valueOf(namespace.substring(namespace.lastIndexOf(':') + 1).charAt(0));
     }
 
+    /**
+     * Names previously built for a namespace, so that repeated segments,
+     * elements and components reuse the same {@link QName} instances rather
+     * than formatting and allocating new names for each event.
+     */
+    static final class NameCache {
+        private final String namespace;
+        private final String prefix;
+        private final Map<String, QName> names = new HashMap<>();
+        private final Map<String, QName[]> elementNames = new HashMap<>();
+        private final Map<String, QName[]> componentNames = new HashMap<>();
+
+        NameCache(String namespace) {
+            this.namespace = namespace;
+            this.prefix = prefixOf(namespace);
+        }
+
+        QName getName(String localPart) {
+            QName name = names.get(localPart);
+
+            if (name == null) {
+                name = new QName(namespace, localPart, prefix);
+                names.put(localPart, name);
+            }
+
+            return name;
+        }
+
+        QName getElementName(String parentPart, int position) {
+            return getPositionName(elementNames, parentPart, "%s%02d", position);
+        }
+
+        QName getComponentName(String parentPart, int position) {
+            return getPositionName(componentNames, parentPart, "%s-%02d", position);
+        }
+
+        private QName getPositionName(Map<String, QName[]> table, String parentPart, String format, int position) {
+            if (position < 0) {
+                return new QName(namespace, String.format(format, parentPart, position), prefix);
+            }
+
+            QName[] positions = table.get(parentPart);
+
+            if (positions == null || position >= positions.length) {
+                QName[] expanded = new QName[Math.max(position + 1, 16)];
+
+                if (positions != null) {
+                    System.arraycopy(positions, 0, expanded, 0, positions.length);
+                }
+
+                positions = expanded;
+                table.put(parentPart, positions);
+            }
+
+            QName name = positions[position];
+
+            if (name == null) {
+                name = new QName(namespace, String.format(format, parentPart, position), prefix);
+                positions[position] = name;
+            }
+
+            return name;
+        }
+    }
+
     private class ProxyLocation implements Location {
         @Override
         public int getLineNumber() {
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright 2020 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.json;
+
+import java.math.BigDecimal;
+
+import io.xlate.edi.schema.EDISimpleType;
+import io.xlate.edi.schema.EDISimpleType.Base;
+
+/**
+ * Reusable holder for the numeric value of an element. The element's text is
+ * scanned once without throwing exceptions for invalid input. Values with up to
+ * 18 significant digits are kept as an unscaled long and a scale, converted to
+ * primitive types directly; a {@link BigDecimal} is only created when requested
+ * or when the value does not fit.
+ */
+final class JsonNumber {
+
+    static final int MAX_LONG_DIGITS = 18;
+
+    private static final long[] LONG_POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+    /**
+     * Powers of ten exactly representable as a double
+     */
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+    /**
+     * Largest magnitude for which every long is exactly representable as a double
+     */
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    /**
+     * Exponents beyond this are rejected rather than overflowing the scale
+     */
+    private static final int MAX_EXPONENT_DIGITS = 9;
+
+    static {
+        long power = 1;
+        for (int i = 0; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+
+        double dpower = 1;
+        for (int i = 0; i < DOUBLE_POWERS_OF_TEN.length; i++) {
+            DOUBLE_POWERS_OF_TEN[i] = dpower;
+            dpower *= 10;
+        }
+    }
+
+    private char[] digits = new char[32];
+    private int digitCount;
+    private boolean negative;
+    private long unscaled;
+    private int scale;
+    private BigDecimal decimal;
+
+    /**
+     * Scan the text of an element with a numeric type. NUMERIC elements must be
+     * an optionally signed sequence of digits with an implied scale from the
+     * schema. DECIMAL elements may additionally have a decimal mark (either
+     * the given mark or a period) and an exponent.
+     *
+     * @return true when the text is a valid number, otherwise false and the
+     *         state of this holder is undefined
+     */
+    boolean scan(EDISimpleType elementType, char[] text, int start, int length, char decimalMark) {
+        final boolean numeric = elementType.getBase() == Base.NUMERIC;
+        final int end = start + length;
+        int i = start;
+
+        digitCount = 0;
+        negative = false;
+        unscaled = 0;
+        decimal = null;
+
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i] == '-';
+            i++;
+        }
+
+        boolean anyDigit = false;
+        boolean fraction = false;
+        int fractionDigits = 0;
+        int exponent = 0;
+
+        for (; i < end; i++) {
+            final char c = text[i];
+
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (fraction) {
+                    fractionDigits++;
+                }
+                if (digitCount > 0 || c != '0') {
+                    appendDigit(c);
+                }
+            } else if (numeric) {
+                return false;
+            } else if (!fraction && (c == decimalMark || c == '.')) {
+                fraction = true;
+            } else if ((c == 'E' || c == 'e') && anyDigit) {
+                exponent = scanExponent(text, i + 1, end);
+
+                if (exponent == Integer.MIN_VALUE) {
+                    return false;
+                }
+
+                break;
+            } else {
+                return false;
+            }
+        }
+
+        if (!anyDigit) {
+            return false;
+        }
+
+        if (numeric) {
+            final Integer typeScale = elementType.getScale();
+            scale = typeScale != null ? typeScale : 0;
+        } else {
+            scale = fractionDigits - exponent;
+        }
+
+        if (negative && !isLarge()) {
+            unscaled = -unscaled;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the signed exponent, or {@link Integer#MIN_VALUE} when invalid
+     */
+    static int scanExponent(char[] text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i] == '-';
+            i++;
+        }
+
+        if (i == end || end - i > MAX_EXPONENT_DIGITS) {
+            return Integer.MIN_VALUE;
+        }
+
+        int exponent = 0;
+
+        for (; i < end; i++) {
+            final char c = text[i];
+
+            if (c < '0' || c > '9') {
+                return Integer.MIN_VALUE;
+            }
+
+            exponent = exponent * 10 + (c - '0');
+        }
+
+        return negative ? -exponent : exponent;
+    }
+
+    void appendDigit(char c) {
+        if (digitCount == digits.length) {
+            char[] expanded = new char[digits.length * 2];
+            System.arraycopy(digits, 0, expanded, 0, digitCount);
+            digits = expanded;
+        }
+
+        digits[digitCount++] = c;
+
+        if (digitCount <= MAX_LONG_DIGITS) {
+            unscaled = unscaled * 10 + (c - '0');
+        }
+    }
+
+    /**
+     * @return true when the unscaled value does not fit in a long
+     */
+    boolean isLarge() {
+        return digitCount > MAX_LONG_DIGITS;
+    }
+
+    /**
+     * @return the unscaled value, valid only when {@link #isLarge()} is false
+     */
+    long unscaledValue() {
+        return unscaled;
+    }
+
+    int scale() {
+        return scale;
+    }
+
+    /**
+     * @return number of significant digits, consistent with
+     *         {@link BigDecimal#precision()}
+     */
+    int precision() {
+        return digitCount == 0 ? 1 : digitCount;
+    }
+
+    boolean isIntegral() {
+        return scale == 0;
+    }
+
+    long longValue() {
+        if (!isLarge()) {
+            if (scale == 0) {
+                return unscaled;
+            }
+            if (scale > 0 && scale <= MAX_LONG_DIGITS) {
+                return unscaled / LONG_POWERS_OF_TEN[scale];
+            }
+        }
+
+        return bigDecimalValue().longValue();
+    }
+
+    int intValue() {
+        return (int) longValue();
+    }
+
+    double doubleValue() {
+        if (!isLarge() && Math.abs(unscaled) < MAX_EXACT_DOUBLE) {
+            // Both operands are exact, the result is correctly rounded
+            if (scale == 0) {
+                return unscaled;
+            }
+            if (scale > 0 && scale < DOUBLE_POWERS_OF_TEN.length) {
+                return unscaled / DOUBLE_POWERS_OF_TEN[scale];
+            }
+            if (scale < 0 && -scale < DOUBLE_POWERS_OF_TEN.length) {
+                return unscaled * DOUBLE_POWERS_OF_TEN[-scale];
+            }
+        }
+
+        return bigDecimalValue().doubleValue();
+    }
+
+    float floatValue() {
+        if (scale == 0 && !isLarge() && Math.abs(unscaled) < (1L << 24)) {
+            return unscaled;
+        }
+
+        return bigDecimalValue().floatValue();
+    }
+
+    BigDecimal bigDecimalValue() {
+        if (decimal == null) {
+            if (isLarge()) {
+                String unscaledText = new String(digits, 0, digitCount);
+                decimal = new BigDecimal(negative ? '-' + unscaledText : unscaledText).scaleByPowerOfTen(-scale);
+            } else {
+                decimal = BigDecimal.valueOf(unscaled, scale);
+            }
+        }
+
+        return decimal;
+    }
+
+    @Override
+    public String toString() {
+        return bigDecimalValue().toString();
+    }
+}
@@ -2,6 +2,8 @@ package io.xlate.edi.internal.stream.json;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayDeque;
@@ -146,16 +148,25 @@ public class StaEDIJacksonJsonParser extends ParserMinimalBase {
 
     @Override
     public char[] getTextCharacters() throws IOException {
+        if (parser.binaryValue) {
+            return getText().toCharArray();
+        }
         return parser.ediReader.getTextCharacters();
     }
 
     @Override
     public int getTextLength() throws IOException {
+        if (parser.binaryValue) {
+            return getText().length();
+        }
         return parser.ediReader.getTextLength();
     }
 
     @Override
     public int getTextOffset() throws IOException {
+        if (parser.binaryValue) {
+            return 0;
+        }
         return parser.ediReader.getTextStart();
     }
 
@@ -224,6 +235,11 @@ public class StaEDIJacksonJsonParser extends ParserMinimalBase {
 
     @Override
     public boolean hasTextCharacters() {
+        if (parser.binaryValue) {
+            // Text is the base64 encoding, not the EDI reader's characters
+            return false;
+        }
+
         switch (parser.currentEvent) {
         case KEY_NAME:
         case VALUE_STRING:
@@ -235,9 +251,28 @@ public class StaEDIJacksonJsonParser extends ParserMinimalBase {
 
     @Override
     public byte[] getBinaryValue(Base64Variant b64variant) throws IOException {
+        if (parser.binaryValue) {
+            return parser.getBinaryValue();
+        }
         return parser.currentBinaryValue.toByteArray();
     }
 
+    @Override
+    public int readBinaryValue(Base64Variant b64variant, OutputStream out) throws IOException {
+        if (parser.binaryValue) {
+            return parser.readBinaryValue(out);
+        }
+        return super.readBinaryValue(b64variant, out);
+    }
+
+    @Override
+    public int getText(Writer writer) throws IOException {
+        if (parser.binaryValue) {
+            return parser.writeBinaryValue(writer);
+        }
+        return super.getText(writer);
+    }
+
     @Override
     public Version version() {
         return VERSION;
@@ -253,27 +288,26 @@ public class StaEDIJacksonJsonParser extends ParserMinimalBase {
             throw new JsonParseException(this, "Current token is not a number");
         }
 
-        BigDecimal value = parser.getBigDecimal();
         Number result;
 
         switch (getNumberType()) {
         case BIG_INTEGER:
-            result = value.toBigInteger();
+            result = parser.getBigDecimal().toBigInteger();
             break;
         case DOUBLE:
-            result = value.doubleValue();
+            result = parser.getDouble();
             break;
         case FLOAT:
-            result = value.floatValue();
+            result = parser.getFloat();
             break;
         case INT:
-            result = value.intValue();
+            result = parser.getInt();
             break;
         case LONG:
-            result = value.longValue();
+            result = parser.getLong();
             break;
         default:
-            result = value;
+            result = parser.getBigDecimal();
             break;
         }
 
@@ -286,7 +320,26 @@ public class StaEDIJacksonJsonParser extends ParserMinimalBase {
             return null;
         }
 
-        BigDecimal value = parser.getBigDecimal();
+        final JsonNumber number = parser.currentNumber;
+
+        if (number.isLarge() || number.scale() < 0) {
+            return getNumberType(parser.getBigDecimal());
+        }
+
+        NumberType type;
+
+        if (number.scale() == 0) {
+            long value = number.unscaledValue();
+            type = value == (int) value ? NumberType.INT : NumberType.LONG;
+        } else {
+            // Magnitude is below 10^18, only the exponent limits the type
+            type = getFractionalNumberType(number.precision() - number.scale() - 1);
+        }
+
+        return type;
+    }
+
+    static NumberType getNumberType(BigDecimal value) {
         NumberType type;
 
         if (value.scale() == 0) {
@@ -314,6 +367,16 @@ public class StaEDIJacksonJsonParser extends ParserMinimalBase {
         return type;
     }
 
+    static NumberType getFractionalNumberType(int exp) {
+        if (between(exp, Float.MIN_EXPONENT, Float.MAX_EXPONENT)) {
+            return NumberType.FLOAT;
+        }
+        if (between(exp, Double.MIN_EXPONENT, Double.MAX_EXPONENT)) {
+            return NumberType.DOUBLE;
+        }
+        return NumberType.BIG_DECIMAL;
+    }
+
     @Override
     public int getIntValue() {
         return parser.getInt();
@@ -326,12 +389,12 @@ public class StaEDIJacksonJsonParser extends ParserMinimalBase {
 
     @Override
     public float getFloatValue() {
-        return parser.getBigDecimal().floatValue();
+        return parser.getFloat();
     }
 
     @Override
     public double getDoubleValue() {
-        return parser.getBigDecimal().doubleValue();
+        return parser.getDouble();
     }
 
     @Override
@@ -18,11 +18,10 @@ package io.xlate.edi.internal.stream.json;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.text.DecimalFormat;
-import java.text.ParsePosition;
 import java.util.ArrayDeque;
 import java.util.Base64;
 import java.util.Map;
@@ -39,6 +38,7 @@ import io.xlate.edi.schema.EDIReference;
 import io.xlate.edi.schema.EDISimpleType;
 import io.xlate.edi.schema.EDISimpleType.Base;
 import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIStreamConstants.Delimiters;
 import io.xlate.edi.stream.EDIStreamEvent;
 import io.xlate.edi.stream.EDIStreamReader;
 import io.xlate.edi.stream.EDIValidationException;
@@ -59,17 +59,40 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
     protected final Map<String, Object> properties;
     protected final boolean emptyElementsNull;
     protected final boolean elementsAsObject;
+    protected final boolean repetitionsAsArray;
 
     final Queue<Event> eventQueue = new ArrayDeque<>();
     final Queue<String> valueQueue = new ArrayDeque<>();
 
-    final DecimalFormat decimalParser = new DecimalFormat();
-    final ParsePosition decimalPosition = new ParsePosition(0);
+    final JsonNumber currentNumber = new JsonNumber();
+    char decimalMark = '.';
 
     Event currentEvent;
     String currentValue;
     ByteArrayOutputStream currentBinaryValue = new ByteArrayOutputStream();
-    BigDecimal currentNumber;
+    /**
+     * Number of queued events preceding the value of a binary element, or -1
+     * when no binary value is queued.
+     */
+    int binaryValueIndex = -1;
+    /**
+     * The current event is the value of a binary element. The data remains in
+     * the EDI reader until it is requested.
+     */
+    boolean binaryValue = false;
+    /**
+     * Binary data has been copied to {@link #currentBinaryValue}
+     */
+    boolean binaryValueBuffered = false;
+    /**
+     * Binary data has been streamed to the caller without buffering
+     */
+    boolean binaryValueConsumed = false;
+    /**
+     * An array holding the repetitions of the current element has been started
+     */
+    boolean repetitionsStarted = false;
+    boolean withinComposite = false;
     boolean closed = false;
 
     enum Event {
@@ -113,6 +136,7 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
         this.properties = properties;
         this.emptyElementsNull = getProperty(EDIInputFactory.JSON_NULL_EMPTY_ELEMENTS, Boolean::parseBoolean, false);
         this.elementsAsObject = getProperty(EDIInputFactory.JSON_OBJECT_ELEMENTS, Boolean::parseBoolean, false);
+        this.repetitionsAsArray = getProperty(EDIInputFactory.JSON_ARRAY_REPETITIONS, Boolean::parseBoolean, false);
     }
 
     @SuppressWarnings("unchecked")
@@ -151,25 +175,24 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
     void advanceEvent() {
         currentEvent = eventQueue.remove();
         currentValue = valueQueue.remove();
-    }
+        binaryValue = binaryValueIndex == 0;
 
-    void parseNumber(EDISimpleType elementType, String text) {
-        if (elementType.getBase() == Base.NUMERIC) {
-            final Integer scale = elementType.getScale();
+        if (binaryValueIndex >= 0) {
+            binaryValueIndex--;
+        }
+    }
 
-            try {
-                final long unscaled = Long.parseLong(text);
-                this.currentNumber = BigDecimal.valueOf(unscaled, scale);
-            } catch (NumberFormatException e) {
-                final BigInteger unscaled = new BigInteger(text);
-                this.currentNumber = new BigDecimal(unscaled, scale);
-            }
-        } else {
-            decimalPosition.setIndex(0);
-            decimalParser.setParseBigDecimal(true);
+    boolean parseNumber(EDISimpleType elementType) {
+        return currentNumber.scan(elementType,
+                                  ediReader.getTextCharacters(),
+                                  ediReader.getTextStart(),
+                                  ediReader.getTextLength(),
+                                  decimalMark);
+    }
 
-            this.currentNumber = (BigDecimal) decimalParser.parse(text, decimalPosition);
-        }
+    void readDecimalMark() {
+        Character mark = ediReader.getDelimiters().get(Delimiters.DECIMAL);
+        decimalMark = mark != null ? mark : '.';
     }
 
     void enqueue(Event event, String value) {
@@ -190,17 +213,97 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
         enqueue(Event.START_ARRAY, null);
     }
 
-    void readBinaryValue() throws E {
+    void assertBinaryValue() {
+        if (!binaryValue) {
+            throw new IllegalStateException("Current event is not a binary element value");
+        }
+        if (binaryValueConsumed) {
+            throw new IllegalStateException("Binary element value has already been read");
+        }
+    }
+
+    /**
+     * Copy the current binary element value from the EDI reader to the output
+     * stream without buffering the full value.
+     *
+     * @return the number of bytes written
+     */
+    public int readBinaryValue(OutputStream output) throws E {
+        assertBinaryValue();
+
+        try {
+            if (binaryValueBuffered) {
+                currentBinaryValue.writeTo(output);
+                return currentBinaryValue.size();
+            }
+
+            binaryValueConsumed = true;
+            return copyBinaryValue(output);
+        } catch (IOException e) {
+            throw newJsonException(MSG_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * Write the current binary element value to the writer as base64 text
+     * without buffering the full value.
+     *
+     * @return the number of characters written
+     */
+    public int writeBinaryValue(Writer writer) throws E {
+        assertBinaryValue();
+
+        final Base64CharOutputStream base64Chars = new Base64CharOutputStream(writer);
+
+        try (OutputStream encoder = Base64.getEncoder().wrap(base64Chars)) {
+            if (binaryValueBuffered) {
+                currentBinaryValue.writeTo(encoder);
+            } else {
+                binaryValueConsumed = true;
+                copyBinaryValue(encoder);
+            }
+        } catch (IOException e) {
+            throw newJsonException(MSG_EXCEPTION, e);
+        }
+
+        return base64Chars.count;
+    }
+
+    /**
+     * @return the complete binary element value, read from the EDI reader on
+     *         first access
+     */
+    public byte[] getBinaryValue() throws E {
+        assertBinaryValue();
+        bufferBinaryValue();
+        return currentBinaryValue.toByteArray();
+    }
+
+    void bufferBinaryValue() throws E {
+        if (!binaryValueBuffered) {
+            try {
+                copyBinaryValue(currentBinaryValue);
+            } catch (IOException e) {
+                throw newJsonException(MSG_EXCEPTION, e);
+            }
+            binaryValueBuffered = true;
+        }
+    }
+
+    int copyBinaryValue(OutputStream output) throws IOException {
+        int total = 0;
+
         try (InputStream binaryStream = ediReader.getBinaryData()) {
             byte[] buffer = new byte[4096];
             int bytesRead = -1;
 
             while ((bytesRead = binaryStream.read(buffer)) > -1) {
-                currentBinaryValue.write(buffer, 0, bytesRead);
+                output.write(buffer, 0, bytesRead);
+                total += bytesRead;
             }
-        } catch (IOException e) {
-            throw newJsonException(MSG_EXCEPTION, e);
         }
+
+        return total;
     }
 
     boolean isNumber(EDISimpleType elementType) {
@@ -228,21 +331,12 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
         if (elementType == null) {
             dataEvent = Event.VALUE_STRING;
         } else if (binaryData) {
-            readBinaryValue();
+            binaryValueIndex = eventQueue.size();
             dataEvent = Event.VALUE_STRING;
         } else if (dataText.isEmpty()) {
             dataEvent = this.emptyElementsNull ? Event.VALUE_NULL : Event.VALUE_STRING;
-        } else if (isNumber(elementType)) {
-            Event numberEvent;
-
-            try {
-                parseNumber(elementType, dataText);
-                numberEvent = Event.VALUE_NUMBER;
-            } catch (Exception e) {
-                numberEvent = Event.VALUE_STRING;
-            }
-
-            dataEvent = numberEvent;
+        } else if (isNumber(elementType) && parseNumber(elementType)) {
+            dataEvent = Event.VALUE_NUMBER;
         } else {
             dataEvent = Event.VALUE_STRING;
         }
@@ -256,9 +350,15 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
 
     void enqueueEvent(EDIStreamEvent ediEvent) throws E {
         LOGGER.finer(() -> "Enqueue EDI event: " + ediEvent);
-        currentNumber = null;
         currentValue = null;
         currentBinaryValue.reset();
+        binaryValue = false;
+        binaryValueBuffered = false;
+        binaryValueConsumed = false;
+
+        if (repetitionsAsArray) {
+            enqueueRepetitions(ediEvent);
+        }
 
         switch (ediEvent) {
         case ELEMENT_DATA:
@@ -268,6 +368,7 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
             enqueueDataElement(true);
             break;
         case START_INTERCHANGE:
+            readDecimalMark();
             enqueueStructureBegin("loop", "INTERCHANGE");
             break;
         case START_GROUP:
@@ -279,6 +380,7 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
             enqueueStructureBegin("segment", ediReader.getText());
             break;
         case START_COMPOSITE:
+            withinComposite = true;
             enqueueStructureBegin("composite", ediReader.getReferenceCode());
             break;
 
@@ -288,6 +390,7 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
         case END_LOOP:
         case END_SEGMENT:
         case END_COMPOSITE:
+            withinComposite = false;
             enqueue(Event.END_ARRAY, null);
             enqueue(Event.END_OBJECT, null);
             break;
@@ -303,6 +406,54 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
         }
     }
 
+    /**
+     * Start or end the array holding the repetitions of an element or
+     * composite. An array is started for each element that the schema allows
+     * to repeat and ends with the element's last repetition.
+     */
+    void enqueueRepetitions(EDIStreamEvent ediEvent) throws E {
+        final boolean elementStart;
+
+        switch (ediEvent) {
+        case ELEMENT_DATA:
+        case ELEMENT_DATA_BINARY:
+            if (withinComposite) {
+                return;
+            }
+            elementStart = true;
+            break;
+        case START_COMPOSITE:
+            elementStart = true;
+            break;
+        case END_SEGMENT:
+            elementStart = false;
+            break;
+        default:
+            return;
+        }
+
+        if (elementStart && ediReader.getLocation().getElementOccurrence() > 1) {
+            if (!repetitionsStarted) {
+                throw newJsonParsingException("Element repeats but the schema does not allow repetition", null);
+            }
+            return;
+        }
+
+        if (repetitionsStarted) {
+            enqueue(Event.END_ARRAY, null);
+            repetitionsStarted = false;
+        }
+
+        if (elementStart && isRepeatable(ediReader.getSchemaTypeReference())) {
+            enqueue(Event.START_ARRAY, null);
+            repetitionsStarted = true;
+        }
+    }
+
+    static boolean isRepeatable(EDIReference reference) {
+        return reference != null && reference.getMaxOccurs() > 1;
+    }
+
     Event nextEvent() throws E {
         if (eventQueue.isEmpty()) {
             LOGGER.finer(() -> "eventQueue is empty, calling ediReader.next()");
@@ -381,7 +532,16 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
      * @see javax.json.stream.JsonParser#hasNext()
      */
     public boolean hasNext() throws E {
-        return !eventQueue.isEmpty() || executeWithReader(ediReader::hasNext);
+        if (!eventQueue.isEmpty()) {
+            return true;
+        }
+
+        if (binaryValue && !binaryValueConsumed) {
+            // Checking for input may advance past the unread binary data
+            bufferBinaryValue();
+        }
+
+        return executeWithReader(ediReader::hasNext);
     }
 
     /**
@@ -389,14 +549,15 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
      */
     public BigDecimal getBigDecimal() {
         assertEventValueNumber();
-        return currentNumber;
+        return currentNumber.bigDecimalValue();
     }
 
     /**
      * @see jakarta.json.stream.JsonParser#getInt()
      */
     public int getInt() {
-        return (int) getLong();
+        assertEventValueNumber();
+        return currentNumber.intValue();
     }
 
     /**
@@ -407,13 +568,23 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
         return currentNumber.longValue();
     }
 
+    double getDouble() {
+        assertEventValueNumber();
+        return currentNumber.doubleValue();
+    }
+
+    float getFloat() {
+        assertEventValueNumber();
+        return currentNumber.floatValue();
+    }
+
     /**
      * @see jakarta.json.stream.JsonParser#getString()
      */
-    public String getString() {
+    public String getString() throws E {
         assertEventValueString();
-        if (currentBinaryValue.size() > 0) {
-            return Base64.getEncoder().encodeToString(currentBinaryValue.toByteArray());
+        if (binaryValue) {
+            return Base64.getEncoder().encodeToString(getBinaryValue());
         }
         return this.currentValue;
     }
@@ -423,7 +594,46 @@ abstract class StaEDIJsonParser<E extends Exception> implements Configurable {
      */
     public boolean isIntegralNumber() {
         assertEventValueNumber();
-        return currentNumber.scale() == 0;
+        return currentNumber.isIntegral();
     }
 
+    /**
+     * Passes the ASCII output of a base64 encoder to a {@link Writer}
+     */
+    static class Base64CharOutputStream extends OutputStream {
+        final Writer writer;
+        final char[] chars = new char[4096];
+        int count = 0;
+
+        Base64CharOutputStream(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            writer.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = Math.min(len, chars.length);
+
+                for (int i = 0; i < n; i++) {
+                    chars[i] = (char) b[off + i];
+                }
+
+                writer.write(chars, 0, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void close() {
+            // The writer belongs to the caller
+        }
+    }
 }
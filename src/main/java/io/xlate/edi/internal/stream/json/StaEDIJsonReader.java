@@ -0,0 +1,546 @@
+/*******************************************************************************
+ * Copyright 2020 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Base64;
+
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.xlate.edi.internal.stream.StaEDIStreamWriter;
+import io.xlate.edi.internal.stream.json.StaEDIJsonParser.Event;
+import io.xlate.edi.schema.EDIReference;
+import io.xlate.edi.schema.EDISimpleType;
+import io.xlate.edi.schema.EDISimpleType.Base;
+import io.xlate.edi.stream.EDIStreamConstants.Delimiters;
+import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIStreamWriter;
+import io.xlate.edi.stream.Location;
+
+/**
+ * Reads the events of a JSON parser having the structure produced by the EDI
+ * JSON parsers and writes the EDI they describe to an {@link EDIStreamWriter}
+ * as each event is read. Loops are implicit when writing and only the
+ * interchanges, segments, composites and elements are passed to the writer.
+ * The "name" and "type" of each object must precede its "data".
+ *
+ * <p>
+ * When the writer has a schema for the current segment, JSON numbers are
+ * written in the form required by the element's type, e.g. 12.34 is written
+ * as 1234 for a numeric element with an implied scale of 2, and binary
+ * elements are decoded from base64 text. An array in place of an element
+ * holds the repetitions of that element.
+ */
+public abstract class StaEDIJsonReader {
+
+    static final String MSG_EXCEPTION = "Exception reading JSON input";
+
+    private final EDIStreamWriter ediWriter;
+    private final StaEDIStreamWriter schemaWriter;
+
+    /**
+     * Whether the elements currently read are the repetitions of an element
+     */
+    private boolean repetitions;
+
+    /**
+     * Whether the next element is a repetition following the first occurrence
+     */
+    private boolean repeatNext;
+
+    /**
+     * The kind of structure containing the current JSON value
+     */
+    enum Level {
+        ROOT,
+        LOOP,
+        SEGMENT,
+        COMPOSITE
+    }
+
+    StaEDIJsonReader(EDIStreamWriter ediWriter) {
+        this.ediWriter = ediWriter;
+        this.schemaWriter = ediWriter instanceof StaEDIStreamWriter ? (StaEDIStreamWriter) ediWriter : null;
+    }
+
+    public static void read(Object jsonParser, Class<?> type, EDIStreamWriter ediWriter) throws EDIStreamException {
+        final StaEDIJsonReader reader;
+
+        switch (type.getName()) {
+        case "jakarta.json.stream.JsonParser":
+            reader = new JakartaReader((jakarta.json.stream.JsonParser) jsonParser, ediWriter);
+            break;
+        case "javax.json.stream.JsonParser":
+            reader = new JavaxReader((javax.json.stream.JsonParser) jsonParser, ediWriter);
+            break;
+        case "com.fasterxml.jackson.core.JsonParser":
+            reader = new JacksonReader((com.fasterxml.jackson.core.JsonParser) jsonParser, ediWriter);
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported JSON parser type: " + type);
+        }
+
+        reader.readAll();
+    }
+
+    /**
+     * Advance the JSON parser to the next event.
+     *
+     * @return the next event, or null when the input is complete
+     * @throws Exception
+     *             when the JSON parser fails or the event is not used by the
+     *             EDI JSON structure
+     */
+    abstract Event nextJsonEvent() throws Exception; // NOSONAR - JSON parsers throw various exceptions
+
+    /**
+     * @return the text of the current key name, string, or number
+     */
+    abstract String getJsonText() throws Exception; // NOSONAR
+
+    /**
+     * @return the value of the current number
+     */
+    abstract BigDecimal getJsonNumber() throws Exception; // NOSONAR
+
+    Event next() throws EDIStreamException {
+        try {
+            return nextJsonEvent();
+        } catch (Exception e) {
+            throw new EDIStreamException(MSG_EXCEPTION, ediWriter.getLocation(), e);
+        }
+    }
+
+    String text() throws EDIStreamException {
+        try {
+            return getJsonText();
+        } catch (Exception e) {
+            throw new EDIStreamException(MSG_EXCEPTION, ediWriter.getLocation(), e);
+        }
+    }
+
+    BigDecimal number() throws EDIStreamException {
+        try {
+            return getJsonNumber();
+        } catch (Exception e) {
+            throw new EDIStreamException(MSG_EXCEPTION, ediWriter.getLocation(), e);
+        }
+    }
+
+    static EDIStreamException unexpected(Object found, Level level) {
+        return new EDIStreamException("Unexpected JSON input in " + level + ": " + found);
+    }
+
+    void readAll() throws EDIStreamException {
+        Event event;
+
+        while ((event = next()) != null) {
+            if (event != Event.START_OBJECT) {
+                throw unexpected(event, Level.ROOT);
+            }
+            readStructure(Level.ROOT);
+        }
+
+        ediWriter.flush();
+    }
+
+    /**
+     * Read the remainder of an object following its START_OBJECT event.
+     */
+    void readStructure(Level level) throws EDIStreamException {
+        String name = null;
+        String type = null;
+        boolean dataRead = false;
+        Event event;
+
+        while ((event = next()) != Event.END_OBJECT) {
+            if (event != Event.KEY_NAME) {
+                throw unexpected(event, level);
+            }
+
+            switch (text()) {
+            case StaEDIJsonParser.KEY_NAME:
+                name = readString(level);
+                break;
+            case StaEDIJsonParser.KEY_TYPE:
+                type = readString(level);
+                break;
+            case StaEDIJsonParser.KEY_DATA:
+                readData(level, type, name);
+                dataRead = true;
+                break;
+            default:
+                skipValue();
+                break;
+            }
+        }
+
+        if (!dataRead) {
+            throw new EDIStreamException("Missing data for " + type + " " + name);
+        }
+    }
+
+    String readString(Level level) throws EDIStreamException {
+        Event event = next();
+
+        if (event != Event.VALUE_STRING) {
+            throw unexpected(event, level);
+        }
+
+        return text();
+    }
+
+    void readData(Level level, String type, String name) throws EDIStreamException {
+        if (type == null) {
+            throw new EDIStreamException("Type must precede data in " + level);
+        }
+
+        switch (level.name() + ':' + type) {
+        case "ROOT:loop":
+            ediWriter.startInterchange();
+            readArray(Level.LOOP);
+            ediWriter.endInterchange();
+            break;
+        case "LOOP:loop":
+            readArray(Level.LOOP);
+            break;
+        case "LOOP:segment":
+            if (name == null) {
+                throw new EDIStreamException("Segment name must precede data");
+            }
+            ediWriter.writeStartSegment(name);
+            readArray(Level.SEGMENT);
+            ediWriter.writeEndSegment();
+            break;
+        case "SEGMENT:composite":
+            writeStartElement(false);
+            readArray(Level.COMPOSITE);
+            ediWriter.endElement();
+            break;
+        case "SEGMENT:element":
+        case "COMPOSITE:element":
+            readElement(next(), level);
+            break;
+        default:
+            throw unexpected(type, level);
+        }
+    }
+
+    void readArray(Level level) throws EDIStreamException {
+        Event event = next();
+
+        if (event != Event.START_ARRAY) {
+            throw unexpected(event, level);
+        }
+
+        while ((event = next()) != Event.END_ARRAY) {
+            if (event == Event.START_OBJECT) {
+                readStructure(level);
+            } else {
+                readElement(event, level);
+            }
+        }
+    }
+
+    void readElement(Event event, Level level) throws EDIStreamException {
+        if (event == Event.START_ARRAY && level == Level.SEGMENT && !repetitions) {
+            readRepetitions();
+        } else {
+            writeValue(event, level);
+        }
+    }
+
+    /**
+     * Read the array of repetitions of a single element following its
+     * START_ARRAY event.
+     */
+    void readRepetitions() throws EDIStreamException {
+        Event event;
+        repetitions = true;
+        repeatNext = false;
+
+        try {
+            while ((event = next()) != Event.END_ARRAY) {
+                if (event == Event.START_OBJECT) {
+                    readStructure(Level.SEGMENT);
+                } else {
+                    writeValue(event, Level.SEGMENT);
+                }
+                repeatNext = true;
+            }
+
+            if (!repeatNext) {
+                // No repetitions given, the element is empty
+                ediWriter.writeEmptyElement();
+            }
+        } finally {
+            repetitions = false;
+            repeatNext = false;
+        }
+    }
+
+    void writeStartElement(boolean binary) throws EDIStreamException {
+        if (repeatNext) {
+            if (binary) {
+                throw new EDIStreamException("Binary element may not repeat", ediWriter.getLocation());
+            }
+            ediWriter.writeRepeatElement();
+        } else if (binary) {
+            ediWriter.writeStartElementBinary();
+        } else {
+            ediWriter.writeStartElement();
+        }
+    }
+
+    void writeValue(Event event, Level level) throws EDIStreamException {
+        final boolean component = level == Level.COMPOSITE;
+
+        if ((event != Event.VALUE_NULL && event != Event.VALUE_STRING && event != Event.VALUE_NUMBER) || level == Level.LOOP) {
+            throw unexpected(event, level);
+        }
+
+        final EDISimpleType elementType = getElementType(component);
+        final String value;
+
+        if (event == Event.VALUE_NULL) {
+            value = "";
+        } else if (elementType != null && elementType.getBase() == Base.BINARY) {
+            writeBinaryValue(event, component);
+            return;
+        } else if (event == Event.VALUE_NUMBER) {
+            value = numberText(elementType);
+        } else {
+            value = text();
+        }
+
+        if (component) {
+            if (value.isEmpty()) {
+                ediWriter.writeEmptyComponent();
+            } else {
+                ediWriter.writeComponent(value);
+            }
+        } else if (repeatNext) {
+            writeStartElement(false);
+            ediWriter.writeElementData(value);
+            ediWriter.endElement();
+        } else if (value.isEmpty()) {
+            ediWriter.writeEmptyElement();
+        } else {
+            ediWriter.writeElement(value);
+        }
+    }
+
+    /**
+     * Find the type of the element or component to be written next from the
+     * schema of the current segment.
+     *
+     * @return the element type, or null when no schema defines the element
+     */
+    EDISimpleType getElementType(boolean component) {
+        if (schemaWriter == null) {
+            return null;
+        }
+
+        final Location location = ediWriter.getLocation();
+        int elementPosition = location.getElementPosition();
+        int componentPosition = -1;
+
+        if (component) {
+            componentPosition = Math.max(location.getComponentPosition(), 0) + 1;
+        } else if (!repeatNext) {
+            elementPosition = Math.max(elementPosition, 0) + 1;
+        }
+
+        EDIReference reference = schemaWriter.getElementReference(elementPosition, componentPosition);
+        return reference != null ? (EDISimpleType) reference.getReferencedType() : null;
+    }
+
+    /**
+     * Get the text of the current number as required by the element type.
+     * Numeric values are written without a decimal point, scaled by the
+     * element's implied decimal positions, and decimal values are written
+     * without an exponent using the interchange's decimal mark.
+     */
+    String numberText(EDISimpleType elementType) throws EDIStreamException {
+        if (elementType == null) {
+            return text();
+        }
+
+        switch (elementType.getBase()) {
+        case NUMERIC: {
+            final Integer typeScale = elementType.getScale();
+            final int scale = typeScale != null ? typeScale : 0;
+            final BigDecimal value = number();
+
+            try {
+                return value.movePointRight(scale).toBigIntegerExact().toString();
+            } catch (ArithmeticException e) {
+                throw new EDIStreamException("Value " + value + " can not be written as a numeric element with "
+                        + scale + " implied decimal positions", ediWriter.getLocation(), e);
+            }
+        }
+        case DECIMAL: {
+            final String value = number().toPlainString();
+            final Character mark = ediWriter.getDelimiters().get(Delimiters.DECIMAL);
+            return mark != null && mark != '.' ? value.replace('.', mark) : value;
+        }
+        default:
+            return text();
+        }
+    }
+
+    void writeBinaryValue(Event event, boolean component) throws EDIStreamException {
+        if (component || event != Event.VALUE_STRING) {
+            throw new EDIStreamException("Binary element data must be a base64 string", ediWriter.getLocation());
+        }
+
+        final byte[] binary;
+
+        try {
+            binary = Base64.getDecoder().decode(text());
+        } catch (IllegalArgumentException e) {
+            throw new EDIStreamException("Binary element data is not valid base64", ediWriter.getLocation(), e);
+        }
+
+        writeStartElement(true);
+        ediWriter.writeBinaryData(binary, 0, binary.length);
+        ediWriter.endElement();
+    }
+
+    void skipValue() throws EDIStreamException {
+        int depth = 0;
+
+        do {
+            Event event = next();
+
+            if (event == null) {
+                throw new EDIStreamException("Unexpected end of JSON input");
+            }
+
+            switch (event) {
+            case START_ARRAY:
+            case START_OBJECT:
+                depth++;
+                break;
+            case END_ARRAY:
+            case END_OBJECT:
+                depth--;
+                break;
+            default:
+                break;
+            }
+        } while (depth > 0);
+    }
+
+    static class JakartaReader extends StaEDIJsonReader {
+        final jakarta.json.stream.JsonParser jsonParser;
+
+        JakartaReader(jakarta.json.stream.JsonParser jsonParser, EDIStreamWriter ediWriter) {
+            super(ediWriter);
+            this.jsonParser = jsonParser;
+        }
+
+        @Override
+        Event nextJsonEvent() {
+            return jsonParser.hasNext() ? Event.valueOf(jsonParser.next().name()) : null;
+        }
+
+        @Override
+        String getJsonText() {
+            return jsonParser.getString();
+        }
+
+        @Override
+        BigDecimal getJsonNumber() {
+            return jsonParser.getBigDecimal();
+        }
+    }
+
+    static class JavaxReader extends StaEDIJsonReader {
+        final javax.json.stream.JsonParser jsonParser;
+
+        JavaxReader(javax.json.stream.JsonParser jsonParser, EDIStreamWriter ediWriter) {
+            super(ediWriter);
+            this.jsonParser = jsonParser;
+        }
+
+        @Override
+        Event nextJsonEvent() {
+            return jsonParser.hasNext() ? Event.valueOf(jsonParser.next().name()) : null;
+        }
+
+        @Override
+        String getJsonText() {
+            return jsonParser.getString();
+        }
+
+        @Override
+        BigDecimal getJsonNumber() {
+            return jsonParser.getBigDecimal();
+        }
+    }
+
+    static class JacksonReader extends StaEDIJsonReader {
+        final com.fasterxml.jackson.core.JsonParser jsonParser;
+
+        JacksonReader(com.fasterxml.jackson.core.JsonParser jsonParser, EDIStreamWriter ediWriter) {
+            super(ediWriter);
+            this.jsonParser = jsonParser;
+        }
+
+        @Override
+        Event nextJsonEvent() throws IOException {
+            JsonToken token = jsonParser.nextToken();
+
+            if (token == null) {
+                return null;
+            }
+
+            switch (token) {
+            case START_ARRAY:
+                return Event.START_ARRAY;
+            case START_OBJECT:
+                return Event.START_OBJECT;
+            case FIELD_NAME:
+                return Event.KEY_NAME;
+            case VALUE_STRING:
+                return Event.VALUE_STRING;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return Event.VALUE_NUMBER;
+            case VALUE_NULL:
+                return Event.VALUE_NULL;
+            case END_OBJECT:
+                return Event.END_OBJECT;
+            case END_ARRAY:
+                return Event.END_ARRAY;
+            default:
+                throw new IllegalArgumentException("Unsupported JSON token: " + token);
+            }
+        }
+
+        @Override
+        String getJsonText() throws IOException {
+            return jsonParser.getText();
+        }
+
+        @Override
+        BigDecimal getJsonNumber() throws IOException {
+            return jsonParser.getDecimalValue();
+        }
+    }
+}
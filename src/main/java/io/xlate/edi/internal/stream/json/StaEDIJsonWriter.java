@@ -0,0 +1,516 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import io.xlate.edi.schema.EDIReference;
+import io.xlate.edi.schema.EDISimpleType;
+import io.xlate.edi.schema.EDISimpleType.Base;
+import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIStreamConstants.Delimiters;
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIStreamReader;
+import io.xlate.edi.stream.EDIValidationException;
+
+/**
+ * Serializes the events of an {@link EDIStreamReader} directly as JSON text,
+ * using the same structure as the JSON parsers created by
+ * {@link EDIInputFactory#createJsonParser(EDIStreamReader, Class)}. Text is
+ * escaped from the reader's character array into a reusable buffer which is
+ * written to a {@link Writer} or encoded as UTF-8 to an {@link OutputStream}
+ * when full.
+ */
+public final class StaEDIJsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int MAX_PLAIN_EXPONENT = -6;
+
+    private final EDIStreamReader ediReader;
+    private final boolean emptyElementsNull;
+    private final boolean elementsAsObject;
+    private final boolean repetitionsAsArray;
+
+    private final Writer writer;
+    private final OutputStream stream;
+    private final char[] buffer = new char[8192];
+    private final byte[] encoded;
+    private int position = 0;
+
+    /**
+     * Whether a value has been written to the array (or the root) at each level
+     */
+    private boolean[] separatorRequired = new boolean[16];
+    private int depth = 0;
+    /**
+     * An array holding the repetitions of the current element has been started
+     */
+    private boolean repetitionsStarted = false;
+    private boolean withinComposite = false;
+
+    private final JsonNumber decimalNumber = new JsonNumber();
+    private char decimalMark = '.';
+
+    private StaEDIJsonWriter(EDIStreamReader ediReader, Map<String, Object> properties, Writer writer, OutputStream stream) {
+        this.ediReader = ediReader;
+        this.emptyElementsNull = booleanValue(properties.get(EDIInputFactory.JSON_NULL_EMPTY_ELEMENTS));
+        this.elementsAsObject = booleanValue(properties.get(EDIInputFactory.JSON_OBJECT_ELEMENTS));
+        this.repetitionsAsArray = booleanValue(properties.get(EDIInputFactory.JSON_ARRAY_REPETITIONS));
+        this.writer = writer;
+        this.stream = stream;
+        this.encoded = stream != null ? new byte[buffer.length * 3] : null;
+    }
+
+    public static void write(EDIStreamReader ediReader, Map<String, Object> properties, Writer writer) throws EDIStreamException {
+        new StaEDIJsonWriter(ediReader, properties, writer, null).writeAll();
+    }
+
+    public static void write(EDIStreamReader ediReader, Map<String, Object> properties, OutputStream stream) throws EDIStreamException {
+        new StaEDIJsonWriter(ediReader, properties, null, stream).writeAll();
+    }
+
+    static boolean booleanValue(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value != null && Boolean.parseBoolean(value.toString());
+    }
+
+    void writeAll() throws EDIStreamException {
+        try {
+            while (ediReader.hasNext()) {
+                writeEvent(ediReader.next());
+            }
+
+            flushBuffer(true);
+
+            if (writer != null) {
+                writer.flush();
+            } else {
+                stream.flush();
+            }
+        } catch (IOException e) {
+            throw new EDIStreamException("Exception writing the EDI stream as JSON", ediReader.getLocation(), e);
+        }
+    }
+
+    void writeEvent(EDIStreamEvent ediEvent) throws IOException, EDIStreamException {
+        if (repetitionsAsArray) {
+            writeRepetitions(ediEvent);
+        }
+
+        switch (ediEvent) {
+        case ELEMENT_DATA:
+            writeDataElement(false);
+            break;
+        case ELEMENT_DATA_BINARY:
+            writeDataElement(true);
+            break;
+        case START_INTERCHANGE:
+            Character mark = ediReader.getDelimiters().get(Delimiters.DECIMAL);
+            decimalMark = mark != null ? mark : '.';
+            writeStructureBegin("loop", "INTERCHANGE");
+            break;
+        case START_GROUP:
+        case START_TRANSACTION:
+        case START_LOOP:
+            writeStructureBegin("loop", ediReader.getReferenceCode());
+            break;
+        case START_SEGMENT:
+            writeStructureBegin("segment", ediReader.getText());
+            break;
+        case START_COMPOSITE:
+            withinComposite = true;
+            writeStructureBegin("composite", ediReader.getReferenceCode());
+            break;
+
+        case END_INTERCHANGE:
+        case END_GROUP:
+        case END_TRANSACTION:
+        case END_LOOP:
+        case END_SEGMENT:
+        case END_COMPOSITE:
+            withinComposite = false;
+            depth--;
+            append(']');
+            append('}');
+            break;
+
+        case SEGMENT_ERROR:
+        case ELEMENT_OCCURRENCE_ERROR:
+        case ELEMENT_DATA_ERROR:
+            Throwable cause = new EDIValidationException(ediEvent, ediReader.getErrorType(), ediReader.getLocation(), ediReader.getText());
+            throw new EDIStreamException("Unhandled EDI validation error", ediReader.getLocation(), cause);
+
+        default:
+            throw new IllegalStateException("Unknown state: " + ediEvent);
+        }
+    }
+
+    /**
+     * Start or end the array holding the repetitions of an element or
+     * composite, the same as the JSON parsers.
+     *
+     * @see StaEDIJsonParser#enqueueRepetitions(EDIStreamEvent)
+     */
+    void writeRepetitions(EDIStreamEvent ediEvent) throws IOException, EDIStreamException {
+        final boolean elementStart;
+
+        switch (ediEvent) {
+        case ELEMENT_DATA:
+        case ELEMENT_DATA_BINARY:
+            if (withinComposite) {
+                return;
+            }
+            elementStart = true;
+            break;
+        case START_COMPOSITE:
+            elementStart = true;
+            break;
+        case END_SEGMENT:
+            elementStart = false;
+            break;
+        default:
+            return;
+        }
+
+        if (elementStart && ediReader.getLocation().getElementOccurrence() > 1) {
+            if (!repetitionsStarted) {
+                throw new EDIStreamException("Element repeats but the schema does not allow repetition", ediReader.getLocation());
+            }
+            return;
+        }
+
+        if (repetitionsStarted) {
+            depth--;
+            append(']');
+            repetitionsStarted = false;
+        }
+
+        if (elementStart && StaEDIJsonParser.isRepeatable(ediReader.getSchemaTypeReference())) {
+            writeValueSeparator();
+            append('[');
+
+            if (++depth == separatorRequired.length) {
+                separatorRequired = Arrays.copyOf(separatorRequired, depth * 2);
+            }
+
+            separatorRequired[depth] = false;
+            repetitionsStarted = true;
+        }
+    }
+
+    void writeValueSeparator() throws IOException {
+        if (separatorRequired[depth]) {
+            // Root values (e.g. multiple interchanges) are separated by a new line
+            append(depth > 0 ? ',' : '\n');
+        } else {
+            separatorRequired[depth] = true;
+        }
+    }
+
+    void writeStructureBegin(String typeName, String structureName) throws IOException {
+        writeValueSeparator();
+        append("{\"name\":");
+        appendString(structureName);
+        append(",\"type\":\"");
+        append(typeName);
+        append("\",\"data\":[");
+
+        if (++depth == separatorRequired.length) {
+            separatorRequired = Arrays.copyOf(separatorRequired, depth * 2);
+        }
+
+        separatorRequired[depth] = false;
+    }
+
+    void writeDataElement(boolean binaryData) throws IOException {
+        EDIReference referencedType = ediReader.getSchemaTypeReference();
+        EDISimpleType elementType = null;
+
+        if (referencedType != null) {
+            elementType = (EDISimpleType) referencedType.getReferencedType();
+        }
+
+        writeValueSeparator();
+
+        if (elementsAsObject) {
+            append("{\"type\":\"element\",\"data\":");
+        }
+
+        final boolean hasText = ediReader.hasText();
+        final char[] text = hasText ? ediReader.getTextCharacters() : null;
+        final int start = hasText ? ediReader.getTextStart() : 0;
+        final int length = hasText ? ediReader.getTextLength() : 0;
+
+        if (elementType == null) {
+            appendString(text, start, length);
+        } else if (binaryData) {
+            appendBinary();
+        } else if (length == 0) {
+            if (emptyElementsNull) {
+                append("null");
+            } else {
+                append("\"\"");
+            }
+        } else if (!isNumber(elementType) || !appendNumber(elementType, text, start, length)) {
+            appendString(text, start, length);
+        }
+
+        if (elementsAsObject) {
+            append('}');
+        }
+    }
+
+    static boolean isNumber(EDISimpleType elementType) {
+        return elementType.getBase() == Base.DECIMAL || elementType.getBase() == Base.NUMERIC;
+    }
+
+    /**
+     * Append the number represented by the text, in the form produced by
+     * {@link BigDecimal#toString()} for the value given by the JSON parsers.
+     *
+     * @return false if the text is not a valid number
+     */
+    boolean appendNumber(EDISimpleType elementType, char[] text, int start, int length) throws IOException {
+        if (elementType.getBase() == Base.DECIMAL) {
+            if (!decimalNumber.scan(elementType, text, start, length, decimalMark)) {
+                return false;
+            }
+
+            append(decimalNumber.toString());
+            return true;
+        }
+
+        final Integer scale = elementType.getScale();
+        int digitsStart = start;
+        final int end = start + length;
+        boolean negative = false;
+
+        if (text[digitsStart] == '-' || text[digitsStart] == '+') {
+            negative = text[digitsStart] == '-';
+            digitsStart++;
+        }
+
+        if (scale == null || scale < 0 || digitsStart == end) {
+            return false;
+        }
+
+        for (int i = digitsStart; i < end; i++) {
+            if (text[i] < '0' || text[i] > '9') {
+                return false;
+            }
+        }
+
+        // Leading zeros are not significant
+        while (digitsStart < end - 1 && text[digitsStart] == '0') {
+            digitsStart++;
+        }
+
+        final int digits = end - digitsStart;
+
+        if (scale > 0 && digits - 1 - scale < MAX_PLAIN_EXPONENT) {
+            // Exponential notation, uncommon for EDI numeric values
+            BigDecimal value = new BigDecimal(new BigInteger(new String(text, start, length)), scale);
+            append(value.toString());
+            return true;
+        }
+
+        if (negative && (digits > 1 || text[digitsStart] != '0')) {
+            append('-');
+        }
+
+        if (scale == 0) {
+            append(text, digitsStart, digits);
+        } else if (digits > scale) {
+            append(text, digitsStart, digits - scale);
+            append('.');
+            append(text, end - scale, scale);
+        } else {
+            append("0.");
+
+            for (int i = digits; i < scale; i++) {
+                append('0');
+            }
+
+            append(text, digitsStart, digits);
+        }
+
+        return true;
+    }
+
+    void appendBinary() throws IOException {
+        final Base64.Encoder encoder = Base64.getEncoder();
+        final byte[] input = new byte[3 * 1024];
+        final byte[] output = new byte[4 * 1024];
+
+        append('"');
+
+        try (InputStream binaryStream = ediReader.getBinaryData()) {
+            int count;
+
+            do {
+                count = 0;
+                int bytesRead;
+
+                // Fill the input so that only the final chunk is padded
+                while (count < input.length && (bytesRead = binaryStream.read(input, count, input.length - count)) > -1) {
+                    count += bytesRead;
+                }
+
+                if (count > 0) {
+                    int encodedLength = encoder.encode(count < input.length ? Arrays.copyOf(input, count) : input, output);
+
+                    for (int i = 0; i < encodedLength; i++) {
+                        append((char) output[i]);
+                    }
+                }
+            } while (count == input.length);
+        }
+
+        append('"');
+    }
+
+    void appendString(String value) throws IOException {
+        if (value == null) {
+            append("\"\"");
+        } else {
+            append('"');
+            for (int i = 0, m = value.length(); i < m; i++) {
+                appendEscaped(value.charAt(i));
+            }
+            append('"');
+        }
+    }
+
+    void appendString(char[] text, int start, int length) throws IOException {
+        append('"');
+        for (int i = start, m = start + length; i < m; i++) {
+            appendEscaped(text[i]);
+        }
+        append('"');
+    }
+
+    void appendEscaped(char value) throws IOException {
+        switch (value) {
+        case '"':
+        case '\\':
+            append('\\');
+            append(value);
+            break;
+        case '\b':
+            append("\\b");
+            break;
+        case '\f':
+            append("\\f");
+            break;
+        case '\n':
+            append("\\n");
+            break;
+        case '\r':
+            append("\\r");
+            break;
+        case '\t':
+            append("\\t");
+            break;
+        default:
+            if (value < 0x20) {
+                append("\\u00");
+                append(HEX[value >> 4]);
+                append(HEX[value & 0xF]);
+            } else {
+                append(value);
+            }
+            break;
+        }
+    }
+
+    void append(String value) throws IOException {
+        for (int i = 0, m = value.length(); i < m; i++) {
+            append(value.charAt(i));
+        }
+    }
+
+    void append(char[] text, int start, int length) throws IOException {
+        for (int i = start, m = start + length; i < m; i++) {
+            append(text[i]);
+        }
+    }
+
+    void append(char value) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer(false);
+        }
+        buffer[position++] = value;
+    }
+
+    void flushBuffer(boolean complete) throws IOException {
+        int length = position;
+
+        // Retain a trailing high surrogate until its low surrogate is available
+        if (!complete && stream != null && Character.isHighSurrogate(buffer[length - 1])) {
+            length--;
+        }
+
+        if (writer != null) {
+            writer.write(buffer, 0, length);
+        } else {
+            stream.write(encoded, 0, encodeUtf8(length));
+        }
+
+        System.arraycopy(buffer, length, buffer, 0, position - length);
+        position -= length;
+    }
+
+    int encodeUtf8(int length) {
+        int out = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char c = buffer[i];
+
+            if (c < 0x80) {
+                encoded[out++] = (byte) c;
+            } else if (c < 0x800) {
+                encoded[out++] = (byte) (0xC0 | (c >> 6));
+                encoded[out++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(buffer[i + 1])) {
+                final int codePoint = Character.toCodePoint(c, buffer[++i]);
+                encoded[out++] = (byte) (0xF0 | (codePoint >> 18));
+                encoded[out++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                encoded[out++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                encoded[out++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, replaced as done by the standard UTF-8 encoder
+                encoded[out++] = '?';
+            } else {
+                encoded[out++] = (byte) (0xE0 | (c >> 12));
+                encoded[out++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                encoded[out++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        return out;
+    }
+}
@@ -30,6 +30,7 @@ public class EDIException extends EDIStreamException {
     public static final Integer INVALID_STATE = 3;
     public static final Integer INVALID_CHARACTER = 4;
     public static final Integer INCOMPLETE_STREAM = 5;
+    public static final Integer ELEMENT_LIMIT_EXCEEDED = 6;
 
     private static final Map<Integer, String> exceptionMessages = new HashMap<>();
 
@@ -44,6 +45,8 @@ public class EDIException extends EDIStreamException {
                               "EDIE004 - Invalid character");
         exceptionMessages.put(INCOMPLETE_STREAM,
                               "EDIE005 - Unexpected end of stream");
+        exceptionMessages.put(ELEMENT_LIMIT_EXCEEDED,
+                              "EDIE006 - Element data exceeds buffer limit");
     }
 
     public EDIException(String message) {
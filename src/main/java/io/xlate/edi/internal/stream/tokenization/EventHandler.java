@@ -15,6 +15,8 @@
  ******************************************************************************/
 package io.xlate.edi.internal.stream.tokenization;
 
+import java.io.Reader;
+
 public interface EventHandler extends ElementDataHandler, ValidationEventHandler {
 
     void interchangeBegin(Dialect dialect);
@@ -25,8 +27,30 @@ public interface EventHandler extends ElementDataHandler, ValidationEventHandler
 
     boolean segmentEnd();
 
+    /**
+     * Notify the handler of the end of a segment whose elements were skipped
+     * without being given to the handler.
+     *
+     * @return true if events are ready, otherwise false
+     */
+    default boolean segmentSkipped() {
+        return segmentEnd();
+    }
+
     boolean compositeBegin(boolean isNil, boolean derived);
 
     boolean compositeEnd(boolean isNil);
 
+    /**
+     * Notify the handler of element data that exceeds the element buffer
+     * limit. The data buffered prior to reaching the limit is given by
+     * <code>text</code> and the full content of the element is available via
+     * <code>stream</code>.
+     *
+     * @param text   the element data buffered prior to reaching the limit
+     * @param stream reader for the full element data
+     * @return true if events are ready, otherwise false
+     */
+    boolean textData(CharSequence text, Reader stream);
+
 }
@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.tokenization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Input stage for the {@link Lexer}. Bytes are read from the underlying stream
+ * in blocks and converted to characters without a call to the
+ * {@link CharsetDecoder} per byte.
+ *
+ * For ISO-8859-1 input, and for the ASCII range of US-ASCII and UTF-8 input,
+ * each byte is returned directly as a character. All other input is decoded
+ * in bulk into a reusable character window. The byte position of the first
+ * character in the window is retained so that raw (binary) bytes may be read
+ * from the exact position following the last character consumed.
+ *
+ * When created for a {@link FileChannel}, the bytes are read directly from a
+ * read-only mapping of the file. Successive regions of the file are mapped as
+ * the input is consumed, without copying the data into an intermediate buffer.
+ */
+class InputBuffer {
+
+    static final int DEFAULT_CAPACITY = 8192;
+    static final int DEFAULT_MAP_SIZE = 64 * 1024 * 1024;
+
+    private final InputStream stream;
+    /**
+     * Whether a -1 returned by the stream is the end of the input. A stream
+     * fed asynchronously may return -1 while more input is yet to come.
+     */
+    private final BooleanSupplier endOfInput;
+    private final FileChannel channel;
+    private final int mapSize;
+    /**
+     * Position in the file of the first byte of the current mapped region.
+     */
+    private long mapStart;
+    private final CharsetDecoder decoder;
+    /**
+     * Byte values less than this limit are equal to the character they
+     * represent and may be returned without decoding.
+     */
+    private final int directLimit;
+
+    private ByteBuffer bytes;
+    private final CharBuffer chars;
+    /**
+     * Position in {@link #bytes} of the first byte decoded into the current
+     * character window.
+     */
+    private int windowStart;
+
+    InputBuffer(InputStream stream, Charset charset) {
+        this(stream, charset, DEFAULT_CAPACITY);
+    }
+
+    InputBuffer(InputStream stream, Charset charset, int capacity) {
+        this(stream, () -> true, charset, capacity);
+    }
+
+    InputBuffer(InputStream stream, BooleanSupplier endOfInput, Charset charset) {
+        this(stream, endOfInput, charset, DEFAULT_CAPACITY);
+    }
+
+    InputBuffer(InputStream stream, BooleanSupplier endOfInput, Charset charset, int capacity) {
+        this.stream = stream;
+        this.endOfInput = endOfInput;
+        this.channel = null;
+        this.mapSize = 0;
+        this.decoder = charset.newDecoder();
+        this.directLimit = directLimit(charset);
+        this.bytes = ByteBuffer.allocate(capacity);
+        this.bytes.limit(0);
+        this.chars = CharBuffer.allocate(capacity);
+        this.chars.limit(0);
+    }
+
+    InputBuffer(FileChannel channel, Charset charset) throws IOException {
+        this(channel, charset, DEFAULT_MAP_SIZE);
+    }
+
+    /**
+     * Create a buffer over the content of the channel starting at the
+     * channel's current position.
+     */
+    InputBuffer(FileChannel channel, Charset charset, int mapSize) throws IOException {
+        this.stream = null;
+        this.endOfInput = () -> true;
+        this.channel = channel;
+        this.mapSize = mapSize;
+        this.mapStart = channel.position();
+        this.decoder = charset.newDecoder();
+        this.directLimit = directLimit(charset);
+        this.bytes = ByteBuffer.allocate(0);
+        this.chars = CharBuffer.allocate(DEFAULT_CAPACITY);
+        this.chars.limit(0);
+    }
+
+    static int directLimit(Charset charset) {
+        if (StandardCharsets.ISO_8859_1.equals(charset)) {
+            return 0x100;
+        }
+        if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.UTF_8.equals(charset)) {
+            return 0x80;
+        }
+        return 0;
+    }
+
+    /**
+     * Read the next character from the input.
+     *
+     * @return the next character or -1 when the end of the stream has been
+     *         reached
+     * @throws IOException when the underlying stream can not be read or the
+     *                     input is not valid for the charset
+     */
+    int read() throws IOException {
+        if (chars.hasRemaining()) {
+            return chars.get();
+        }
+
+        if (!bytes.hasRemaining() && !fill(bytes.position())) {
+            return -1;
+        }
+
+        final int position = bytes.position();
+        final int next = bytes.get(position) & 0xFF;
+
+        if (next < directLimit) {
+            bytes.position(position + 1);
+            return next;
+        }
+
+        return decode();
+    }
+
+    /**
+     * Read the next raw byte from the input, bypassing character decoding.
+     * Any characters decoded but not yet consumed via {@link #read()} are
+     * discarded and their bytes will be returned instead.
+     *
+     * @return the next byte or -1 when the end of the stream has been reached
+     * @throws IOException when the underlying stream can not be read
+     */
+    int readByte() throws IOException {
+        if (chars.hasRemaining()) {
+            rewind();
+        }
+
+        if (!bytes.hasRemaining() && !fill(bytes.position())) {
+            return -1;
+        }
+
+        return bytes.get() & 0xFF;
+    }
+
+    /**
+     * Read up to <code>length</code> raw bytes from the input, bypassing
+     * character decoding.
+     *
+     * @param buffer the buffer into which the bytes are read
+     * @param offset the offset in the buffer of the first byte read
+     * @param length the maximum number of bytes to read
+     * @return the number of bytes read or -1 when the end of the stream has
+     *         been reached
+     * @throws IOException when the underlying stream can not be read
+     * @see #readByte()
+     */
+    int readBytes(byte[] buffer, int offset, int length) throws IOException {
+        if (chars.hasRemaining()) {
+            rewind();
+        }
+
+        if (!bytes.hasRemaining() && !fill(bytes.position())) {
+            return -1;
+        }
+
+        final int count = Math.min(length, bytes.remaining());
+        bytes.get(buffer, offset, count);
+        return count;
+    }
+
+    /**
+     * Read from the underlying stream until at least <code>length</code> raw
+     * bytes following the last character consumed are held in the buffer, or
+     * the stream has no more input available.
+     *
+     * @param length the number of bytes required
+     * @return true if the required bytes are buffered, otherwise false
+     * @throws IOException when the underlying stream can not be read
+     */
+    boolean bufferBytes(long length) throws IOException {
+        if (chars.hasRemaining()) {
+            rewind();
+        }
+
+        while (bytes.remaining() < length) {
+            if (!fill(bytes.position())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Determine whether any non-whitespace input remains without consuming
+     * the input.
+     *
+     * @param characters the character set used to identify whitespace
+     * @return true if input other than whitespace remains, otherwise false
+     * @throws IOException when the underlying stream can not be read
+     */
+    boolean hasRemaining(CharacterSet characters) throws IOException {
+        for (int i = chars.position(), m = chars.limit(); i < m; i++) {
+            if (!characters.isWhitespace(chars.get(i))) {
+                return true;
+            }
+        }
+
+        int offset = 0;
+
+        do {
+            while (bytes.position() + offset < bytes.limit()) {
+                if (!characters.isWhitespace(bytes.get(bytes.position() + offset) & 0xFF)) {
+                    return true;
+                }
+                offset++;
+            }
+        } while (fill(chars.hasRemaining() ? windowStart : bytes.position()));
+
+        return false;
+    }
+
+    int decode() throws IOException {
+        chars.clear();
+        windowStart = bytes.position();
+
+        try {
+            CoderResult result;
+
+            while ((result = decoder.decode(bytes, chars, false)).isUnderflow() && chars.position() == 0) {
+                if (!fill(windowStart)) {
+                    if (!endOfInput.getAsBoolean()) {
+                        // The sequence may be completed by input not yet available
+                        decoder.reset();
+                        return -1;
+                    }
+                    if (!decodeEndOfInput()) {
+                        return -1;
+                    }
+                    break;
+                }
+            }
+
+            if (chars.position() == 0) {
+                result.throwException();
+            }
+        } finally {
+            chars.flip();
+        }
+
+        return chars.get();
+    }
+
+    /**
+     * Decode the bytes remaining at the end of the input. An incomplete
+     * character sequence is reported as malformed input.
+     *
+     * @return true if any characters were decoded
+     */
+    boolean decodeEndOfInput() throws IOException {
+        try {
+            CoderResult result = decoder.decode(bytes, chars, true);
+
+            if (result.isUnderflow()) {
+                result = decoder.flush(chars);
+            }
+
+            if (result.isError()) {
+                result.throwException();
+            }
+        } finally {
+            decoder.reset();
+        }
+
+        return chars.position() > 0;
+    }
+
+    /**
+     * Discard the decoded characters not yet consumed and position the byte
+     * window immediately following the last character that was consumed.
+     */
+    void rewind() {
+        final int consumed = chars.position();
+        bytes.position(windowStart);
+        decoder.reset();
+        chars.clear();
+        chars.limit(consumed);
+        decoder.decode(bytes, chars, false);
+        chars.limit(0);
+    }
+
+    /**
+     * Compact the byte window, retaining bytes starting at position
+     * <code>retain</code>, and read additional bytes from the stream.
+     *
+     * @param retain position of the first byte to retain in the window
+     * @return true if additional bytes were read, otherwise false
+     * @throws IOException when the underlying stream can not be read
+     */
+    boolean fill(int retain) throws IOException {
+        if (channel != null) {
+            return map(retain);
+        }
+
+        final int offset = bytes.position() - retain;
+        bytes.position(retain);
+        bytes.compact();
+
+        if (!bytes.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+            bytes.flip();
+            larger.put(bytes);
+            bytes = larger;
+        }
+
+        windowStart -= retain;
+
+        int count;
+
+        do {
+            count = stream.read(bytes.array(), bytes.position(), bytes.remaining());
+        } while (count == 0);
+
+        if (count > 0) {
+            bytes.position(bytes.position() + count);
+        }
+
+        bytes.flip();
+        bytes.position(offset);
+
+        return count > 0;
+    }
+
+    /**
+     * Map the region of the file starting at position <code>retain</code> of
+     * the current region and extending beyond its end.
+     *
+     * @param retain position of the first byte to retain in the window
+     * @return true if additional bytes were mapped, otherwise false
+     * @throws IOException when the file can not be mapped
+     */
+    boolean map(int retain) throws IOException {
+        final long start = mapStart + retain;
+        final long retained = (long) bytes.limit() - retain;
+        final long available = channel.size() - start;
+
+        if (available <= retained) {
+            return false;
+        }
+
+        final long length = Math.min(Math.min(available, Integer.MAX_VALUE), Math.max(mapSize, retained * 2));
+        final int offset = bytes.position() - retain;
+
+        bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        bytes.position(offset);
+        mapStart = start;
+        windowStart -= retain;
+
+        return true;
+    }
+}
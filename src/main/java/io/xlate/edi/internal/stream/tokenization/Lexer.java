@@ -15,18 +15,19 @@
  ******************************************************************************/
 package io.xlate.edi.internal.stream.tokenization;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.io.UncheckedIOException;
-import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CoderResult;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
+import java.util.function.BooleanSupplier;
 import java.util.function.IntSupplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import io.xlate.edi.internal.stream.CharArraySequence;
@@ -47,21 +48,34 @@ public class Lexer {
     private int previousInput = 0;
     private State previous;
 
-    private interface Notifier {
-        boolean execute(State state, int start, int length);
-    }
-
-    private final Deque<Notifier> events = new ArrayDeque<>(20);
-    private final Deque<State> stateQueue = new ArrayDeque<>(20);
-    private final Deque<Integer> startQueue = new ArrayDeque<>(20);
-    private final Deque<Integer> lengthQueue = new ArrayDeque<>(20);
-
-    private final InputStream stream;
+    private enum Notifier {
+        INTERCHANGE_START,
+        INTERCHANGE_END,
+        SEGMENT_START,
+        SEGMENT_END,
+        COMPOSITE_START,
+        COMPOSITE_END,
+        ELEMENT,
+        ELEMENT_STREAM,
+        BINARY_ELEMENT
+    }
+
+    /*
+     * Pending events are held in a ring of parallel arrays. The capacity is
+     * always a power of two and the ring is only expanded when full.
+     */
+    private static final int INITIAL_EVENT_CAPACITY = 32;
+    private Notifier[] events = new Notifier[INITIAL_EVENT_CAPACITY];
+    private State[] eventStates = new State[INITIAL_EVENT_CAPACITY];
+    private int[] eventStarts = new int[INITIAL_EVENT_CAPACITY];
+    private int[] eventLengths = new int[INITIAL_EVENT_CAPACITY];
+    private int eventHead = 0;
+    private int eventCount = 0;
+
+    private final InputBuffer input;
+    private final IntSupplier inputSource = this::readCharacterUnchecked;
     private final EventHandler handler;
-    private CharsetDecoder decoder;
-    private char[] readChar = new char[1];
-    private CharBuffer readCharBuf = CharBuffer.wrap(readChar);
-    private ByteBuffer readByteBuf = ByteBuffer.allocate(4);
+    private final SegmentTagTable segmentTags;
     private CharArraySequence elementHolder = new CharArraySequence();
 
     private final StaEDIStreamLocation location;
@@ -69,18 +83,69 @@ public class Lexer {
     private CharBuffer buffer = CharBuffer.allocate(4096);
     private Dialect dialect;
 
+    /*
+     * Start of the current element's data in the buffer and the maximum number
+     * of characters that may be buffered for a single element.
+     */
+    private int elementStart = 0;
+    private boolean textRetained = false;
+    private int elementLimit = Integer.MAX_VALUE;
+    private boolean oversizedElementsStreamed = false;
+    private ElementReader elementStream = null;
+    private int pendingInput = -1;
+    private boolean inputExhausted = false;
+
     private long binaryRemain = -1;
     private InputStream binaryStream = null;
 
     public Lexer(InputStream stream, Charset charset, EventHandler handler, StaEDIStreamLocation location, boolean extraneousIgnored) {
-        if (stream.markSupported()) {
-            this.stream = stream;
-        } else {
-            this.stream = new BufferedInputStream(stream);
-        }
+        this(stream, charset, handler, new SegmentTagTable(), location, extraneousIgnored);
+    }
 
+    public Lexer(InputStream stream,
+            Charset charset,
+            EventHandler handler,
+            SegmentTagTable segmentTags,
+            StaEDIStreamLocation location,
+            boolean extraneousIgnored) {
+        this(new InputBuffer(stream, charset), handler, segmentTags, location, extraneousIgnored);
+    }
+
+    /**
+     * Create a lexer that reads from a stream which may return -1 before the
+     * end of the input, as signaled by <code>endOfInput</code>.
+     */
+    public Lexer(InputStream stream,
+            BooleanSupplier endOfInput,
+            Charset charset,
+            EventHandler handler,
+            SegmentTagTable segmentTags,
+            StaEDIStreamLocation location,
+            boolean extraneousIgnored) {
+        this(new InputBuffer(stream, endOfInput, charset), handler, segmentTags, location, extraneousIgnored);
+    }
+
+    /**
+     * Create a lexer that reads directly from a memory mapping of the file,
+     * starting at the channel's current position.
+     */
+    public Lexer(FileChannel channel,
+            Charset charset,
+            EventHandler handler,
+            SegmentTagTable segmentTags,
+            StaEDIStreamLocation location,
+            boolean extraneousIgnored) throws IOException {
+        this(new InputBuffer(channel, charset), handler, segmentTags, location, extraneousIgnored);
+    }
+
+    Lexer(InputBuffer input,
+            EventHandler handler,
+            SegmentTagTable segmentTags,
+            StaEDIStreamLocation location,
+            boolean extraneousIgnored) {
+        this.input = input;
         this.handler = handler;
-        this.decoder = charset.newDecoder();
+        this.segmentTags = segmentTags;
 
         this.location = location;
         this.characters = new CharacterSet(extraneousIgnored);
@@ -90,6 +155,58 @@ public class Lexer {
         return dialect;
     }
 
+    /**
+     * Set the maximum number of characters that will be buffered for a single
+     * element. When an element's data exceeds the limit, the element is
+     * delivered to the handler as a stream if
+     * <code>oversizedElementsStreamed</code> is true, otherwise an exception is
+     * thrown.
+     *
+     * @param elementLimit              maximum number of characters buffered
+     *                                  for an element
+     * @param oversizedElementsStreamed true if element data exceeding the
+     *                                  limit should be streamed
+     */
+    public void setElementLimit(int elementLimit, boolean oversizedElementsStreamed) {
+        this.elementLimit = elementLimit;
+        this.oversizedElementsStreamed = oversizedElementsStreamed;
+    }
+
+    /**
+     * When set, the characters of elements given to the handler are retained
+     * in the buffer until {@link #releaseText()} is called, allowing the
+     * handler to hold references to the characters rather than copies.
+     *
+     * @param textRetained true if element characters should be retained
+     */
+    public void setTextRetained(boolean textRetained) {
+        this.textRetained = textRetained;
+    }
+
+    /**
+     * Release the characters retained for the handler. Called once the handler
+     * no longer holds references to the characters of previous elements. The
+     * buffer is only reset when no events remain pending and no partial
+     * element has been buffered, otherwise it continues to be retained.
+     */
+    public void releaseText() {
+        if (eventCount == 0 && elementStart == buffer.position()) {
+            buffer.clear();
+            elementStart = 0;
+        }
+    }
+
+    /**
+     * Determine whether the lexer is positioned between interchanges, having
+     * consumed no input other than whitespace following the end of the
+     * previous interchange.
+     *
+     * @return true if no interchange is in progress, otherwise false
+     */
+    public boolean isBetweenInterchanges() {
+        return state == State.INITIAL || state == State.INTERCHANGE_END;
+    }
+
     public void invalidate() {
         if (state != State.INVALID) {
             previous = state;
@@ -97,6 +214,20 @@ public class Lexer {
         }
     }
 
+    /**
+     * Determine whether the remaining data of the current binary element is
+     * held in the input buffer, reading the input currently available when it
+     * is not. Used by asynchronous readers, whose input may be incomplete, to
+     * ensure the binary data stream will not end prematurely.
+     *
+     * @return true if the binary data is buffered or no binary element is in
+     *         progress, otherwise false
+     * @throws IOException when the input can not be read
+     */
+    public boolean isBinaryDataBuffered() throws IOException {
+        return binaryRemain < 1 || input.bufferBytes(binaryRemain);
+    }
+
     public void setBinaryLength(long binaryLength) {
         this.binaryRemain = binaryLength;
 
@@ -105,7 +236,7 @@ public class Lexer {
             public int read() throws IOException {
                 int binaryInput = -1;
 
-                if (binaryRemain-- < 1 || (binaryInput = stream.read()) < 0) {
+                if (binaryRemain-- < 1 || (binaryInput = input.readByte()) < 0) {
                     state = State.ELEMENT_END_BINARY;
                 } else {
                     location.incrementOffset(binaryInput);
@@ -113,36 +244,84 @@ public class Lexer {
 
                 return binaryInput;
             }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+
+                int count = -1;
+
+                if (binaryRemain < 1 || (count = input.readBytes(buffer, offset, (int) Math.min(length, binaryRemain))) < 0) {
+                    binaryRemain = 0;
+                    state = State.ELEMENT_END_BINARY;
+                    return -1;
+                }
+
+                binaryRemain -= count;
+
+                for (int i = 0; i < count; i++) {
+                    location.incrementOffset(buffer[offset + i] & 0xFF);
+                }
+
+                return count;
+            }
         };
 
-        enqueue(this::binaryElement, 0);
+        enqueue(Notifier.BINARY_ELEMENT, 0);
         state = State.ELEMENT_DATA_BINARY;
     }
 
     public boolean hasRemaining() throws IOException {
-        stream.mark(200);
-        int peekInput;
-        boolean spaceOnly = true;
+        return input.hasRemaining(characters);
+    }
 
-        while ((peekInput = stream.read()) > -1 && spaceOnly) {
-            spaceOnly = characters.isWhitespace(peekInput);
-        }
+    public void parse() throws IOException, EDIException {
+        parse(true);
+    }
 
-        stream.reset();
-        return !spaceOnly;
+    /**
+     * Parse the input that is currently available, without treating the
+     * exhaustion of the input as an incomplete stream. Used when additional
+     * input may be supplied to the input stream after it has returned -1.
+     *
+     * @return true if events were delivered to the handler, false if the
+     *         available input was consumed before any events were ready
+     * @throws IOException  when the input can not be read
+     * @throws EDIException when the input is not valid
+     */
+    public boolean parseAvailable() throws IOException, EDIException {
+        return parse(false);
     }
 
-    public void parse() throws IOException, EDIException {
+    boolean parse(boolean inputRequired) throws IOException, EDIException {
+        if (elementStream != null) {
+            // Discard any streamed element data not consumed by the handler
+            elementStream.skipRemaining();
+        }
+
         try {
-            parse(this::readCharacterUnchecked);
+            return parse(inputSource, inputRequired);
         } catch (UncheckedIOException e) {
             throw e.getCause();
         }
     }
 
     void parse(IntSupplier inputSource) throws EDIException {
-        if (nextEvent()) {
-            return;
+        parse(inputSource, true);
+    }
+
+    boolean parse(IntSupplier inputSource, boolean inputRequired) throws EDIException {
+        if (inputExhausted) {
+            /*
+             * The previous call ended when the available input was exhausted.
+             * Pending events are not released until further input makes them
+             * ready, exactly as if the input had not been interrupted.
+             */
+            inputExhausted = false;
+        } else if (nextEvent()) {
+            return true;
         }
 
         if (state.isInvalid()) {
@@ -153,13 +332,71 @@ public class Lexer {
         int input = 0;
         boolean eventsReady = false;
 
+        if (pendingInput > -1) {
+            // Input that ended a streamed element
+            input = pendingInput;
+            pendingInput = -1;
+            eventsReady = processInputCharacter(input);
+        }
+
         while (!eventsReady && (input = inputSource.getAsInt()) > -1) {
             eventsReady = processInputCharacter(input);
         }
 
         if (input < 0) {
-            throw error(EDIException.INCOMPLETE_STREAM);
+            if (inputRequired) {
+                throw error(EDIException.INCOMPLETE_STREAM);
+            }
+            inputExhausted = true;
+            return false;
         }
+
+        return true;
+    }
+
+    /**
+     * Skip the elements of the segment just started, reading the input only
+     * to find the segment terminator (honoring release characters). The
+     * handler is notified of the end of the segment without receiving any of
+     * its elements. Skipping is only possible when the start of the segment
+     * is the last event delivered and no element input has been consumed.
+     *
+     * @return true if the segment was skipped, false if skipping is not
+     *         possible in the current state
+     * @throws IOException  when the input can not be read
+     * @throws EDIException when the input ends before the segment terminator
+     */
+    public boolean skipSegment() throws IOException, EDIException {
+        if (state != State.SEGMENT_BEGIN || eventCount > 0 || pendingInput > -1 || modes.peek() != Mode.SEGMENT) {
+            return false;
+        }
+
+        int input;
+
+        while ((input = readCharacter()) > -1) {
+            location.incrementOffset(input);
+
+            switch (characters.getClass(input)) {
+            case RELEASE_CHARACTER:
+                // Next character is literal data
+                if ((input = readCharacter()) < 0) {
+                    throw error(EDIException.INCOMPLETE_STREAM);
+                }
+                location.incrementOffset(input);
+                break;
+            case SEGMENT_DELIMITER:
+                popMode(Mode.SEGMENT);
+                previous = state;
+                previousInput = input;
+                state = State.SEGMENT_END;
+                handler.segmentSkipped();
+                return true;
+            default:
+                break;
+            }
+        }
+
+        throw error(EDIException.INCOMPLETE_STREAM);
     }
 
     boolean processInputCharacter(int input) throws EDIException {
@@ -171,7 +408,10 @@ public class Lexer {
         previousInput = input;
 
         state = State.transition(state, dialect, clazz);
-        LOGGER.finer(() -> String.format("%s + (%s, '%s', %s) -> %s", previous, Dialect.getStandard(dialect), (char) input, clazz, state));
+
+        if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.finer(String.format("%s + (%s, '%s', %s) -> %s", previous, Dialect.getStandard(dialect), (char) input, clazz, state));
+        }
 
         switch (state) {
         case INITIAL:
@@ -196,13 +436,15 @@ public class Lexer {
         case TRAILER_TRADACOMS_E:
         case TRAILER_TRADACOMS_N:
         case TRAILER_TRADACOMS_D:
+            put((char) input);
+            break;
         case ELEMENT_DATA:
         case TRAILER_ELEMENT_DATA:
-            buffer.put((char) input);
+            eventsReady = handleElementData(input);
             break;
         case ELEMENT_INVALID_DATA:
             if (!characters.isIgnored(input)) {
-                buffer.put((char) input);
+                eventsReady = handleElementData(input);
             }
             break;
         case HEADER_EDIFACT_UNB_1: // U - When UNA is present
@@ -290,61 +532,48 @@ public class Lexer {
     }
 
     int readCharacter() throws IOException {
-        int next = stream.read();
+        return input.read();
+    }
 
-        if (next < 0) {
-            return -1;
+    void put(char input) {
+        if (!buffer.hasRemaining()) {
+            CharBuffer expanded = CharBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            expanded.put(buffer);
+            buffer = expanded;
         }
 
-        boolean endOfInput = false;
-        boolean complete = false;
-        int position = 0;
-
-        readCharBuf.clear();
-        readByteBuf.clear();
-        readByteBuf.put((byte) next);
-
-        do {
-            readByteBuf.flip();
-            CoderResult cr = decoder.decode(readByteBuf, readCharBuf, endOfInput);
-
-            if (!cr.isUnderflow()) {
-                cr.throwException();
-            }
-
-            if (endOfInput) {
-                complete = true;
-            } else if (readCharBuf.position() > 0) {
-                // Single character successfully written to the CharBuffer
-                complete = true;
-            } else {
-                next = stream.read();
+        buffer.put(input);
+    }
 
-                if (next < 0) {
-                    endOfInput = true;
-                    decoder.reset();
-                } else {
-                    readByteBuf.limit(readByteBuf.capacity());
-                    readByteBuf.position(++position);
-                    readByteBuf.put((byte) next);
-                }
-            }
-        } while (!complete);
+    boolean handleElementData(int input) throws EDIException {
+        if (buffer.position() - elementStart < elementLimit) {
+            put((char) input);
+            return false;
+        }
 
-        if (endOfInput) {
-            decoder.reset();
+        if (!oversizedElementsStreamed) {
+            throw error(EDIException.ELEMENT_LIMIT_EXCEEDED);
         }
 
-        if (readCharBuf.position() == 0 && endOfInput) {
-            // Nothing was written to the CharBuffer
-            return -1;
+        final char[] data = Arrays.copyOfRange(buffer.array(), elementStart, buffer.position() + 1);
+        data[data.length - 1] = (char) input;
+        elementStream = new ElementReader(data);
+        enqueue(Notifier.ELEMENT_STREAM, buffer.position());
+
+        /*
+         * Deliver all pending events, including the streamed element. No further
+         * input may be processed by the lexer until the stream is consumed.
+         */
+        while (eventCount > 0) {
+            nextEvent();
         }
 
-        return readChar[0];
+        return true;
     }
 
     void handleStateHeaderTag(int input) {
-        buffer.put((char) input);
+        put((char) input);
         dialect.appendHeader(characters, (char) input);
     }
 
@@ -359,7 +588,7 @@ public class Lexer {
     }
 
     void handleStateInterchangeCandidate(int input) throws EDIException {
-        buffer.put((char) input);
+        put((char) input);
         final char[] header = buffer.array();
         final int length = buffer.position();
         dialect = DialectFactory.getDialect(header, 0, length, location);
@@ -386,7 +615,7 @@ public class Lexer {
             break;
         default:
             if (!characters.isIgnored(input)) {
-                buffer.put(input);
+                put(input);
             }
             break;
         }
@@ -407,7 +636,6 @@ public class Lexer {
             nextEvent();
             return true;
         } else if (dialect.isRejected()) {
-            buffer.clear();
             clearQueues();
             String rejectionMessage = dialect.getRejectionMessage();
             dialect = null;
@@ -438,84 +666,143 @@ public class Lexer {
     }
 
     private boolean nextEvent() {
-        Notifier event = events.peek();
         boolean eventsReady = false;
 
-        if (event != null) {
-            events.remove();
-            State nextState = stateQueue.remove();
-            int start = startQueue.remove();
-            int length = lengthQueue.remove();
-            eventsReady = event.execute(nextState, start, length);
+        if (eventCount > 0) {
+            final int index = eventHead;
+            eventHead = (eventHead + 1) & (events.length - 1);
+            eventCount--;
 
-            if (events.isEmpty()) {
+            eventsReady = execute(events[index], eventStates[index], eventStarts[index], eventLengths[index]);
+
+            if (eventCount == 0 && !textRetained) {
                 buffer.clear();
+                elementStart = 0;
             }
         }
 
         return eventsReady;
     }
 
+    private boolean execute(Notifier event, State state, int start, int length) {
+        switch (event) {
+        case INTERCHANGE_START:
+            return interchangeStart(state, start, length);
+        case INTERCHANGE_END:
+            return interchangeEnd(state, start, length);
+        case SEGMENT_START:
+            return segmentStart(state, start, length);
+        case SEGMENT_END:
+            return segmentEnd(state, start, length);
+        case COMPOSITE_START:
+            return compositeStart(state, start, length);
+        case COMPOSITE_END:
+            return compositeEnd(state, start, length);
+        case ELEMENT_STREAM:
+            return elementStream(state, start, length);
+        case BINARY_ELEMENT:
+            return binaryElement(state, start, length);
+        default:
+            return element(state, start, length);
+        }
+    }
+
     private void enqueue(Notifier task, int position) {
         int start;
         int length;
 
-        if (startQueue.isEmpty()) {
-            start = 0;
-            length = position;
+        if (eventCount == 0) {
+            // Zero unless the buffer's characters are retained
+            start = elementStart;
+            length = position > 0 ? position - start : 0;
         } else {
-            start = startQueue.peekLast() + lengthQueue.peekLast();
+            int last = (eventHead + eventCount - 1) & (events.length - 1);
+            start = eventStarts[last] + eventLengths[last];
             length = position > 0 ? position - start : 0;
         }
 
-        events.add(task);
-        stateQueue.add(this.state);
-        startQueue.add(start);
-        lengthQueue.add(length);
+        if (eventCount == events.length) {
+            expandEvents();
+        }
+
+        int index = (eventHead + eventCount) & (events.length - 1);
+        events[index] = task;
+        eventStates[index] = this.state;
+        eventStarts[index] = start;
+        eventLengths[index] = length;
+        eventCount++;
+        elementStart = start + length;
+    }
+
+    private void expandEvents() {
+        final int capacity = events.length;
+        final int tail = capacity - eventHead;
+        Notifier[] expandedEvents = new Notifier[capacity * 2];
+        State[] expandedStates = new State[capacity * 2];
+        int[] expandedStarts = new int[capacity * 2];
+        int[] expandedLengths = new int[capacity * 2];
+
+        // Copy the entries from the head to the end of the arrays, then the wrapped entries
+        System.arraycopy(events, eventHead, expandedEvents, 0, tail);
+        System.arraycopy(events, 0, expandedEvents, tail, eventHead);
+        System.arraycopy(eventStates, eventHead, expandedStates, 0, tail);
+        System.arraycopy(eventStates, 0, expandedStates, tail, eventHead);
+        System.arraycopy(eventStarts, eventHead, expandedStarts, 0, tail);
+        System.arraycopy(eventStarts, 0, expandedStarts, tail, eventHead);
+        System.arraycopy(eventLengths, eventHead, expandedLengths, 0, tail);
+        System.arraycopy(eventLengths, 0, expandedLengths, tail, eventHead);
+
+        events = expandedEvents;
+        eventStates = expandedStates;
+        eventStarts = expandedStarts;
+        eventLengths = expandedLengths;
+        eventHead = 0;
     }
 
     private void clearQueues() {
-        events.clear();
-        stateQueue.clear();
-        startQueue.clear();
-        lengthQueue.clear();
+        eventHead = 0;
+        eventCount = 0;
+        buffer.clear();
+        elementStart = 0;
     }
 
     private void openInterchange() {
         modes.push(Mode.INTERCHANGE);
-        enqueue(this::interchangeStart, 0);
+        enqueue(Notifier.INTERCHANGE_START, 0);
     }
 
     private void closeInterchange() throws EDIException {
         closeSegment();
         popMode(Mode.INTERCHANGE);
-        enqueue(this::interchangeEnd, 0);
+        enqueue(Notifier.INTERCHANGE_END, 0);
     }
 
     private void openSegment() {
         modes.push(Mode.SEGMENT);
-        enqueue(this::segmentStart, buffer.position());
+        enqueue(Notifier.SEGMENT_START, buffer.position());
     }
 
     private void closeSegment() throws EDIException {
         handleElement();
         popMode(Mode.SEGMENT);
-        enqueue(this::segmentEnd, 0);
+        enqueue(Notifier.SEGMENT_END, 0);
     }
 
     private void emptySegment() throws EDIException {
         openSegment();
         popMode(Mode.SEGMENT);
-        enqueue(this::segmentEnd, 0);
+        enqueue(Notifier.SEGMENT_END, 0);
     }
 
     private void handleElement() throws EDIException {
         location.setRepeating(State.ELEMENT_REPEAT.equals(state));
 
-        if (previous != State.ELEMENT_END_BINARY) {
+        if (previous != State.ELEMENT_END_BINARY && elementStream == null) {
             addElementEvent();
         }
 
+        elementStream = null;
+
         if (inComposite()) {
             closeComposite();
         }
@@ -523,19 +810,27 @@ public class Lexer {
 
     private void openComposite() {
         modes.push(Mode.COMPOSITE);
-        enqueue(this::compositeStart, 0);
+        enqueue(Notifier.COMPOSITE_START, 0);
     }
 
-    private void handleComponent() {
+    private void handleComponent() throws EDIException {
         if (!inComposite()) {
+            if (elementStream != null) {
+                // The streamed element was already delivered as a simple element
+                throw error(EDIException.ELEMENT_LIMIT_EXCEEDED, "first component of a composite may not be streamed");
+            }
             openComposite();
         }
 
-        addElementEvent();
+        if (elementStream == null) {
+            addElementEvent();
+        }
+
+        elementStream = null;
     }
 
     private void addElementEvent() {
-        enqueue(this::element, buffer.position());
+        enqueue(Notifier.ELEMENT, buffer.position());
     }
 
     private boolean inComposite() {
@@ -544,7 +839,7 @@ public class Lexer {
 
     private void closeComposite() throws EDIException {
         popMode(Mode.COMPOSITE);
-        enqueue(this::compositeEnd, 0);
+        enqueue(Notifier.COMPOSITE_END, 0);
     }
 
     void popMode(Mode expected) throws EDIException {
@@ -576,7 +871,7 @@ public class Lexer {
     }
 
     private boolean segmentStart(State state, int start, int length) {
-        String segmentTag = new String(buffer.array(), start, length);
+        String segmentTag = segmentTags.intern(buffer.array(), start, length);
         return handler.segmentBegin(segmentTag);
     }
 
@@ -600,4 +895,95 @@ public class Lexer {
         elementHolder.set(buffer.array(), start, length);
         return handler.elementData(elementHolder, true);
     }
+
+    private boolean elementStream(State state, int start, int length) {
+        elementHolder.set(buffer.array(), start, length);
+        return handler.textData(elementHolder, elementStream);
+    }
+
+    /**
+     * Reader for the data of an element exceeding the element limit. The
+     * characters already buffered are returned first, followed by the
+     * remaining characters of the element read directly from the input. The
+     * input ending the element is retained for processing by the lexer.
+     */
+    class ElementReader extends Reader {
+        private final char[] buffered;
+        private int position = 0;
+        private boolean complete = false;
+
+        ElementReader(char[] buffered) {
+            this.buffered = buffered;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position < buffered.length) {
+                return buffered[position++];
+            }
+
+            int next;
+
+            while (!complete && (next = input.read()) > -1) {
+                CharacterClass clazz = characters.getClass(next);
+                State nextState = State.transition(state, dialect, clazz);
+
+                switch (nextState) {
+                case ELEMENT_DATA:
+                case TRAILER_ELEMENT_DATA:
+                case ELEMENT_INVALID_DATA:
+                    location.incrementOffset(next);
+                    previous = state;
+                    state = nextState;
+
+                    if (nextState != State.ELEMENT_INVALID_DATA || !characters.isIgnored(next)) {
+                        return next;
+                    }
+                    break;
+                case DATA_RELEASE:
+                    location.incrementOffset(next);
+                    previous = state;
+                    state = nextState;
+                    break;
+                default:
+                    if (characters.isIgnored(next)) {
+                        location.incrementOffset(next);
+                    } else {
+                        // Delimiter or other input to be handled by the lexer
+                        pendingInput = next;
+                        complete = true;
+                    }
+                    break;
+                }
+            }
+
+            complete = true;
+            return -1;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int count = 0;
+            int next;
+
+            while (count < len && (next = read()) > -1) {
+                cbuf[off + count++] = (char) next;
+            }
+
+            return count > 0 || len == 0 ? count : -1;
+        }
+
+        void skipRemaining() throws IOException {
+            position = buffered.length;
+
+            while (read() > -1) {
+                // Skip
+            }
+        }
+
+        @Override
+        public void close() {
+            // Closing the element reader does not close the input
+        }
+    }
 }
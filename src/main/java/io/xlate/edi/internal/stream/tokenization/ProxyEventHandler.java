@@ -16,15 +16,16 @@
 package io.xlate.edi.internal.stream.tokenization;
 
 import java.io.InputStream;
+import java.io.Reader;
 import java.nio.CharBuffer;
+import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Queue;
 import java.util.function.Function;
 
+import io.xlate.edi.internal.stream.CharArraySequence;
 import io.xlate.edi.internal.stream.StaEDIStreamLocation;
 import io.xlate.edi.internal.stream.validation.UsageError;
 import io.xlate.edi.internal.stream.validation.Validator;
@@ -54,15 +55,18 @@ public class ProxyEventHandler implements EventHandler {
 
     private boolean transactionSchemaAllowed = false;
     private boolean transaction = false;
+    private boolean textReferenced = false;
 
     private InputStream binary;
+    private StreamEvent textEvent;
+    private Reader textStream;
     private String segmentTag;
+    private final SegmentTagTable segmentTags = new SegmentTagTable();
 
-    private final Queue<StreamEvent> eventPool = new LinkedList<>();
-    // Use implementation to access as both Deque & List
-    private final LinkedList<StreamEvent> eventQueue = new LinkedList<>();
+    private final Deque<StreamEvent> eventPool = new ArrayDeque<>();
+    private final StreamEventQueue eventQueue = new StreamEventQueue();
 
-    private final Deque<HierarchicalLevel> openLevels = new LinkedList<>();
+    private final Deque<HierarchicalLevel> openLevels = new ArrayDeque<>();
 
     static class HierarchicalLevel {
         final String id;
@@ -79,8 +83,9 @@ public class ProxyEventHandler implements EventHandler {
     }
 
     private boolean levelCheckPending;
-    private StreamEvent currentSegmentBegin;
+    private long currentSegmentPosition;
     private StreamEvent startedLevel;
+    private long startedLevelPosition;
     private EDIElementPosition levelIdPosition;
     private String startedLevelId;
     private EDIElementPosition parentIdPosition;
@@ -96,6 +101,18 @@ public class ProxyEventHandler implements EventHandler {
         setControlSchema(controlSchema);
     }
 
+    /**
+     * When set, {@link EDIStreamEvent#ELEMENT_DATA ELEMENT_DATA} events
+     * reference the characters given by the lexer rather than a copy. The
+     * lexer must retain the characters until the events have been consumed.
+     *
+     * @param textReferenced true if element text should be referenced
+     * @see Lexer#setTextRetained(boolean)
+     */
+    public void setTextReferenced(boolean textReferenced) {
+        this.textReferenced = textReferenced;
+    }
+
     public void setControlSchema(Schema controlSchema) {
         if (controlValidator != null) {
             throw new IllegalStateException("control validator already created");
@@ -103,6 +120,7 @@ public class ProxyEventHandler implements EventHandler {
 
         this.controlSchema = controlSchema;
         controlValidator = Validator.forSchema(controlSchema, null, config);
+        segmentTags.addAll(controlSchema);
     }
 
     public boolean isTransactionSchemaAllowed() {
@@ -117,12 +135,20 @@ public class ProxyEventHandler implements EventHandler {
         if (!Objects.equals(this.transactionSchema, transactionSchema)) {
             this.transactionSchema = transactionSchema;
             transactionValidator = Validator.forSchema(transactionSchema, controlSchema, config);
+            segmentTags.addAll(transactionSchema);
         }
     }
 
+    public SegmentTagTable getSegmentTags() {
+        return segmentTags;
+    }
+
     public void resetEvents() {
-        eventPool.addAll(eventQueue);
+        for (StreamEvent event : eventQueue) {
+            eventPool.push(event);
+        }
         eventQueue.clear();
+        clearTextStream();
     }
 
     public EDIStreamEvent getEvent() {
@@ -147,6 +173,37 @@ public class ProxyEventHandler implements EventHandler {
         return current(StreamEvent::getData, null);
     }
 
+    /**
+     * Get the type of the event that will follow the current event, provided
+     * it is ready to be delivered. An event is not ready when it is the start of
+     * a transaction for which the header segment has not been completely
+     * parsed.
+     *
+     * @param currentRetained true if the first event in the queue is the
+     *                        current event, false if it has not yet been
+     *                        delivered
+     * @return the type of the next event, or null if no event is ready
+     */
+    public EDIStreamEvent peekNextEvent(boolean currentRetained) {
+        Iterator<StreamEvent> pending = eventQueue.iterator();
+
+        if (currentRetained && pending.hasNext()) {
+            pending.next();
+        }
+
+        if (!pending.hasNext()) {
+            return null;
+        }
+
+        EDIStreamEvent next = pending.next().getType();
+
+        if (next == EDIStreamEvent.START_TRANSACTION && eventQueue.getLast().getType() != EDIStreamEvent.END_SEGMENT) {
+            return null;
+        }
+
+        return next;
+    }
+
     public boolean hasNext() {
         // Current event is in the first position, second will be used for `nextEvent`
         return eventQueue.size() > 1;
@@ -159,6 +216,10 @@ public class ProxyEventHandler implements EventHandler {
 
         StreamEvent lastEvent = eventQueue.removeFirst();
 
+        if (lastEvent == textEvent) {
+            clearTextStream();
+        }
+
         if (lastEvent.getType() == EDIStreamEvent.END_TRANSACTION) {
             /*
              * Retain the transaction metadata in the dialect until after
@@ -167,7 +228,7 @@ public class ProxyEventHandler implements EventHandler {
             dialect.transactionEnd();
         }
 
-        eventPool.add(lastEvent);
+        eventPool.push(lastEvent);
         return !eventQueue.isEmpty();
     }
 
@@ -196,7 +257,7 @@ public class ProxyEventHandler implements EventHandler {
     }
 
     StreamEvent getPooledEvent() {
-        return eventPool.isEmpty() ? new StreamEvent() : eventPool.remove();
+        return eventPool.isEmpty() ? new StreamEvent() : eventPool.pop();
     }
 
     public InputStream getBinary() {
@@ -207,6 +268,22 @@ public class ProxyEventHandler implements EventHandler {
         this.binary = binary;
     }
 
+    /**
+     * Get the reader for the current element when the element's data exceeded
+     * the lexer's element buffer limit.
+     *
+     * @return reader for the current element's data, or null if the current
+     *         event is not a streamed element
+     */
+    public Reader getTextStream() {
+        return textEvent != null && eventQueue.peekFirst() == textEvent ? textStream : null;
+    }
+
+    void clearTextStream() {
+        textEvent = null;
+        textStream = null;
+    }
+
     public EDIReference getSchemaTypeReference() {
         return current(StreamEvent::getTypeReference, null);
     }
@@ -248,6 +325,7 @@ public class ProxyEventHandler implements EventHandler {
             if (nestHierarchicalLoops && isHierarchicalLoop(typeReference.getReferencedType())) {
                 EDILoopType loop = (EDILoopType) typeReference.getReferencedType();
                 startedLevel = eventQueue.getLast();
+                startedLevelPosition = eventQueue.lastPosition();
                 levelIdPosition = loop.getLevelIdPosition();
                 parentIdPosition = loop.getParentIdPosition();
                 levelCheckPending = true;
@@ -318,7 +396,7 @@ public class ProxyEventHandler implements EventHandler {
         }
 
         enqueueEvent(EDIStreamEvent.START_SEGMENT, EDIStreamValidationError.NONE, segmentTag, typeReference, segmentLocation);
-        currentSegmentBegin = eventQueue.getLast();
+        currentSegmentPosition = eventQueue.lastPosition();
         return !levelCheckPending && eventsReady;
     }
 
@@ -350,6 +428,48 @@ public class ProxyEventHandler implements EventHandler {
         return true;
     }
 
+    /**
+     * Segment end for a segment whose elements were not tokenized. The
+     * segment's syntax and element requirements are not validated.
+     */
+    @Override
+    public boolean segmentSkipped() {
+        Validator validator = validator();
+        EDIReference typeReference = null;
+
+        if (validator != null) {
+            validator.clearImplementationCandidates(this);
+            typeReference = validator.getSegmentReference();
+        }
+
+        location.clearSegmentLocations(true);
+        enqueueEvent(EDIStreamEvent.END_SEGMENT, EDIStreamValidationError.NONE, segmentTag, typeReference, location);
+        return true;
+    }
+
+    /**
+     * Determine whether the elements of the current segment may be skipped by
+     * the lexer. Only segments within the body of a transaction are skipped,
+     * so that the elements of control segments remain available for
+     * validation, and only when no events following the start of the segment
+     * have been queued. Segments that begin a hierarchical level or that
+     * contain binary data are never skipped.
+     *
+     * @return true if the remainder of the segment may be skipped
+     */
+    public boolean isSegmentSkippable() {
+        if (eventQueue.size() != 1 || eventQueue.getFirst().getType() != EDIStreamEvent.START_SEGMENT) {
+            return false;
+        }
+
+        if (!transaction || transactionSchemaAllowed || levelCheckPending || controlSchema == null) {
+            return false;
+        }
+
+        Validator validator = validator();
+        return validator == null || !validator.isBinarySegment();
+    }
+
     @Override
     public boolean compositeBegin(boolean isNil, boolean derived) {
         if (!derived) {
@@ -468,7 +588,6 @@ public class ProxyEventHandler implements EventHandler {
 
     void clearLevelCheck() {
         levelCheckPending = false;
-        currentSegmentBegin = null;
         startedLevel = null;
 
         levelIdPosition = null;
@@ -497,7 +616,7 @@ public class ProxyEventHandler implements EventHandler {
 
     void performLevelCheck() {
         if (startedLevel != null) {
-            completeLevel(startedLevel, startedLevelParentId);
+            completeLevel(startedLevelPosition, startedLevelParentId);
 
             StreamEvent openLevel = getPooledEvent();
             openLevel.update(EDIStreamEvent.END_LOOP, startedLevel.errorType, startedLevel.data, startedLevel.typeReference, startedLevel.location);
@@ -509,19 +628,22 @@ public class ProxyEventHandler implements EventHandler {
              */
             openLevels.addLast(new HierarchicalLevel(startedLevelId, openLevel));
         } else {
-            completeLevel(currentSegmentBegin, "");
+            completeLevel(currentSegmentPosition, "");
         }
 
         clearLevelCheck();
     }
 
-    void completeLevel(StreamEvent successor, String parentId) {
+    void completeLevel(long successorPosition, String parentId) {
+        long position = successorPosition;
+
         while (!openLevels.isEmpty() && !openLevels.getLast().isParentOf(parentId)) {
             HierarchicalLevel completed = openLevels.removeLast();
             completed.event.location.set(location);
             completed.event.location.clearSegmentLocations(true);
 
-            eventQueue.add(eventQueue.indexOf(successor), completed.event);
+            // Each completed level is inserted ahead of the successor, following those already inserted
+            eventQueue.insert(position++, completed.event);
         }
     }
 
@@ -586,6 +708,24 @@ public class ProxyEventHandler implements EventHandler {
         return true;
     }
 
+    @Override
+    public boolean textData(CharSequence text, Reader stream) {
+        elementData(text, true);
+        Iterator<StreamEvent> events = eventQueue.descendingIterator();
+
+        while (events.hasNext()) {
+            StreamEvent event = events.next();
+
+            if (event.getType() == EDIStreamEvent.ELEMENT_DATA) {
+                textEvent = event;
+                textStream = stream;
+                break;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     public void segmentError(CharSequence token, EDIReference typeReference, EDIStreamValidationError error) {
         enqueueEvent(EDIStreamEvent.SEGMENT_ERROR, error, token, typeReference, location);
@@ -620,7 +760,13 @@ public class ProxyEventHandler implements EventHandler {
                               StaEDIStreamLocation location) {
 
         StreamEvent target = getPooledEvent();
-        target.update(event, error, data, typeReference, location);
+
+        if (textReferenced && event == EDIStreamEvent.ELEMENT_DATA && data instanceof CharArraySequence) {
+            target.update(event, error, null, typeReference, location);
+            target.setDataReference((CharArraySequence) data);
+        } else {
+            target.update(event, error, data, typeReference, location);
+        }
 
         eventQueue.add(target);
     }
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.tokenization;
+
+import io.xlate.edi.schema.EDIType;
+import io.xlate.edi.schema.Schema;
+
+/**
+ * Table of canonical segment tag Strings. Tags are resolved directly from the
+ * characters in the lexer's buffer so that a new String is only created the
+ * first time a tag is encountered. The table may be seeded with the segment
+ * identifiers of a {@link Schema} so that the tags given to the validator are
+ * the same instances used by the schema.
+ */
+public class SegmentTagTable {
+
+    static final int INITIAL_CAPACITY = 256;
+    /**
+     * Upper bound on the number of tags retained, including those seeded from
+     * a schema. Tags encountered after the table is full are still resolved,
+     * but are not retained.
+     */
+    static final int MAX_SIZE = 4096;
+
+    private Schema seeded;
+    private String[] tags = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Add the identifiers of each segment type in the schema to the table. The
+     * schema is ignored when it is the same schema most recently added.
+     *
+     * @param schema the schema containing segment types, may be null
+     */
+    public void addAll(Schema schema) {
+        if (schema == null || schema == seeded) {
+            return;
+        }
+
+        seeded = schema;
+
+        for (EDIType type : schema) {
+            if (type.isType(EDIType.Type.SEGMENT)) {
+                add(type.getId());
+            }
+        }
+    }
+
+    void add(String tag) {
+        if (size >= MAX_SIZE) {
+            return;
+        }
+
+        final int mask = tags.length - 1;
+        int index = hash(tag) & mask;
+        String entry;
+
+        while ((entry = tags[index]) != null) {
+            if (entry.equals(tag)) {
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        insert(index, tag);
+    }
+
+    /**
+     * Resolve the canonical String for the tag given by the characters in
+     * <code>text</code> between <code>start</code> (inclusive) and
+     * <code>start + length</code> (exclusive).
+     *
+     * @param text   array holding the characters of the tag
+     * @param start  offset of the first character of the tag
+     * @param length number of characters in the tag
+     * @return the canonical String for the tag
+     */
+    public String intern(char[] text, int start, int length) {
+        final int mask = tags.length - 1;
+        int index = hash(text, start, length) & mask;
+        String entry;
+
+        while ((entry = tags[index]) != null) {
+            if (matches(entry, text, start, length)) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+
+        String tag = new String(text, start, length);
+
+        if (size < MAX_SIZE) {
+            insert(index, tag);
+        }
+
+        return tag;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(int index, String tag) {
+        tags[index] = tag;
+
+        if (++size > tags.length >> 1) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        final String[] previous = tags;
+        final int mask = (previous.length << 1) - 1;
+        tags = new String[previous.length << 1];
+
+        for (String tag : previous) {
+            if (tag != null) {
+                int index = hash(tag) & mask;
+
+                while (tags[index] != null) {
+                    index = (index + 1) & mask;
+                }
+
+                tags[index] = tag;
+            }
+        }
+    }
+
+    static boolean matches(String entry, char[] text, int start, int length) {
+        if (entry.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (entry.charAt(i) != text[start + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static int hash(String tag) {
+        int hash = 0;
+
+        for (int i = 0, m = tag.length(); i < m; i++) {
+            hash = 31 * hash + tag.charAt(i);
+        }
+
+        return spread(hash);
+    }
+
+    static int hash(char[] text, int start, int length) {
+        int hash = 0;
+
+        for (int i = start, m = start + length; i < m; i++) {
+            hash = 31 * hash + text[i];
+        }
+
+        return spread(hash);
+    }
+
+    static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -365,4 +365,8 @@ public enum State {
         return Category.HEADER == code && DialectCode.UNKNOWN != table;
     }
 
+    public boolean isElementProcessState() {
+        return Category.ELEMENT_PROCESS == code && DialectCode.UNKNOWN != table;
+    }
+
 }
@@ -18,6 +18,13 @@ public class StreamEvent {
 
     CharBuffer data;
     boolean dataNull = true;
+    /**
+     * View of character data owned by another object, e.g. the lexer's
+     * buffer. Used in place of {@link #data} when {@link #dataReferenced} is
+     * set.
+     */
+    CharBuffer dataReference;
+    boolean dataReferenced = false;
 
     EDIReference typeReference;
 
@@ -45,10 +52,27 @@ public class StreamEvent {
     }
 
     public CharBuffer getData() {
-        return dataNull ? null : data;
+        if (dataNull) {
+            return null;
+        }
+        return dataReferenced ? dataReference : data;
+    }
+
+    /**
+     * Reference the characters of the sequence without copying them. The
+     * characters must not be modified for as long as this event is in use.
+     *
+     * @param data the characters of the event
+     */
+    public void setDataReference(CharArraySequence data) {
+        this.dataReference = data.view(this.dataReference);
+        this.dataReferenced = true;
+        this.dataNull = false;
     }
 
     public void setData(CharSequence data) {
+        this.dataReferenced = false;
+
         if (data != null) {
             this.data = put(this.data, data);
             this.dataNull = false;
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.tokenization;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Array-backed ring of pending {@link StreamEvent}s. Each event added to the
+ * queue is assigned a position that remains valid as events are removed from
+ * the head of the queue, allowing events to be inserted ahead of a previously
+ * added event without searching the queue.
+ */
+public class StreamEventQueue extends AbstractCollection<StreamEvent> {
+
+    static final int INITIAL_CAPACITY = 64;
+
+    private StreamEvent[] elements = new StreamEvent[INITIAL_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+    /**
+     * Position of the event at the head of the queue.
+     */
+    private long removed = 0;
+
+    @Override
+    public boolean add(StreamEvent event) {
+        ensureCapacity();
+        elements[(head + size) & (elements.length - 1)] = event;
+        size++;
+        return true;
+    }
+
+    /**
+     * Insert the event immediately before the event at the given position.
+     * Only the events following the position are moved.
+     *
+     * @param position position of the event that will follow the inserted
+     *                 event, obtained from {@link #lastPosition()}
+     * @param event    the event to insert
+     */
+    public void insert(long position, StreamEvent event) {
+        final int index = (int) (position - removed);
+
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Position: " + position);
+        }
+
+        ensureCapacity();
+        final int mask = elements.length - 1;
+
+        for (int i = size; i > index; i--) {
+            elements[(head + i) & mask] = elements[(head + i - 1) & mask];
+        }
+
+        elements[(head + index) & mask] = event;
+        size++;
+    }
+
+    /**
+     * Get the position of the most recently added event. The position is
+     * valid until events are inserted ahead of it.
+     *
+     * @return position of the last event in the queue
+     */
+    public long lastPosition() {
+        return removed + size - 1;
+    }
+
+    public StreamEvent removeFirst() {
+        StreamEvent event = getFirst();
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        removed++;
+        return event;
+    }
+
+    public StreamEvent getFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    public StreamEvent getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    public StreamEvent peekFirst() {
+        return size > 0 ? elements[head] : null;
+    }
+
+    public StreamEvent peekLast() {
+        return size > 0 ? getLast() : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        final int mask = elements.length - 1;
+
+        for (int i = 0; i < size; i++) {
+            elements[(head + i) & mask] = null;
+        }
+
+        removed += size;
+        head = 0;
+        size = 0;
+    }
+
+    @Override
+    public Iterator<StreamEvent> iterator() {
+        return new Itr(0, 1);
+    }
+
+    public Iterator<StreamEvent> descendingIterator() {
+        return new Itr(size - 1, -1);
+    }
+
+    private void ensureCapacity() {
+        if (size < elements.length) {
+            return;
+        }
+
+        StreamEvent[] expanded = new StreamEvent[elements.length << 1];
+        final int mask = elements.length - 1;
+
+        for (int i = 0; i < size; i++) {
+            expanded[i] = elements[(head + i) & mask];
+        }
+
+        elements = expanded;
+        head = 0;
+    }
+
+    class Itr implements Iterator<StreamEvent> {
+        int next;
+        final int step;
+
+        Itr(int next, int step) {
+            this.next = next;
+            this.step = step;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0 && next < size;
+        }
+
+        @Override
+        public StreamEvent next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            StreamEvent event = elements[(head + next) & (elements.length - 1)];
+            next += step;
+            return event;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package io.xlate.edi.internal.stream.validation;
 import java.util.List;
 import java.util.Set;
 
+import io.xlate.edi.internal.schema.CodeList;
 import io.xlate.edi.internal.stream.tokenization.CharacterSet;
 import io.xlate.edi.internal.stream.tokenization.Dialect;
 import io.xlate.edi.schema.EDISimpleType;
@@ -34,9 +35,7 @@ class AlphaNumericValidator extends ElementValidator {
         int length = value.length();
         validateLength(dialect, element, length, errors);
 
-        Set<String> valueSet = element.getValueSet(dialect.getTransactionVersionString());
-
-        if (!valueSet.isEmpty() && !valueSet.contains(value.toString())) {
+        if (!isValidCode(element, dialect.getTransactionVersionString(), value)) {
             errors.add(EDIStreamValidationError.INVALID_CODE_VALUE);
         } else {
             for (int i = 0; i < length; i++) {
@@ -50,6 +49,16 @@ class AlphaNumericValidator extends ElementValidator {
         }
     }
 
+    static boolean isValidCode(EDISimpleType element, String version, CharSequence value) {
+        if (element instanceof CodeList.Source) {
+            CodeList codes = ((CodeList.Source) element).getCodeList(version);
+            return codes.isEmpty() || codes.contains(value);
+        }
+
+        Set<String> valueSet = element.getValueSet(version);
+        return valueSet.isEmpty() || valueSet.contains(value.toString());
+    }
+
     @Override
     void format(Dialect dialect, EDISimpleType element, CharSequence value, StringBuilder result) {
         int length = value.length();
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.validation;
+
+import io.xlate.edi.internal.stream.tokenization.ValidationEventHandler;
+import io.xlate.edi.schema.EDISyntaxRule;
+
+/**
+ * Syntax rule of a structure compiled to bit masks over the positions of the
+ * structure's children. The rule is evaluated against the mask of the children
+ * in use, given by {@link UsageState#getUsedChildren(UsageNode)}, without
+ * visiting the children individually. Rules referencing positions beyond the
+ * range of the mask are evaluated by the {@link SyntaxValidator} directly.
+ */
+class CompiledSyntaxRule {
+
+    static final int MAX_POSITION = Long.SIZE;
+
+    final EDISyntaxRule rule;
+    final SyntaxValidator validator;
+    final long positions;
+    final long anchor;
+    final boolean compiled;
+
+    CompiledSyntaxRule(EDISyntaxRule rule, int childCount) {
+        this.rule = rule;
+        this.validator = SyntaxValidator.getInstance(rule.getType());
+
+        long positionMask = 0;
+        long anchorMask = 0;
+        boolean inRange = true;
+
+        for (int position : rule.getPositions()) {
+            if (position > childCount) {
+                // Positions beyond the structure's children are never used
+                continue;
+            }
+
+            if (position > MAX_POSITION) {
+                inRange = false;
+                break;
+            }
+
+            long bit = 1L << (position - 1);
+
+            if (positionMask == 0) {
+                anchorMask = bit;
+            }
+
+            positionMask |= bit;
+        }
+
+        this.positions = positionMask;
+        this.anchor = anchorMask;
+        this.compiled = inRange;
+    }
+
+    void validate(UsageNode structure, UsageState usage, long usedChildren, ValidationEventHandler handler) {
+        if (compiled) {
+            final long used = usedChildren & positions;
+            validator.validate(rule, structure, usage, handler, Long.bitCount(used), (used & anchor) != 0);
+        } else {
+            validator.validate(rule, structure, usage, handler);
+        }
+    }
+}
@@ -21,9 +21,9 @@ import io.xlate.edi.schema.EDISyntaxRule;
 class ConditionSyntaxValidator implements SyntaxValidator {
 
     @Override
-    public void validate(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler, SyntaxStatus status) {
-        if (status.anchorPresent && status.elementCount < syntax.getPositions().size()) {
-            signalConditionError(syntax, structure, handler);
+    public void validate(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler, int elementCount, boolean anchorPresent) {
+        if (anchorPresent && elementCount < syntax.getPositions().size()) {
+            signalConditionError(syntax, structure, usage, handler);
         }
     }
 
@@ -13,27 +13,23 @@ class ControlUsageNode extends UsageNode {
 
     static final Logger LOGGER = Logger.getLogger(ControlUsageNode.class.getName());
 
-    String referenceValue;
-    EDIControlType type;
-    int count;
+    final EDIControlType type;
+    private final int controlIndex;
 
-    ControlUsageNode(UsageNode parent, int depth, EDIReference link, int siblingIndex) {
-        super(parent, depth, link, siblingIndex);
+    ControlUsageNode(UsageNode parent, int depth, EDIReference link, int siblingIndex, int position, int controlIndex) {
+        super(parent, depth, link, siblingIndex, position);
         type = (EDIControlType) link.getReferencedType();
+        this.controlIndex = controlIndex;
     }
 
-    @Override
-    void reset() {
-        super.reset();
-        this.referenceValue = null;
-        this.count = 0;
+    int getControlIndex() {
+        return controlIndex;
     }
 
     @Override
-    void incrementUsage() {
-        super.incrementUsage();
-        this.referenceValue = null;
-        this.count = 0;
+    void incrementUsage(UsageState usage) {
+        super.incrementUsage(usage);
+        usage.resetControl(this);
     }
 
     boolean matchesLocation(int segmentRef, EDIElementPosition position, Location location) {
@@ -42,10 +38,12 @@ class ControlUsageNode extends UsageNode {
                 && type.getReferences().get(segmentRef).getReferencedType().getId().equals(location.getSegmentTag());
     }
 
-    void validateReference(Location location, CharSequence value, List<EDIStreamValidationError> errors) {
+    void validateReference(UsageState usage, Location location, CharSequence value, List<EDIStreamValidationError> errors) {
+        final String referenceValue = usage.getReferenceValue(this);
+
         if (referenceValue == null) {
             if (matchesLocation(0, type.getHeaderRefPosition(), location)) {
-                this.referenceValue = value.toString();
+                usage.setReferenceValue(this, value.toString());
             }
             return;
         }
@@ -56,11 +54,11 @@ class ControlUsageNode extends UsageNode {
         }
     }
 
-    void validateCount(Location location, CharSequence value, List<EDIStreamValidationError> errors) {
+    void validateCount(UsageState usage, Location location, CharSequence value, List<EDIStreamValidationError> errors) {
         if (matchesLocation(type.getReferences().size() - 1, type.getTrailerCountPosition(), location)
                 // Don't bother comparing the actual value if it's not formatted correctly
                 && !errors.contains(EDIStreamValidationError.INVALID_CHARACTER_DATA)
-                && !countEqualsActual(value)) {
+                && !countEqualsActual(usage.getControlCount(this), value)) {
             errors.add(EDIStreamValidationError.CONTROL_COUNT_DOES_NOT_MATCH_ACTUAL_COUNT);
         }
     }
@@ -69,7 +67,7 @@ class ControlUsageNode extends UsageNode {
      * Check whether the actual number counted matches the count given by the
      * input. Leading zeros are stripped from the input string.
      */
-    boolean countEqualsActual(CharSequence value) {
+    static boolean countEqualsActual(int count, CharSequence value) {
         int i = 0;
         int len = value.length();
         int max = len - 1;
@@ -81,10 +79,9 @@ class ControlUsageNode extends UsageNode {
         return Integer.toString(count).contentEquals(value.subSequence(i, len));
     }
 
-    int incrementCount(EDIControlType.Type countType) {
+    int incrementCount(UsageState usage, EDIControlType.Type countType) {
         if (this.type.getCountType() == countType) {
-            count++;
-            return count;
+            return usage.incrementControlCount(this);
         }
         return 0;
     }
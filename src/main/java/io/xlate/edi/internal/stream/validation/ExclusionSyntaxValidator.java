@@ -21,9 +21,9 @@ import io.xlate.edi.schema.EDISyntaxRule;
 class ExclusionSyntaxValidator implements SyntaxValidator {
 
     @Override
-    public void validate(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler, SyntaxStatus status) {
-        if (status.elementCount > 1) {
-            signalExclusionError(syntax, structure, handler);
+    public void validate(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler, int elementCount, boolean anchorPresent) {
+        if (elementCount > 1) {
+            signalExclusionError(syntax, structure, usage, handler);
         }
     }
 
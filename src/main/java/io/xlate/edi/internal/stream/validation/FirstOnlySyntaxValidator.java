@@ -21,9 +21,9 @@ import io.xlate.edi.schema.EDISyntaxRule;
 class FirstOnlySyntaxValidator implements SyntaxValidator {
 
     @Override
-    public void validate(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler, SyntaxStatus status) {
-        if (status.anchorPresent && status.elementCount > 1) {
-            signalExclusionError(syntax, structure, handler);
+    public void validate(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler, int elementCount, boolean anchorPresent) {
+        if (anchorPresent && elementCount > 1) {
+            signalExclusionError(syntax, structure, usage, handler);
         }
     }
 
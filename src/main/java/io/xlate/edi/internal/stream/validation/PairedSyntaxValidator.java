@@ -21,13 +21,13 @@ import io.xlate.edi.schema.EDISyntaxRule;
 class PairedSyntaxValidator implements SyntaxValidator {
 
     @Override
-    public void validate(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler, SyntaxStatus status) {
-        if (status.elementCount == 0) {
+    public void validate(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler, int elementCount, boolean anchorPresent) {
+        if (elementCount == 0) {
             return;
         }
 
-        if (status.elementCount < syntax.getPositions().size()) {
-            signalConditionError(syntax, structure, handler);
+        if (elementCount < syntax.getPositions().size()) {
+            signalConditionError(syntax, structure, usage, handler);
         }
     }
 
@@ -21,11 +21,11 @@ import io.xlate.edi.schema.EDISyntaxRule;
 class SingleSyntaxValidator implements SyntaxValidator {
 
     @Override
-    public void validate(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler, SyntaxStatus status) {
-        if (status.elementCount > 1) {
-            signalExclusionError(syntax, structure, handler);
-        } else if (status.elementCount == 0) {
-            signalConditionError(syntax, structure, handler);
+    public void validate(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler, int elementCount, boolean anchorPresent) {
+        if (elementCount > 1) {
+            signalExclusionError(syntax, structure, usage, handler);
+        } else if (elementCount == 0) {
+            signalConditionError(syntax, structure, usage, handler);
         }
     }
 
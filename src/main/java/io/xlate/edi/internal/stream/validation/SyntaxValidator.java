@@ -24,7 +24,6 @@ import static io.xlate.edi.stream.EDIStreamValidationError.SEGMENT_EXCLUSION_CON
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.xlate.edi.internal.stream.tokenization.ValidationEventHandler;
 import io.xlate.edi.schema.EDIComplexType;
@@ -56,35 +55,7 @@ interface SyntaxValidator {
         return ValidatorInstances.instances.get(type);
     }
 
-    static class SyntaxStatus {
-        protected int elementCount = 0;
-        protected boolean anchorPresent = false;
-    }
-
-    default SyntaxStatus scanSyntax(EDISyntaxRule syntax, List<UsageNode> children) {
-        final SyntaxStatus status = new SyntaxStatus();
-        final AtomicBoolean anchorPosition = new AtomicBoolean(true);
-
-        syntax.getPositions()
-              .stream()
-              .filter(position -> position < children.size() + 1)
-              .map(position -> children.get(position - 1))
-              .forEach(node -> {
-                  if (node.isUsed()) {
-                      status.elementCount++;
-
-                      if (anchorPosition.get()) {
-                          status.anchorPresent = true;
-                      }
-                  }
-
-                  anchorPosition.set(false);
-              });
-
-        return status;
-    }
-
-    default void signalConditionError(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler) {
+    default void signalConditionError(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler) {
         final List<UsageNode> children = structure.getChildren();
         final int limit = children.size() + 1;
 
@@ -94,7 +65,7 @@ interface SyntaxValidator {
 
             if (position < limit) {
                 UsageNode node = children.get(position - 1);
-                used = node.isUsed();
+                used = node.isUsed(usage);
                 typeReference = node.getLink();
             } else {
                 used = false;
@@ -111,14 +82,14 @@ interface SyntaxValidator {
         }
     }
 
-    default void signalExclusionError(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler) {
+    default void signalExclusionError(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler) {
         final List<UsageNode> children = structure.getChildren();
         final int limit = children.size() + 1;
         int tally = 0;
 
         for (int position : syntax.getPositions()) {
             if (position < limit
-                    && children.get(position - 1).isUsed()
+                    && children.get(position - 1).isUsed(usage)
                     && ++tally > 1) {
 
                 EDIReference typeReference = children.get(position - 1).getLink();
@@ -168,9 +139,32 @@ interface SyntaxValidator {
         return position;
     }
 
-    default void validate(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler) {
-        validate(syntax, structure, handler, scanSyntax(syntax, structure.getChildren()));
+    /**
+     * Validate the rule by examining the usage of each child of the structure
+     * given by the rule's positions. Rules of the structures in a
+     * {@link UsageTree} are instead evaluated in compiled form, see
+     * {@link CompiledSyntaxRule}.
+     */
+    default void validate(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler) {
+        final List<UsageNode> children = structure.getChildren();
+        final int limit = children.size() + 1;
+        int elementCount = 0;
+        boolean anchorPresent = false;
+        boolean anchorPosition = true;
+
+        for (int position : syntax.getPositions()) {
+            if (position < limit) {
+                if (children.get(position - 1).isUsed(usage)) {
+                    elementCount++;
+                    anchorPresent |= anchorPosition;
+                }
+
+                anchorPosition = false;
+            }
+        }
+
+        validate(syntax, structure, usage, handler, elementCount, anchorPresent);
     }
 
-    void validate(EDISyntaxRule syntax, UsageNode structure, ValidationEventHandler handler, SyntaxStatus status);
+    void validate(EDISyntaxRule syntax, UsageNode structure, UsageState usage, ValidationEventHandler handler, int elementCount, boolean anchorPresent);
 }
@@ -34,18 +34,20 @@ import io.xlate.edi.stream.EDIStreamValidationError;
 
 class UsageNode {
 
-    private static final String TOSTRING_FORMAT = "usageCount: %d, depth: %d, link: { %s }";
+    private static final String TOSTRING_FORMAT = "position: %d, depth: %d, link: { %s }";
 
     private final UsageNode parent;
     private final int depth;
     private final EDIReference link;
     private final int siblingIndex;
+    private final int position;
+    private int descendantLimit;
 
     private final ElementValidator validator;
     private final List<UsageNode> children = new ArrayList<>();
-    private int usageCount;
+    private List<CompiledSyntaxRule> compiledSyntaxRules = Collections.emptyList();
 
-    UsageNode(UsageNode parent, int depth, EDIReference link, int siblingIndex) {
+    UsageNode(UsageNode parent, int depth, EDIReference link, int siblingIndex, int position) {
         Objects.requireNonNull(link, "link");
         this.parent = parent;
         this.depth = depth;
@@ -61,10 +63,12 @@ class UsageNode {
         }
 
         this.siblingIndex = siblingIndex;
+        this.position = position;
+        this.descendantLimit = position + 1;
     }
 
-    public static boolean hasMinimumUsage(String version, UsageNode node) {
-        return node == null || node.hasMinimumUsage(version);
+    public static boolean hasMinimumUsage(UsageState usage, String version, UsageNode node) {
+        return node == null || node.hasMinimumUsage(usage, version);
     }
 
     public static UsageNode getFirstChild(UsageNode node) {
@@ -89,17 +93,32 @@ class UsageNode {
         return sibling;
     }
 
-    public static void resetChildren(UsageNode... nodes) {
+    public static void resetChildren(UsageState usage, UsageNode... nodes) {
         for (UsageNode node : nodes) {
             if (node != null) {
-                node.resetChildren();
+                node.resetChildren(usage);
             }
         }
     }
 
     @Override
     public String toString() {
-        return String.format(TOSTRING_FORMAT, usageCount, depth, link);
+        return String.format(TOSTRING_FORMAT, position, depth, link);
+    }
+
+    /**
+     * @return the position of this node in its {@link UsageTree}
+     */
+    int getPosition() {
+        return position;
+    }
+
+    /**
+     * Set the position following the last descendant of this node. Called once
+     * the node's descendants have been added to the tree.
+     */
+    void setDescendantLimit(int descendantLimit) {
+        this.descendantLimit = descendantLimit;
     }
 
     UsageNode getParent() {
@@ -155,37 +174,62 @@ class UsageNode {
         validator.format(dialect, getSimpleType(), value, result);
     }
 
-    List<EDISyntaxRule> getSyntaxRules() {
-        EDIType referencedNode = link.getReferencedType();
-        return withTypeOrElseGet(referencedNode, EDIComplexType.class, EDIComplexType::getSyntaxRules, Collections::emptyList);
+    List<CompiledSyntaxRule> getCompiledSyntaxRules() {
+        return compiledSyntaxRules;
+    }
+
+    /**
+     * Compile the syntax rules of the referenced type against this node's
+     * children. Must be called once the children have been added.
+     */
+    void compileSyntaxRules() {
+        EDIType type = link.getReferencedType();
+
+        if (!(type instanceof EDIComplexType)) {
+            return;
+        }
+
+        List<EDISyntaxRule> rules = ((EDIComplexType) type).getSyntaxRules();
+
+        if (rules.isEmpty()) {
+            return;
+        }
+
+        List<CompiledSyntaxRule> compiled = new ArrayList<>(rules.size());
+
+        for (EDISyntaxRule rule : rules) {
+            compiled.add(new CompiledSyntaxRule(rule, children.size()));
+        }
+
+        compiledSyntaxRules = Collections.unmodifiableList(compiled);
     }
 
     int getIndex() {
         return siblingIndex;
     }
 
-    void incrementUsage() {
-        usageCount++;
+    void incrementUsage(UsageState usage) {
+        usage.increment(this);
     }
 
-    boolean isUsed() {
-        return usageCount > 0;
+    boolean isUsed(UsageState usage) {
+        return usage.getCount(this) > 0;
     }
 
     boolean isFirstChild() {
         return this == getFirstSibling();
     }
 
-    boolean hasMinimumUsage(String version) {
-        return usageCount >= link.getMinOccurs(version);
+    boolean hasMinimumUsage(UsageState usage, String version) {
+        return usage.getCount(this) >= link.getMinOccurs(version);
     }
 
     boolean hasVersions() {
         return getSimpleType().hasVersions();
     }
 
-    boolean exceedsMaximumUsage(String version) {
-        return usageCount > link.getMaxOccurs(version);
+    boolean exceedsMaximumUsage(UsageState usage, String version) {
+        return usage.getCount(this) > link.getMaxOccurs(version);
     }
 
     boolean isNodeType(EDIType.Type... types) {
@@ -201,17 +245,12 @@ class UsageNode {
         return link.getReferencedType().getType();
     }
 
-    void reset() {
-        usageCount = 0;
-        resetChildren();
+    void reset(UsageState usage) {
+        usage.reset(position, descendantLimit);
     }
 
-    void resetChildren() {
-        for (UsageNode node : children) {
-            if (node != null) {
-                node.reset();
-            }
-        }
+    void resetChildren(UsageState usage) {
+        usage.reset(position + 1, descendantLimit);
     }
 
     private UsageNode getSibling(int index) {
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.validation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Usage counts of the nodes in a {@link UsageTree} for a single validator.
+ * Counts are indexed by each node's position in the tree, allowing the counts
+ * of a node's descendants to be reset as a single range.
+ */
+class UsageState {
+
+    private final int[] counts;
+    private final List<ControlUsageNode> controls;
+    private final String[] referenceValues;
+    private final int[] controlCounts;
+
+    UsageState(UsageTree tree) {
+        this.counts = new int[tree.size()];
+        this.controls = tree.getControls();
+        this.referenceValues = new String[controls.size()];
+        this.controlCounts = new int[controls.size()];
+    }
+
+    int getCount(UsageNode node) {
+        return counts[node.getPosition()];
+    }
+
+    /**
+     * Get a mask of the children of the structure that have been used, where
+     * bit <code>n</code> corresponds to the child at index <code>n</code>.
+     * Children beyond the range of the mask are not included.
+     */
+    long getUsedChildren(UsageNode structure) {
+        final List<UsageNode> children = structure.getChildren();
+        long used = 0;
+
+        for (int i = 0, m = Math.min(children.size(), CompiledSyntaxRule.MAX_POSITION); i < m; i++) {
+            UsageNode child = children.get(i);
+
+            if (child != null && counts[child.getPosition()] > 0) {
+                used |= 1L << i;
+            }
+        }
+
+        return used;
+    }
+
+    void increment(UsageNode node) {
+        counts[node.getPosition()]++;
+    }
+
+    /**
+     * Reset the usage of the nodes with positions from <code>start</code>
+     * (inclusive) to <code>end</code> (exclusive).
+     */
+    void reset(int start, int end) {
+        Arrays.fill(counts, start, end, 0);
+
+        for (ControlUsageNode control : controls) {
+            int position = control.getPosition();
+
+            if (position >= start && position < end) {
+                resetControl(control);
+            }
+        }
+    }
+
+    void resetControl(ControlUsageNode control) {
+        referenceValues[control.getControlIndex()] = null;
+        controlCounts[control.getControlIndex()] = 0;
+    }
+
+    String getReferenceValue(ControlUsageNode control) {
+        return referenceValues[control.getControlIndex()];
+    }
+
+    void setReferenceValue(ControlUsageNode control, String referenceValue) {
+        referenceValues[control.getControlIndex()] = referenceValue;
+    }
+
+    int getControlCount(ControlUsageNode control) {
+        return controlCounts[control.getControlIndex()];
+    }
+
+    int incrementControlCount(ControlUsageNode control) {
+        return ++controlCounts[control.getControlIndex()];
+    }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.xlate.edi.internal.schema.StaEDISchema;
+import io.xlate.edi.schema.EDIComplexType;
+import io.xlate.edi.schema.EDIControlType;
+import io.xlate.edi.schema.EDIReference;
+import io.xlate.edi.schema.EDISimpleType;
+import io.xlate.edi.schema.EDIType;
+import io.xlate.edi.schema.Schema;
+import io.xlate.edi.schema.implementation.CompositeImplementation;
+import io.xlate.edi.schema.implementation.EDITypeImplementation;
+import io.xlate.edi.schema.implementation.LoopImplementation;
+import io.xlate.edi.schema.implementation.SegmentImplementation;
+
+/**
+ * Immutable structure of {@link UsageNode}s for the standard and (optional)
+ * implementation of a schema. Each node is assigned a position in the tree
+ * that is used to locate the node's usage counts in a {@link UsageState}. The
+ * tree of a {@link StaEDISchema} is built once and shared by all validators
+ * using the schema.
+ */
+class UsageTree {
+
+    final UsageNode root;
+    final UsageNode implRoot;
+    private final List<ControlUsageNode> controls = new ArrayList<>();
+    private int size;
+
+    static UsageTree forSchema(Schema schema) {
+        if (schema instanceof StaEDISchema) {
+            return ((StaEDISchema) schema).getCompiled(UsageTree.class, UsageTree::new);
+        }
+        return new UsageTree(schema);
+    }
+
+    UsageTree(Schema schema) {
+        Validator.LOGGER.finer(() -> "Creating usage tree");
+        root = buildTree(null, 0, referenceOf(schema.getStandard(), 1, 1), -1);
+        Validator.LOGGER.finer(() -> "Done creating usage tree");
+
+        if (schema.getImplementation() != null) {
+            implRoot = buildImplTree(null, 0, schema.getImplementation(), -1);
+        } else {
+            implRoot = null;
+        }
+    }
+
+    /**
+     * @return the number of nodes in the tree
+     */
+    int size() {
+        return size;
+    }
+
+    List<ControlUsageNode> getControls() {
+        return controls;
+    }
+
+    private static EDIReference referenceOf(EDIComplexType type, int minOccurs, int maxOccurs) {
+        return new EDIReference() {
+            @Override
+            public EDIType getReferencedType() {
+                return type;
+            }
+
+            @Override
+            public int getMinOccurs() {
+                return minOccurs;
+            }
+
+            @Override
+            public int getMaxOccurs() {
+                return maxOccurs;
+            }
+
+            @Override
+            public String getTitle() {
+                return type.getTitle();
+            }
+
+            @Override
+            public String getDescription() {
+                return type.getDescription();
+            }
+        };
+    }
+
+    private UsageNode buildTree(UsageNode parent, int parentDepth, EDIReference link, int index) {
+        int depth = parentDepth + 1;
+        EDIType referencedNode = link.getReferencedType();
+
+        if (referencedNode instanceof EDISimpleType) {
+            return new UsageNode(parent, depth, link, index, size++);
+        }
+
+        final UsageNode node;
+
+        if (referencedNode instanceof EDIControlType) {
+            ControlUsageNode control = new ControlUsageNode(parent, depth, link, index, size++, controls.size());
+            controls.add(control);
+            node = control;
+        } else {
+            node = new UsageNode(parent, depth, link, index, size++);
+        }
+
+        EDIComplexType structure = (EDIComplexType) referencedNode;
+
+        List<? extends EDIReference> children = structure.getReferences();
+        List<UsageNode> childUsages = node.getChildren();
+
+        int childIndex = -1;
+
+        for (EDIReference child : children) {
+            childUsages.add(buildTree(node, depth, child, ++childIndex));
+        }
+
+        node.setDescendantLimit(size);
+        node.compileSyntaxRules();
+        return node;
+    }
+
+    private UsageNode buildImplTree(UsageNode parent, int parentDepth, EDITypeImplementation impl, int index) {
+        int depth = parentDepth + 1;
+        final UsageNode node = new UsageNode(parent, depth, impl, index, size++);
+        final List<EDITypeImplementation> children;
+
+        switch (impl.getType()) {
+        case COMPOSITE:
+            children = CompositeImplementation.class.cast(impl).getSequence();
+            break;
+        case ELEMENT:
+            children = Collections.emptyList();
+            break;
+        case TRANSACTION:
+        case LOOP:
+            children = LoopImplementation.class.cast(impl).getSequence();
+            break;
+        case SEGMENT:
+            children = SegmentImplementation.class.cast(impl).getSequence();
+            break;
+        default:
+            throw new IllegalArgumentException("Illegal type of EDITypeImplementation: " + impl.getType());
+        }
+
+        List<UsageNode> childUsages = node.getChildren();
+
+        int childIndex = -1;
+
+        for (EDITypeImplementation child : children) {
+            ++childIndex;
+
+            UsageNode childNode = null;
+
+            if (child != null) {
+                childNode = buildImplTree(node, depth, child, childIndex);
+            }
+
+            childUsages.add(childNode);
+        }
+
+        node.setDescendantLimit(size);
+        node.compileSyntaxRules();
+        return node;
+    }
+}
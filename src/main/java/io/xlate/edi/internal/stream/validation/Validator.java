@@ -36,7 +36,6 @@ import static io.xlate.edi.stream.EDIStreamValidationError.UNEXPECTED_SEGMENT;
 import java.nio.CharBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -50,19 +49,17 @@ import io.xlate.edi.internal.stream.StaEDIStreamLocation;
 import io.xlate.edi.internal.stream.tokenization.Dialect;
 import io.xlate.edi.internal.stream.tokenization.ElementDataHandler;
 import io.xlate.edi.internal.stream.tokenization.StreamEvent;
+import io.xlate.edi.internal.stream.tokenization.StreamEventQueue;
 import io.xlate.edi.internal.stream.tokenization.ValidationEventHandler;
-import io.xlate.edi.schema.EDIComplexType;
 import io.xlate.edi.schema.EDIControlType;
 import io.xlate.edi.schema.EDIReference;
 import io.xlate.edi.schema.EDISimpleType;
-import io.xlate.edi.schema.EDISyntaxRule;
 import io.xlate.edi.schema.EDIType;
 import io.xlate.edi.schema.EDIType.Type;
 import io.xlate.edi.schema.Schema;
 import io.xlate.edi.schema.implementation.CompositeImplementation;
 import io.xlate.edi.schema.implementation.Discriminator;
 import io.xlate.edi.schema.implementation.EDITypeImplementation;
-import io.xlate.edi.schema.implementation.LoopImplementation;
 import io.xlate.edi.schema.implementation.PolymorphicImplementation;
 import io.xlate.edi.schema.implementation.SegmentImplementation;
 import io.xlate.edi.stream.EDIStreamEvent;
@@ -84,6 +81,7 @@ public class Validator {
 
     final UsageNode root;
     final UsageNode implRoot;
+    private final UsageState usage;
 
     private boolean segmentExpected;
     private UsageNode segment;
@@ -185,18 +183,12 @@ public class Validator {
         this.trimDiscriminatorValues = config.trimDiscriminatorValues();
         this.containerSchema = containerSchema;
 
-        LOGGER.finer(() -> "Creating usage tree");
-        root = buildTree(schema.getStandard());
-        LOGGER.finer(() -> "Done creating usage tree");
+        UsageTree tree = UsageTree.forSchema(schema);
+        root = tree.root;
+        implRoot = tree.implRoot;
+        usage = new UsageState(tree);
         correctSegment = segment = root.getFirstChild();
-
-        if (schema.getImplementation() != null) {
-            implRoot = buildImplTree(null, 0, schema.getImplementation(), -1);
-            implNode = implRoot.getFirstChild();
-        } else {
-            implRoot = null;
-            implNode = null;
-        }
+        implNode = UsageNode.getFirstChild(implRoot);
     }
 
     public void reset() {
@@ -204,11 +196,11 @@ public class Validator {
             return;
         }
 
-        root.reset();
+        root.reset(usage);
         correctSegment = segment = root.getFirstChild();
 
         if (implRoot != null) {
-            implRoot.reset();
+            implRoot.reset(usage);
             implNode = implRoot.getFirstChild();
         }
 
@@ -265,6 +257,28 @@ public class Validator {
         return reference;
     }
 
+    /**
+     * Determine whether the current segment is defined by the schema with one
+     * or more binary elements. The content of such a segment can not be
+     * located without processing the element giving the binary data's length.
+     *
+     * @return true if the current segment contains a binary element
+     */
+    public boolean isBinarySegment() {
+        if (!segmentExpected) {
+            return false;
+        }
+
+        for (UsageNode child : segment.getChildren()) {
+            if (child.isNodeType(EDIType.Type.ELEMENT)
+                    && ((EDISimpleType) child.getReferencedType()).getBase() == EDISimpleType.Base.BINARY) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     public boolean isBinaryElementLength() {
         if (element != null) {
             UsageNode next = element.getNextSibling();
@@ -292,119 +306,57 @@ public class Validator {
         return reference;
     }
 
-    private static EDIReference referenceOf(EDIComplexType type, int minOccurs, int maxOccurs) {
-        return new EDIReference() {
-            @Override
-            public EDIType getReferencedType() {
-                return type;
-            }
-
-            @Override
-            public int getMinOccurs() {
-                return minOccurs;
-            }
-
-            @Override
-            public int getMaxOccurs() {
-                return maxOccurs;
-            }
-
-            @Override
-            public String getTitle() {
-                return type.getTitle();
-            }
-
-            @Override
-            public String getDescription() {
-                return type.getDescription();
-            }
-        };
-    }
-
-    private static UsageNode buildTree(final EDIComplexType root) {
-        return buildTree(null, 0, referenceOf(root, 1, 1), -1);
-    }
-
-    private static UsageNode buildTree(UsageNode parent, int parentDepth, EDIReference link, int index) {
-        int depth = parentDepth + 1;
-        EDIType referencedNode = link.getReferencedType();
-
-        if (referencedNode instanceof EDISimpleType) {
-            return new UsageNode(parent, depth, link, index);
-        }
-
-        final UsageNode node;
-
-        if (referencedNode instanceof EDIControlType) {
-            node = new ControlUsageNode(parent, depth, link, index);
-        } else {
-            node = new UsageNode(parent, depth, link, index);
+    /**
+     * Look up the reference of the element at the given position of the
+     * current segment without validating or otherwise changing the state of
+     * the validator. When the position is a composite and no component
+     * position is given, the reference of the first component is returned.
+     *
+     * @param dialect
+     *            the dialect of the data being validated
+     * @param elementPosition
+     *            the 1-based position of the element in the segment
+     * @param componentPosition
+     *            the 1-based position of the component in the element, or a
+     *            value less than 1 for a simple element
+     * @return the reference of the simple element at the position, or null if
+     *         the position is not defined by the current segment
+     */
+    public EDIReference getElementReference(Dialect dialect, int elementPosition, int componentPosition) {
+        if (!segmentExpected) {
+            return null;
         }
 
-        EDIComplexType structure = (EDIComplexType) referencedNode;
-
-        List<? extends EDIReference> children = structure.getReferences();
-        List<UsageNode> childUsages = node.getChildren();
-
-        int childIndex = -1;
+        final String version = dialect.getTransactionVersionString();
+        final int elementIndex = elementPosition - 1;
 
-        for (EDIReference child : children) {
-            childUsages.add(buildTree(node, depth, child, ++childIndex));
+        if (elementIndex < 0 || elementIndex >= segment.getChildren(version).size()) {
+            return null;
         }
 
-        return node;
-    }
+        UsageNode node = segment.getChild(version, elementIndex);
 
-    private static UsageNode buildImplTree(UsageNode parent, int parentDepth, EDITypeImplementation impl, int index) {
-        int depth = parentDepth + 1;
-        final UsageNode node = new UsageNode(parent, depth, impl, index);
-        final List<EDITypeImplementation> children;
+        if (node.isNodeType(EDIType.Type.COMPOSITE)) {
+            final int componentIndex = Math.max(componentPosition - 1, 0);
 
-        switch (impl.getType()) {
-        case COMPOSITE:
-            children = CompositeImplementation.class.cast(impl).getSequence();
-            break;
-        case ELEMENT:
-            children = Collections.emptyList();
-            break;
-        case TRANSACTION:
-        case LOOP:
-            children = LoopImplementation.class.cast(impl).getSequence();
-            break;
-        case SEGMENT:
-            children = SegmentImplementation.class.cast(impl).getSequence();
-            break;
-        default:
-            throw new IllegalArgumentException("Illegal type of EDITypeImplementation: " + impl.getType());
-        }
-
-        List<UsageNode> childUsages = node.getChildren();
-
-        int childIndex = -1;
-
-        for (EDITypeImplementation child : children) {
-            ++childIndex;
-
-            UsageNode childNode = null;
-
-            if (child != null) {
-                childNode = buildImplTree(node, depth, child, childIndex);
+            if (!isComposite(node) || componentIndex >= node.getChildren(version).size()) {
+                return null;
             }
 
-            childUsages.add(childNode);
+            node = node.getChild(version, componentIndex);
         }
 
-        return node;
+        return node.isNodeType(EDIType.Type.ELEMENT) ? node.getLink() : null;
     }
 
     private UsageNode startLoop(UsageNode loop) {
-        loop.incrementUsage();
-        loop.resetChildren();
+        loop.incrementUsage(usage);
+        loop.resetChildren(usage);
 
         UsageNode startSegment = loop.getFirstChild();
 
-        startSegment.reset();
-        startSegment.incrementUsage();
+        startSegment.reset(usage);
+        startSegment.incrementUsage(usage);
 
         depth++;
 
@@ -503,7 +455,7 @@ public class Validator {
 
     int count(UsageNode node, EDIControlType.Type type) {
         if (node instanceof ControlUsageNode) {
-            return ((ControlUsageNode) node).incrementCount(type);
+            return ((ControlUsageNode) node).incrementCount(usage, type);
         }
         return 0;
     }
@@ -537,7 +489,7 @@ public class Validator {
             return false;
         }
 
-        if (current.isUsed() && current.isFirstChild() &&
+        if (current.isUsed(usage) && current.isFirstChild() &&
                 current.getParent().isNodeType(EDIType.Type.LOOP)) {
             /*
              * The current segment is the first segment in the loop and
@@ -549,10 +501,10 @@ public class Validator {
         }
 
         completeLoops(handler, startDepth);
-        current.incrementUsage();
-        current.resetChildren();
+        current.incrementUsage(usage);
+        current.resetChildren(usage);
 
-        if (current.exceedsMaximumUsage(SEGMENT_VERSION)) {
+        if (current.exceedsMaximumUsage(usage, SEGMENT_VERSION)) {
             handleMissingMandatory(handler);
             handler.segmentError(current.getId(), current.getLink(), SEGMENT_EXCEEDS_MAXIMUM_USE);
         }
@@ -573,10 +525,10 @@ public class Validator {
                 // Save the currentImpl so that the search is resumed from the correct location
                 implNode = currentImpl;
             } else if (isSingleSegmentWithoutDescriminator(implSegmentCandidates)) {
-                currentImpl.incrementUsage();
-                currentImpl.resetChildren();
+                currentImpl.incrementUsage(usage);
+                currentImpl.resetChildren(usage);
 
-                if (currentImpl.exceedsMaximumUsage(SEGMENT_VERSION)) {
+                if (currentImpl.exceedsMaximumUsage(usage, SEGMENT_VERSION)) {
                     handler.segmentError(currentImpl.getId(), current.getLink(), SEGMENT_EXCEEDS_MAXIMUM_USE);
                 }
 
@@ -618,7 +570,7 @@ public class Validator {
     }
 
     void checkMinimumUsage(UsageNode node) {
-        if (!node.hasMinimumUsage(SEGMENT_VERSION)) {
+        if (!node.hasMinimumUsage(usage, SEGMENT_VERSION)) {
             /*
              * The schema segment has not met it's minimum usage
              * requirement.
@@ -684,7 +636,7 @@ public class Validator {
 
         correctSegment = segment = startLoop(current);
 
-        if (current.exceedsMaximumUsage(SEGMENT_VERSION)) {
+        if (current.exceedsMaximumUsage(usage, SEGMENT_VERSION)) {
             handleMissingMandatory(handler);
             handler.segmentError(tag, current.getLink(), LOOP_OCCURS_OVER_MAXIMUM_TIMES);
         }
@@ -739,10 +691,10 @@ public class Validator {
                 useErrors.clear();
                 handler.segmentError(next.getId(), next.getLink(), SEGMENT_NOT_IN_PROPER_SEQUENCE);
 
-                next.incrementUsage();
-                next.resetChildren();
+                next.incrementUsage(usage);
+                next.resetChildren(usage);
 
-                if (next.exceedsMaximumUsage(SEGMENT_VERSION)) {
+                if (next.exceedsMaximumUsage(usage, SEGMENT_VERSION)) {
                     handler.segmentError(next.getId(), next.getLink(), SEGMENT_EXCEEDS_MAXIMUM_USE);
                 }
 
@@ -813,7 +765,7 @@ public class Validator {
         }
     }
 
-    public boolean selectImplementation(Deque<StreamEvent> eventQueue, ValidationEventHandler handler) {
+    public boolean selectImplementation(StreamEventQueue eventQueue, ValidationEventHandler handler) {
         StreamEvent currentEvent = eventQueue.getLast();
 
         if (currentEvent.getType() != EDIStreamEvent.ELEMENT_DATA) {
@@ -870,17 +822,17 @@ public class Validator {
         }
 
         if (candidate.isNodeType(Type.LOOP)) {
-            candidate.incrementUsage();
-            candidate.resetChildren();
-            implSeg.incrementUsage();
+            candidate.incrementUsage(usage);
+            candidate.resetChildren(usage);
+            implSeg.incrementUsage(usage);
 
-            if (candidate.exceedsMaximumUsage(SEGMENT_VERSION)) {
+            if (candidate.exceedsMaximumUsage(usage, SEGMENT_VERSION)) {
                 handler.segmentError(implSeg.getId(), candidate.getLink(), LOOP_OCCURS_OVER_MAXIMUM_TIMES);
             }
         } else {
-            candidate.incrementUsage();
+            candidate.incrementUsage(usage);
 
-            if (candidate.exceedsMaximumUsage(SEGMENT_VERSION)) {
+            if (candidate.exceedsMaximumUsage(usage, SEGMENT_VERSION)) {
                 handler.segmentError(implSeg.getId(), implSeg.getLink(), SEGMENT_EXCEEDS_MAXIMUM_USE);
             }
         }
@@ -902,7 +854,7 @@ public class Validator {
 
             validateImplRepetitions(null, impl);
 
-            if (std.isUsed()) {
+            if (std.isUsed(usage)) {
                 validateImplUnusedElementBlank(std, impl, true);
             } else {
                 validateDataElementRequirement(null, std, impl, entry.location);
@@ -944,7 +896,7 @@ public class Validator {
      * @param count
      * @param implType
      */
-    static void updateEventReferences(Deque<StreamEvent> eventQueue, EDIReference implType, EDIReference implSeg) {
+    static void updateEventReferences(StreamEventQueue eventQueue, EDIReference implType, EDIReference implSeg) {
         for (StreamEvent event : eventQueue) {
             switch (event.getType()) {
             case START_LOOP:
@@ -1036,9 +988,9 @@ public class Validator {
             elementErrors.add(new UsageError(TOO_MANY_DATA_ELEMENTS));
             return false;
         } else if (!element.isNodeType(EDIType.Type.COMPOSITE)) {
-            this.element.incrementUsage();
+            this.element.incrementUsage(usage);
 
-            if (this.element.exceedsMaximumUsage(version)) {
+            if (this.element.exceedsMaximumUsage(usage, version)) {
                 elementErrors.add(new UsageError(this.element, TOO_MANY_REPETITIONS));
                 return false;
             }
@@ -1051,10 +1003,10 @@ public class Validator {
 
         this.composite = this.element;
         this.element = null;
-        this.composite.incrementUsage();
+        this.composite.incrementUsage(usage);
         // resetChildren?
 
-        if (this.composite.exceedsMaximumUsage(version)) {
+        if (this.composite.exceedsMaximumUsage(usage, version)) {
             elementErrors.add(new UsageError(this.composite, TOO_MANY_REPETITIONS));
             return false;
         }
@@ -1067,7 +1019,7 @@ public class Validator {
         this.implElement = null;
 
         if (implSegmentSelected) {
-            this.implComposite.incrementUsage();
+            this.implComposite.incrementUsage(usage);
             // resetChildren?
         }
 
@@ -1171,7 +1123,7 @@ public class Validator {
             elementErrors.add(new UsageError(this.element, TOO_MANY_COMPONENTS));
         } else {
             if (componentIndex == 0) {
-                UsageNode.resetChildren(this.element, this.implElement);
+                UsageNode.resetChildren(usage, this.element, this.implElement);
             }
 
             String version = dialect.getTransactionVersionString();
@@ -1195,13 +1147,13 @@ public class Validator {
         final String version = dialect.getTransactionVersionString();
 
         if (!element.isNodeType(EDIType.Type.COMPOSITE)) {
-            this.element.incrementUsage();
+            this.element.incrementUsage(usage);
 
             if (this.implElement != null) {
-                this.implElement.incrementUsage();
+                this.implElement.incrementUsage(usage);
             }
 
-            if (this.element.exceedsMaximumUsage(version)) {
+            if (this.element.exceedsMaximumUsage(usage, version)) {
                 elementErrors.add(new UsageError(this.element, TOO_MANY_REPETITIONS));
             }
         }
@@ -1273,8 +1225,8 @@ public class Validator {
 
     void validateControlValue(UsageNode loop, StaEDIStreamLocation position, CharSequence value, List<EDIStreamValidationError> errors) {
         if (loop instanceof ControlUsageNode) {
-            ((ControlUsageNode) loop).validateReference(position, value, errors);
-            ((ControlUsageNode) loop).validateCount(position, value, errors);
+            ((ControlUsageNode) loop).validateReference(usage, position, value, errors);
+            ((ControlUsageNode) loop).validateCount(usage, position, value, errors);
         }
     }
 
@@ -1310,23 +1262,27 @@ public class Validator {
             }
         }
 
-        for (EDISyntaxRule rule : structure.getSyntaxRules()) {
-            final EDISyntaxRule.Type ruleType = rule.getType();
-            SyntaxValidator validator = SyntaxValidator.getInstance(ruleType);
-            validator.validate(rule, structure, validationHandler);
-        }
+        validateSyntax(structure, validationHandler);
     }
 
-    public void validateLoopSyntax(ValidationEventHandler validationHandler) {
-        final UsageNode loop = segment.getParent();
+    void validateSyntax(UsageNode structure, ValidationEventHandler validationHandler) {
+        final List<CompiledSyntaxRule> rules = structure.getCompiledSyntaxRules();
+
+        if (rules.isEmpty()) {
+            return;
+        }
 
-        for (EDISyntaxRule rule : loop.getSyntaxRules()) {
-            final EDISyntaxRule.Type ruleType = rule.getType();
-            SyntaxValidator validator = SyntaxValidator.getInstance(ruleType);
-            validator.validate(rule, loop, validationHandler);
+        final long usedChildren = usage.getUsedChildren(structure);
+
+        for (int i = 0, m = rules.size(); i < m; i++) {
+            rules.get(i).validate(structure, usage, usedChildren, validationHandler);
         }
     }
 
+    public void validateLoopSyntax(ValidationEventHandler validationHandler) {
+        validateSyntax(segment.getParent(), validationHandler);
+    }
+
     /**
      * Validate that the implementation element prior to the element identified
      * by elemenetPosition and componentPosition met its required number of
@@ -1360,7 +1316,7 @@ public class Validator {
     }
 
     void validateDataElementRequirement(String version, UsageNode element, UsageNode implElement, StaEDIStreamLocation position) {
-        if (!UsageNode.hasMinimumUsage(version, element) || !UsageNode.hasMinimumUsage(version, implElement)) {
+        if (!UsageNode.hasMinimumUsage(usage, version, element) || !UsageNode.hasMinimumUsage(usage, version, implElement)) {
             elementErrors.add(new UsageError(element, REQUIRED_DATA_ELEMENT_MISSING));
         } else if (isPendingDiscrimination()) {
             // This element requirement can not be validated until the correct implementation is determined
@@ -1369,7 +1325,7 @@ public class Validator {
     }
 
     boolean tooFewRepetitions(String version, UsageNode node) {
-        if (!UsageNode.hasMinimumUsage(version, node)) {
+        if (!UsageNode.hasMinimumUsage(usage, version, node)) {
             /*
              * Compare to `1` for repetitions. Elements not meeting requirement
              * of `> 0` are instead signaled as missing requirement elements.
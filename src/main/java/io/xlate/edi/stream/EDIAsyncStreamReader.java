@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.stream;
+
+/**
+ * An {@link EDIStreamReader} that reads input supplied through an
+ * {@link EDIInputFeeder} rather than pulling from a blocking stream.
+ *
+ * <p>
+ * {@link #hasNext()} returns true only when an event can be produced from the
+ * input fed so far. When it returns false, {@link EDIInputFeeder#needsInput()}
+ * indicates whether more input is required, otherwise the reader is complete.
+ * Calling {@link #next()} when no event is available results in a
+ * {@link java.util.NoSuchElementException NoSuchElementException}. A typical
+ * read loop is:
+ *
+ * <pre>
+ * feeder.feedInput(chunk, 0, length);
+ *
+ * while (reader.hasNext()) {
+ *     EDIStreamEvent event = reader.next();
+ *     // process the event
+ * }
+ *
+ * if (feeder.needsInput()) {
+ *     // wait for the next chunk
+ * }
+ * </pre>
+ *
+ * <p>
+ * An {@link EDIStreamEvent#ELEMENT_DATA_BINARY ELEMENT_DATA_BINARY} event is
+ * not made available by {@link #hasNext()} until all of the element's data has
+ * been fed (or the end of input is signaled), so that the stream returned by
+ * {@link #getBinaryData()} gives the complete data. The data is held in memory
+ * until it is read. Properties
+ * {@link EDIInputFactory#EDI_STREAM_OVERSIZED_ELEMENTS} and
+ * {@link EDIInputFactory#EDI_REFERENCE_ELEMENT_TEXT} are not supported by
+ * asynchronous readers: elements exceeding
+ * {@link EDIInputFactory#EDI_ELEMENT_BUFFER_LIMIT} result in an
+ * {@link EDIStreamException} and element text is always copied.
+ *
+ * @since 1.27
+ */
+public interface EDIAsyncStreamReader extends EDIStreamReader {
+
+    /**
+     * Get the feeder used to supply input to this reader.
+     *
+     * @return the input feeder for this reader
+     */
+    EDIInputFeeder getInputFeeder();
+}
@@ -16,6 +16,11 @@
 package io.xlate.edi.stream;
 
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
@@ -132,6 +137,67 @@ public abstract class EDIInputFactory extends PropertySupport {
      */
     public static final String EDI_TRIM_DISCRIMINATOR_VALUES = "io.xlate.edi.stream.EDI_TRIM_DISCRIMINATOR_VALUES";
 
+    /**
+     * The maximum number of characters that will be buffered by the reader for
+     * a single data element. The reader's buffer grows as needed up to this
+     * limit. When an element exceeds the limit, the reader will either fail
+     * with an {@link EDIStreamException} or, when
+     * {@link #EDI_STREAM_OVERSIZED_ELEMENTS} is enabled, make the element's
+     * data available via {@link EDIStreamReader#getTextReader()}.
+     *
+     * Default value: {@link Integer#MAX_VALUE} (no limit)
+     *
+     * @since 1.27
+     */
+    public static final String EDI_ELEMENT_BUFFER_LIMIT = "io.xlate.edi.stream.EDI_ELEMENT_BUFFER_LIMIT";
+
+    /**
+     * When set to true, simple data elements longer than
+     * {@link #EDI_ELEMENT_BUFFER_LIMIT} will be given to the application as a
+     * stream of characters via {@link EDIStreamReader#getTextReader()} rather
+     * than being held in memory. The text of a streamed element is not
+     * available from {@link EDIStreamReader#getText()} or
+     * {@link EDIStreamReader#getTextCharacters()}, which throw an
+     * {@link IllegalStateException} for the element. Validation of a streamed
+     * element is performed using only the characters buffered prior to
+     * reaching the limit. Not supported by {@link EDIAsyncStreamReader
+     * asynchronous readers}.
+     *
+     * Default value: false
+     *
+     * @since 1.27
+     */
+    public static final String EDI_STREAM_OVERSIZED_ELEMENTS = "io.xlate.edi.stream.EDI_STREAM_OVERSIZED_ELEMENTS";
+
+    /**
+     * The maximum number of units read by an {@link EDIStreamSplitter} that
+     * may be pending, i.e. submitted to the executor but not yet processed.
+     * When the limit is reached, the splitter waits for a task to complete
+     * before reading more of the input, bounding the memory used to hold the
+     * units.
+     *
+     * Default value: 64
+     *
+     * @since 1.27
+     */
+    public static final String EDI_SPLITTER_PENDING_UNIT_LIMIT = "io.xlate.edi.stream.EDI_SPLITTER_PENDING_UNIT_LIMIT";
+
+    /**
+     * When set to true, the text of
+     * {@link EDIStreamEvent#ELEMENT_DATA ELEMENT_DATA} events will not be
+     * copied from the reader's input buffer. The array returned by
+     * {@link EDIStreamReader#getTextCharacters()} will be the reader's buffer,
+     * with the event's text located by {@link EDIStreamReader#getTextStart()}
+     * and {@link EDIStreamReader#getTextLength()}. As with the default
+     * behavior, the contents of the array are only valid until the reader
+     * moves on to the next event.
+     *
+     * Default value: false
+     *
+     * @since 1.27
+     */
+    public static final String EDI_REFERENCE_ELEMENT_TEXT = "io.xlate.edi.stream.EDI_REFERENCE_ELEMENT_TEXT";
+
     /**
      * When set to true, simple data elements not containing data will be
      * represented via the JSON parsers as a {@code null} value.
@@ -154,6 +220,24 @@ public abstract class EDIInputFactory extends PropertySupport {
      */
     public static final String JSON_OBJECT_ELEMENTS = "io.xlate.edi.stream.JSON_OBJECT_ELEMENTS";
 
+    /**
+     * When set to true, each element or composite that the schema allows to
+     * repeat will be represented via the JSON parsers as a JSON array holding
+     * its repetitions, even when it occurs only once. When false, repetitions
+     * are represented as consecutive values in the segment's data, the same
+     * as separate elements. A repeated element that is not defined by a schema
+     * as repeatable can not be represented as an array and results in an
+     * error.
+     *
+     * Arrays are required to distinguish repetitions when JSON is read by
+     * {@link EDIOutputFactory#readJson(Object, Class, EDIStreamWriter)}.
+     *
+     * Default value: false
+     *
+     * @since 1.27
+     */
+    public static final String JSON_ARRAY_REPETITIONS = "io.xlate.edi.stream.JSON_ARRAY_REPETITIONS";
+
     /**
      * Create a new instance of the factory. This static method creates a new
      * factory instance.
@@ -244,6 +328,246 @@ public abstract class EDIInputFactory extends PropertySupport {
                                                           Schema schema)
             throws EDIStreamException;
 
+    /**
+     * Creates a new {@link EDIStreamReader} that reads the content of the
+     * given {@link FileChannel} (with default encoding), starting at the
+     * channel's current position. The content is read directly from a
+     * read-only memory mapping of the file rather than being copied into an
+     * intermediate buffer. The channel will not be closed when the reader is
+     * closed.
+     *
+     * @param channel
+     *            {@link FileChannel} from which the EDI data will be read
+     * @return a new {@link EDIStreamReader} which reads from the channel
+     * @throws EDIStreamException
+     *             when the channel can not be mapped
+     *
+     * @since 1.27
+     */
+    public abstract EDIStreamReader createEDIStreamReader(FileChannel channel) throws EDIStreamException;
+
+    /**
+     * Creates a new {@link EDIStreamReader} that reads the content of the
+     * given {@link FileChannel} and encoding, starting at the channel's current
+     * position, and which uses the {@link Schema} for validation of the
+     * input's control structures. The schema may be null.
+     *
+     * @param channel
+     *            {@link FileChannel} from which the EDI data will be read
+     * @param encoding
+     *            character encoding of the file, must be a valid
+     *            {@link java.nio.charset.Charset Charset}.
+     * @param schema
+     *            {@link Schema} for control structure validation
+     * @return a new {@link EDIStreamReader} which reads from the channel
+     * @throws EDIStreamException
+     *             when encoding is not supported or the channel can not be
+     *             mapped
+     *
+     * @see #createEDIStreamReader(FileChannel)
+     * @since 1.27
+     */
+    public abstract EDIStreamReader createEDIStreamReader(FileChannel channel,
+                                                          String encoding,
+                                                          Schema schema)
+            throws EDIStreamException;
+
+    /**
+     * Creates a new {@link EDIStreamReader} that reads the file at the given
+     * {@link Path} (with default encoding) using a read-only memory mapping of
+     * the file. The file is closed when the reader is closed.
+     *
+     * @param path
+     *            {@link Path} of the file from which the EDI data will be read
+     * @return a new {@link EDIStreamReader} which reads from the file
+     * @throws EDIStreamException
+     *             when the file can not be opened or mapped
+     *
+     * @see #createEDIStreamReader(FileChannel)
+     * @since 1.27
+     */
+    public abstract EDIStreamReader createEDIStreamReader(Path path) throws EDIStreamException;
+
+    /**
+     * Creates a new {@link EDIStreamReader} that reads the file at the given
+     * {@link Path} and encoding using a read-only memory mapping of the file,
+     * and which uses the {@link Schema} for validation of the input's control
+     * structures. The schema may be null. The file is closed when the reader
+     * is closed.
+     *
+     * @param path
+     *            {@link Path} of the file from which the EDI data will be read
+     * @param encoding
+     *            character encoding of the file, must be a valid
+     *            {@link java.nio.charset.Charset Charset}.
+     * @param schema
+     *            {@link Schema} for control structure validation
+     * @return a new {@link EDIStreamReader} which reads from the file
+     * @throws EDIStreamException
+     *             when encoding is not supported or the file can not be
+     *             opened or mapped
+     *
+     * @see #createEDIStreamReader(FileChannel)
+     * @since 1.27
+     */
+    public abstract EDIStreamReader createEDIStreamReader(Path path,
+                                                          String encoding,
+                                                          Schema schema)
+            throws EDIStreamException;
+
+    /**
+     * Creates a new {@link EDIAsyncStreamReader} (with default encoding) that
+     * reads the input supplied to its {@link EDIInputFeeder} without blocking.
+     *
+     * @return a new {@link EDIAsyncStreamReader} without input
+     *
+     * @see EDIAsyncStreamReader#getInputFeeder()
+     * @since 1.27
+     */
+    public abstract EDIAsyncStreamReader createAsyncEDIStreamReader();
+
+    /**
+     * Creates a new {@link EDIAsyncStreamReader} that reads the input supplied
+     * to its {@link EDIInputFeeder} in the given encoding without blocking,
+     * and which uses the {@link Schema} for validation of the input's control
+     * structures. The schema may be null.
+     *
+     * @param encoding
+     *            character encoding of the input, must be a valid
+     *            {@link java.nio.charset.Charset Charset}.
+     * @param schema
+     *            {@link Schema} for control structure validation
+     * @return a new {@link EDIAsyncStreamReader} without input
+     * @throws EDIStreamException
+     *             when encoding is not supported
+     *
+     * @see #createAsyncEDIStreamReader()
+     * @since 1.27
+     */
+    public abstract EDIAsyncStreamReader createAsyncEDIStreamReader(String encoding, Schema schema)
+            throws EDIStreamException;
+
+    /**
+     * Creates a new {@link EDIStreamSplitter} that splits the EDI data read
+     * from the given {@link InputStream} (with default encoding) into units
+     * that are each read by a separate {@link EDIStreamReader}. The readers are
+     * configured using the properties and error reporter of this factory at
+     * the time the splitter is created. Note that an error reporter will be
+     * called concurrently by the readers of different units.
+     *
+     * @param stream
+     *            {@link InputStream} from which the EDI data will be read
+     * @param unit
+     *            the unit of EDI data given to each reader
+     * @return a new {@link EDIStreamSplitter} which reads from the stream
+     *
+     * @since 1.27
+     */
+    public abstract EDIStreamSplitter createEDIStreamSplitter(InputStream stream, EDIStreamSplitter.Unit unit);
+
+    /**
+     * Creates a new {@link EDIStreamSplitter} that splits the EDI data read
+     * from the given {@link InputStream} and encoding into units that are each
+     * read by a separate {@link EDIStreamReader}. The encoding must be a valid
+     * {@link java.nio.charset.Charset Charset} that represents the EDI
+     * delimiters using single bytes: UTF-8 or a single-byte encoding
+     * compatible with US-ASCII.
+     *
+     * @param stream
+     *            {@link InputStream} from which the EDI data will be read
+     * @param encoding
+     *            character encoding of the stream, must be a valid
+     *            {@link java.nio.charset.Charset Charset}.
+     * @param unit
+     *            the unit of EDI data given to each reader
+     * @return a new {@link EDIStreamSplitter} which reads from the stream
+     * @throws EDIStreamException
+     *             when encoding is not supported or is not supported for
+     *             splitting
+     *
+     * @see #createEDIStreamSplitter(InputStream, EDIStreamSplitter.Unit)
+     * @since 1.27
+     */
+    public abstract EDIStreamSplitter createEDIStreamSplitter(InputStream stream,
+                                                              String encoding,
+                                                              EDIStreamSplitter.Unit unit)
+            throws EDIStreamException;
+
+    /**
+     * Creates a new {@link EDIStreamPublisher} that publishes the units of the
+     * given reader as items read by the {@link EDIStreamPublisher.ItemReader
+     * ItemReader}. Items are read and published in the thread that signals
+     * demand for them via
+     * {@link EDIStreamPublisher.Subscription#request(long)}.
+     *
+     * @param <T>
+     *            the type of the items published
+     * @param reader
+     *            the reader from which items are read
+     * @param unit
+     *            the unit of EDI input read for each item
+     * @param itemReader
+     *            reads each item from the reader
+     * @return a new {@link EDIStreamPublisher} of the reader's items
+     *
+     * @since 1.27
+     */
+    public abstract <T> EDIStreamPublisher<T> createEDIStreamPublisher(EDIStreamReader reader,
+                                                                       EDIStreamPublisher.Unit unit,
+                                                                       EDIStreamPublisher.ItemReader<T> itemReader);
+
+    /**
+     * Creates a new {@link EDIStreamPublisher} that publishes the units of the
+     * given reader as items read by the {@link EDIStreamPublisher.ItemReader
+     * ItemReader}. Items are read and published by tasks run with the
+     * executor, at most one at a time, whenever the subscriber signals demand
+     * for items not yet published.
+     *
+     * @param <T>
+     *            the type of the items published
+     * @param reader
+     *            the reader from which items are read
+     * @param unit
+     *            the unit of EDI input read for each item
+     * @param itemReader
+     *            reads each item from the reader
+     * @param executor
+     *            executor used to read and publish items
+     * @return a new {@link EDIStreamPublisher} of the reader's items
+     *
+     * @see #createEDIStreamPublisher(EDIStreamReader, EDIStreamPublisher.Unit,
+     *      EDIStreamPublisher.ItemReader)
+     * @since 1.27
+     */
+    public abstract <T> EDIStreamPublisher<T> createEDIStreamPublisher(EDIStreamReader reader,
+                                                                       EDIStreamPublisher.Unit unit,
+                                                                       EDIStreamPublisher.ItemReader<T> itemReader,
+                                                                       Executor executor);
+
+    /**
+     * Reads the transaction at the reader's current position into an
+     * {@link EDITransaction} that provides random access to the transaction's
+     * segments and elements. The reader must be positioned at a
+     * {@link EDIStreamEvent#START_TRANSACTION START_TRANSACTION} event and is
+     * left positioned at the corresponding
+     * {@link EDIStreamEvent#END_TRANSACTION END_TRANSACTION} event. This
+     * method may be used as the
+     * {@link EDIStreamPublisher.ItemReader ItemReader} of a publisher of
+     * transactions.
+     *
+     * @param reader
+     *            the reader positioned at the start of a transaction
+     * @return the transaction read
+     * @throws EDIStreamException
+     *             when the input can not be read
+     * @throws IllegalStateException
+     *             when the reader is not positioned at the start of a
+     *             transaction
+     *
+     * @since 1.27
+     */
+    public abstract EDITransaction readTransaction(EDIStreamReader reader) throws EDIStreamException;
+
     /**
      * Creates a new {@link EDIStreamReader} by wrapping the given reader with
      * the {@link EDIStreamFilter} filter.
@@ -256,6 +580,30 @@ public abstract class EDIInputFactory extends PropertySupport {
      */
     public abstract EDIStreamReader createFilteredReader(EDIStreamReader reader, EDIStreamFilter filter);
 
+    /**
+     * Creates a new {@link EDIStreamReader} by wrapping the given reader with
+     * a filter accepting the events that satisfy the
+     * {@link EDIStreamFilterCriteria criteria}. Unlike a reader created with an
+     * {@link EDIStreamFilter}, the new reader skips the elements of segments
+     * (using {@link EDIStreamReader#skipSegment()}) and the content of
+     * transactions (using {@link EDIStreamReader#skipTransaction()}) for which
+     * no event could be accepted. Element-level validation is not performed
+     * for segments skipped in this way.
+     *
+     * <p>
+     * The wrapped reader should be positioned before the start of an
+     * interchange, and all events must be read using the new reader.
+     *
+     * @param reader
+     *            the reader to wrap
+     * @param criteria
+     *            criteria for the events to be accepted
+     * @return a new {@link EDIStreamReader} which uses the criteria
+     *
+     * @since 1.27
+     */
+    public abstract EDIStreamReader createFilteredReader(EDIStreamReader reader, EDIStreamFilterCriteria criteria);
+
     /**
      * Creates a new {@link XMLStreamReader} that uses the given reader as its
      * data source. The reader should be positioned before the start of an
@@ -349,6 +697,47 @@ public abstract class EDIInputFactory extends PropertySupport {
      */
     public abstract <J> J createJsonParser(EDIStreamReader reader, Class<J> type);
 
+    /**
+     * Reads the remaining events of the given reader and writes them to the
+     * output as UTF-8 encoded JSON text. The structure of the JSON is the same
+     * as that produced by the parsers created with
+     * {@link #createJsonParser(EDIStreamReader, Class)}, including the effect
+     * of the {@link #JSON_NULL_EMPTY_ELEMENTS}, {@link #JSON_OBJECT_ELEMENTS}
+     * and {@link #JSON_ARRAY_REPETITIONS} properties, but the text is written
+     * directly without the use of a JSON library. The reader should be
+     * positioned before the start of an interchange. Each interchange is
+     * written as a JSON object, separated from the next by a new line. The
+     * output is flushed but not closed.
+     *
+     * @param reader
+     *            the reader to read
+     * @param output
+     *            the stream to which the JSON is written
+     * @throws EDIStreamException
+     *             when the EDI input can not be read, contains a validation
+     *             error, or the output can not be written
+     *
+     * @since 1.27
+     */
+    public abstract void writeJson(EDIStreamReader reader, OutputStream output) throws EDIStreamException;
+
+    /**
+     * Reads the remaining events of the given reader and writes them to the
+     * writer as JSON text.
+     *
+     * @param reader
+     *            the reader to read
+     * @param output
+     *            the writer to which the JSON is written
+     * @throws EDIStreamException
+     *             when the EDI input can not be read, contains a validation
+     *             error, or the output can not be written
+     *
+     * @see #writeJson(EDIStreamReader, OutputStream)
+     * @since 1.27
+     */
+    public abstract void writeJson(EDIStreamReader reader, Writer output) throws EDIStreamException;
+
     /**
      * Retrieves the reporter that will be set on any EDIStreamReader created by
      * this factory instance.
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.stream;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Supplies input to an {@link EDIAsyncStreamReader} as it becomes available,
+ * for example as chunks are received from a non-blocking network channel. The
+ * reader never blocks waiting for input. Instead, when all input fed to the
+ * reader has been consumed, {@link EDIStreamReader#hasNext()} returns false and
+ * {@link #needsInput()} returns true until more input is fed or the end of the
+ * input is signaled.
+ *
+ * <p>
+ * Chunks may end at any position in the input, including within a segment, an
+ * element, or a multi-byte character.
+ *
+ * <p>
+ * A feeder is not thread-safe and is expected to be used by the same thread
+ * that reads events from its reader.
+ *
+ * @since 1.27
+ */
+public interface EDIInputFeeder {
+
+    /**
+     * Feed the bytes in the given range of the array to the reader. The bytes
+     * are copied and the array may be reused once the method returns.
+     *
+     * @param data
+     *            array containing the input
+     * @param offset
+     *            offset of the first byte of input in the array
+     * @param length
+     *            number of bytes of input
+     * @throws IllegalStateException
+     *             when called after {@link #endOfInput()}
+     */
+    void feedInput(byte[] data, int offset, int length);
+
+    /**
+     * Feed the remaining bytes of the buffer to the reader. The bytes are
+     * copied and the buffer's position is advanced to its limit.
+     *
+     * @param data
+     *            buffer containing the input
+     * @throws IllegalStateException
+     *             when called after {@link #endOfInput()}
+     */
+    void feedInput(ByteBuffer data);
+
+    /**
+     * Signal that no further input will be fed to the reader. Once the input
+     * fed previously has been consumed, the reader completes normally at the
+     * end of an interchange or reports an incomplete stream otherwise.
+     */
+    void endOfInput();
+
+    /**
+     * Determine whether the end of the input has been signaled.
+     *
+     * @return true if {@link #endOfInput()} has been called, otherwise false
+     */
+    boolean isEndOfInput();
+
+    /**
+     * Determine whether the reader has consumed all input fed to it and
+     * requires additional input to proceed.
+     *
+     * @return true if more input must be fed before the reader can produce
+     *         further events, otherwise false
+     */
+    boolean needsInput();
+}
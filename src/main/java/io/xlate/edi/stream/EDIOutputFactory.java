@@ -119,6 +119,66 @@ public abstract class EDIOutputFactory extends PropertySupport {
      */
     public abstract XMLStreamWriter createXMLStreamWriter(EDIStreamWriter writer);
 
+    /**
+     * Reads the remaining events of the given JSON parser and writes the EDI
+     * they describe to the writer as each event is read. The JSON must have
+     * the structure produced by the parsers created with
+     * {@link EDIInputFactory#createJsonParser(EDIStreamReader, Class)}, with
+     * or without the {@link EDIInputFactory#JSON_NULL_EMPTY_ELEMENTS} and
+     * {@link EDIInputFactory#JSON_OBJECT_ELEMENTS} properties. The "name" and
+     * "type" of each object must precede its "data" and other keys are
+     * ignored. The writer is flushed but not closed.
+     *
+     * <p>
+     * Loops are implicit when writing, in the same way as for
+     * {@link #createXMLStreamWriter(EDIStreamWriter)}. Each element value is
+     * written according to the type of the element at its position, as given
+     * by the writer's control or transaction schema:
+     * <ul>
+     * <li>a JSON number for a numeric (N) element is scaled by the element's
+     * implied decimal places, e.g. 12.34 is written as 1234 for an N2
+     * element. A number with more decimal places than the element's scale
+     * results in an {@link EDIStreamException}.
+     * <li>a JSON number for a decimal (R) element is written without an
+     * exponent, using the decimal mark of the interchange.
+     * <li>a binary element must be given as a base64 JSON string, which is
+     * decoded and written as binary data.
+     * <li>other values, and all values when no schema defines the element,
+     * are written using their JSON text. Leading zeros are not restored unless
+     * {@link #FORMAT_ELEMENTS} is enabled.
+     * </ul>
+     *
+     * <p>
+     * Repetitions of an element or composite must be given as a JSON array in
+     * place of the element, as produced by the parsers when
+     * {@link EDIInputFactory#JSON_ARRAY_REPETITIONS} is enabled. <b>Without
+     * that property, the parsers write repetitions as consecutive values that
+     * can not be distinguished from the elements that follow. JSON produced
+     * that way from EDI containing repeated elements is written with each
+     * repetition as a separate element, shifting the positions of the
+     * remaining elements.</b>
+     *
+     * @param <J>
+     *            the type of the JSON parser
+     * @param parser
+     *            the JSON parser to read
+     * @param type
+     *            the type of the JSON parser, one of
+     *            <code>jakarta.json.stream.JsonParser</code>,
+     *            <code>javax.json.stream.JsonParser</code>, or
+     *            <code>com.fasterxml.jackson.core.JsonParser</code>
+     * @param writer
+     *            the writer used to generate EDI output
+     * @throws EDIStreamException
+     *             when the JSON can not be read, does not have the expected
+     *             structure, or the EDI can not be written
+     * @throws IllegalArgumentException
+     *             when type is an unsupported parser type
+     *
+     * @since 1.27
+     */
+    public abstract <J> void readJson(J parser, Class<J> type, EDIStreamWriter writer) throws EDIStreamException;
+
     /**
      * Retrieves the reporter that will be set on any EDIStreamWriter created by
      * this factory instance.
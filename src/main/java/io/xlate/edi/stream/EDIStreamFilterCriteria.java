@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.stream;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Declarative criteria for filtering the events of an
+ * {@link EDIStreamReader}. Unlike an {@link EDIStreamFilter}, the criteria may
+ * be inspected by the reader created with
+ * {@link EDIInputFactory#createFilteredReader(EDIStreamReader, EDIStreamFilterCriteria)}
+ * so that the elements of segments not accepted by the criteria are skipped
+ * using {@link EDIStreamReader#skipSegment()} rather than being read and
+ * discarded.
+ *
+ * <p>
+ * An event is accepted when it satisfies each of the criteria that have been
+ * given. A criterion with no values accepts every event.
+ *
+ * <ul>
+ * <li>events - the type of the event is one of the given event types
+ * <li>segments - for events occurring within a segment (including
+ * START_SEGMENT, END_SEGMENT, and SEGMENT_ERROR), the segment tag is one of
+ * the given tags. Events outside of a segment are not restricted.
+ * <li>loops - the event occurs within a loop having one of the given loop
+ * codes, including the START_LOOP and END_LOOP events of the loop itself
+ * <li>transaction types - the event occurs within a transaction having one of
+ * the given types, including the START_TRANSACTION and END_TRANSACTION events
+ * of the transaction itself
+ * </ul>
+ *
+ * Instances are immutable; each of the <code>with</code> methods returns a new
+ * instance.
+ *
+ * @since 1.27
+ */
+public final class EDIStreamFilterCriteria {
+
+    private static final EDIStreamFilterCriteria ANY = new EDIStreamFilterCriteria(Collections.emptySet(),
+                                                                                     Collections.emptySet(),
+                                                                                     Collections.emptySet(),
+                                                                                     Collections.emptySet());
+
+    private final Set<EDIStreamEvent> events;
+    private final Set<String> segments;
+    private final Set<String> loops;
+    private final Set<String> transactionTypes;
+
+    private EDIStreamFilterCriteria(Set<EDIStreamEvent> events,
+            Set<String> segments,
+            Set<String> loops,
+            Set<String> transactionTypes) {
+        this.events = events;
+        this.segments = segments;
+        this.loops = loops;
+        this.transactionTypes = transactionTypes;
+    }
+
+    /**
+     * Obtain criteria that accept every event.
+     *
+     * @return criteria that accept every event
+     */
+    public static EDIStreamFilterCriteria any() {
+        return ANY;
+    }
+
+    /**
+     * Obtain a copy of these criteria that accept only the given types of
+     * events.
+     *
+     * @param events
+     *            the types of events accepted, no restriction when empty
+     * @return new criteria
+     */
+    public EDIStreamFilterCriteria withEvents(EDIStreamEvent... events) {
+        Set<EDIStreamEvent> values = events.length > 0 ? EnumSet.copyOf(Arrays.asList(events))
+                : EnumSet.noneOf(EDIStreamEvent.class);
+        return new EDIStreamFilterCriteria(Collections.unmodifiableSet(values), segments, loops, transactionTypes);
+    }
+
+    /**
+     * Obtain a copy of these criteria that accept only events within segments
+     * having one of the given tags.
+     *
+     * @param segmentTags
+     *            the tags of the segments accepted, no restriction when empty
+     * @return new criteria
+     */
+    public EDIStreamFilterCriteria withSegments(String... segmentTags) {
+        return new EDIStreamFilterCriteria(events, toSet(segmentTags), loops, transactionTypes);
+    }
+
+    /**
+     * Obtain a copy of these criteria that accept only events within loops
+     * having one of the given codes.
+     *
+     * @param loopCodes
+     *            the codes of the loops accepted, no restriction when empty
+     * @return new criteria
+     */
+    public EDIStreamFilterCriteria withLoops(String... loopCodes) {
+        return new EDIStreamFilterCriteria(events, segments, toSet(loopCodes), transactionTypes);
+    }
+
+    /**
+     * Obtain a copy of these criteria that accept only events within
+     * transactions having one of the given types.
+     *
+     * @param types
+     *            the types of the transactions accepted, no restriction when
+     *            empty
+     * @return new criteria
+     */
+    public EDIStreamFilterCriteria withTransactionTypes(String... types) {
+        return new EDIStreamFilterCriteria(events, segments, loops, toSet(types));
+    }
+
+    /**
+     * @return the types of events accepted, empty when not restricted
+     */
+    public Set<EDIStreamEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return the tags of the segments accepted, empty when not restricted
+     */
+    public Set<String> getSegments() {
+        return segments;
+    }
+
+    /**
+     * @return the codes of the loops accepted, empty when not restricted
+     */
+    public Set<String> getLoops() {
+        return loops;
+    }
+
+    /**
+     * @return the types of the transactions accepted, empty when not
+     *         restricted
+     */
+    public Set<String> getTransactionTypes() {
+        return transactionTypes;
+    }
+
+    private static Set<String> toSet(String[] values) {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(values)));
+    }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.stream;
+
+/**
+ * Publishes the transactions or segments of an {@link EDIStreamReader} as
+ * items to a single {@link Subscriber}, honoring the subscriber's demand. The
+ * reader is advanced only while there is outstanding demand, one unit at a
+ * time, so no more input is read than is needed to produce the items
+ * requested.
+ *
+ * <p>
+ * The interfaces follow the <a href="https://www.reactive-streams.org/">Reactive
+ * Streams</a> specification and have the same methods as those nested in
+ * {@code java.util.concurrent.Flow}, allowing a publisher to be adapted to a
+ * {@code Flow.Publisher} with method references, e.g.
+ *
+ * <pre>
+ * Flow.Publisher&lt;T&gt; flow = s -&gt; publisher.subscribe(new EDIStreamPublisher.Subscriber&lt;T&gt;() {
+ *     public void onSubscribe(EDIStreamPublisher.Subscription subscription) {
+ *         s.onSubscribe(new Flow.Subscription() {
+ *             public void request(long n) { subscription.request(n); }
+ *             public void cancel() { subscription.cancel(); }
+ *         });
+ *     }
+ *     public void onNext(T item) { s.onNext(item); }
+ *     public void onError(Throwable error) { s.onError(error); }
+ *     public void onComplete() { s.onComplete(); }
+ * });
+ * </pre>
+ *
+ * @param <T>
+ *            the type of the items published
+ *
+ * @since 1.27
+ */
+public interface EDIStreamPublisher<T> {
+
+    /**
+     * The unit of EDI input read for each item.
+     */
+    enum Unit {
+        /**
+         * Each item is read beginning with a
+         * {@link EDIStreamEvent#START_TRANSACTION START_TRANSACTION} event.
+         * Events outside of transactions are not published.
+         */
+        TRANSACTION,
+        /**
+         * Each item is read beginning with a
+         * {@link EDIStreamEvent#START_SEGMENT START_SEGMENT} event, including
+         * the segments of the interchange and group envelopes.
+         */
+        SEGMENT
+    }
+
+    /**
+     * Reads a single item from the reader.
+     *
+     * @param <T>
+     *            the type of the item read
+     */
+    @FunctionalInterface
+    interface ItemReader<T> {
+        /**
+         * Read an item from the reader, positioned at the event that begins a
+         * unit. The reader may be advanced up to and including the event that
+         * ends the unit. Any events of the unit not consumed are skipped by the
+         * publisher once this method returns.
+         *
+         * @param reader
+         *            reader positioned at the start of the unit
+         * @return the item, must not be null
+         * @throws Exception
+         *             when the item can not be read. The subscriber is given
+         *             the exception via {@link Subscriber#onError(Throwable)}.
+         */
+        T read(EDIStreamReader reader) throws Exception; // NOSONAR
+    }
+
+    /**
+     * Receives the items of a publisher.
+     *
+     * @param <T>
+     *            the type of the items received
+     */
+    interface Subscriber<T> {
+        /**
+         * Called once, before any other method, with the subscription used to
+         * request items.
+         *
+         * @param subscription
+         *            the subscription of this subscriber
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item, only in response to demand signaled via
+         * {@link Subscription#request(long)}.
+         *
+         * @param item
+         *            the item
+         */
+        void onNext(T item);
+
+        /**
+         * Called once when the input or an item can not be read. No further
+         * methods are called.
+         *
+         * @param error
+         *            the exception
+         */
+        void onError(Throwable error);
+
+        /**
+         * Called once when the reader has no further events. No further
+         * methods are called.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link between a publisher and its subscriber.
+     */
+    interface Subscription {
+        /**
+         * Add to the number of items requested by the subscriber. A value that
+         * is not positive results in a call to
+         * {@link Subscriber#onError(Throwable)} with an
+         * {@link IllegalArgumentException}.
+         *
+         * @param n
+         *            the number of additional items requested
+         */
+        void request(long n);
+
+        /**
+         * Stop publishing items to the subscriber. Items may still be delivered
+         * that were being read when the subscription was cancelled.
+         */
+        void cancel();
+    }
+
+    /**
+     * Subscribe to the items of this publisher. A publisher supports a single
+     * subscriber, subsequent subscribers receive an
+     * {@link IllegalStateException} via {@link Subscriber#onError(Throwable)}.
+     *
+     * @param subscriber
+     *            the subscriber
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+}
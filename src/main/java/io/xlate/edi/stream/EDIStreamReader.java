@@ -18,6 +18,8 @@ package io.xlate.edi.stream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -334,7 +336,8 @@ public interface EDIStreamReader extends Closeable, EDIStreamConstants {
      *
      * @return the current text or an empty {@link java.lang.String String}
      * @throws IllegalStateException
-     *             if this state is not a valid text state
+     *             if this state is not a valid text state or the text of the
+     *             current element is streamed (see {@link #isTextStreamed()})
      */
     String getText();
 
@@ -348,7 +351,8 @@ public interface EDIStreamReader extends Closeable, EDIStreamConstants {
      *
      * @return the current text or an empty array
      * @throws IllegalStateException
-     *             if this state is not a valid text state
+     *             if this state is not a valid text state or the text of the
+     *             current element is streamed (see {@link #isTextStreamed()})
      */
     char[] getTextCharacters();
 
@@ -399,6 +403,9 @@ public interface EDIStreamReader extends Closeable, EDIStreamConstants {
      *             target
      * @throws NullPointerException
      *             if target is null
+     * @throws IllegalStateException
+     *             if this state is not a valid text state or the text of the
+     *             current element is streamed (see {@link #isTextStreamed()})
      */
     int getTextCharacters(int sourceStart,
                           char[] target,
@@ -412,7 +419,8 @@ public interface EDIStreamReader extends Closeable, EDIStreamConstants {
      * @return offset into the text character array where the first character is
      *         stored
      * @throws IllegalStateException
-     *             if this state is not a valid text state
+     *             if this state is not a valid text state or the text of the
+     *             current element is streamed (see {@link #isTextStreamed()})
      */
     int getTextStart();
 
@@ -422,7 +430,8 @@ public interface EDIStreamReader extends Closeable, EDIStreamConstants {
      *
      * @return length of the sequence of characters for this Text event
      * @throws IllegalStateException
-     *             if this state is not a valid text state
+     *             if this state is not a valid text state or the text of the
+     *             current element is streamed (see {@link #isTextStreamed()})
      */
     int getTextLength();
 
@@ -478,6 +487,60 @@ public interface EDIStreamReader extends Closeable, EDIStreamConstants {
      */
     InputStream getBinaryData();
 
+    /**
+     * Returns a Reader for the text of the current
+     * {@link EDIStreamEvent#ELEMENT_DATA ELEMENT_DATA} event. When the element
+     * exceeded the limit given by
+     * {@link EDIInputFactory#EDI_ELEMENT_BUFFER_LIMIT} and was streamed, the
+     * Reader returns the element's data directly from the input and
+     * {@link #getText()} and related methods throw an
+     * {@link IllegalStateException}. Otherwise, the Reader returns the same
+     * characters as {@link #getText()}. The Reader is only valid until the
+     * next call to {@link #next()}; any data not read at that time is skipped.
+     *
+     * <p>
+     * The default implementation returns a Reader for the result of
+     * {@link #getText()}.
+     *
+     * @return reader for the text of the current element
+     * @throws IllegalStateException
+     *             if the current event is not ELEMENT_DATA
+     *
+     * @since 1.27
+     */
+    default Reader getTextReader() {
+        if (getEventType() != EDIStreamEvent.ELEMENT_DATA) {
+            throw new IllegalStateException("not element data");
+        }
+
+        return new StringReader(getText());
+    }
+
+    /**
+     * Determine whether the text of the current
+     * {@link EDIStreamEvent#ELEMENT_DATA ELEMENT_DATA} event exceeded the limit
+     * given by {@link EDIInputFactory#EDI_ELEMENT_BUFFER_LIMIT} and was
+     * streamed. The complete text of a streamed element is only available
+     * from {@link #getTextReader()}.
+     *
+     * <p>
+     * The default implementation returns false, for readers that do not
+     * stream element text.
+     *
+     * @return true if the current element's text is streamed, otherwise false
+     * @throws IllegalStateException
+     *             if the current event is not ELEMENT_DATA
+     *
+     * @since 1.27
+     */
+    default boolean isTextStreamed() {
+        if (getEventType() != EDIStreamEvent.ELEMENT_DATA) {
+            throw new IllegalStateException("not element data");
+        }
+
+        return false;
+    }
+
     /**
      * Returns an {@link EDIReference} for the schema type at the current point
      * in the reader's input stream. Information such as minimum and maximum
@@ -509,4 +572,103 @@ public interface EDIStreamReader extends Closeable, EDIStreamConstants {
      * @since 1.20
      */
     boolean hasText();
+
+    /**
+     * Skip the remainder of the current segment, positioning the reader at
+     * the segment's END_SEGMENT event. The reader must be positioned at the
+     * segment's START_SEGMENT event or at an element or composite event
+     * within the segment. Events for the skipped elements are not returned,
+     * and implementations may avoid producing them at all when the elements
+     * are not needed to validate the control structure of the input. In that
+     * case, the skipped elements are not validated.
+     *
+     * @return the event type of the current event after skipping -
+     *         END_SEGMENT
+     * @throws IllegalStateException
+     *             if the reader is not positioned within a segment
+     * @throws EDIStreamException
+     *             if there is an error processing the underlying EDI source
+     *
+     * @since 1.27
+     */
+    default EDIStreamEvent skipSegment() throws EDIStreamException {
+        EDIStreamEvent event = getEventType();
+
+        if (event == null) {
+            throw new IllegalStateException("not within a segment");
+        }
+
+        switch (event) {
+        case START_SEGMENT:
+        case START_COMPOSITE:
+        case END_COMPOSITE:
+        case ELEMENT_DATA:
+        case ELEMENT_DATA_BINARY:
+        case ELEMENT_DATA_ERROR:
+        case ELEMENT_OCCURRENCE_ERROR:
+            break;
+        default:
+            throw new IllegalStateException("not within a segment");
+        }
+
+        while (event != EDIStreamEvent.END_SEGMENT) {
+            event = next();
+        }
+
+        return event;
+    }
+
+    /**
+     * Advance the reader to the next START_SEGMENT event for a segment with
+     * the given tag, skipping the elements of all segments in between using
+     * {@link #skipSegment()}. Events other than those of the skipped segments
+     * (e.g. START_LOOP or START_TRANSACTION) are also passed over.
+     *
+     * @param segmentTag
+     *            the tag of the segment to find
+     * @return true if the reader is positioned at a START_SEGMENT event for a
+     *         segment with the tag, false if the end of the input was reached
+     * @throws EDIStreamException
+     *             if there is an error processing the underlying EDI source
+     *
+     * @since 1.27
+     */
+    default boolean skipTo(String segmentTag) throws EDIStreamException {
+        while (hasNext()) {
+            final EDIStreamEvent event = getEventType() == EDIStreamEvent.START_SEGMENT ? skipSegment() : next();
+
+            if (event == EDIStreamEvent.START_SEGMENT && segmentTag.equals(getLocation().getSegmentTag())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Skip the remainder of the current transaction, positioning the reader at
+     * the transaction's END_TRANSACTION event. The elements of the segments
+     * within the transaction are skipped using {@link #skipSegment()}. The
+     * reader must be positioned at the START_TRANSACTION event or an event
+     * within the transaction.
+     *
+     * @return the event type of the current event after skipping -
+     *         END_TRANSACTION
+     * @throws NoSuchElementException
+     *             if the end of the input is reached before the end of a
+     *             transaction
+     * @throws EDIStreamException
+     *             if there is an error processing the underlying EDI source
+     *
+     * @since 1.27
+     */
+    default EDIStreamEvent skipTransaction() throws EDIStreamException {
+        EDIStreamEvent event = getEventType();
+
+        while (event != EDIStreamEvent.END_TRANSACTION) {
+            event = event == EDIStreamEvent.START_SEGMENT ? skipSegment() : next();
+        }
+
+        return event;
+    }
 }
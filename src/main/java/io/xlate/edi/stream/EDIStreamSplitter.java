@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.stream;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Splits EDI input into units (interchanges or transactions) that may be
+ * parsed independently and concurrently, each by its own
+ * {@link EDIStreamReader}. The input is scanned only for the envelope segments
+ * that delimit the units, using the delimiters declared by each interchange's
+ * header. X12 and EDIFACT interchanges are supported, using an encoding in
+ * which the delimiters are single bytes: UTF-8 or a single-byte encoding
+ * compatible with US-ASCII (e.g. ISO-8859-1).
+ *
+ * <p>
+ * When splitting by {@link Unit#TRANSACTION TRANSACTION}, each transaction is
+ * given to its reader as a complete interchange made up of the original
+ * interchange and group headers, the transaction, and generated group and
+ * interchange trailers counting the single transaction. The counts and control
+ * references of the original trailers are reconciled by the splitter and any
+ * discrepancies are available from {@link #getControlErrors()}. Segments found
+ * outside of a transaction (other than envelope segments) are given to a reader
+ * as an envelope without a transaction.
+ *
+ * <p>
+ * Locations reported by the readers are relative to the start of the unit.
+ *
+ * @since 1.27
+ */
+public interface EDIStreamSplitter extends Closeable {
+
+    /**
+     * The unit of EDI input given to each reader.
+     */
+    enum Unit {
+        /**
+         * Each interchange is read by a separate reader. Control structures are
+         * validated entirely by the reader.
+         */
+        INTERCHANGE,
+        /**
+         * Each transaction/message is read by a separate reader.
+         */
+        TRANSACTION
+    }
+
+    /**
+     * Processing to be performed with the reader of a single unit.
+     *
+     * @param <R>
+     *            the type of the result of the task
+     */
+    @FunctionalInterface
+    interface Task<R> {
+        /**
+         * Read the unit from the given reader. The reader is closed by the
+         * splitter when the task completes.
+         *
+         * @param reader
+         *            reader positioned at the start of the unit
+         * @return the result of the task
+         * @throws Exception
+         *             when the unit can not be processed
+         */
+        R process(EDIStreamReader reader) throws Exception; // NOSONAR
+    }
+
+    /**
+     * Scan the input, submitting a task to the executor for each unit as soon
+     * as the unit has been read. The future of each task is given to the
+     * consumer, on the calling thread and in the order of the units in the
+     * input, before the next unit is read. This method returns once the end of
+     * the input has been reached, while the submitted tasks may still be
+     * running.
+     *
+     * The number of units submitted but not yet processed is limited by
+     * {@link EDIInputFactory#EDI_SPLITTER_PENDING_UNIT_LIMIT}. When the limit
+     * is reached, scanning waits until a task completes. The splitter does not
+     * retain the futures, so a consumer that handles each result as it
+     * completes (e.g. using {@link CompletableFuture#thenAccept}) allows input
+     * of any size to be processed using bounded memory.
+     *
+     * A future completes exceptionally with a
+     * {@link java.util.concurrent.CompletionException CompletionException}
+     * when its task throws an exception.
+     *
+     * @param <R>
+     *            the type of the result of the task
+     * @param executor
+     *            the executor used to run the tasks
+     * @param task
+     *            the task to run for each unit
+     * @param consumer
+     *            receives the future of each task's result
+     * @throws EDIStreamException
+     *             when the input can not be read or contains data that is not
+     *             part of a recognized interchange. Tasks already submitted
+     *             continue to run.
+     */
+    <R> void submit(Executor executor, Task<R> task, Consumer<? super CompletableFuture<R>> consumer) throws EDIStreamException;
+
+    /**
+     * Scan the input, submitting a task to the executor for each unit as soon
+     * as the unit has been read, and return the futures of all the tasks once
+     * the end of the input has been reached. The futures are given in the
+     * order of the units in the input and are retained until this method
+     * returns; for large input, use
+     * {@link #submit(Executor, Task, Consumer)} to handle the results while
+     * the input is scanned.
+     *
+     * @param <R>
+     *            the type of the result of the task
+     * @param executor
+     *            the executor used to run the tasks
+     * @param task
+     *            the task to run for each unit
+     * @return futures of the task results, one per unit, in input order
+     * @throws EDIStreamException
+     *             when the input can not be read or contains data that is not
+     *             part of a recognized interchange. Tasks already submitted
+     *             continue to run.
+     *
+     * @see #submit(Executor, Task, Consumer)
+     */
+    default <R> List<CompletableFuture<R>> submit(Executor executor, Task<R> task) throws EDIStreamException {
+        final List<CompletableFuture<R>> results = new ArrayList<>();
+        submit(executor, task, results::add);
+        return results;
+    }
+
+    /**
+     * Get the errors found reconciling the counts and control references of the
+     * original group and interchange trailers with the transactions found in
+     * the input. Only available when splitting by
+     * {@link Unit#TRANSACTION TRANSACTION} after a call to {@code submit} has
+     * returned. Additional errors are chained via
+     * {@link EDIValidationException#getNextException()}.
+     *
+     * @return the first error found, or null when there were no errors
+     */
+    EDIValidationException getControlErrors();
+}
@@ -216,7 +216,9 @@ public interface EDIStreamWriter extends AutoCloseable {
     EDIStreamWriter writeStartElement() throws EDIStreamException;
 
     /**
-     * Start a new element for binary data.
+     * Start a new element for binary data. The binary data is written directly
+     * to the output and is not validated against the schema when the element
+     * ends, the same as binary data read by an {@link EDIStreamReader}.
      *
      * @return this EDI stream writer
      * @throws EDIStreamException
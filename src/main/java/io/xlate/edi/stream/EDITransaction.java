@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.stream;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Random-access view of a single transaction (message) read from an
+ * {@link EDIStreamReader} using
+ * {@link EDIInputFactory#readTransaction(EDIStreamReader)}. The characters of
+ * the transaction's segment tags and elements are retained in a single buffer
+ * together with an index of their positions. Text is only converted to a
+ * {@link String} when it is accessed, and the segment and element objects are
+ * created on access as lightweight views of the index.
+ *
+ * <p>
+ * Segments are given in the order they were read, without loop structure.
+ * Validation errors encountered while reading the transaction are not
+ * retained (they are given to the reader's error reporter, when configured).
+ * The data of binary elements is retained as bytes, and the complete text of
+ * elements streamed due to {@link EDIInputFactory#EDI_STREAM_OVERSIZED_ELEMENTS}
+ * is read into the buffer.
+ *
+ * @since 1.27
+ */
+public interface EDITransaction {
+
+    /**
+     * A segment of the transaction.
+     */
+    interface Segment {
+        /**
+         * Get the index of this segment within the transaction, where the
+         * transaction header segment has index 0.
+         *
+         * @return the index of this segment
+         */
+        int getIndex();
+
+        /**
+         * Get the segment's tag.
+         *
+         * @return the tag of the segment
+         */
+        String getTag();
+
+        /**
+         * Get the number of element positions present in the segment, i.e. the
+         * position of the last element.
+         *
+         * @return the number of elements in the segment
+         */
+        int getElementCount();
+
+        /**
+         * Get the number of repetitions of the element at the given position.
+         *
+         * @param position
+         *            the element position, starting at 1
+         * @return number of occurrences of the element, or 0 when the position
+         *         is not present in the segment
+         */
+        int getRepetitionCount(int position);
+
+        /**
+         * Get the (first occurrence of the) element at the given position.
+         *
+         * @param position
+         *            the element position, starting at 1
+         * @return the element, or null when the position is not present in the
+         *         segment
+         */
+        Element getElement(int position);
+
+        /**
+         * Get an occurrence of the repeating element at the given position.
+         *
+         * @param position
+         *            the element position, starting at 1
+         * @param occurrence
+         *            the occurrence of the element, starting at 1
+         * @return the element, or null when the position or occurrence is not
+         *         present in the segment
+         */
+        Element getElement(int position, int occurrence);
+
+        /**
+         * Get the text of the (first occurrence of the) simple element at the
+         * given position. Equivalent to
+         * <code>getElement(position).getText()</code> with a null check.
+         *
+         * @param position
+         *            the element position, starting at 1
+         * @return the text of the element, or null when the position is not
+         *         present or holds a composite or binary element
+         */
+        String getText(int position);
+    }
+
+    /**
+     * An element (simple or composite) of a segment.
+     */
+    interface Element {
+        /**
+         * Get the position of the element within its segment, starting at 1.
+         *
+         * @return the position of the element
+         */
+        int getPosition();
+
+        /**
+         * Get the occurrence of the element when repeated, starting at 1.
+         *
+         * @return the occurrence of the element
+         */
+        int getOccurrence();
+
+        /**
+         * Determine whether the element is a composite, having components.
+         *
+         * @return true if the element is a composite, otherwise false
+         */
+        boolean isComposite();
+
+        /**
+         * Get the number of component positions present in the composite, i.e.
+         * the position of the last component.
+         *
+         * @return the number of components, or 0 for a simple element
+         */
+        int getComponentCount();
+
+        /**
+         * Get the text of the component at the given position.
+         *
+         * @param position
+         *            the component position, starting at 1
+         * @return the text of the component, or null when the position is not
+         *         present or the element is not a composite
+         */
+        String getComponent(int position);
+
+        /**
+         * Get the text of a simple element.
+         *
+         * @return the text of the element, or null when the element is a
+         *         composite or binary element
+         */
+        String getText();
+
+        /**
+         * Determine whether the element holds binary data, read from an
+         * {@link EDIStreamEvent#ELEMENT_DATA_BINARY ELEMENT_DATA_BINARY} event.
+         *
+         * @return true if the element is a binary element, otherwise false
+         */
+        boolean isBinary();
+
+        /**
+         * Get a stream of the data of a binary element. Each call returns a
+         * new stream positioned at the start of the data.
+         *
+         * @return stream of the element's binary data, or null when the
+         *         element is not a binary element
+         */
+        InputStream getBinaryData();
+    }
+
+    /**
+     * Get the type of the transaction, e.g. the value of ST01 for X12 or the
+     * message type from UNH02 for EDIFACT.
+     *
+     * @return the type of the transaction
+     */
+    String getTransactionType();
+
+    /**
+     * Get the number of segments in the transaction, including the header and
+     * trailer segments.
+     *
+     * @return the number of segments
+     */
+    int getSegmentCount();
+
+    /**
+     * Get the segment at the given index.
+     *
+     * @param index
+     *            index of the segment, the header segment has index 0
+     * @return the segment
+     * @throws IndexOutOfBoundsException
+     *             when the index is not less than the number of segments
+     */
+    Segment getSegment(int index);
+
+    /**
+     * Get the segments of the transaction having the given tag, in the order
+     * they were read.
+     *
+     * @param tag
+     *            the segment tag
+     * @return the matching segments, possibly empty
+     */
+    List<Segment> getSegments(String tag);
+}
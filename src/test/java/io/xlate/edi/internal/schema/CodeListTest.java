@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.xlate.edi.internal.stream.CharArraySequence;
+
+class CodeListTest {
+
+    static CharArraySequence sequence(String text, int offset) {
+        char[] data = new char[text.length() + offset * 2];
+        text.getChars(0, text.length(), data, offset);
+        CharArraySequence sequence = new CharArraySequence();
+        sequence.set(data, offset, text.length());
+        return sequence;
+    }
+
+    @Test
+    void testEmptyValues() {
+        CodeList codes = CodeList.of(Collections.emptySet());
+        assertSame(CodeList.EMPTY, codes);
+        assertTrue(codes.isEmpty());
+        assertFalse(codes.contains("A"));
+    }
+
+    @Test
+    void testContainsCharSequence() {
+        CodeList codes = CodeList.of(Arrays.asList("BY", "ST", "SE", "85", "IL", "QC", "PR", "BY"));
+
+        assertEquals(7, codes.size());
+
+        for (String code : Arrays.asList("BY", "ST", "SE", "85", "IL", "QC", "PR")) {
+            assertTrue(codes.contains(sequence(code, 3)), code);
+        }
+
+        assertFalse(codes.contains(sequence("B", 1)));
+        assertFalse(codes.contains(sequence("BYX", 1)));
+        assertFalse(codes.contains(sequence("XX", 1)));
+        assertFalse(codes.contains(""));
+    }
+
+    @Test
+    void testContainsMatchesSetForLargeList() {
+        Set<String> values = new HashSet<>();
+
+        for (int i = 0; i < 1000; i++) {
+            values.add(Integer.toString(i, 36).toUpperCase());
+        }
+
+        values.add("A-VERY-LONG-CODE-VALUE-EXCEEDING-SIXTY-THREE-CHARACTERS-IN-LENGTH-TOTAL");
+        CodeList codes = CodeList.of(values);
+
+        for (int i = 0; i < 2000; i++) {
+            String candidate = Integer.toString(i, 36).toUpperCase();
+            assertEquals(values.contains(candidate), codes.contains(sequence(candidate, 2)), candidate);
+        }
+
+        assertTrue(codes.contains("A-VERY-LONG-CODE-VALUE-EXCEEDING-SIXTY-THREE-CHARACTERS-IN-LENGTH-TOTAL"));
+        assertFalse(codes.contains("A-VERY-LONG-CODE-VALUE-EXCEEDING-SIXTY-THREE-CHARACTERS-IN-LENGTH-TOTAX"));
+    }
+}
@@ -3,9 +3,12 @@ package io.xlate.edi.internal.schema;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -43,6 +46,44 @@ class ElementTypeTest {
         assertEquals("id: E1, type: ELEMENT, base: STRING, code: 1, minLength: 0, maxLength: 5, values: {ABCDE=Title 1, FGHIJ=Title 2}", e.toString());
     }
 
+    @Test
+    void testVersionedAttributesResolvedPerVersion() {
+        Map<String, String> values = Collections.singletonMap("A", "Title A");
+        Map<String, String> v2values = Collections.singletonMap("B", "Title B");
+        List<ElementType.Version> versions = Arrays.asList(new ElementType.Version("", "1", 2L, null, null),
+                                                           new ElementType.Version("2", "", null, 10L, v2values));
+        ElementType e = new ElementType("E1", Base.STRING, -1, "1", 1, 1L, 5L, values, versions, null, null);
+
+        assertEquals(2, e.getMinLength("1"));
+        assertEquals(5, e.getMaxLength("1"));
+        assertEquals(values, e.getValues("1"));
+
+        assertEquals(1, e.getMinLength("2"));
+        assertEquals(10, e.getMaxLength("2"));
+        assertEquals(v2values, e.getValues("2"));
+
+        assertEquals(1, e.getMinLength("15"));
+        assertEquals(5, e.getMaxLength("15"));
+
+        assertSame(e.getVersionView("2"), e.getVersionView(new String("2")));
+        assertSame(e.getVersionView("2"), e.getVersionView("3"));
+        assertSame(e.defaultView, e.getVersionView(null));
+        assertEquals(2, e.versionViews.size());
+
+        String version = new String("1");
+        ElementType.VersionView view = e.getVersionView(version);
+        assertSame(version, e.resolvedView.version);
+        assertSame(view, e.resolvedView.view);
+        assertSame(view, e.getVersionView(version));
+    }
+
+    @Test
+    void testUnversionedAttributesUseDefaultView() {
+        ElementType e = new ElementType("E1", Base.STRING, -1, "1", 1, 1L, 5L, Collections.emptyMap(), Collections.emptyList(), null, null);
+        assertSame(e.defaultView, e.getVersionView("1"));
+        assertTrue(e.versionViews.isEmpty());
+    }
+
     @SuppressWarnings("deprecation")
     @Test
     void testElementTypeNumberDefault() throws EDIStreamException {
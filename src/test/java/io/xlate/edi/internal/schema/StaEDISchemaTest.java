@@ -18,11 +18,16 @@ package io.xlate.edi.internal.schema;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.Map;
 
@@ -32,6 +37,8 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 import io.xlate.edi.schema.EDIComplexType;
 import io.xlate.edi.schema.EDISchemaException;
@@ -126,4 +133,43 @@ class StaEDISchemaTest {
         assertEquals(String.format("Schema must contain either %s or %s", StaEDISchema.INTERCHANGE_ID, StaEDISchema.TRANSACTION_ID),
                      thrown.getMessage());
     }
+
+    @Test
+    void testEqualSchemasShareHashCode() throws EDISchemaException {
+        SchemaFactory factory = SchemaFactory.newFactory();
+        StaEDISchema first = (StaEDISchema) factory.createSchema(getClass().getResource("/x12/005010/837.xml"));
+        StaEDISchema second = (StaEDISchema) factory.createSchema(getClass().getResource("/x12/005010/837.xml"));
+        StaEDISchema other = (StaEDISchema) factory.createSchema(getClass().getResource("/x12/EDISchema997.xml"));
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        assertNotEquals(first, other);
+        assertNotEquals(other, first);
+    }
+
+    StaEDISchema createSchema(String xml) throws EDISchemaException {
+        return (StaEDISchema) SchemaFactory.newFactory().createSchema(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "code=\"0000B\" minOccurs=\"1\" maxOccurs=\"2\" | code=\"0000B\" minOccurs=\"1\" maxOccurs=\"7\"",
+        "<value>A</value>                               | <value>Z</value>",
+    })
+    void testImplementationSchemasWithSameTypesCompared(String target, String replacement) throws Exception {
+        URL resource = getClass().getResource("/x12/EDISchemaSegmentValidationImpl.xml");
+        String original = new String(Files.readAllBytes(Paths.get(resource.toURI())), StandardCharsets.UTF_8);
+        String modified = original.replace(target, replacement);
+        assertNotEquals(original, modified);
+
+        StaEDISchema first = createSchema(original);
+        StaEDISchema second = createSchema(modified);
+
+        // Same type identifiers and count, so each type must be compared
+        assertNotEquals(first, second);
+        assertNotEquals(second, first);
+        assertEquals(first, createSchema(original));
+    }
 }
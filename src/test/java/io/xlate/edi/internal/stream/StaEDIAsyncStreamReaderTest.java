@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+import io.xlate.edi.schema.Schema;
+import io.xlate.edi.schema.SchemaFactory;
+import io.xlate.edi.stream.EDIAsyncStreamReader;
+import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIInputFeeder;
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIStreamReader;
+
+class StaEDIAsyncStreamReaderTest {
+
+    static final String SIMPLE_X12 = ""
+            + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200301*1430*^*00501*000000001*0*P*:~"
+            + "GS*FA*ReceiverDept*SenderDept*20200301*1430*000000001*X*005010~"
+            + "ST*997*0001~"
+            + "AK1*FA*1~"
+            + "AK9*A*1*1*1~"
+            + "SE*4*0001~"
+            + "GE*1*000000001~"
+            + "IEA*1*000000001~";
+
+    static List<String> readEvents(EDIStreamReader reader, List<String> events) throws EDIStreamException {
+        while (reader.hasNext()) {
+            EDIStreamEvent event = reader.next();
+
+            if (event == EDIStreamEvent.ELEMENT_DATA) {
+                events.add(event + ":" + reader.getText() + ":" + reader.getLocation());
+            } else if (event.isError()) {
+                events.add(event + ":" + reader.getErrorType() + ":" + reader.getLocation());
+            } else {
+                events.add(event + ":" + reader.getLocation());
+            }
+        }
+
+        return events;
+    }
+
+    static List<String> readBlocking(EDIInputFactory factory, byte[] input) throws Exception {
+        try (EDIStreamReader reader = factory.createEDIStreamReader(new ByteArrayInputStream(input))) {
+            return readEvents(reader, new ArrayList<>());
+        }
+    }
+
+    static List<String> readAsync(EDIInputFactory factory, byte[] input, int chunkSize) throws Exception {
+        List<String> events = new ArrayList<>();
+
+        try (EDIAsyncStreamReader reader = factory.createAsyncEDIStreamReader()) {
+            EDIInputFeeder feeder = reader.getInputFeeder();
+
+            for (int offset = 0; offset < input.length; offset += chunkSize) {
+                feeder.feedInput(input, offset, Math.min(chunkSize, input.length - offset));
+                readEvents(reader, events);
+                assertTrue(feeder.needsInput());
+            }
+
+            feeder.endOfInput();
+            readEvents(reader, events);
+            assertFalse(feeder.needsInput());
+        }
+
+        return events;
+    }
+
+    static byte[] resource(String name) throws Exception {
+        try (InputStream stream = StaEDIAsyncStreamReaderTest.class.getResourceAsStream(name)) {
+            byte[] buffer = new byte[8192];
+            java.io.ByteArrayOutputStream result = new java.io.ByteArrayOutputStream();
+            int count;
+
+            while ((count = stream.read(buffer)) > -1) {
+                result.write(buffer, 0, count);
+            }
+
+            return result.toByteArray();
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/x12/simple997.edi, 1",
+        "/x12/simple997.edi, 7",
+        "/x12/simple997-multiple-interchanges.edi, 3",
+        "/x12/invalid997.edi, 5",
+        "/x12/sample837-original.edi, 64",
+        "/x12/sample837-original.edi, 100000",
+        "/EDIFACT/invoic_d97b_una.edi, 1",
+        "/EDIFACT/orders-with-group.edi, 11",
+    })
+    void testAsyncEventsMatchBlockingEvents(String resource, int chunkSize) throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        byte[] input = resource(resource);
+        assertEquals(readBlocking(factory, input), readAsync(factory, input, chunkSize));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "1", "2", "5" })
+    void testAsyncErrorsReportedMatchBlocking(int chunkSize) throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        List<String> blockingErrors = new ArrayList<>();
+        List<String> asyncErrors = new ArrayList<>();
+        byte[] input = SIMPLE_X12.replace("SE*4*0001", "SE*9*0002").replace("IEA*1", "IEA*2").getBytes(StandardCharsets.UTF_8);
+
+        factory.setErrorReporter((errorType, reader) -> blockingErrors.add(errorType + ":" + reader.getLocation()));
+        List<String> blocking = readBlocking(factory, input);
+
+        factory.setErrorReporter((errorType, reader) -> asyncErrors.add(errorType + ":" + reader.getLocation()));
+        List<String> async = readAsync(factory, input, chunkSize);
+
+        assertFalse(blockingErrors.isEmpty());
+        assertEquals(blockingErrors, asyncErrors);
+        assertEquals(blocking, async);
+    }
+
+    @Test
+    void testMultibyteCharacterSplitAcrossChunks() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        byte[] input = SIMPLE_X12.replace("AK1*FA*1", "AK1*FAé€*1").getBytes(StandardCharsets.UTF_8);
+        List<String> events = readAsync(factory, input, 1);
+
+        assertEquals(readBlocking(factory, input), events);
+        assertTrue(events.stream().anyMatch(e -> e.startsWith("ELEMENT_DATA:FAé€:")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "1", "3", "7", "1000" })
+    void testBinarySegmentSplitAcrossChunks(int chunkSize) throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        Schema schema = SchemaFactory.newFactory().createSchema(getClass().getResource("/x12/EDISchemaBinarySegment.xml"));
+        byte[] input = (""
+                + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200301*1430*^*00501*000000001*0*P*:~"
+                + "GS*FA*ReceiverDept*SenderDept*20200301*1430*000000001*X*005010~"
+                + "ST*000*0001~"
+                + "BIN*21*0123~*:^456789ABCDEFG~"
+                + "SE*3*0001~"
+                + "GE*1*000000001~"
+                + "IEA*1*000000001~").getBytes(StandardCharsets.UTF_8);
+        List<String> binary = new ArrayList<>();
+        List<String> segments = new ArrayList<>();
+
+        try (EDIAsyncStreamReader reader = factory.createAsyncEDIStreamReader()) {
+            EDIInputFeeder feeder = reader.getInputFeeder();
+
+            for (int offset = 0; offset < input.length; offset += chunkSize) {
+                feeder.feedInput(input, offset, Math.min(chunkSize, input.length - offset));
+                readBinary(reader, schema, binary, segments);
+                assertTrue(feeder.needsInput());
+            }
+
+            feeder.endOfInput();
+            readBinary(reader, schema, binary, segments);
+        }
+
+        assertEquals(Arrays.asList("0123~*:^456789ABCDEFG"), binary);
+        assertEquals(Arrays.asList("ISA", "GS", "ST", "BIN", "SE", "GE", "IEA"), segments);
+    }
+
+    static void readBinary(EDIStreamReader reader, Schema schema, List<String> binary, List<String> segments) throws Exception {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case START_TRANSACTION:
+                reader.setTransactionSchema(schema);
+                break;
+            case START_SEGMENT:
+                segments.add(reader.getText());
+                break;
+            case ELEMENT_DATA_BINARY:
+                java.io.ByteArrayOutputStream data = new java.io.ByteArrayOutputStream();
+                InputStream stream = reader.getBinaryData();
+                int next;
+                while ((next = stream.read()) > -1) {
+                    data.write(next);
+                }
+                binary.add(new String(data.toByteArray(), StandardCharsets.UTF_8));
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    @Test
+    void testOversizedElementNotStreamedAsync() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        factory.setProperty(EDIInputFactory.EDI_ELEMENT_BUFFER_LIMIT, 5);
+        factory.setProperty(EDIInputFactory.EDI_STREAM_OVERSIZED_ELEMENTS, true);
+        byte[] input = SIMPLE_X12.getBytes(StandardCharsets.UTF_8);
+
+        try (EDIAsyncStreamReader reader = factory.createAsyncEDIStreamReader()) {
+            reader.getInputFeeder().feedInput(input, 0, input.length);
+            EDIStreamException thrown = assertThrows(EDIStreamException.class, () -> readEvents(reader, new ArrayList<>()));
+            assertTrue(thrown.getMessage().contains("EDIE006"), thrown.getMessage());
+        }
+    }
+
+    @Test
+    void testTruncatedMultibyteCharacterAtEndOfInput() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        byte[] input = SIMPLE_X12.substring(0, SIMPLE_X12.indexOf("AK1*FA") + 6).getBytes(StandardCharsets.UTF_8);
+        byte[] euro = "\u20AC".getBytes(StandardCharsets.UTF_8);
+
+        try (EDIAsyncStreamReader reader = factory.createAsyncEDIStreamReader()) {
+            EDIInputFeeder feeder = reader.getInputFeeder();
+            feeder.feedInput(input, 0, input.length);
+            feeder.feedInput(euro, 0, 2);
+            List<String> events = readEvents(reader, new ArrayList<>());
+            // More input may complete the character
+            assertTrue(feeder.needsInput());
+            assertFalse(events.isEmpty());
+
+            feeder.endOfInput();
+            EDIStreamException thrown = assertThrows(EDIStreamException.class, () -> readEvents(reader, events));
+            assertTrue(thrown.getCause() instanceof MalformedInputException, () -> String.valueOf(thrown.getCause()));
+        }
+    }
+
+    @Test
+    void testFeedByteBuffer() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        EDIAsyncStreamReader reader = factory.createAsyncEDIStreamReader("UTF-8", null);
+        EDIInputFeeder feeder = reader.getInputFeeder();
+        ByteBuffer input = ByteBuffer.wrap(SIMPLE_X12.getBytes(StandardCharsets.UTF_8));
+
+        feeder.feedInput(input);
+        assertFalse(input.hasRemaining());
+        feeder.endOfInput();
+
+        List<String> events = readEvents(reader, new ArrayList<>());
+        assertEquals(readBlocking(factory, SIMPLE_X12.getBytes(StandardCharsets.UTF_8)), events);
+        assertFalse(reader.hasNext());
+        assertThrows(NoSuchElementException.class, reader::next);
+    }
+
+    @Test
+    void testNextWithoutInputThrowsException() throws Exception {
+        EDIAsyncStreamReader reader = EDIInputFactory.newFactory().createAsyncEDIStreamReader();
+        EDIInputFeeder feeder = reader.getInputFeeder();
+
+        assertTrue(feeder.needsInput());
+        assertFalse(reader.hasNext());
+        NoSuchElementException thrown = assertThrows(NoSuchElementException.class, reader::next);
+        assertEquals("Additional input required", thrown.getMessage());
+
+        byte[] input = SIMPLE_X12.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(input, 0, 10);
+        assertFalse(reader.hasNext());
+        assertTrue(feeder.needsInput());
+
+        feeder.feedInput(input, 10, input.length - 10);
+        assertTrue(reader.hasNext());
+        assertEquals(EDIStreamEvent.START_INTERCHANGE, reader.next());
+    }
+
+    @Test
+    void testNeedsInputWhileEventsBuffered() throws Exception {
+        EDIAsyncStreamReader reader = EDIInputFactory.newFactory().createAsyncEDIStreamReader();
+        EDIInputFeeder feeder = reader.getInputFeeder();
+        byte[] input = SIMPLE_X12.getBytes(StandardCharsets.UTF_8);
+
+        feeder.feedInput(input, 0, input.length - 5);
+        assertTrue(reader.hasNext());
+        // All input has been read into the reader, but events remain
+        assertEquals(0, ((StaEDIInputFeeder) feeder).getInputStream().available());
+        assertFalse(feeder.needsInput());
+
+        assertEquals(EDIStreamEvent.START_INTERCHANGE, reader.next());
+        assertFalse(feeder.needsInput());
+
+        readEvents(reader, new ArrayList<>());
+        assertTrue(feeder.needsInput());
+
+        feeder.feedInput(input, input.length - 5, 5);
+        assertFalse(feeder.needsInput());
+        readEvents(reader, new ArrayList<>());
+        assertTrue(feeder.needsInput());
+    }
+
+    @Test
+    void testIncompleteInputAtEndOfInput() throws Exception {
+        EDIAsyncStreamReader reader = EDIInputFactory.newFactory().createAsyncEDIStreamReader();
+        EDIInputFeeder feeder = reader.getInputFeeder();
+        byte[] input = SIMPLE_X12.getBytes(StandardCharsets.UTF_8);
+
+        feeder.feedInput(input, 0, input.length - 5);
+        readEvents(reader, new ArrayList<>());
+        assertTrue(feeder.needsInput());
+
+        feeder.endOfInput();
+        EDIStreamException thrown = assertThrows(EDIStreamException.class, reader::hasNext);
+        assertTrue(thrown.getMessage().contains("EDIE005"), thrown.getMessage());
+    }
+
+    @Test
+    void testFeedAfterEndOfInputThrowsException() {
+        EDIAsyncStreamReader reader = EDIInputFactory.newFactory().createAsyncEDIStreamReader();
+        EDIInputFeeder feeder = reader.getInputFeeder();
+        feeder.endOfInput();
+        assertTrue(feeder.isEndOfInput());
+        assertThrows(IllegalStateException.class, () -> feeder.feedInput(new byte[1], 0, 1));
+    }
+}
@@ -24,8 +24,12 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
@@ -35,6 +39,7 @@ import io.xlate.edi.schema.SchemaFactory;
 import io.xlate.edi.stream.EDIInputFactory;
 import io.xlate.edi.stream.EDIStreamEvent;
 import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIStreamFilterCriteria;
 import io.xlate.edi.stream.EDIStreamReader;
 import io.xlate.edi.stream.Location;
 
@@ -238,6 +243,125 @@ class StaEDIFilteredStreamReaderTest implements ConstantsTest {
         assertStatusEquals(unfiltered, filtered);
     }
 
+    @Test
+    void testCriteriaSegmentsParityWithFilter() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        Set<EDIStreamEvent> events = EnumSet.of(EDIStreamEvent.START_SEGMENT, EDIStreamEvent.ELEMENT_DATA, EDIStreamEvent.END_SEGMENT);
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+
+        try (InputStream stream = getClass().getResourceAsStream("/x12/sample837-original.edi")) {
+            EDIStreamReader reader = factory.createFilteredReader(factory.createEDIStreamReader(stream),
+                                                                  r -> events.contains(r.getEventType())
+                                                                          && r.getLocation().getSegmentTag().matches("NM1|N3"));
+            while (reader.hasNext()) {
+                expected.add(reader.next() + ":" + reader.getText() + ":" + reader.getLocation().getSegmentPosition());
+            }
+        }
+
+        EDIStreamFilterCriteria criteria = EDIStreamFilterCriteria.any()
+                .withEvents(EDIStreamEvent.START_SEGMENT, EDIStreamEvent.ELEMENT_DATA, EDIStreamEvent.END_SEGMENT)
+                .withSegments("NM1", "N3");
+
+        try (InputStream stream = getClass().getResourceAsStream("/x12/sample837-original.edi")) {
+            EDIStreamReader reader = factory.createFilteredReader(factory.createEDIStreamReader(stream), criteria);
+            while (reader.hasNext()) {
+                actual.add(reader.next() + ":" + reader.getText() + ":" + reader.getLocation().getSegmentPosition());
+            }
+        }
+
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testCriteriaTransactionTypes() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+
+        try (InputStream stream = getClass().getResourceAsStream("/x12/invoice810_po850_dual.edi")) {
+            EDIStreamReader reader = factory.createEDIStreamReader(stream);
+            boolean accepted = false;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case START_TRANSACTION:
+                    accepted = "850".equals(reader.getTransactionType());
+                    if (accepted) {
+                        expected.add("START_TRANSACTION");
+                    }
+                    break;
+                case START_SEGMENT:
+                    if (accepted) {
+                        expected.add(reader.getText());
+                    }
+                    break;
+                case END_TRANSACTION:
+                    accepted = false;
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        EDIStreamFilterCriteria criteria = EDIStreamFilterCriteria.any()
+                .withTransactionTypes("850")
+                .withEvents(EDIStreamEvent.START_TRANSACTION, EDIStreamEvent.START_SEGMENT);
+
+        try (InputStream stream = getClass().getResourceAsStream("/x12/invoice810_po850_dual.edi")) {
+            EDIStreamReader reader = factory.createFilteredReader(factory.createEDIStreamReader(stream), criteria);
+
+            while (reader.hasNext()) {
+                EDIStreamEvent event = reader.next();
+                assertEquals("850", reader.getTransactionType());
+                actual.add(event == EDIStreamEvent.START_TRANSACTION ? event.toString() : reader.getText());
+            }
+        }
+
+        assertTrue(expected.contains("PO1"));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testCriteriaLoops() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        Schema transaction = SchemaFactory.newFactory().createSchema(getClass().getResourceAsStream("/x12/EDISchema997.xml"));
+        InputStream stream = getClass().getResourceAsStream("/x12/simple997.edi");
+        EDIStreamReader unfiltered = factory.createEDIStreamReader(stream);
+
+        while (unfiltered.next() != EDIStreamEvent.START_TRANSACTION) {
+            // Advance to the start of the transaction to set the schema
+        }
+
+        unfiltered.setTransactionSchema(transaction);
+
+        EDIStreamFilterCriteria criteria = EDIStreamFilterCriteria.any()
+                .withLoops("2100")
+                .withEvents(EDIStreamEvent.START_LOOP,
+                            EDIStreamEvent.END_LOOP,
+                            EDIStreamEvent.START_SEGMENT,
+                            EDIStreamEvent.END_SEGMENT);
+        EDIStreamReader reader = factory.createFilteredReader(unfiltered, criteria);
+        List<String> actual = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            EDIStreamEvent event = reader.next();
+            actual.add(event + ":" + reader.getReferenceCode());
+        }
+
+        reader.close();
+
+        assertEquals(Arrays.asList("START_LOOP:2100",
+                                   "START_SEGMENT:AK3",
+                                   "END_SEGMENT:AK3",
+                                   "START_SEGMENT:AK4",
+                                   "END_SEGMENT:AK4",
+                                   "END_LOOP:2100"),
+                     actual);
+    }
+
     void assertStatusEquals(EDIStreamReader unfiltered, EDIStreamReader filtered) {
         assertEquals(unfiltered.getEventType(), filtered.getEventType());
         assertEquals(unfiltered.getText(), filtered.getText());
@@ -22,9 +22,19 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
 import io.xlate.edi.schema.EDISchemaException;
@@ -32,6 +42,7 @@ import io.xlate.edi.schema.Schema;
 import io.xlate.edi.schema.SchemaFactory;
 import io.xlate.edi.stream.EDIInputErrorReporter;
 import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIStreamEvent;
 import io.xlate.edi.stream.EDIStreamException;
 import io.xlate.edi.stream.EDIStreamReader;
 
@@ -137,4 +148,80 @@ class StaEDIInputFactoryTest {
         assertSame(reporter, factory.getErrorReporter());
         assertThrows(ClassCastException.class, factory::getEDIReporter);
     }
+
+    static List<String> readEvents(EDIStreamReader reader) throws Exception {
+        List<String> events = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            EDIStreamEvent event = reader.next();
+
+            switch (event) {
+            case ELEMENT_DATA:
+                events.add(event + ":" + reader.getText());
+
+                if ("BIN".equals(reader.getLocation().getSegmentTag())) {
+                    reader.setBinaryDataLength(Long.parseLong(reader.getText()));
+                }
+                break;
+            case ELEMENT_DATA_BINARY:
+                ByteArrayOutputStream binary = new ByteArrayOutputStream();
+                InputStream data = reader.getBinaryData();
+                byte[] buffer = new byte[3];
+                int count;
+
+                while ((count = data.read(buffer)) > -1) {
+                    binary.write(buffer, 0, count);
+                }
+
+                events.add(event + ":" + binary.toString("UTF-8"));
+                break;
+            default:
+                events.add(event + ":" + reader.getLocation());
+                break;
+            }
+        }
+
+        return events;
+    }
+
+    @Test
+    void testCreateEDIStreamReaderFromPath(@TempDir Path directory) throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        String edi = ""
+            + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200711*0100*^*00501*000000001*0*T*:~\n"
+            + "GS*FA*Sender*Receiver*20200711*0100*1*X*005010~\n"
+            + "ST*997*0001~\n"
+            + "BIN*11*bin~ry\r\ndat~\n"
+            + "SE*3*0001~\n"
+            + "GE*1*1~\n"
+            + "IEA*1*000000001~\n";
+        Path file = Files.write(directory.resolve("input.edi"), edi.getBytes(StandardCharsets.UTF_8));
+        List<String> expected;
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(new ByteArrayInputStream(edi.getBytes(StandardCharsets.UTF_8)))) {
+            expected = readEvents(reader);
+        }
+
+        assertTrue(expected.contains("ELEMENT_DATA_BINARY:bin~ry\r\ndat"));
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(file)) {
+            assertEquals(expected, readEvents(reader));
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            try (EDIStreamReader reader = factory.createEDIStreamReader(channel, "UTF-8", null)) {
+                assertEquals(expected, readEvents(reader));
+            }
+            // Channel given by the application remains open
+            assertTrue(channel.isOpen());
+        }
+    }
+
+    @Test
+    void testCreateEDIStreamReaderFromPathInvalid(@TempDir Path directory) {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        Path missing = directory.resolve("missing.edi");
+        assertThrows(EDIStreamException.class, () -> factory.createEDIStreamReader(missing));
+        assertThrows(EDIStreamException.class, () -> factory.createEDIStreamReader(missing, "NOT-A-CHARSET", null));
+    }
 }
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamPublisher;
+import io.xlate.edi.stream.EDIStreamPublisher.Subscription;
+import io.xlate.edi.stream.EDIStreamReader;
+
+class StaEDIStreamPublisherTest {
+
+    static class TestSubscriber<T> implements EDIStreamPublisher.Subscriber<T> {
+        final List<T> items = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        final long requestOnNext;
+        Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        TestSubscriber(long requestOnNext) {
+            this.requestOnNext = requestOnNext;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+
+            if (requestOnNext > 0) {
+                subscription.request(requestOnNext);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+    }
+
+    static String readTransaction(EDIStreamReader reader) throws Exception {
+        StringBuilder result = new StringBuilder(reader.getTransactionType());
+
+        while (reader.next() != EDIStreamEvent.END_TRANSACTION) {
+            if (reader.getEventType() == EDIStreamEvent.START_SEGMENT) {
+                result.append(':').append(reader.getText());
+            }
+        }
+
+        return result.toString();
+    }
+
+    static EDIStreamReader reader(EDIInputFactory factory, String resource) {
+        InputStream stream = StaEDIStreamPublisherTest.class.getResourceAsStream(resource);
+        return factory.createEDIStreamReader(stream);
+    }
+
+    @Test
+    void testTransactionsPublishedOnDemand() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        EDIStreamReader reader = reader(factory, "/x12/simple997-multiple-interchanges.edi");
+        EDIStreamPublisher<String> publisher = factory.createEDIStreamPublisher(reader,
+                                                                                EDIStreamPublisher.Unit.TRANSACTION,
+                                                                                StaEDIStreamPublisherTest::readTransaction);
+        TestSubscriber<String> subscriber = new TestSubscriber<>(0);
+        publisher.subscribe(subscriber);
+        assertTrue(subscriber.items.isEmpty());
+        // Nothing read until requested
+        assertNull(reader.getEventType());
+
+        subscriber.subscription.request(1);
+        assertEquals(Collections.singletonList("997:ST:AK1:AK2:AK3:AK4:AK5:AK9:SE"), subscriber.items);
+        // Reader is not advanced beyond the first transaction
+        assertEquals(EDIStreamEvent.END_TRANSACTION, reader.getEventType());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+        assertTrue(subscriber.items.size() > 1);
+    }
+
+    @Test
+    void testSegmentsPublishedWithRequestsFromOnNext() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        List<String> expected = new ArrayList<>();
+
+        try (EDIStreamReader reader = reader(factory, "/x12/sample837-original.edi")) {
+            while (reader.hasNext()) {
+                if (reader.next() == EDIStreamEvent.START_SEGMENT) {
+                    expected.add(reader.getText());
+                }
+            }
+        }
+
+        EDIStreamReader reader = reader(factory, "/x12/sample837-original.edi");
+        EDIStreamPublisher<String> publisher = factory.createEDIStreamPublisher(reader,
+                                                                                EDIStreamPublisher.Unit.SEGMENT,
+                                                                                EDIStreamReader::getText);
+        TestSubscriber<String> subscriber = new TestSubscriber<>(1);
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        assertTrue(subscriber.completed);
+        assertEquals(expected, subscriber.items);
+    }
+
+    @Test
+    void testSegmentsPublishedWithExecutor() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            EDIStreamReader reader = reader(factory, "/x12/sample837-original.edi");
+            EDIStreamPublisher<String> publisher = factory.createEDIStreamPublisher(reader,
+                                                                                    EDIStreamPublisher.Unit.SEGMENT,
+                                                                                    EDIStreamReader::getText,
+                                                                                    executor);
+            TestSubscriber<String> subscriber = new TestSubscriber<>(1);
+            publisher.subscribe(subscriber);
+
+            for (int i = 0; i < 5; i++) {
+                subscriber.subscription.request(2);
+            }
+
+            assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+            assertTrue(subscriber.completed);
+            assertEquals("ISA", subscriber.items.get(0));
+            assertEquals("IEA", subscriber.items.get(subscriber.items.size() - 1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testCancelStopsPublishing() {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        EDIStreamReader reader = reader(factory, "/x12/sample837-original.edi");
+        EDIStreamPublisher<String> publisher = factory.createEDIStreamPublisher(reader,
+                                                                                EDIStreamPublisher.Unit.SEGMENT,
+                                                                                EDIStreamReader::getText);
+        TestSubscriber<String> subscriber = new TestSubscriber<String>(0) {
+            @Override
+            public void onNext(String item) {
+                super.onNext(item);
+                if (items.size() == 3) {
+                    subscription.cancel();
+                }
+            }
+        };
+
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(10);
+        subscriber.subscription.request(10);
+
+        assertEquals(3, subscriber.items.size());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void testInvalidRequestSignalsError() {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        EDIStreamReader reader = reader(factory, "/x12/simple997.edi");
+        EDIStreamPublisher<String> publisher = factory.createEDIStreamPublisher(reader,
+                                                                                EDIStreamPublisher.Unit.SEGMENT,
+                                                                                EDIStreamReader::getText);
+        TestSubscriber<String> subscriber = new TestSubscriber<>(0);
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    void testItemReaderErrorSignalsError() {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        EDIStreamReader reader = reader(factory, "/x12/simple997.edi");
+        IllegalStateException failure = new IllegalStateException("Unreadable");
+        EDIStreamPublisher<String> publisher = factory.createEDIStreamPublisher(reader,
+                                                                                EDIStreamPublisher.Unit.SEGMENT,
+                                                                                r -> {
+                                                                                    if ("GS".equals(r.getText())) {
+                                                                                        throw failure;
+                                                                                    }
+                                                                                    return r.getText();
+                                                                                });
+        TestSubscriber<String> subscriber = new TestSubscriber<>(0);
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Collections.singletonList("ISA"), subscriber.items);
+        assertEquals(failure, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void testSecondSubscriberRejected() {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        EDIStreamReader reader = reader(factory, "/x12/simple997.edi");
+        EDIStreamPublisher<String> publisher = factory.createEDIStreamPublisher(reader,
+                                                                                EDIStreamPublisher.Unit.SEGMENT,
+                                                                                EDIStreamReader::getText);
+        publisher.subscribe(new TestSubscriber<>(0));
+        TestSubscriber<String> second = new TestSubscriber<>(0);
+        publisher.subscribe(second);
+
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.xlate.edi.schema.Schema;
+import io.xlate.edi.schema.SchemaFactory;
+import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamReader;
+import io.xlate.edi.stream.EDIStreamValidationError;
+
+class StaEDIStreamReaderSkipTest {
+
+    static final String SIMPLE_X12 = ""
+            + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200301*1430*^*00501*000000001*0*P*:~"
+            + "GS*FA*ReceiverDept*SenderDept*20200301*1430*000000001*X*005010~"
+            + "ST*997*0001~"
+            + "AK1*FA*1~"
+            + "AK9*A*1*1*1~"
+            + "SE*4*0001~"
+            + "GE*1*000000001~"
+            + "IEA*1*000000001~";
+
+    static EDIStreamReader reader(EDIInputFactory factory, String edi) {
+        return factory.createEDIStreamReader(new ByteArrayInputStream(edi.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static String describe(EDIStreamReader reader, EDIStreamEvent event) {
+        return event + ":" + reader.getLocation().getSegmentTag() + ":" + reader.getLocation().getSegmentPosition() + ":"
+                + reader.getLocation().getLineNumber() + ":" + reader.getLocation().getCharacterOffset();
+    }
+
+    static boolean isSegmentContent(EDIStreamEvent event) {
+        switch (event) {
+        case ELEMENT_DATA:
+        case ELEMENT_DATA_BINARY:
+        case START_COMPOSITE:
+        case END_COMPOSITE:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/x12/sample837-original.edi",
+        "/x12/simple997-multiple-interchanges.edi",
+        "/EDIFACT/invoic_d97b.edi",
+        "/EDIFACT/invoic_d97b_una.edi"
+    })
+    void testSkippedSegmentsMatchFullRead(String resource) throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+
+        try (InputStream stream = getClass().getResourceAsStream(resource);
+             EDIStreamReader reader = factory.createEDIStreamReader(stream)) {
+            while (reader.hasNext()) {
+                EDIStreamEvent event = reader.next();
+
+                if (!isSegmentContent(event)) {
+                    expected.add(describe(reader, event));
+                }
+            }
+        }
+
+        try (InputStream stream = getClass().getResourceAsStream(resource);
+             EDIStreamReader reader = factory.createEDIStreamReader(stream)) {
+            while (reader.hasNext()) {
+                EDIStreamEvent event = reader.next();
+                assertFalse(isSegmentContent(event) && reader.getLocation().getSegmentTag() == null);
+
+                if (!isSegmentContent(event)) {
+                    actual.add(describe(reader, event));
+                }
+
+                if (event == EDIStreamEvent.START_SEGMENT) {
+                    actual.add(describe(reader, reader.skipSegment()));
+                }
+            }
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testSkippedSegmentElementsNotValidated() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        Schema transactionSchema = SchemaFactory.newFactory().createSchema(getClass().getResource("/x12/EDISchema997.xml"));
+        List<EDIStreamValidationError> fullErrors = new ArrayList<>();
+        List<EDIStreamValidationError> skippedErrors = new ArrayList<>();
+
+        factory.setErrorReporter((errorType, reader) -> fullErrors.add(errorType));
+
+        try (InputStream stream = getClass().getResourceAsStream("/x12/invalid997.edi");
+             EDIStreamReader reader = factory.createEDIStreamReader(stream)) {
+            while (reader.hasNext()) {
+                if (reader.next() == EDIStreamEvent.START_TRANSACTION) {
+                    reader.setTransactionSchema(transactionSchema);
+                }
+            }
+        }
+
+        factory.setErrorReporter((errorType, reader) -> skippedErrors.add(errorType));
+
+        try (InputStream stream = getClass().getResourceAsStream("/x12/invalid997.edi");
+             EDIStreamReader reader = factory.createEDIStreamReader(stream)) {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case START_TRANSACTION:
+                    reader.setTransactionSchema(transactionSchema);
+                    break;
+                case START_SEGMENT:
+                    if (!"ST".equals(reader.getLocation().getSegmentTag())) {
+                        reader.skipSegment();
+                    }
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        assertFalse(fullErrors.isEmpty());
+        assertTrue(skippedErrors.isEmpty(), () -> "Unexpected errors: " + skippedErrors);
+    }
+
+    @Test
+    void testControlStructureValidatedWithSkippedSegments() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        List<EDIStreamValidationError> errors = new ArrayList<>();
+        factory.setErrorReporter((errorType, reader) -> errors.add(errorType));
+
+        try (EDIStreamReader reader = reader(factory, SIMPLE_X12.replace("SE*4*0001", "SE*5*0001"))) {
+            while (reader.hasNext()) {
+                if (reader.next() == EDIStreamEvent.START_SEGMENT) {
+                    reader.skipSegment();
+                }
+            }
+        }
+
+        assertEquals(1, errors.size());
+        assertEquals(EDIStreamValidationError.CONTROL_COUNT_DOES_NOT_MATCH_ACTUAL_COUNT, errors.get(0));
+    }
+
+    @Test
+    void testSkipToSegment() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+
+        try (EDIStreamReader reader = reader(factory, SIMPLE_X12)) {
+            assertTrue(reader.skipTo("AK9"));
+            assertEquals(EDIStreamEvent.START_SEGMENT, reader.getEventType());
+            assertEquals("AK9", reader.getText());
+            assertEquals(EDIStreamEvent.ELEMENT_DATA, reader.next());
+            assertEquals("A", reader.getText());
+
+            assertTrue(reader.skipTo("IEA"));
+            assertFalse(reader.skipTo("AK9"));
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void testSkipTransaction() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+
+        try (InputStream stream = getClass().getResourceAsStream("/x12/simple997-multiple-interchanges.edi");
+             EDIStreamReader reader = factory.createEDIStreamReader(stream)) {
+            int transactions = 0;
+            List<String> segments = new ArrayList<>();
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case START_TRANSACTION:
+                    assertEquals(EDIStreamEvent.END_TRANSACTION, reader.skipTransaction());
+                    transactions++;
+                    break;
+                case START_SEGMENT:
+                    segments.add(reader.getText());
+                    break;
+                default:
+                    break;
+                }
+            }
+
+            assertTrue(segments.stream().allMatch(tag -> tag.matches("ISA|GS|GE|IEA")), () -> "Unexpected segments " + segments);
+            assertTrue(transactions > 1);
+        }
+    }
+
+    @Test
+    void testSkipSegmentOutsideSegment() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+
+        try (EDIStreamReader reader = reader(factory, SIMPLE_X12)) {
+            assertThrows(IllegalStateException.class, reader::skipSegment);
+            assertEquals(EDIStreamEvent.START_INTERCHANGE, reader.next());
+            assertThrows(IllegalStateException.class, reader::skipSegment);
+            assertEquals(EDIStreamEvent.START_SEGMENT, reader.next());
+            assertEquals(EDIStreamEvent.END_SEGMENT, reader.skipSegment());
+            assertThrows(IllegalStateException.class, reader::skipSegment);
+        }
+    }
+}
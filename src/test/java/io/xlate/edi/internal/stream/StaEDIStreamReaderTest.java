@@ -21,6 +21,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -58,6 +59,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mockito;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
@@ -2170,6 +2172,62 @@ class StaEDIStreamReaderTest implements ConstantsTest {
         assertEquals(expected, actual.toString());
     }
 
+    @Test
+    void testHierarchicalLoopsDeeplyNested() throws Exception {
+        final int levels = 2000;
+        StringBuilder edi = new StringBuilder();
+        edi.append("ISA*01*0000000000*01*0000000000*ZZ*ABCDEFGHIJKLMNO*ZZ*123456789012345*210701*1230*`*00501*000000001*0*P*>~");
+        edi.append("GS*HC*99999999999*888888888888*20210701*1229*1*X*005010~");
+        edi.append("ST*837*0001~");
+        edi.append("BHT*0019*00*565743*20210701*1225*CH~");
+        edi.append("HL*1**20*1~");
+
+        for (int i = 2; i <= levels; i++) {
+            edi.append("HL*").append(i).append('*').append(i - 1).append("*22*1~");
+        }
+
+        // Closes every open level at once
+        edi.append("HL*").append(levels + 1).append("**20~");
+        edi.append("SE*").append(levels + 3).append("*0001~");
+        edi.append("GE*1*1~");
+        edi.append("IEA*1*000000001~");
+
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        int depth = 0;
+        int maxDepth = 0;
+        int hlDepthAtLast = -1;
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(new ByteArrayInputStream(edi.toString().getBytes()))) {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case START_TRANSACTION:
+                    SchemaFactory schemaFactory = SchemaFactory.newFactory();
+                    reader.setTransactionSchema(schemaFactory.createSchema(getClass().getResource("/x12/005010/837-hierarchical-level-enabled.xml")));
+                    break;
+                case START_LOOP:
+                    maxDepth = Math.max(maxDepth, ++depth);
+                    break;
+                case END_LOOP:
+                    depth--;
+                    break;
+                case ELEMENT_DATA:
+                    Location loc = reader.getLocation();
+                    if ("HL".equals(loc.getSegmentTag()) && loc.getElementPosition() == 1
+                            && String.valueOf(levels + 1).equals(reader.getText())) {
+                        hlDepthAtLast = depth;
+                    }
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        assertEquals(0, depth);
+        assertEquals(levels, maxDepth);
+        assertEquals(1, hlDepthAtLast);
+    }
+
     @Test
     void testMultipleInterchangesInStream() throws EDIStreamException, IOException {
         EDIInputFactory factory = EDIInputFactory.newFactory();
@@ -2246,4 +2304,180 @@ class StaEDIStreamReaderTest implements ConstantsTest {
             assertEquals(i * 3 + 3, unz.getSegmentPosition());
         }
     }
+
+    static String x12WithElement(String value) {
+        return ""
+                + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *050812*1953*^*00501*508121953*0*P*:~"
+                + "GS*FA*ReceiverDept*SenderDept*20050812*195335*000005*X*005010X230~"
+                + "ST*997*0001~"
+                + "NTE*" + value + "*B~"
+                + "SE*3*0001~"
+                + "GE*1*000005~"
+                + "IEA*1*508121953~";
+    }
+
+    static String repeat(char c, int count) {
+        char[] data = new char[count];
+        Arrays.fill(data, c);
+        return new String(data);
+    }
+
+    static String readAll(Reader reader) throws IOException {
+        StringBuilder result = new StringBuilder();
+        char[] chunk = new char[100];
+        int count;
+
+        while ((count = reader.read(chunk)) > -1) {
+            result.append(chunk, 0, count);
+        }
+
+        return result.toString();
+    }
+
+    static EDIStreamReader nextElement(EDIStreamReader reader, String segmentTag) throws EDIStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == EDIStreamEvent.ELEMENT_DATA && segmentTag.equals(reader.getLocation().getSegmentTag())) {
+                return reader;
+            }
+        }
+
+        fail("Element not found");
+        return reader;
+    }
+
+    @Test
+    void testElementLargerThanInitialBuffer() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        String value = repeat('A', 10000);
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(new ByteArrayInputStream(x12WithElement(value).getBytes()))) {
+            nextElement(reader, "NTE");
+            assertEquals(value, reader.getText());
+            assertEquals(value, readAll(reader.getTextReader()));
+            nextElement(reader, "NTE");
+            assertEquals("B", reader.getText());
+        }
+    }
+
+    @Test
+    void testElementBufferLimitExceeded() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        factory.setProperty(EDIInputFactory.EDI_ELEMENT_BUFFER_LIMIT, 100);
+        String value = repeat('A', 101);
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(new ByteArrayInputStream(x12WithElement(value).getBytes()))) {
+            EDIStreamException thrown = assertThrows(EDIStreamException.class, () -> nextElement(reader, "NTE"));
+            assertThat(thrown.getMessage(), containsString("EDIE006"));
+        }
+    }
+
+    @Test
+    void testOversizedElementStreamed() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        factory.setProperty(EDIInputFactory.EDI_ELEMENT_BUFFER_LIMIT, 100);
+        factory.setProperty(EDIInputFactory.EDI_STREAM_OVERSIZED_ELEMENTS, true);
+        String value = repeat('A', 5000) + repeat('B', 5000);
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(new ByteArrayInputStream(x12WithElement(value).getBytes()))) {
+            nextElement(reader, "NTE");
+            assertTrue(reader.isTextStreamed());
+            assertThrows(IllegalStateException.class, reader::getText);
+            assertThrows(IllegalStateException.class, reader::getTextCharacters);
+            assertEquals(value, readAll(reader.getTextReader()));
+            nextElement(reader, "NTE");
+            assertFalse(reader.isTextStreamed());
+            assertEquals("B", reader.getText());
+            assertEquals(2, reader.getLocation().getElementPosition());
+            assertEquals("B", readAll(reader.getTextReader()));
+            assertEquals(EDIStreamEvent.END_SEGMENT, reader.next());
+            assertEquals(EDIStreamEvent.START_SEGMENT, reader.next());
+            assertEquals("SE", reader.getText());
+        }
+    }
+
+    @Test
+    void testDefaultTextReader() throws Exception {
+        EDIStreamReader reader = Mockito.mock(EDIStreamReader.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doReturn(EDIStreamEvent.START_SEGMENT).when(reader).getEventType();
+        assertThrows(IllegalStateException.class, reader::getTextReader);
+        assertThrows(IllegalStateException.class, reader::isTextStreamed);
+
+        Mockito.doReturn(EDIStreamEvent.ELEMENT_DATA).when(reader).getEventType();
+        Mockito.doReturn("ABC").when(reader).getText();
+        assertFalse(reader.isTextStreamed());
+        assertEquals("ABC", readAll(reader.getTextReader()));
+    }
+
+    @Test
+    void testOversizedElementSkippedWhenNotRead() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        factory.setProperty(EDIInputFactory.EDI_ELEMENT_BUFFER_LIMIT, 100);
+        factory.setProperty(EDIInputFactory.EDI_STREAM_OVERSIZED_ELEMENTS, true);
+        String value = repeat('A', 5000);
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(new ByteArrayInputStream(x12WithElement(value).getBytes()))) {
+            nextElement(reader, "NTE");
+            assertEquals('A', reader.getTextReader().read());
+            nextElement(reader, "NTE");
+            assertEquals("B", reader.getText());
+            assertEquals(2, reader.getLocation().getElementPosition());
+        }
+    }
+
+    List<String> readElementText(String resource, String schemaResource, boolean referenced, Set<char[]> arrays) throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        factory.setProperty(EDIInputFactory.EDI_REFERENCE_ELEMENT_TEXT, referenced);
+        List<String> elements = new ArrayList<>();
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(getClass().getResourceAsStream(resource))) {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case START_TRANSACTION:
+                    if (schemaResource != null) {
+                        reader.setTransactionSchema(SchemaFactory.newFactory().createSchema(getClass().getResource(schemaResource)));
+                    }
+                    break;
+                case ELEMENT_DATA:
+                    char[] text = reader.getTextCharacters();
+                    arrays.add(text);
+                    elements.add(new String(text, reader.getTextStart(), reader.getTextLength()));
+                    assertEquals(reader.getText(), elements.get(elements.size() - 1));
+
+                    char[] copy = new char[reader.getTextLength()];
+                    assertEquals(copy.length, reader.getTextCharacters(0, copy, 0, copy.length));
+                    assertEquals(reader.getText(), new String(copy));
+                    break;
+                case SEGMENT_ERROR:
+                case ELEMENT_OCCURRENCE_ERROR:
+                case ELEMENT_DATA_ERROR:
+                    elements.add(reader.getErrorType() + ": " + reader.getText());
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        return elements;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/x12/sample837-HL-nested.edi, /x12/005010/837-hierarchical-level-enabled.xml",
+        "/x12/simple997.edi, ",
+        "/EDIFACT/invoic_d97b_una.edi, ",
+    })
+    void testReferencedElementTextMatchesCopiedText(String resource, String schemaResource) throws Exception {
+        Set<char[]> copiedArrays = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        Set<char[]> referencedArrays = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+
+        List<String> expected = readElementText(resource, schemaResource, false, copiedArrays);
+        List<String> actual = readElementText(resource, schemaResource, true, referencedArrays);
+
+        assertEquals(expected, actual);
+        // Each element is copied to a new array unless referenced
+        assertTrue(copiedArrays.size() > referencedArrays.size());
+        // Referenced text is located in the reader's buffer
+        assertTrue(referencedArrays.size() < 5, () -> "Arrays: " + referencedArrays.size());
+    }
 }
@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIStreamReader;
+import io.xlate.edi.stream.EDIStreamSplitter;
+import io.xlate.edi.stream.EDIStreamValidationError;
+import io.xlate.edi.stream.EDIValidationException;
+import io.xlate.edi.stream.Location;
+
+class StaEDIStreamSplitterTest {
+
+    ExecutorService executor;
+    EDIInputFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        factory = EDIInputFactory.newFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    static String x12Interchange(int control, int... transactionsPerGroup) {
+        StringBuilder edi = new StringBuilder();
+        edi.append(String.format("ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200711*0100*^*00501*%09d*0*T*:~%n", control));
+        int transaction = 0;
+
+        for (int g = 0; g < transactionsPerGroup.length; g++) {
+            edi.append(String.format("GS*FA*Sender*Receiver*20200711*0100*%d*X*005010~%n", g + 1));
+
+            for (int t = 0; t < transactionsPerGroup[g]; t++) {
+                String st02 = String.format("%04d", ++transaction);
+                edi.append("ST*997*").append(st02).append("~\n");
+                edi.append("AK1*HC*1~\n");
+                edi.append("SE*3*").append(st02).append("~\n");
+            }
+
+            edi.append(String.format("GE*%d*%d~%n", transactionsPerGroup[g], g + 1));
+        }
+
+        edi.append(String.format("IEA*%d*%09d~%n", transactionsPerGroup.length, control));
+        return edi.toString();
+    }
+
+    static InputStream stream(String edi) {
+        return new ByteArrayInputStream(edi.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read the unit, returning the control numbers of the transactions and any
+     * errors encountered.
+     */
+    static List<String> read(EDIStreamReader reader) throws EDIStreamException {
+        List<String> results = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case ELEMENT_DATA:
+                if (isTransactionReference(reader.getLocation())) {
+                    results.add(reader.getText());
+                }
+                break;
+            case SEGMENT_ERROR:
+            case ELEMENT_DATA_ERROR:
+            case ELEMENT_OCCURRENCE_ERROR:
+                results.add(reader.getErrorType().name());
+                break;
+            default:
+                break;
+            }
+        }
+
+        return results;
+    }
+
+    static boolean isTransactionReference(Location location) {
+        switch (location.getSegmentTag()) {
+        case "ST":
+            return location.getElementPosition() == 2;
+        case "UNH":
+            return location.getElementPosition() == 1;
+        default:
+            return false;
+        }
+    }
+
+    static <R> List<R> join(List<CompletableFuture<R>> futures) {
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    @Test
+    void testSplitInterchanges() throws Exception {
+        String edi = x12Interchange(1, 2) + x12Interchange(2, 1, 1) + "\n" + x12Interchange(3);
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), EDIStreamSplitter.Unit.INTERCHANGE)) {
+            List<CompletableFuture<List<String>>> results = splitter.submit(executor, StaEDIStreamSplitterTest::read);
+
+            assertEquals(Arrays.asList(Arrays.asList("0001", "0002"),
+                                       Arrays.asList("0001", "0002"),
+                                       Arrays.asList()),
+                         join(results));
+            assertNull(splitter.getControlErrors());
+        }
+    }
+
+    @Test
+    void testSplitTransactions() throws Exception {
+        String edi = x12Interchange(1, 2, 3) + x12Interchange(2, 1);
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), "UTF-8", EDIStreamSplitter.Unit.TRANSACTION)) {
+            List<CompletableFuture<List<String>>> results = splitter.submit(executor, StaEDIStreamSplitterTest::read);
+
+            assertEquals(Arrays.asList(Arrays.asList("0001"),
+                                       Arrays.asList("0002"),
+                                       Arrays.asList("0003"),
+                                       Arrays.asList("0004"),
+                                       Arrays.asList("0005"),
+                                       Arrays.asList("0001")),
+                         join(results));
+            assertNull(splitter.getControlErrors());
+        }
+    }
+
+    @Test
+    void testSplitTransactionsReconcilesTrailers() throws Exception {
+        String edi = x12Interchange(1, 2)
+            .replace("GE*2*1~", "GE*3*2~")
+            .replace("IEA*1*000000001~", "IEA*1*000000009~");
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), EDIStreamSplitter.Unit.TRANSACTION)) {
+            List<CompletableFuture<List<String>>> results = splitter.submit(executor, StaEDIStreamSplitterTest::read);
+
+            // The transactions themselves are valid
+            assertEquals(Arrays.asList(Arrays.asList("0001"), Arrays.asList("0002")), join(results));
+
+            EDIValidationException errors = splitter.getControlErrors();
+            assertEquals(EDIStreamValidationError.CONTROL_COUNT_DOES_NOT_MATCH_ACTUAL_COUNT, errors.getError());
+            assertEquals("GE", errors.getLocation().getSegmentTag());
+            assertEquals("3", errors.getData());
+
+            errors = errors.getNextException();
+            assertEquals(EDIStreamValidationError.CONTROL_REFERENCE_MISMATCH, errors.getError());
+            assertEquals("GE", errors.getLocation().getSegmentTag());
+            assertEquals(2, errors.getLocation().getElementPosition());
+
+            errors = errors.getNextException();
+            assertEquals(EDIStreamValidationError.CONTROL_REFERENCE_MISMATCH, errors.getError());
+            assertEquals("IEA", errors.getLocation().getSegmentTag());
+            assertNull(errors.getNextException());
+        }
+    }
+
+    @Test
+    void testSplitEdifactTransactionsWithGroup() throws Exception {
+        final String resource = "/EDIFACT/orders-with-group.edi";
+        final List<String> expected;
+
+        try (EDIStreamReader reader = factory.createEDIStreamReader(getClass().getResourceAsStream(resource))) {
+            // Includes the errors present in the sample data
+            expected = read(reader);
+        }
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(getClass().getResourceAsStream(resource),
+                                                                          EDIStreamSplitter.Unit.TRANSACTION)) {
+            List<CompletableFuture<List<String>>> results = splitter.submit(executor, StaEDIStreamSplitterTest::read);
+            assertEquals(Arrays.asList(expected), join(results));
+            assertNull(splitter.getControlErrors());
+        }
+    }
+
+    @Test
+    void testSplitEdifactTransactionsWithServiceStringAdvice() throws Exception {
+        String message = "UNH*%1$d*INVOIC=D=97B=UN~BGM*380*342459?~*9~UNT*3*%1$d~";
+        String edi = "UNA=*.? ~UNB*UNOA=3*005435656=1*006415160=1*060515=1434*778~"
+                + String.format(message, 1)
+                + String.format(message, 2)
+                + "UNZ*2*778~";
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), EDIStreamSplitter.Unit.TRANSACTION)) {
+            List<CompletableFuture<List<String>>> results = splitter.submit(executor, StaEDIStreamSplitterTest::read);
+            assertEquals(Arrays.asList(Arrays.asList("1"), Arrays.asList("2")), join(results));
+            assertNull(splitter.getControlErrors());
+        }
+    }
+
+    @Test
+    void testSegmentsOutsideTransaction() throws Exception {
+        String edi = x12Interchange(1, 1).replace("~\nGS*", "~\nTA1*000000001*200711*0100*A*000~\nGS*");
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), EDIStreamSplitter.Unit.TRANSACTION)) {
+            List<CompletableFuture<List<String>>> results = splitter.submit(executor, StaEDIStreamSplitterTest::read);
+            assertEquals(Arrays.asList(Arrays.asList(), Arrays.asList("0001")), join(results));
+            assertNull(splitter.getControlErrors());
+        }
+    }
+
+    @Test
+    void testTaskExceptionCompletesExceptionally() throws Exception {
+        String edi = x12Interchange(1, 1);
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), EDIStreamSplitter.Unit.INTERCHANGE)) {
+            List<CompletableFuture<Object>> results = splitter.submit(executor, reader -> {
+                throw new IllegalStateException("Task failure");
+            });
+
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> results.get(0).get());
+            assertTrue(thrown.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    void testUnrecognizedHeader() throws Exception {
+        String edi = x12Interchange(1, 1) + "STX=ANA:1+5000000000000:SOME STORES LTD+5010000000000:SUPPLIER UK LTD+070315:130233+000007+PASSW+ORDHDR+B'";
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), EDIStreamSplitter.Unit.INTERCHANGE)) {
+            List<CompletableFuture<List<String>>> results = new ArrayList<>();
+            EDIStreamException thrown = assertThrows(EDIStreamException.class,
+                                                     () -> results.addAll(splitter.submit(executor, StaEDIStreamSplitterTest::read)));
+            assertTrue(thrown.getMessage().contains("Unrecognized interchange header"));
+        }
+    }
+
+    @Test
+    void testTruncatedInterchange() throws Exception {
+        String edi = x12Interchange(1, 1);
+        edi = edi.substring(0, edi.indexOf("IEA"));
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), EDIStreamSplitter.Unit.TRANSACTION)) {
+            EDIStreamException thrown = assertThrows(EDIStreamException.class,
+                                                     () -> splitter.submit(executor, StaEDIStreamSplitterTest::read));
+            assertTrue(thrown.getMessage().contains("Unexpected end of input"));
+        }
+    }
+
+    @Test
+    void testUnsupportedEncoding() {
+        assertThrows(EDIStreamException.class,
+                     () -> factory.createEDIStreamSplitter(stream(""), "NOT-A-CHARSET", EDIStreamSplitter.Unit.INTERCHANGE));
+    }
+
+    @Test
+    void testMultiByteEncodingRejected() {
+        assertThrows(EDIStreamException.class,
+                     () -> factory.createEDIStreamSplitter(stream(""), "UTF-16", EDIStreamSplitter.Unit.INTERCHANGE));
+    }
+
+    @Test
+    void testPendingUnitsBounded() throws Exception {
+        String edi = x12Interchange(1, 10, 10);
+        AtomicInteger pending = new AtomicInteger();
+        AtomicInteger maxPending = new AtomicInteger();
+        factory.setProperty(EDIInputFactory.EDI_SPLITTER_PENDING_UNIT_LIMIT, 2);
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(stream(edi), EDIStreamSplitter.Unit.TRANSACTION)) {
+            List<CompletableFuture<List<String>>> results = splitter.submit(command -> {
+                maxPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+                executor.execute(command);
+            }, reader -> {
+                try {
+                    Thread.sleep(5);
+                    return read(reader);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+
+            assertEquals(20, join(results).size());
+            assertTrue(maxPending.get() <= 2, () -> "Pending units exceeded limit: " + maxPending.get());
+        }
+    }
+
+    @Test
+    void testFuturesDeliveredWhileScanning() throws Exception {
+        StringBuilder edi = new StringBuilder();
+        for (int i = 1; i <= 200; i++) {
+            edi.append(x12Interchange(i, 1));
+        }
+        byte[] data = edi.toString().getBytes(StandardCharsets.US_ASCII);
+        AtomicInteger bytesRead = new AtomicInteger();
+        InputStream input = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                int count = super.read(b, off, len);
+                bytesRead.addAndGet(Math.max(count, 0));
+                return count;
+            }
+
+            @Override
+            public synchronized int read() {
+                int value = super.read();
+                bytesRead.addAndGet(value < 0 ? 0 : 1);
+                return value;
+            }
+        };
+        List<Integer> readAtDelivery = new ArrayList<>();
+        List<List<String>> results = new ArrayList<>();
+        factory.setProperty(EDIInputFactory.EDI_SPLITTER_PENDING_UNIT_LIMIT, 1);
+
+        try (EDIStreamSplitter splitter = factory.createEDIStreamSplitter(input, EDIStreamSplitter.Unit.INTERCHANGE)) {
+            splitter.submit(executor, StaEDIStreamSplitterTest::read, future -> {
+                readAtDelivery.add(bytesRead.get());
+                results.add(future.join());
+            });
+        }
+
+        assertEquals(200, results.size());
+        assertTrue(results.stream().allMatch(Arrays.asList("0001")::equals));
+        assertTrue(readAtDelivery.get(0) < data.length, () -> "First unit delivered after reading " + readAtDelivery.get(0) + " bytes");
+    }
+}
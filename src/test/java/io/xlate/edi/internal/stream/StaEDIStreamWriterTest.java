@@ -1333,6 +1333,36 @@ class StaEDIStreamWriterTest {
         assertEquals("479", ((EDIReference) e2.get(4)).getReferencedType().getCode());
     }
 
+    @Test
+    void testLongElementWrittenInPartsIsValidated() throws EDISchemaException, EDIStreamException {
+        List<List<Object>> actual = new ArrayList<>();
+        EDIOutputErrorReporter reporter = (error, writer, location, data, typeReference) -> {
+            actual.add(Arrays.asList(error, String.valueOf(data)));
+        };
+        EDIOutputFactory outputFactory = EDIOutputFactory.newFactory();
+        outputFactory.setErrorReporter(reporter);
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(16384);
+        EDIStreamWriter writer = outputFactory.createEDIStreamWriter(result);
+        writer.setControlSchema(SchemaUtils.getControlSchema("X12", new String[] { "00501" }));
+
+        char[] part = new char[1500];
+        Arrays.fill(part, 'A');
+
+        writer.startInterchange();
+        writeHeader(writer);
+        writer.writeStartSegment("GS");
+        writer.writeStartElement();
+        writer.writeElementData(part, 0, part.length);
+        writer.writeElementData(new String(part));
+        writer.endElement();
+
+        assertEquals(2, actual.size());
+        assertEquals(EDIStreamValidationError.DATA_ELEMENT_TOO_LONG, actual.get(0).get(0));
+        assertEquals(3000, ((String) actual.get(0).get(1)).length());
+        assertEquals(EDIStreamValidationError.INVALID_CODE_VALUE, actual.get(1).get(0));
+    }
+
     @Test
     void testElementValidationThrown() throws EDISchemaException, EDIStreamException {
         EDIOutputFactory outputFactory = EDIOutputFactory.newFactory();
@@ -1360,6 +1390,48 @@ class StaEDIStreamWriterTest {
         assertEquals(1, e.getLocation().getElementPosition());
     }
 
+    EDIStreamWriter startBinaryTransaction(ByteArrayOutputStream result) throws Exception {
+        EDIOutputFactory outputFactory = EDIOutputFactory.newFactory();
+        EDIStreamWriter writer = outputFactory.createEDIStreamWriter(result);
+        writer.setControlSchema(SchemaUtils.getControlSchema("X12", new String[] { "00501" }));
+        writer.setTransactionSchema(SchemaFactory.newFactory().createSchema(getClass().getResource("/x12/EDISchemaNumericBinaryRepeat.xml")));
+
+        writer.startInterchange();
+        writeHeader(writer);
+        writer.writeStartSegment("GS");
+        for (String element : new String[] { "HC", "ReceiverDept", "SenderDept", "20200301", "1430", "1", "X", "005010" }) {
+            writer.writeElement(element);
+        }
+        writer.writeEndSegment();
+        writer.writeStartSegment("ST").writeElement("000").writeElement("0001").writeEndSegment();
+        writer.writeStartSegment("AMT").writeElement("T").writeElement("1234").writeEndSegment();
+        writer.writeStartSegment("BIN").writeElement("4");
+        return writer;
+    }
+
+    @Test
+    void testBinaryElementDataNotValidated() throws Exception {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        EDIStreamWriter writer = startBinaryTransaction(result);
+
+        // The binary data is written directly, leaving nothing to validate
+        writer.writeStartElementBinary().writeBinaryData(new byte[] { 'a', '*', '~', 'b' }, 0, 4).endElement();
+        writer.writeEndSegment();
+        writer.flush();
+
+        assertTrue(result.toString().endsWith("BIN*4*a*~b~"), result::toString);
+    }
+
+    @Test
+    void testEmptyRequiredElementValidated() throws Exception {
+        EDIStreamWriter writer = startBinaryTransaction(new ByteArrayOutputStream());
+
+        writer.writeStartElement();
+        EDIValidationException e = assertThrows(EDIValidationException.class, writer::endElement);
+        assertEquals(EDIStreamValidationError.REQUIRED_DATA_ELEMENT_MISSING, e.getError());
+        assertEquals(2, e.getLocation().getElementPosition());
+    }
+
     @Test
     void testInputEquivalenceValidatedX12() throws Exception {
         EDIInputFactory inputFactory = EDIInputFactory.newFactory();
@@ -2224,6 +2296,51 @@ class StaEDIStreamWriterTest {
         assertEquals("UNB+UNO1:1++++'ISA+??????'", new String(stream.toByteArray()));
     }
 
+    @Test
+    void testLongElementDataEscapedAfterHeader() throws EDIStreamException {
+        final EDIOutputFactory factory = EDIOutputFactory.newFactory();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(4096);
+        StringBuilder value = new StringBuilder();
+        StringBuilder expected = new StringBuilder("UNB+UNO1:1++++'FTX+");
+
+        for (int i = 0; i < 200; i++) {
+            value.append("a+b\t?");
+            expected.append("a?+b\t??");
+        }
+
+        expected.append("+XYZ:123'");
+
+        try (EDIStreamWriter writer = factory.createEDIStreamWriter(stream)) {
+            writer.startInterchange();
+            writer.writeStartSegment("UNB")
+                .writeStartElement()
+                    .writeComponent("UNO1")
+                    .writeComponent("1")
+                .endElement()
+                .writeEmptyElement()
+                .writeEmptyElement()
+                .writeEmptyElement()
+                .writeEmptyElement()
+                .writeEndSegment();
+
+            writer.writeStartSegment("FTX")
+                  .writeElement(value)
+                  .writeStartElement()
+                  .startComponent();
+
+            char[] separator = { '+' };
+            assertThrows(IllegalArgumentException.class, () -> writer.writeElementData(separator, 0, 1));
+
+            writer.writeElementData("XYZ".toCharArray(), 0, 3)
+                  .endComponent()
+                  .writeComponent("123")
+                  .endElement()
+                  .writeEndSegment();
+        }
+
+        assertEquals(expected.toString(), new String(stream.toByteArray()));
+    }
+
     @Test
     void testIncompleteUNB() throws EDIStreamException {
         final EDIOutputFactory factory = EDIOutputFactory.newFactory();
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import io.xlate.edi.schema.SchemaFactory;
+import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamReader;
+import io.xlate.edi.stream.EDITransaction;
+import io.xlate.edi.stream.Location;
+
+class StaEDITransactionTest {
+
+    static final String SIMPLE_X12 = ""
+            + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200301*1430*^*00501*000000001*0*P*:~"
+            + "GS*HC*ReceiverDept*SenderDept*20200301*1430*000000001*X*005010~"
+            + "ST*837*0001~"
+            + "REF*A*B^C*D:E::F~"
+            + "NM1*85**ONE~"
+            + "NM1*87**TWO~"
+            + "SE*5*0001~"
+            + "GE*1*000000001~"
+            + "IEA*1*000000001~";
+
+    static EDIStreamReader reader(String edi) {
+        return EDIInputFactory.newFactory().createEDIStreamReader(new ByteArrayInputStream(edi.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static EDITransaction firstTransaction(EDIStreamReader reader) throws Exception {
+        while (reader.next() != EDIStreamEvent.START_TRANSACTION) {
+            // Advance to the transaction
+        }
+
+        return EDIInputFactory.newFactory().readTransaction(reader);
+    }
+
+    @Test
+    void testTransactionStructure() throws Exception {
+        EDIStreamReader reader = reader(SIMPLE_X12);
+        EDITransaction transaction = firstTransaction(reader);
+
+        assertEquals(EDIStreamEvent.END_TRANSACTION, reader.getEventType());
+        assertEquals("837", transaction.getTransactionType());
+        assertEquals(5, transaction.getSegmentCount());
+        assertEquals("ST", transaction.getSegment(0).getTag());
+        assertEquals("SE", transaction.getSegment(4).getTag());
+        assertThrows(IndexOutOfBoundsException.class, () -> transaction.getSegment(5));
+
+        EDITransaction.Segment ref = transaction.getSegment(1);
+        assertEquals("REF", ref.getTag());
+        assertEquals(3, ref.getElementCount());
+        assertEquals("A", ref.getText(1));
+        assertEquals(1, ref.getRepetitionCount(1));
+        assertEquals(2, ref.getRepetitionCount(2));
+        assertEquals(0, ref.getRepetitionCount(4));
+        assertEquals("B", ref.getElement(2).getText());
+        assertEquals("C", ref.getElement(2, 2).getText());
+        assertEquals(2, ref.getElement(2, 2).getOccurrence());
+        assertNull(ref.getElement(2, 3));
+        assertNull(ref.getElement(4));
+        assertNull(ref.getText(4));
+
+        EDITransaction.Element composite = ref.getElement(3);
+        assertTrue(composite.isComposite());
+        assertNull(composite.getText());
+        assertNull(ref.getText(3));
+        assertEquals(3, composite.getPosition());
+        assertEquals(4, composite.getComponentCount());
+        assertEquals("D", composite.getComponent(1));
+        assertEquals("E", composite.getComponent(2));
+        assertEquals("", composite.getComponent(3));
+        assertEquals("F", composite.getComponent(4));
+        assertNull(composite.getComponent(5));
+
+        EDITransaction.Element simple = ref.getElement(1);
+        assertFalse(simple.isComposite());
+        assertEquals(0, simple.getComponentCount());
+        assertNull(simple.getComponent(1));
+
+        List<EDITransaction.Segment> names = transaction.getSegments("NM1");
+        assertEquals(2, names.size());
+        assertEquals(2, names.get(0).getIndex());
+        assertEquals("ONE", names.get(0).getText(3));
+        assertEquals("", names.get(0).getText(2));
+        assertEquals("TWO", names.get(1).getText(3));
+        assertTrue(transaction.getSegments("N1").isEmpty());
+    }
+
+    @Test
+    void testReaderNotAtTransactionStart() {
+        EDIStreamReader reader = reader(SIMPLE_X12);
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        assertThrows(IllegalStateException.class, () -> factory.readTransaction(reader));
+    }
+
+    @Test
+    void testBinaryElementRetained() throws Exception {
+        EDIStreamReader reader = reader(""
+                + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200301*1430*^*00501*000000001*0*P*:~"
+                + "GS*HC*ReceiverDept*SenderDept*20200301*1430*000000001*X*005010~"
+                + "ST*000*0001~"
+                + "BIN*8*a*b~c:d^~"
+                + "BIN*3*xyz~"
+                + "SE*4*0001~"
+                + "GE*1*000000001~"
+                + "IEA*1*000000001~");
+
+        while (reader.next() != EDIStreamEvent.START_TRANSACTION) {
+            // Advance to the transaction
+        }
+
+        reader.setTransactionSchema(SchemaFactory.newFactory()
+                                                 .createSchema(getClass().getResource("/x12/EDISchemaBinarySegment.xml")));
+        EDITransaction transaction = EDIInputFactory.newFactory().readTransaction(reader);
+        List<EDITransaction.Segment> segments = transaction.getSegments("BIN");
+
+        assertEquals(2, segments.size());
+        assertEquals("8", segments.get(0).getText(1));
+        assertNull(segments.get(0).getText(2));
+
+        EDITransaction.Element binary = segments.get(0).getElement(2);
+        assertTrue(binary.isBinary());
+        assertNull(binary.getText());
+        assertEquals("a*b~c:d^", readAll(binary.getBinaryData()));
+        // Each stream starts at the beginning of the data
+        assertEquals("a*b~c:d^", readAll(binary.getBinaryData()));
+        assertEquals("xyz", readAll(segments.get(1).getElement(2).getBinaryData()));
+        assertFalse(segments.get(0).getElement(1).isBinary());
+        assertNull(segments.get(0).getElement(1).getBinaryData());
+        assertEquals("SE", transaction.getSegment(3).getTag());
+    }
+
+    @Test
+    void testOversizedElementReadCompletely() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        factory.setProperty(EDIInputFactory.EDI_ELEMENT_BUFFER_LIMIT, 10);
+        factory.setProperty(EDIInputFactory.EDI_STREAM_OVERSIZED_ELEMENTS, true);
+        StringBuilder value = new StringBuilder();
+
+        while (value.length() < 5000) {
+            value.append("0123456789");
+        }
+
+        String edi = SIMPLE_X12.replace("NM1*85**ONE~", "NM1*85**" + value + "*X~");
+        EDIStreamReader reader = factory.createEDIStreamReader(new ByteArrayInputStream(edi.getBytes(StandardCharsets.UTF_8)));
+        EDITransaction transaction = firstTransaction(reader);
+
+        EDITransaction.Segment name = transaction.getSegment(2);
+        assertEquals(value.toString(), name.getText(3));
+        assertEquals("X", name.getText(4));
+        assertEquals("TWO", transaction.getSegment(3).getText(3));
+    }
+
+    static String readAll(InputStream stream) throws Exception {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        int next;
+
+        while ((next = stream.read()) > -1) {
+            result.write(next);
+        }
+
+        return new String(result.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/x12/sample837-original.edi, false",
+        "/x12/sample837-original.edi, true",
+        "/EDIFACT/invoic_d97b.edi, false",
+    })
+    void testTransactionMatchesEvents(String resource, boolean referenceText) throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        factory.setProperty(EDIInputFactory.EDI_REFERENCE_ELEMENT_TEXT, referenceText);
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+
+        try (InputStream stream = getClass().getResourceAsStream(resource);
+             EDIStreamReader reader = factory.createEDIStreamReader(stream)) {
+            int segment = -1;
+            boolean inTransaction = false;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case START_TRANSACTION:
+                    inTransaction = true;
+                    segment = -1;
+                    break;
+                case END_TRANSACTION:
+                    inTransaction = false;
+                    break;
+                case START_SEGMENT:
+                    if (inTransaction) {
+                        segment++;
+                        expected.add(segment + ":" + reader.getText());
+                    }
+                    break;
+                case ELEMENT_DATA:
+                    if (inTransaction) {
+                        Location l = reader.getLocation();
+                        expected.add(segment + ":" + l.getElementPosition() + ":" + l.getElementOccurrence() + ":"
+                                + l.getComponentPosition() + ":" + reader.getText());
+                    }
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        try (InputStream stream = getClass().getResourceAsStream(resource);
+             EDIStreamReader reader = factory.createEDIStreamReader(stream)) {
+            while (reader.hasNext()) {
+                if (reader.next() == EDIStreamEvent.START_TRANSACTION) {
+                    EDITransaction transaction = factory.readTransaction(reader);
+
+                    for (int s = 0; s < transaction.getSegmentCount(); s++) {
+                        EDITransaction.Segment segment = transaction.getSegment(s);
+                        actual.add(s + ":" + segment.getTag());
+
+                        for (int p = 1; p <= segment.getElementCount(); p++) {
+                            for (int o = 1; o <= segment.getRepetitionCount(p); o++) {
+                                EDITransaction.Element element = segment.getElement(p, o);
+
+                                if (element.isComposite()) {
+                                    for (int c = 1; c <= element.getComponentCount(); c++) {
+                                        String component = element.getComponent(c);
+                                        if (component != null) {
+                                            actual.add(s + ":" + p + ":" + o + ":" + c + ":" + component);
+                                        }
+                                    }
+                                } else {
+                                    actual.add(s + ":" + p + ":" + o + ":-1:" + element.getText());
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        assertFalse(actual.isEmpty());
+        assertEquals(expected, actual);
+    }
+}
@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -34,6 +35,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -45,6 +47,7 @@ import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.stream.StreamFilter;
 import javax.xml.stream.XMLInputFactory;
@@ -973,4 +976,56 @@ class StaEDIXMLStreamReaderTest {
         assertTrue(!d.hasDifferences(), () -> "XML unexpectedly different:\n" + d.toString(new DefaultComparisonFormatter()));
     }
 
+    @Test
+    void testRepeatedNamesReused() throws Exception {
+        XMLStreamReader xmlReader = getXmlReader("/x12/sample837-original.edi");
+        Map<String, QName> names = new HashMap<>();
+        int reused = 0;
+
+        while (xmlReader.hasNext()) {
+            if (xmlReader.next() == XMLStreamConstants.START_ELEMENT) {
+                QName name = xmlReader.getName();
+                QName previous = names.putIfAbsent(name.toString(), name);
+
+                if (previous != null) {
+                    assertSame(previous, name);
+                    assertEquals(previous.getPrefix(), name.getPrefix());
+                    reused++;
+                }
+            }
+        }
+
+        assertTrue(reused > 0);
+        assertEquals("e", names.get("{" + EDINamespaces.ELEMENTS + "}NM101").getPrefix());
+        assertEquals("c", names.get("{" + EDINamespaces.COMPOSITES + "}CLM05").getPrefix());
+        assertNotNull(names.get("{" + EDINamespaces.ELEMENTS + "}CLM05-01"));
+        assertNotNull(names.get("{" + EDINamespaces.SEGMENTS + "}NM1"));
+    }
+
+    @Test
+    void testStreamedElementTextNotTruncated() throws Exception {
+        EDIInputFactory factory = EDIInputFactory.newFactory();
+        factory.setProperty(EDIInputFactory.EDI_ELEMENT_BUFFER_LIMIT, 100);
+        factory.setProperty(EDIInputFactory.EDI_STREAM_OVERSIZED_ELEMENTS, true);
+        char[] value = new char[5000];
+        Arrays.fill(value, 'A');
+        String edi = ""
+                + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *050812*1953*^*00501*508121953*0*P*:~"
+                + "GS*FA*ReceiverDept*SenderDept*20050812*195335*000005*X*005010X230~"
+                + "ST*997*0001~"
+                + "NTE*" + new String(value) + "~"
+                + "SE*3*0001~"
+                + "GE*1*000005~"
+                + "IEA*1*508121953~";
+
+        EDIStreamReader ediReader = factory.createEDIStreamReader(new ByteArrayInputStream(edi.getBytes()));
+        XMLStreamReader xmlReader = new StaEDIXMLStreamReader(ediReader);
+
+        while (!(xmlReader.next() == XMLStreamConstants.START_ELEMENT && "NTE01".equals(xmlReader.getLocalName()))) {
+            assertTrue(xmlReader.hasNext());
+        }
+
+        assertThrows(IllegalStateException.class, xmlReader::getElementText);
+    }
+
 }
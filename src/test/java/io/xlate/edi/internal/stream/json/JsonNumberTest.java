@@ -0,0 +1,104 @@
+package io.xlate.edi.internal.stream.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.xlate.edi.schema.EDISimpleType;
+import io.xlate.edi.schema.EDISimpleType.Base;
+
+class JsonNumberTest {
+
+    static EDISimpleType type(Base base, Integer scale) {
+        EDISimpleType type = mock(EDISimpleType.class);
+        when(type.getBase()).thenReturn(base);
+        when(type.getScale()).thenReturn(scale);
+        return type;
+    }
+
+    static void assertConsistent(BigDecimal expected, JsonNumber number) {
+        assertEquals(expected, number.bigDecimalValue());
+        assertEquals(expected.toString(), number.toString());
+        assertEquals(expected.scale() == 0, number.isIntegral());
+        assertEquals(expected.precision(), number.precision());
+        assertEquals(expected.longValue(), number.longValue());
+        assertEquals(expected.intValue(), number.intValue());
+        assertEquals(expected.doubleValue(), number.doubleValue());
+        assertEquals(expected.floatValue(), number.floatValue());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, 0, 0",
+        "-0, 0, 0",
+        "000123, 0, 123",
+        "+42, 2, 0.42",
+        "-12345, 2, -123.45",
+        "5, 4, 0.0005",
+        "999999999999999999, 0, 999999999999999999",
+        "-999999999999999999, 3, -999999999999999.999",
+        "1234567890123456789012, 0, 1234567890123456789012",
+        "-1234567890123456789012, 5, -12345678901234567.89012",
+        "9007199254740993, 0, 9007199254740993",
+    })
+    void testNumericValues(String text, int scale, String expected) {
+        JsonNumber number = new JsonNumber();
+        assertTrue(number.scan(type(Base.NUMERIC, scale), text.toCharArray(), 0, text.length(), '.'));
+        assertConsistent(new BigDecimal(expected), number);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'1', '1'",
+        "'1.50', '1.50'",
+        "'-.5', '-0.5'",
+        "'5.', '5'",
+        "'0.000001', '0.000001'",
+        "'0.0000001', '1E-7'",
+        "'1.5E3', '1.5E+3'",
+        "'1.5e-3', '0.0015'",
+        "'-2E+2', '-2E+2'",
+        "'3,25', '3.25'",
+        "'123456789012345678.9', '123456789012345678.9'",
+        "'0.1234567890123456789', '0.1234567890123456789'",
+        "'1234567.123456789', '1234567.123456789'",
+    })
+    void testDecimalValues(String text, String expected) {
+        JsonNumber number = new JsonNumber();
+        assertTrue(number.scan(type(Base.DECIMAL, null), text.toCharArray(), 0, text.length(), ','));
+        assertConsistent(new BigDecimal(expected), number);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "-", "+", "1.0", "1E2", "12A", " 1", "1-" })
+    void testInvalidNumericValues(String text) {
+        JsonNumber number = new JsonNumber();
+        assertFalse(number.scan(type(Base.NUMERIC, 0), text.toCharArray(), 0, text.length(), '.'));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", ".", "-.", "E5", "1E", "1E+", "1.2.3", "1,2", "1.5X", "1E5.0", "1E1234567890" })
+    void testInvalidDecimalValues(String text) {
+        JsonNumber number = new JsonNumber();
+        assertFalse(number.scan(type(Base.DECIMAL, null), text.toCharArray(), 0, text.length(), '.'));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'x1.25y', 1, 4, '1.25'",
+        "'--7', 1, 2, '-7'",
+    })
+    void testTextOffset(String text, int start, int length, String expected) {
+        JsonNumber number = new JsonNumber();
+        assertTrue(number.scan(type(Base.DECIMAL, null), text.toCharArray(), start, length, '.'));
+        assertConsistent(new BigDecimal(expected), number);
+    }
+}
@@ -8,11 +8,14 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -289,4 +292,61 @@ class StaEDIJacksonJsonParserTest extends StaEDIReaderTestBase implements JsonPa
 
         assertEquals(3, matched);
     }
+
+    @Test
+    void testBinaryElementStreamed() throws Exception {
+        setupReader("/x12/simple_with_binary_segment.edi", "/x12/EDISchemaBinarySegment.xml");
+
+        JsonParser jsonParser = JsonParserFactory.createJsonParser(ediReader, JsonParser.class, ediReaderConfig);
+        List<String> values = new ArrayList<>();
+
+        while (jsonParser.nextToken() != null) {
+            String pointer = jsonParser.getParsingContext().pathAsPointer().toString();
+
+            if ("/data/1/data/1/data/1/data/1".equals(pointer)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertEquals(25, jsonParser.readBinaryValue(out));
+                values.add(out.toString());
+                assertThrows(IllegalStateException.class, jsonParser::getBinaryValue);
+            }
+            if ("/data/1/data/1/data/2/data/1".equals(pointer)) {
+                StringWriter out = new StringWriter();
+                int length = jsonParser.getText(out);
+                assertEquals(out.toString().length(), length);
+                values.add(new String(Base64.getDecoder().decode(out.toString())));
+            }
+            if ("/data/1/data/1/data/3/data/1".equals(pointer)) {
+                // Buffered on first access, then available to the other methods
+                assertFalse(jsonParser.hasTextCharacters());
+                String text = jsonParser.getText();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                jsonParser.readBinaryValue(out);
+                assertArrayEquals(Base64.getDecoder().decode(text), out.toByteArray());
+                values.add(out.toString());
+            }
+        }
+
+        assertEquals(Arrays.asList("1234567890123456789012345",
+                                   "12345678901234567890\n1234",
+                                   "1234567890\n1234567890\n12\n"),
+                     values);
+    }
+
+    @Test
+    void testBinaryElementSkipped() throws Exception {
+        setupReader("/x12/simple_with_binary_segment.edi", "/x12/EDISchemaBinarySegment.xml");
+
+        JsonParser jsonParser = JsonParserFactory.createJsonParser(ediReader, JsonParser.class, ediReaderConfig);
+        List<String> segments = new ArrayList<>();
+
+        while (jsonParser.nextToken() != null) {
+            if (jsonParser.currentToken() == JsonToken.VALUE_STRING
+                    && "segment".equals(jsonParser.getText())) {
+                segments.add(jsonParser.getParsingContext().pathAsPointer().toString());
+            }
+        }
+
+        // Unread binary data does not disturb the remaining segments
+        assertEquals(9, segments.size());
+    }
 }
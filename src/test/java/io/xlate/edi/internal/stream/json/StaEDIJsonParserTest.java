@@ -364,11 +364,11 @@ class StaEDIJsonParserTest extends StaEDIReaderTestBase implements JsonParserInv
         ediReaderConfig.forEach(ediInputFactory::setProperty);
         ediReader = ediInputFactory.createEDIStreamReader(new FilterInputStream(stream) {
             @Override
-            public int read() throws IOException {
+            public int read(byte[] b, int off, int len) throws IOException {
                 if (ediReader.getLocation().getCharacterOffset() > 50) {
                     throw new IOException("Fatal stream error");
                 }
-                return super.read();
+                return super.read(b, off, Math.min(len, 10));
             }
         });
 
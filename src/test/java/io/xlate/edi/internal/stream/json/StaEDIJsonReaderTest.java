@@ -0,0 +1,332 @@
+package io.xlate.edi.internal.stream.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import io.xlate.edi.internal.schema.SchemaUtils;
+import io.xlate.edi.schema.Schema;
+import io.xlate.edi.schema.SchemaFactory;
+import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIOutputFactory;
+import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIStreamWriter;
+import io.xlate.edi.test.StaEDIReaderTestBase;
+
+class StaEDIJsonReaderTest extends StaEDIReaderTestBase {
+
+    EDIOutputFactory outputFactory;
+    ByteArrayOutputStream result;
+    EDIStreamWriter ediWriter;
+
+    @BeforeEach
+    void setupWriter() throws Exception {
+        outputFactory = EDIOutputFactory.newFactory();
+        outputFactory.setProperty(EDIOutputFactory.PRETTY_PRINT, true);
+        // Restores the leading zeros of numeric values, e.g. ISA13
+        outputFactory.setProperty(EDIOutputFactory.FORMAT_ELEMENTS, true);
+        result = new ByteArrayOutputStream();
+        ediWriter = outputFactory.createEDIStreamWriter(result);
+        ediWriter.setControlSchema(SchemaUtils.getControlSchema("X12", new String[] { "00402" }));
+    }
+
+    static Object createParser(Class<?> type, InputStream json) throws Exception {
+        switch (type.getName()) {
+        case "jakarta.json.stream.JsonParser":
+            return jakarta.json.Json.createParser(json);
+        case "javax.json.stream.JsonParser":
+            return javax.json.Json.createParser(json);
+        default:
+            return new JsonFactory().createParser(json);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    <J> void readJson(Class<J> type, InputStream json) throws Exception {
+        outputFactory.readJson((J) createParser(type, json), type, ediWriter);
+    }
+
+    void readJson(String json) throws Exception {
+        readJson(com.fasterxml.jackson.core.JsonParser.class, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Segments of the EDI with indentation and terminators removed
+     */
+    static List<String> segments(String edi) {
+        return Arrays.stream(edi.split("\\R"))
+                .map(String::trim)
+                .map(s -> s.endsWith("~") ? s.substring(0, s.length() - 1) : s)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    List<String> expectedSegments() throws Exception {
+        return segments(new String(Files.readAllBytes(Paths.get(getClass().getResource("/x12/sample837-original.edi").toURI())),
+                                   StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "jakarta.json.stream.JsonParser,        /x12/sample837-original.json",
+        "javax.json.stream.JsonParser,          /x12/sample837-original-nestHL.json",
+        "com.fasterxml.jackson.core.JsonParser, /x12/sample837-original-object-elements.json",
+        "jakarta.json.stream.JsonParser,        /x12/sample837-original-object-elements-nestHL.json",
+        "com.fasterxml.jackson.core.JsonParser, /x12/sample837-original.json",
+    })
+    void testReadJsonWritesOriginalEDI(Class<?> parserType, String jsonResource) throws Exception {
+        try (InputStream json = getClass().getResourceAsStream(jsonResource)) {
+            readJson(parserType, json);
+        }
+
+        assertEquals(expectedSegments(), segments(result.toString(StandardCharsets.UTF_8.name())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void testReadJsonFromEDIJsonParser(boolean objectElements) throws Exception {
+        ediReaderConfig.put(EDIInputFactory.JSON_OBJECT_ELEMENTS, objectElements);
+        ediReaderConfig.put(EDIInputFactory.JSON_NULL_EMPTY_ELEMENTS, !objectElements);
+        setupReader("/x12/sample837-original.edi", "/x12/005010/837.xml");
+
+        jakarta.json.stream.JsonParser jsonParser = ediInputFactory.createJsonParser(ediReader, jakarta.json.stream.JsonParser.class);
+        outputFactory.readJson(jsonParser, jakarta.json.stream.JsonParser.class, ediWriter);
+
+        assertEquals(expectedSegments(), segments(result.toString(StandardCharsets.UTF_8.name())));
+    }
+
+    static final String AMOUNT_BINARY_X12 = ""
+            + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200301*1430*^*00501*000000001*0*P*:~"
+            + "GS*HC*ReceiverDept*SenderDept*20200301*1430*1*X*005010~"
+            + "ST*000*0001~"
+            + "AMT*T*1234~"
+            + "AMT*R*-5*X~"
+            + "BIN*10*a*b~c:d^e\u00ff~"
+            + "SE*5*0001~"
+            + "GE*1*1~"
+            + "IEA*1*000000001~";
+
+    void setupTransactionSchema() throws Exception {
+        SchemaFactory schemaFactory = SchemaFactory.newFactory();
+        Schema schema = schemaFactory.createSchema(getClass().getResource("/x12/EDISchemaNumericBinaryRepeat.xml"));
+        ediWriter.setTransactionSchema(schema);
+    }
+
+    /**
+     * The interchange header and the segments of the given transaction
+     */
+    static String interchange(String... segments) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"name\":\"INTERCHANGE\",\"type\":\"loop\",\"data\":[");
+        json.append("{\"type\":\"segment\",\"name\":\"ISA\",\"data\":[\"00\",\"          \",\"00\",\"          \",\"ZZ\",\"ReceiverID     \",");
+        json.append("\"ZZ\",\"Sender         \",\"200301\",\"1430\",\"^\",\"00501\",1,\"0\",\"P\",\":\"]},");
+        json.append("{\"name\":\"GROUP\",\"type\":\"loop\",\"data\":[");
+        json.append("{\"name\":\"GS\",\"type\":\"segment\",\"data\":[\"HC\",\"ReceiverDept\",\"SenderDept\",\"20200301\",\"1430\",1,\"X\",\"005010\"]},");
+        json.append("{\"name\":\"TRANSACTION\",\"type\":\"loop\",\"data\":[");
+        json.append("{\"name\":\"ST\",\"type\":\"segment\",\"data\":[\"000\",\"0001\"]}");
+
+        for (String segment : segments) {
+            json.append(',').append(segment);
+        }
+
+        json.append(",{\"name\":\"SE\",\"type\":\"segment\",\"data\":[").append(segments.length + 2).append(",\"0001\"]}]},");
+        json.append("{\"name\":\"GE\",\"type\":\"segment\",\"data\":[1,1]}]},");
+        json.append("{\"name\":\"IEA\",\"type\":\"segment\",\"data\":[1,1]}]}");
+        return json.toString();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void testRoundTripNumericAndBinaryElements(boolean viaJsonText) throws Exception {
+        final byte[] edi = AMOUNT_BINARY_X12.getBytes(StandardCharsets.ISO_8859_1);
+        setupReader(edi, "/x12/EDISchemaNumericBinaryRepeat.xml");
+        setupTransactionSchema();
+        outputFactory.setProperty(EDIOutputFactory.PRETTY_PRINT, false);
+        ediWriter = outputFactory.createEDIStreamWriter(result, StandardCharsets.ISO_8859_1.name());
+        ediWriter.setControlSchema(SchemaUtils.getControlSchema("X12", new String[] { "00501" }));
+        setupTransactionSchema();
+
+        if (viaJsonText) {
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            ediInputFactory.writeJson(ediReader, json);
+            String jsonText = json.toString(StandardCharsets.UTF_8.name());
+            assertTrue(jsonText.contains("\"data\":[\"T\",12.34]"), jsonText);
+            assertTrue(jsonText.contains("\"data\":[\"R\",-0.05,\"X\"]"), jsonText);
+            readJson(com.fasterxml.jackson.core.JsonParser.class, new ByteArrayInputStream(json.toByteArray()));
+        } else {
+            jakarta.json.stream.JsonParser jsonParser = ediInputFactory.createJsonParser(ediReader, jakarta.json.stream.JsonParser.class);
+            outputFactory.readJson(jsonParser, jakarta.json.stream.JsonParser.class, ediWriter);
+        }
+
+        assertEquals(AMOUNT_BINARY_X12, result.toString(StandardCharsets.ISO_8859_1.name()));
+    }
+
+    @Test
+    void testNumericValuesScaled() throws Exception {
+        setupTransactionSchema();
+        readJson(interchange("{\"name\":\"AMT\",\"type\":\"segment\",\"data\":[\"T\",1.5E+1]}",
+                             "{\"name\":\"AMT\",\"type\":\"segment\",\"data\":[\"T\",\"1234\"]}",
+                             "{\"name\":\"AMT\",\"type\":\"segment\",\"data\":[\"T\",{\"type\":\"element\",\"data\":0.10}]}"));
+
+        List<String> segments = segments(result.toString(StandardCharsets.UTF_8.name()));
+        assertEquals("AMT*T*1500", segments.get(3));
+        // Strings are written as given
+        assertEquals("AMT*T*1234", segments.get(4));
+        assertEquals("AMT*T*10", segments.get(5));
+    }
+
+    @Test
+    void testNumericValueExceedingScaleRejected() throws Exception {
+        setupTransactionSchema();
+        String json = interchange("{\"name\":\"AMT\",\"type\":\"segment\",\"data\":[\"T\",12.345]}");
+        EDIStreamException thrown = assertThrows(EDIStreamException.class, () -> readJson(json));
+        assertTrue(thrown.getMessage().startsWith("Value 12.345 can not be written as a numeric element with 2 implied decimal positions"),
+                   thrown.getMessage());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "[11,\"not base64!\"]   | Binary element data is not valid base64",
+        "[11,12345]             | Binary element data must be a base64 string",
+    })
+    void testInvalidBinaryValueRejected(String data, String message) throws Exception {
+        setupTransactionSchema();
+        String json = interchange("{\"name\":\"AMT\",\"type\":\"segment\",\"data\":[\"T\",1]}",
+                                  "{\"name\":\"BIN\",\"type\":\"segment\",\"data\":" + data + "}");
+        EDIStreamException thrown = assertThrows(EDIStreamException.class, () -> readJson(json));
+        assertTrue(thrown.getMessage().startsWith(message), thrown.getMessage());
+    }
+
+    static final String AMOUNT_REPEAT_X12 = ""
+            + "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200301*1430*^*00501*000000001*0*P*:~"
+            + "GS*HC*ReceiverDept*SenderDept*20200301*1430*1*X*005010~"
+            + "ST*000*0001~"
+            + "AMT*T*1234~"
+            + "AMT*R*-5*X^Y^^Z~"
+            + "AMT*R*1*W~"
+            + "SE*5*0001~"
+            + "GE*1*1~"
+            + "IEA*1*000000001~";
+
+    @ParameterizedTest
+    @CsvSource({
+        "true,  false",
+        "true,  true",
+        "false, false",
+        "false, true",
+    })
+    void testRoundTripRepeatedElements(boolean viaJsonText, boolean objectElements) throws Exception {
+        ediReaderConfig.put(EDIInputFactory.JSON_ARRAY_REPETITIONS, true);
+        ediReaderConfig.put(EDIInputFactory.JSON_OBJECT_ELEMENTS, objectElements);
+        setupReader(AMOUNT_REPEAT_X12.getBytes(StandardCharsets.UTF_8), "/x12/EDISchemaNumericBinaryRepeat.xml");
+        outputFactory.setProperty(EDIOutputFactory.PRETTY_PRINT, false);
+        ediWriter = outputFactory.createEDIStreamWriter(result);
+        ediWriter.setControlSchema(SchemaUtils.getControlSchema("X12", new String[] { "00501" }));
+        setupTransactionSchema();
+
+        if (viaJsonText) {
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            ediInputFactory.writeJson(ediReader, json);
+            String jsonText = json.toString(StandardCharsets.UTF_8.name());
+            if (!objectElements) {
+                assertTrue(jsonText.contains("\"data\":[\"T\",12.34]"), jsonText);
+                assertTrue(jsonText.contains("\"data\":[\"R\",-0.05,[\"X\",\"Y\",\"\",\"Z\"]]"), jsonText);
+                assertTrue(jsonText.contains("\"data\":[\"R\",0.01,[\"W\"]]"), jsonText);
+            }
+            readJson(com.fasterxml.jackson.core.JsonParser.class, new ByteArrayInputStream(json.toByteArray()));
+        } else {
+            jakarta.json.stream.JsonParser jsonParser = ediInputFactory.createJsonParser(ediReader, jakarta.json.stream.JsonParser.class);
+            outputFactory.readJson(jsonParser, jakarta.json.stream.JsonParser.class, ediWriter);
+        }
+
+        assertEquals(AMOUNT_REPEAT_X12, result.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    void testRepetitionWithoutSchemaRejected() throws Exception {
+        ediReaderConfig.put(EDIInputFactory.JSON_ARRAY_REPETITIONS, true);
+        setupReader(AMOUNT_REPEAT_X12.getBytes(StandardCharsets.UTF_8), null);
+        EDIStreamException thrown = assertThrows(EDIStreamException.class,
+                                                 () -> ediInputFactory.writeJson(ediReader, new ByteArrayOutputStream()));
+        assertTrue(thrown.getMessage().startsWith("Element repeats but the schema does not allow repetition"), thrown.getMessage());
+
+        setupReader(AMOUNT_REPEAT_X12.getBytes(StandardCharsets.UTF_8), null);
+        jakarta.json.stream.JsonParser jsonParser = ediInputFactory.createJsonParser(ediReader, jakarta.json.stream.JsonParser.class);
+        jakarta.json.JsonException parseError = assertThrows(jakarta.json.JsonException.class, () -> {
+            while (jsonParser.hasNext()) {
+                jsonParser.next();
+            }
+        });
+        assertEquals("Element repeats but the schema does not allow repetition", parseError.getMessage());
+    }
+
+    @Test
+    void testRepeatedElementsWritten() throws Exception {
+        setupTransactionSchema();
+        readJson(interchange("{\"name\":\"AMT\",\"type\":\"segment\",\"data\":[\"T\",1,[\"X\",\"Y\",null,\"Z\"]]}",
+                             "{\"name\":\"AMT\",\"type\":\"segment\",\"data\":[\"T\",1,{\"type\":\"element\",\"data\":[\"X\"]}]}"));
+
+        List<String> segments = segments(result.toString(StandardCharsets.UTF_8.name()));
+        assertEquals("AMT*T*100*X^Y^^Z", segments.get(3));
+        assertEquals("AMT*T*100*X", segments.get(4));
+    }
+
+    @Test
+    void testUnknownKeysIgnored() throws Exception {
+        readJson("{\"name\":\"INTERCHANGE\",\"type\":\"loop\",\"meta\":{\"x\":[1,{\"y\":null}]},\"data\":["
+                + "{\"type\":\"segment\",\"name\":\"ISA\",\"data\":[\"00\",\"          \",\"00\",\"          \",\"ZZ\",\"ReceiverID     \","
+                + "\"ZZ\",\"Sender         \",\"050812\",\"1953\",\"^\",\"00501\",508121953,\"0\",\"P\",\":\"]},"
+                + "{\"name\":\"GROUP\",\"type\":\"loop\",\"data\":["
+                + "{\"name\":\"GS\",\"type\":\"segment\",\"data\":[\"FA\",\"ReceiverDept\",\"SenderDept\",\"20190922\",\"155401\",1,\"X\",\"005010\"]},"
+                + "{\"name\":\"GE\",\"type\":\"segment\",\"comment\":\"ignored\",\"data\":[0,1]}]},"
+                + "{\"name\":\"IEA\",\"type\":\"segment\",\"data\":[1,508121953]}]}");
+
+        String edi = result.toString(StandardCharsets.UTF_8.name());
+        assertTrue(edi.contains("GE*0*1~"), edi);
+        assertTrue(edi.contains("IEA*1*508121953~"), edi);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "{\"name\":\"INTERCHANGE\",\"data\":[],\"type\":\"loop\"}  | Type must precede data in ROOT",
+        "{\"name\":\"INTERCHANGE\",\"type\":\"segment\",\"data\":[]} | Unexpected JSON input in ROOT: segment",
+        "{\"name\":\"INTERCHANGE\",\"type\":\"loop\"}                | Missing data for loop INTERCHANGE",
+        "{\"type\":\"loop\",\"data\":[\"ISA\"]}                      | Unexpected JSON input in LOOP: VALUE_STRING",
+        "{\"type\":\"loop\",\"data\":[{\"type\":\"segment\",\"data\":[]}]} | Segment name must precede data",
+        "[]                                                      | Unexpected JSON input in ROOT: START_ARRAY",
+    })
+    void testInvalidStructure(String json, String message) {
+        EDIStreamException thrown = assertThrows(EDIStreamException.class, () -> readJson(json));
+        assertEquals(message, thrown.getMessage());
+    }
+
+    @Test
+    void testMalformedJson() {
+        EDIStreamException thrown = assertThrows(EDIStreamException.class, () -> readJson("{\"type\":\"loop\",\"data\":[}"));
+        assertTrue(thrown.getMessage().startsWith(StaEDIJsonReader.MSG_EXCEPTION));
+        assertTrue(thrown.getCause() instanceof java.io.IOException);
+    }
+
+    @Test
+    void testUnsupportedParserType() {
+        assertThrows(IllegalArgumentException.class, () -> outputFactory.readJson("{}", String.class, ediWriter));
+    }
+}
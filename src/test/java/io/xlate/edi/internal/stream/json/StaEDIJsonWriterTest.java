@@ -0,0 +1,127 @@
+package io.xlate.edi.internal.stream.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.xlate.edi.stream.EDIInputFactory;
+import io.xlate.edi.stream.EDIStreamException;
+import io.xlate.edi.stream.EDIValidationException;
+import io.xlate.edi.test.StaEDIReaderTestBase;
+
+class StaEDIJsonWriterTest extends StaEDIReaderTestBase {
+
+    String expected(String resource) throws Exception {
+        List<String> expected = Files.readAllLines(Paths.get(getClass().getResource(resource).toURI()));
+        return String.join("", expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/x12/005010/837.xml,                            false, false, true,  /x12/sample837-original.json",
+        "/x12/005010/837-hierarchical-level-enabled.xml, true,  false, true,  /x12/sample837-original-nestHL.json",
+        "/x12/005010/837.xml,                            false, true,  false, /x12/sample837-original-object-elements.json",
+        "/x12/005010/837-hierarchical-level-enabled.xml, true,  true,  false, /x12/sample837-original-object-elements-nestHL.json"
+    })
+    void testWriteJsonStream(String schemaPath, boolean nestHL, boolean objectElements, boolean nullElements, String expectedResource) throws Exception {
+        ediReaderConfig.put(EDIInputFactory.EDI_NEST_HIERARCHICAL_LOOPS, nestHL);
+        ediReaderConfig.put(EDIInputFactory.JSON_OBJECT_ELEMENTS, objectElements);
+        ediReaderConfig.put(EDIInputFactory.JSON_NULL_EMPTY_ELEMENTS, nullElements);
+        setupReader("/x12/sample837-original.edi", schemaPath);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        ediInputFactory.writeJson(ediReader, buffer);
+
+        JSONAssert.assertEquals(expected(expectedResource), new String(buffer.toByteArray(), StandardCharsets.UTF_8), true);
+    }
+
+    @Test
+    void testWriteJsonWriterWithBinary() throws Exception {
+        setupReader("/x12/simple_with_binary_segment.edi", "/x12/EDISchemaBinarySegment.xml");
+        StringWriter buffer = new StringWriter();
+
+        ediInputFactory.writeJson(ediReader, buffer);
+
+        JSONAssert.assertEquals(expected("/x12/simple_with_binary_segment.json"), buffer.toString(), true);
+    }
+
+    @Test
+    void testWriteJsonMatchesJacksonParser() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode expected;
+
+        setupReader("/x12/simple810.edi", "/x12/EDISchema810.xml");
+
+        try (JsonParser jsonParser = ediInputFactory.createJsonParser(ediReader, JsonParser.class)) {
+            jsonParser.setCodec(mapper);
+            expected = jsonParser.readValueAsTree();
+        }
+
+        setupReader("/x12/simple810.edi", "/x12/EDISchema810.xml");
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        ediInputFactory.writeJson(ediReader, direct);
+
+        assertTrue(expected.findValues("type").stream().anyMatch(type -> "segment".equals(type.asText())));
+        // Numeric node types differ from those of trees read from text
+        assertEquals(mapper.readTree(mapper.writeValueAsString(expected)), mapper.readTree(direct.toByteArray()));
+    }
+
+    @Test
+    void testWriteJsonEscapedText() throws Exception {
+        setupReader(("ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *200301*1430*^*00501*000000001*0*P*:~"
+                + "GS*FA*ReceiverDept*SenderDept*20200301*1430*000000001*X*005010~"
+                + "ST*997*0001~"
+                + "AK1*FA*\"Q\\\u00e9\ud83d\ude00~"
+                + "SE*3*0001~"
+                + "GE*1*000000001~"
+                + "IEA*1*000000001~").getBytes(StandardCharsets.UTF_8), null);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        ediInputFactory.writeJson(ediReader, buffer);
+
+        String json = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"\\\"Q\\\\\u00e9\ud83d\ude00\""), json);
+        assertEquals("\"Q\\\u00e9\ud83d\ude00", new ObjectMapper().readTree(json)
+                     .at("/data/1/data/1/data/1/data/1").asText());
+    }
+
+    @Test
+    void testWriteJsonMultipleInterchanges() throws Exception {
+        setupReader("/x12/simple997-multiple-interchanges.edi", null);
+        StringWriter buffer = new StringWriter();
+
+        ediInputFactory.writeJson(ediReader, buffer);
+
+        String[] interchanges = buffer.toString().split("\n");
+        assertTrue(interchanges.length > 1);
+
+        for (String interchange : interchanges) {
+            assertEquals("INTERCHANGE", new ObjectMapper().readTree(interchange).get("name").asText());
+        }
+    }
+
+    @Test
+    void testWriteJsonValidationError() throws Exception {
+        setupReader("/x12/invalid997.edi", "/x12/EDISchema997.xml");
+        StringWriter buffer = new StringWriter();
+
+        EDIStreamException thrown = assertThrows(EDIStreamException.class, () -> ediInputFactory.writeJson(ediReader, buffer));
+        assertTrue(thrown.getCause() instanceof EDIValidationException);
+    }
+}
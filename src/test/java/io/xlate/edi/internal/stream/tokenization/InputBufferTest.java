@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.tokenization;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class InputBufferTest {
+
+    static String readAll(InputBuffer input) throws IOException {
+        StringBuilder result = new StringBuilder();
+        int next;
+
+        while ((next = input.read()) > -1) {
+            result.append((char) next);
+        }
+
+        return result.toString();
+    }
+
+    static InputBuffer buffer(byte[] data, Charset charset, int capacity) {
+        return new InputBuffer(new ByteArrayInputStream(data), charset, capacity);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "US-ASCII", "ISO-8859-1", "UTF-8", "UTF-16BE", "windows-1252" })
+    void testReadAcrossBlocks(String charsetName) throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        String text = "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *050812*1953*^*00501*508121953*0*P*:~";
+        InputBuffer input = buffer(text.getBytes(charset), charset, 16);
+        assertEquals(text, readAll(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "ISO-8859-1", "UTF-8", "UTF-16BE", "windows-1252" })
+    void testReadNonAsciiText(String charsetName) throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        String text = "FTX*Café crème brûlée*Å~";
+        InputBuffer input = buffer(text.getBytes(charset), charset, 8);
+        assertEquals(text, readAll(input));
+    }
+
+    @Test
+    void testLatin1HighBytesNotDecoded() throws IOException {
+        byte[] data = { 'A', (byte) 0xE9, (byte) 0xFF, 'Z' };
+        InputBuffer input = buffer(data, StandardCharsets.ISO_8859_1, 4);
+        assertEquals("AéÿZ", readAll(input));
+    }
+
+    @Test
+    void testMalformedAsciiInput() throws IOException {
+        byte[] data = { 'A', (byte) 0xF0, 'Z' };
+        InputBuffer input = buffer(data, StandardCharsets.US_ASCII, 4);
+        assertEquals('A', input.read());
+        MalformedInputException thrown = assertThrows(MalformedInputException.class, input::read);
+        assertEquals("Input length = 1", thrown.getMessage());
+    }
+
+    @Test
+    void testIncompleteSequenceAtEndOfStream() throws IOException {
+        byte[] data = { 'A', (byte) 0xC3 };
+        InputBuffer input = buffer(data, StandardCharsets.UTF_8, 4);
+        assertEquals('A', input.read());
+        MalformedInputException thrown = assertThrows(MalformedInputException.class, input::read);
+        assertEquals("Input length = 1", thrown.getMessage());
+    }
+
+    @Test
+    void testUtf8TruncatedMidCharacter() throws IOException {
+        byte[] euro = "\u20AC".getBytes(StandardCharsets.UTF_8);
+        byte[] data = { 'A', 'B', 'C', euro[0], euro[1] };
+        InputBuffer input = buffer(data, StandardCharsets.UTF_8, 4);
+        assertEquals('A', input.read());
+        assertEquals('B', input.read());
+        assertEquals('C', input.read());
+        MalformedInputException thrown = assertThrows(MalformedInputException.class, input::read);
+        assertEquals("Input length = 2", thrown.getMessage());
+    }
+
+    @Test
+    void testCompleteMultiByteCharacterAtEndOfStream() throws IOException {
+        byte[] data = "A\u20AC".getBytes(StandardCharsets.UTF_8);
+        InputBuffer input = buffer(data, StandardCharsets.UTF_8, 2);
+        assertEquals('A', input.read());
+        assertEquals('\u20AC', input.read());
+        assertEquals(-1, input.read());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "ISO-8859-1", "UTF-8", "UTF-16BE" })
+    void testReadBytesFollowingDecodedCharacters(String charsetName) throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write("BIN*3*é".getBytes(charset));
+        data.write(new byte[] { 0x00, (byte) 0xC3, 0x7F });
+        data.write("~Z".getBytes(charset));
+
+        InputBuffer input = buffer(data.toByteArray(), charset, 64);
+
+        for (char c : "BIN*3*é".toCharArray()) {
+            assertEquals(c, input.read());
+        }
+
+        assertEquals(0x00, input.readByte());
+        assertEquals(0xC3, input.readByte());
+        assertEquals(0x7F, input.readByte());
+        assertEquals("~Z", readAll(input));
+    }
+
+    @Test
+    void testHasRemainingDoesNotConsumeInput() throws IOException {
+        CharacterSet characters = new CharacterSet();
+        InputBuffer input = buffer("\r\n   \r\nISA".getBytes(), StandardCharsets.UTF_8, 4);
+        assertTrue(input.hasRemaining(characters));
+        assertEquals("\r\n   \r\nISA", readAll(input));
+        assertFalse(input.hasRemaining(characters));
+    }
+
+    @Test
+    void testHasRemainingWhitespaceOnly() throws IOException {
+        CharacterSet characters = new CharacterSet();
+        InputBuffer input = buffer("é\r\n          \r\n".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, 4);
+        assertEquals('é', input.read());
+        assertFalse(input.hasRemaining(characters));
+        assertEquals("\r\n          \r\n", readAll(input));
+    }
+
+    static FileChannel channel(Path directory, byte[] data) throws IOException {
+        Path file = Files.write(directory.resolve("input.edi"), data);
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "ISO-8859-1", "UTF-8", "UTF-16BE", "windows-1252" })
+    void testReadMappedAcrossRegions(String charsetName, @TempDir Path directory) throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        String text = "ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *050812*1953*^*00501*508121953*0*P*:~FTX*Café~";
+
+        try (FileChannel channel = channel(directory, text.getBytes(charset))) {
+            InputBuffer input = new InputBuffer(channel, charset, 7);
+            assertEquals(text, readAll(input));
+        }
+    }
+
+    @Test
+    void testReadMappedFromChannelPosition(@TempDir Path directory) throws IOException {
+        try (FileChannel channel = channel(directory, "skippedISA~".getBytes(StandardCharsets.UTF_8))) {
+            channel.position(7);
+            InputBuffer input = new InputBuffer(channel, StandardCharsets.UTF_8, 2);
+            assertEquals("ISA~", readAll(input));
+        }
+    }
+
+    @Test
+    void testReadBytesMappedFollowingDecodedCharacters(@TempDir Path directory) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write("BIN*5*é".getBytes(StandardCharsets.UTF_8));
+        data.write(new byte[] { 0x00, (byte) 0xC3, 0x7F, 0x01, 0x02 });
+        data.write("~Z".getBytes(StandardCharsets.UTF_8));
+
+        try (FileChannel channel = channel(directory, data.toByteArray())) {
+            InputBuffer input = new InputBuffer(channel, StandardCharsets.UTF_8, 4);
+
+            for (char c : "BIN*5*é".toCharArray()) {
+                assertEquals(c, input.read());
+            }
+
+            byte[] binary = new byte[5];
+            int total = 0;
+            int count;
+
+            while (total < binary.length && (count = input.readBytes(binary, total, binary.length - total)) > 0) {
+                total += count;
+            }
+
+            assertEquals(5, total);
+            assertArrayEquals(new byte[] { 0x00, (byte) 0xC3, 0x7F, 0x01, 0x02 }, binary);
+            assertEquals("~Z", readAll(input));
+            assertEquals(-1, input.readBytes(binary, 0, 1));
+        }
+    }
+
+    @Test
+    void testHasRemainingMapped(@TempDir Path directory) throws IOException {
+        CharacterSet characters = new CharacterSet();
+
+        try (FileChannel channel = channel(directory, "IEA~\r\n      \r\n".getBytes(StandardCharsets.UTF_8))) {
+            InputBuffer input = new InputBuffer(channel, StandardCharsets.UTF_8, 3);
+            assertTrue(input.hasRemaining(characters));
+            assertEquals('I', input.read());
+            assertEquals('E', input.read());
+            assertEquals('A', input.read());
+            assertEquals('~', input.read());
+            assertFalse(input.hasRemaining(characters));
+            assertEquals("\r\n      \r\n", readAll(input));
+        }
+    }
+}
@@ -16,14 +16,17 @@
 package io.xlate.edi.internal.stream.tokenization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.nio.charset.MalformedInputException;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
@@ -98,6 +101,14 @@ class LexerTest {
             return true;
         }
 
+        @Override
+        public boolean textData(CharSequence text, Reader stream) {
+            content.put("LAST", "textData");
+            content.put("ELEMENT", text.toString());
+            content.put("STREAM", stream);
+            return true;
+        }
+
         @Override
         public boolean binaryData(InputStream binary) {
             return true;
@@ -169,6 +180,12 @@ class LexerTest {
             return true;
         }
 
+        @Override
+        public boolean textData(CharSequence text, Reader stream) {
+            element = text.toString();
+            return true;
+        }
+
         @Override
         public boolean binaryData(InputStream binary) {
             return true;
@@ -382,8 +399,9 @@ class LexerTest {
             lexer.parse(); // Interchange start through end of ISA + GS start tag
         }
 
-        EDIException thrown = assertThrows(EDIException.class, lexer::parse);
-        assertTrue(thrown.getMessage().contains("EDIE005"));
+        // The incomplete character is reported rather than treated as the end of input
+        MalformedInputException thrown = assertThrows(MalformedInputException.class, lexer::parse);
+        assertEquals("Input length = 1", thrown.getMessage());
     }
 
     @Test
@@ -399,6 +417,24 @@ class LexerTest {
         assertEquals("Input length = 1", thrown.getMessage());
     }
 
+    @Test
+    void testTruncatedUtf8CharacterAtEndOfInput() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write("ISA*00*          *00*          *ZZ*ReceiverID     *ZZ*Sender         *050812*1953*^*00501*508121953*0*P*:~GS*A".getBytes(StandardCharsets.UTF_8));
+        bytes.write("\u20AC".getBytes(StandardCharsets.UTF_8), 0, 2);
+        InputStream stream = new ByteArrayInputStream(bytes.toByteArray());
+        TestLexerEventHandler eventHandler = new TestLexerEventHandler();
+        final StaEDIStreamLocation location = new StaEDIStreamLocation();
+        final Lexer lexer = new Lexer(stream, StandardCharsets.UTF_8, eventHandler, location, false);
+
+        MalformedInputException thrown = assertThrows(MalformedInputException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                lexer.parse();
+            }
+        });
+        assertEquals("Input length = 2", thrown.getMessage());
+    }
+
     @Test
     void testPreviousStateRetainedWhenInvalidateInvoked() {
         InputStream stream = new ByteArrayInputStream(new byte[0]);
@@ -415,4 +451,37 @@ class LexerTest {
             assertEquals(State.INITIAL, lexer.previousState());
         }
     }
+
+    @Test
+    void testSkipSegmentHonorsReleaseCharacter() throws EDIException, IOException {
+        InputStream stream = new ByteArrayInputStream(("UNB+UNOA:3+005435656:1+006415160:1+060515:1434+00000000000778'"
+                + "FTX+AAA+++a?'b:c?:d?+e'"
+                + "DTM+3:20060515:102'"
+                + "UNZ+1+00000000000778'").getBytes(StandardCharsets.UTF_8));
+        TestLexerEventHandler eventHandler = new TestLexerEventHandler();
+        final StaEDIStreamLocation location = new StaEDIStreamLocation();
+        final Lexer lexer = new Lexer(stream, StandardCharsets.UTF_8, eventHandler, location, false);
+
+        // Unable to skip before the start of a segment
+        assertFalse(lexer.skipSegment());
+
+        do {
+            lexer.parse();
+        } while (!"FTX".equals(eventHandler.content.get("SEGMENT")));
+
+        assertEquals("segmentBegin", eventHandler.content.get("LAST"));
+        assertTrue(lexer.skipSegment());
+        assertEquals("segmentEnd", eventHandler.content.get("LAST"));
+        assertEquals(85, location.getCharacterOffset());
+
+        lexer.parse();
+        assertEquals("segmentBegin", eventHandler.content.get("LAST"));
+        assertEquals("DTM", eventHandler.content.get("SEGMENT"));
+
+        do {
+            lexer.parse();
+        } while (!"elementData".equals(eventHandler.content.get("LAST")));
+
+        assertEquals("3", eventHandler.content.get("ELEMENT"));
+    }
 }
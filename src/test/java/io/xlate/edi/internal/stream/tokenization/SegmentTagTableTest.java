@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.tokenization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import io.xlate.edi.internal.schema.SchemaUtils;
+import io.xlate.edi.schema.EDISchemaException;
+import io.xlate.edi.schema.Schema;
+import io.xlate.edi.stream.EDIStreamConstants.Standards;
+
+class SegmentTagTableTest {
+
+    @Test
+    void testInternReturnsCanonicalInstance() {
+        SegmentTagTable table = new SegmentTagTable();
+        char[] text = "xxBEGxxBEGxxBE".toCharArray();
+
+        String first = table.intern(text, 2, 3);
+        String second = table.intern(text, 7, 3);
+        String partial = table.intern(text, 12, 2);
+
+        assertEquals("BEG", first);
+        assertSame(first, second);
+        assertEquals("BE", partial);
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testInternSeededFromSchema() throws EDISchemaException {
+        Schema control = SchemaUtils.getControlSchema(Standards.X12, new String[] { "00501" });
+        SegmentTagTable table = new SegmentTagTable();
+        table.addAll(control);
+        int seeded = table.size();
+        table.addAll(control);
+
+        assertEquals(seeded, table.size());
+        assertSame(control.getType("ISA").getId(), table.intern("ISA".toCharArray(), 0, 3));
+        assertSame(control.getType("GS").getId(), table.intern("GS".toCharArray(), 0, 2));
+        assertEquals(seeded, table.size());
+    }
+
+    @Test
+    void testTableGrowthRetainsTags() {
+        SegmentTagTable table = new SegmentTagTable();
+        String[] tags = new String[1000];
+
+        for (int i = 0; i < tags.length; i++) {
+            char[] text = String.format("T%03d", i).toCharArray();
+            tags[i] = table.intern(text, 0, text.length);
+        }
+
+        assertEquals(tags.length, table.size());
+
+        for (int i = 0; i < tags.length; i++) {
+            char[] text = String.format("T%03d", i).toCharArray();
+            assertSame(tags[i], table.intern(text, 0, text.length));
+        }
+    }
+
+    @Test
+    void testTableSizeLimited() {
+        SegmentTagTable table = new SegmentTagTable();
+
+        for (int i = 0; i < SegmentTagTable.MAX_SIZE + 10; i++) {
+            char[] text = String.format("%05d", i).toCharArray();
+            table.intern(text, 0, text.length);
+        }
+
+        assertEquals(SegmentTagTable.MAX_SIZE, table.size());
+        char[] text = String.format("%05d", SegmentTagTable.MAX_SIZE + 5).toCharArray();
+        assertNotSame(table.intern(text, 0, text.length), table.intern(text, 0, text.length));
+    }
+
+    @Test
+    void testSeedingSizeLimited() throws EDISchemaException {
+        Schema control = SchemaUtils.getControlSchema(Standards.X12, new String[] { "00501" });
+        SegmentTagTable table = new SegmentTagTable();
+
+        for (int i = 0; i < SegmentTagTable.MAX_SIZE; i++) {
+            char[] text = String.format("%05d", i).toCharArray();
+            table.intern(text, 0, text.length);
+        }
+
+        table.addAll(control);
+        assertEquals(SegmentTagTable.MAX_SIZE, table.size());
+        assertNotSame(control.getType("ISA").getId(), table.intern("ISA".toCharArray(), 0, 3));
+    }
+}
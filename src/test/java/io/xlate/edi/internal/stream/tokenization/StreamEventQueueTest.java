@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright 2017 xlate.io LLC, http://www.xlate.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package io.xlate.edi.internal.stream.tokenization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+class StreamEventQueueTest {
+
+    static List<StreamEvent> events(int count) {
+        List<StreamEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new StreamEvent());
+        }
+        return events;
+    }
+
+    static List<StreamEvent> contents(Iterator<StreamEvent> cursor) {
+        List<StreamEvent> contents = new ArrayList<>();
+        cursor.forEachRemaining(contents::add);
+        return contents;
+    }
+
+    @Test
+    void testEmptyQueue() {
+        StreamEventQueue queue = new StreamEventQueue();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peekFirst());
+        assertNull(queue.peekLast());
+        assertThrows(NoSuchElementException.class, queue::getFirst);
+        assertThrows(NoSuchElementException.class, queue::getLast);
+        assertThrows(NoSuchElementException.class, queue::removeFirst);
+    }
+
+    @Test
+    void testAddRemoveAcrossGrowth() {
+        StreamEventQueue queue = new StreamEventQueue();
+        List<StreamEvent> events = events(StreamEventQueue.INITIAL_CAPACITY * 3);
+
+        // Offset the head so that the ring wraps before growing
+        for (int i = 0; i < 10; i++) {
+            queue.add(events.get(0));
+            queue.removeFirst();
+        }
+
+        events.forEach(queue::add);
+        assertEquals(events.size(), queue.size());
+        assertEquals(events, contents(queue.iterator()));
+        assertSame(events.get(events.size() - 1), queue.getLast());
+
+        for (StreamEvent event : events) {
+            assertSame(event, queue.removeFirst());
+        }
+
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testInsertAtPositionAfterRemovals() {
+        StreamEventQueue queue = new StreamEventQueue();
+        List<StreamEvent> events = events(6);
+
+        queue.add(events.get(0));
+        queue.add(events.get(1));
+        queue.add(events.get(2));
+        long successor = queue.lastPosition();
+        queue.add(events.get(3));
+
+        assertSame(events.get(0), queue.removeFirst());
+
+        queue.insert(successor, events.get(4));
+        queue.insert(successor + 1, events.get(5));
+
+        List<StreamEvent> expected = new ArrayList<>();
+        expected.add(events.get(1));
+        expected.add(events.get(4));
+        expected.add(events.get(5));
+        expected.add(events.get(2));
+        expected.add(events.get(3));
+        assertEquals(expected, contents(queue.iterator()));
+
+        List<StreamEvent> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        assertEquals(reversed, contents(queue.descendingIterator()));
+    }
+
+    @Test
+    void testInsertInvalidPosition() {
+        StreamEventQueue queue = new StreamEventQueue();
+        queue.add(new StreamEvent());
+        long position = queue.lastPosition();
+        queue.removeFirst();
+        StreamEvent event = new StreamEvent();
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.insert(position, event));
+    }
+
+    @Test
+    void testClearRetainsPositions() {
+        StreamEventQueue queue = new StreamEventQueue();
+        List<StreamEvent> events = events(3);
+        queue.add(events.get(0));
+        queue.clear();
+        queue.add(events.get(1));
+        assertEquals(1, queue.lastPosition());
+        queue.insert(queue.lastPosition(), events.get(2));
+        assertSame(events.get(2), queue.getFirst());
+        assertSame(events.get(1), queue.getLast());
+    }
+}
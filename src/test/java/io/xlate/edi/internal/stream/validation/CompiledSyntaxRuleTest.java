@@ -0,0 +1,84 @@
+package io.xlate.edi.internal.stream.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.xlate.edi.schema.EDIReference;
+import io.xlate.edi.schema.EDISyntaxRule.Type;
+import io.xlate.edi.stream.EDIStreamEvent;
+import io.xlate.edi.stream.EDIStreamValidationError;
+
+class CompiledSyntaxRuleTest extends SyntaxValidatorTestBase {
+
+    void verifyConditionErrors(int times) {
+        verify(handler, times(times)).elementError(eq(EDIStreamEvent.ELEMENT_OCCURRENCE_ERROR),
+                                                   eq(EDIStreamValidationError.CONDITIONAL_REQUIRED_DATA_ELEMENT_MISSING),
+                                                   nullable(EDIReference.class),
+                                                   nullable(CharSequence.class),
+                                                   any(Integer.class),
+                                                   any(Integer.class),
+                                                   any(Integer.class));
+    }
+
+    @Test
+    void testPositionsBeyondChildrenIgnored() {
+        when(syntax.getType()).thenReturn(Type.PAIRED);
+        when(syntax.getPositions()).thenReturn(Arrays.asList(5, 2, 3));
+        CompiledSyntaxRule compiled = new CompiledSyntaxRule(syntax, 4);
+
+        assertTrue(compiled.compiled);
+        assertEquals(0b0110L, compiled.positions);
+        assertEquals(0b0010L, compiled.anchor);
+    }
+
+    @Test
+    void testPairedUsingMask() {
+        when(syntax.getType()).thenReturn(Type.PAIRED);
+        when(syntax.getPositions()).thenReturn(Arrays.asList(1, 3, 4));
+        List<UsageNode> children = Arrays.asList(mockUsageNode(true, 1),
+                                                 mockUsageNode(false, 2),
+                                                 mockUsageNode(false, 3),
+                                                 mockUsageNode(true, 4));
+        when(structure.getChildren()).thenReturn(children);
+        CompiledSyntaxRule compiled = new CompiledSyntaxRule(syntax, children.size());
+
+        compiled.validate(structure, usage, 0b1101L, handler);
+        verifyConditionErrors(0);
+
+        compiled.validate(structure, usage, 0b1001L, handler);
+        verifyConditionErrors(1);
+    }
+
+    @Test
+    void testPositionBeyondMaskNotCompiled() {
+        when(syntax.getType()).thenReturn(Type.REQUIRED);
+        when(syntax.getPositions()).thenReturn(Arrays.asList(2, 70));
+        List<UsageNode> children = new ArrayList<>();
+
+        for (int i = 1; i <= 70; i++) {
+            children.add(mockUsageNode(i == 70, i));
+        }
+
+        when(structure.getChildren()).thenReturn(children);
+        CompiledSyntaxRule compiled = new CompiledSyntaxRule(syntax, children.size());
+        assertFalse(compiled.compiled);
+
+        // Mask is ignored, usage of position 70 is read from the node
+        compiled.validate(structure, usage, 0L, handler);
+        verify(handler, never()).elementError(any(), any(), any(), any(), any(Integer.class), any(Integer.class), any(Integer.class));
+    }
+}
@@ -17,11 +17,13 @@ abstract class SyntaxValidatorTestBase {
     protected UsageNode structure;
     protected EDIReference structureRef;
     protected EDIType structureType;
+    protected UsageState usage;
 
     @BeforeEach
     void setUp() {
         syntax = mock(EDISyntaxRule.class);
         handler = mock(ValidationEventHandler.class);
+        usage = mock(UsageState.class);
 
         structureType = mock(EDIType.class);
         when(structureType.getType()).thenReturn(EDIType.Type.SEGMENT);
@@ -42,7 +44,7 @@ abstract class SyntaxValidatorTestBase {
         when(type.getCode()).thenReturn(referenceCode);
         when(typeReference.getReferencedType()).thenReturn(type);
         when(node.getLink()).thenReturn(typeReference);
-        when(node.isUsed()).thenReturn(used);
+        when(node.isUsed(usage)).thenReturn(used);
         when(node.getIndex()).thenReturn(index);
 
         return node;
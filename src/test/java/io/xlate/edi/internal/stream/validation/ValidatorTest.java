@@ -1,8 +1,10 @@
 package io.xlate.edi.internal.stream.validation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -60,4 +62,37 @@ class ValidatorTest {
         assertNull(root.getNextSibling());
         assertNull(root.getSiblingById("TEST"));
     }
+
+    @Test
+    void testUsageTreeSharedByValidators() throws EDISchemaException {
+        SchemaFactory schemaFactory = SchemaFactory.newFactory();
+        Schema schema = schemaFactory.getControlSchema(Standards.X12, new String[] { "00801" });
+        Validator first = new Validator(schema, null, CONFIG);
+        Validator second = new Validator(schema, null, CONFIG);
+
+        assertSame(first.root, second.root);
+    }
+
+    @Test
+    void testUsageStateIndependentPerValidator() throws EDISchemaException {
+        SchemaFactory schemaFactory = SchemaFactory.newFactory();
+        Schema schema = schemaFactory.getControlSchema(Standards.X12, new String[] { "00801" });
+        UsageTree tree = UsageTree.forSchema(schema);
+        UsageState first = new UsageState(tree);
+        UsageState second = new UsageState(tree);
+        UsageNode interchange = tree.root;
+        UsageNode header = interchange.getFirstChild();
+
+        header.incrementUsage(first);
+        interchange.incrementUsage(first);
+        assertTrue(header.isUsed(first));
+        assertFalse(header.isUsed(second));
+
+        interchange.resetChildren(first);
+        assertFalse(header.isUsed(first));
+        assertTrue(interchange.isUsed(first));
+
+        interchange.reset(first);
+        assertFalse(interchange.isUsed(first));
+    }
 }